@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.io.pagecache.impl.CompositePageCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads of records that straddle two pages through a {@link CompositePageCursor}, compared to reading the same amount
+ * of data directly from a single cursor.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompositePageCursorBenchmark extends PageCacheBenchmarkSupport {
+    /**
+     * The number of bytes of the record that are in each of the two pages.
+     */
+    @Param({"64"})
+    public int halfRecordSize;
+
+    private PageCursor first;
+    private PageCursor second;
+
+    @Setup(Level.Iteration)
+    public void pinPages() throws IOException {
+        first = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT);
+        second = pagedFile.io(1, PF_SHARED_READ_LOCK, NULL_CONTEXT);
+        first.next();
+        second.next();
+    }
+
+    @TearDown(Level.Iteration)
+    public void unpinPages() {
+        first.close();
+        second.close();
+    }
+
+    @Benchmark
+    public long compositeRead() throws IOException {
+        long sum;
+        do {
+            first.setOffset(pagedFile.payloadSize() - halfRecordSize);
+            second.setOffset(0);
+            PageCursor cursor = CompositePageCursor.compose(first, halfRecordSize, second, halfRecordSize);
+            sum = readRecord(cursor);
+        } while (first.shouldRetry() | second.shouldRetry());
+        return sum;
+    }
+
+    @Benchmark
+    public long directRead() throws IOException {
+        long sum;
+        do {
+            first.setOffset(0);
+            sum = readRecord(first);
+        } while (first.shouldRetry());
+        return sum;
+    }
+
+    private long readRecord(PageCursor cursor) {
+        long sum = 0;
+        for (int i = 0; i < halfRecordSize * 2; i += Long.BYTES) {
+            sum += cursor.getLong();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.eclipse.collections.impl.factory.Sets.immutable;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Base state of the page cache benchmarks, with a page cache and a mapped file that is filled with data.
+ * <p>
+ * The file system is either the in-memory {@link EphemeralFileSystemAbstraction}, which measures the page cache alone,
+ * or the default file system on a temporary directory, which includes the cost of the swapper doing real IO. The file
+ * can be made smaller or larger than the page cache, where the latter makes the benchmarks include eviction.
+ */
+@State(Scope.Benchmark)
+public abstract class PageCacheBenchmarkSupport {
+    @Param({"ephemeral", "real"})
+    public String fileSystem;
+
+    @Param({"1024"})
+    public int cachePages;
+
+    @Param({"512", "8192"})
+    public int filePages;
+
+    protected PagedFile pagedFile;
+
+    private FileSystemAbstraction fs;
+    private Path directory;
+    private ThreadPoolJobScheduler jobScheduler;
+    private MemoryAllocator allocator;
+    private MuninnPageCache pageCache;
+
+    @Setup(Level.Trial)
+    public void setUpPageCache() throws IOException {
+        if ("ephemeral".equals(fileSystem)) {
+            fs = new EphemeralFileSystemAbstraction();
+            directory = Path.of("benchmark").toAbsolutePath();
+            fs.mkdirs(directory);
+        } else {
+            fs = new DefaultFileSystemAbstraction();
+            directory = Files.createTempDirectory("pagecache-benchmark");
+        }
+        jobScheduler = new ThreadPoolJobScheduler();
+        allocator = MemoryAllocator.createAllocator(
+                MuninnPageCache.memoryRequiredForPages(cachePages), EmptyMemoryTracker.INSTANCE);
+        var swapperFactory = new SingleFilePageSwapperFactory(fs, PageCacheTracer.NULL, EmptyMemoryTracker.INSTANCE);
+        pageCache = new MuninnPageCache(swapperFactory, jobScheduler, MuninnPageCache.config(allocator));
+        pagedFile = pageCache.map(
+                directory.resolve("file"), pageCache.pageSize(), DEFAULT_DATABASE_NAME, immutable.of(CREATE));
+
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            for (int i = 0; i < filePages; i++) {
+                cursor.next();
+                while (cursor.getOffset() < pagedFile.payloadSize()) {
+                    cursor.putLong(i);
+                }
+            }
+        }
+        pagedFile.flushAndForce(FileFlushEvent.NULL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownPageCache() throws Exception {
+        pagedFile.close();
+        pageCache.close();
+        allocator.close();
+        jobScheduler.close();
+        if (fs instanceof DefaultFileSystemAbstraction) {
+            FileUtils.deleteDirectory(directory);
+        }
+        fs.close();
+    }
+}
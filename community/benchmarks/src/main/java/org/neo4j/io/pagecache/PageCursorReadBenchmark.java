@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read pins through {@link PageCursor#next()} and {@link PageCursor#next(long)}, including the retry loop of
+ * optimistic reads. When the file is larger than the page cache, the reads also fault pages in and evict others.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageCursorReadBenchmark extends PageCacheBenchmarkSupport {
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public long sequentialScan() throws IOException {
+        long sum = 0;
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+            while (cursor.next()) {
+                sum += readPage(cursor);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long randomPin() throws IOException {
+        long pageId = ThreadLocalRandom.current().nextInt(filePages);
+        try (PageCursor cursor = pagedFile.io(pageId, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+            cursor.next();
+            return readPage(cursor);
+        }
+    }
+
+    private static long readPage(PageCursor cursor) throws IOException {
+        long first;
+        long last;
+        do {
+            first = cursor.getLong(0);
+            last = cursor.getLong(cursor.getPagedFile().payloadSize() - Long.BYTES);
+        } while (cursor.shouldRetry());
+        return first + last;
+    }
+}
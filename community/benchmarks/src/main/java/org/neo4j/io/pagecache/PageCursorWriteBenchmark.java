@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Write pins of random pages, and flushing of dirty pages with {@link PagedFile#flushAndForce(FileFlushEvent)}.
+ * <p>
+ * When the file is larger than the page cache, the writers keep dirtying pages that the background eviction thread
+ * has to flush before it can evict them, and that the writers themselves have to evict when the free-list runs dry.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageCursorWriteBenchmark extends PageCacheBenchmarkSupport {
+    /**
+     * The number of pages {@link #flushAndForce()} dirties before each flush.
+     */
+    @Param({"64"})
+    public int dirtyPages;
+
+    @Benchmark
+    @Threads(4)
+    public void randomWrite() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long pageId = random.nextInt(filePages);
+        try (PageCursor cursor = pagedFile.io(pageId, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            cursor.next();
+            cursor.putLong(random.nextInt(pagedFile.payloadSize() / Long.BYTES) * Long.BYTES, pageId);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public void flushAndForce() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            for (int i = 0; i < dirtyPages; i++) {
+                long pageId = random.nextInt(filePages);
+                cursor.next(pageId);
+                cursor.putLong(0, pageId);
+            }
+        }
+        pagedFile.flushAndForce(FileFlushEvent.NULL);
+    }
+}
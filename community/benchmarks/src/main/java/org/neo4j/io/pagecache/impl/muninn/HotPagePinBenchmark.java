@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+import java.util.concurrent.TimeUnit;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the optimistic read pins of a hot page, like a GBPTree root, while an eviction sweeper keeps aging the
+ * pages of a page list, compared to the same read pins without a sweeper.
+ * <p>
+ * Optimistic read pins only read the {@link OffHeapPageLock} lock word, so the usage counter in the page binding word
+ * is the only page meta-data they write to. Read pins skip that write while the counter is maxed out, so the readers
+ * only contend on the meta-data cache line of the hot page after the sweeper has aged it. In the
+ * {@code agedBySweeper} group the sweeper decrements the usage counter on every visit, which makes the readers write
+ * the lock word's cache line once every lap. In the {@code markedHotBySweeper} group the sweeper marks the page
+ * as hot instead, like the CLOCK sweeper does, so the readers only write it once every four laps. The difference to
+ * the {@code notAged} group is the cost of that contention.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotPagePinBenchmark {
+    /**
+     * The number of pages in the page list that the sweeper visits. The hot page is aged once per lap.
+     */
+    @Param({"1", "1024"})
+    public int pages;
+
+    /**
+     * The amount of work the sweeper does for each page it visits, in {@link Blackhole#consumeCPU} tokens.
+     */
+    @Param({"10", "1000"})
+    public long sweepWork;
+
+    /**
+     * The amount of work the readers do between their read pins, in {@link Blackhole#consumeCPU} tokens.
+     */
+    @Param({"0", "100"})
+    public long readWork;
+
+    private long metaData;
+    private long hotPageRef;
+    private int sweepIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        metaData = UnsafeUtil.allocateMemory(metaDataBytes(), INSTANCE);
+        UnsafeUtil.setMemory(metaData, metaDataBytes(), (byte) 0);
+        hotPageRef = pageRef(pages / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        UnsafeUtil.free(metaData, metaDataBytes(), INSTANCE);
+    }
+
+    @Benchmark
+    @Group("agedBySweeper")
+    @GroupThreads(63)
+    public boolean pinAgedBySweeper() {
+        return pin();
+    }
+
+    @Benchmark
+    @Group("agedBySweeper")
+    @GroupThreads(1)
+    public boolean sweep() {
+        return PageList.decrementUsage(nextSweptPage());
+    }
+
+    @Benchmark
+    @Group("markedHotBySweeper")
+    @GroupThreads(63)
+    public boolean pinMarkedHotBySweeper() {
+        return pin();
+    }
+
+    @Benchmark
+    @Group("markedHotBySweeper")
+    @GroupThreads(1)
+    public boolean sweepMarkingHotPages() {
+        return PageList.sweepUsage(nextSweptPage());
+    }
+
+    @Benchmark
+    @Group("notAged")
+    @GroupThreads(63)
+    public boolean pinNotAged() {
+        return pin();
+    }
+
+    private boolean pin() {
+        Blackhole.consumeCPU(readWork);
+        long stamp = PageList.tryOptimisticReadLock(hotPageRef);
+        PageList.incrementUsage(hotPageRef);
+        return PageList.validateReadLock(hotPageRef, stamp);
+    }
+
+    private long nextSweptPage() {
+        Blackhole.consumeCPU(sweepWork);
+        long pageRef = pageRef(sweepIndex);
+        sweepIndex = sweepIndex + 1 == pages ? 0 : sweepIndex + 1;
+        return pageRef;
+    }
+
+    private long pageRef(int pageId) {
+        return metaData + (pageId + 1L) * PageList.META_DATA_BYTES_PER_PAGE;
+    }
+
+    private long metaDataBytes() {
+        // Surround the page list with a page on each side, so the hot page always has neighbours, like in a page list.
+        return (long) (pages + 2) * PageList.META_DATA_BYTES_PER_PAGE;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The global lock map operations of {@link ForsetiClient} against the boxing {@link ConcurrentHashMap} that used to
+ * back the lock manager and the primitive {@link LockTable} that replaced it.
+ * <p>
+ * Each operation takes a lock on a random resource the way an uncontended acquire and release does: a lookup, an
+ * insert and a removal. The table is pre-populated with long held locks, so the size of the table can be varied.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LockTableBenchmark {
+    private static final long HELD_LOCK_ID_OFFSET = 1L << 40;
+
+    @Param({"concurrentHashMap", "lockTable"})
+    public String table;
+
+    @Param({"1000", "1000000"})
+    public int heldLocks;
+
+    private Locks locks;
+    private ForsetiLockManager.Lock heldLock;
+
+    @Setup
+    public void setUp() {
+        locks = switch (table) {
+            case "concurrentHashMap" -> new ConcurrentHashMapLocks();
+            case "lockTable" -> new LockTableLocks();
+            default -> throw new IllegalArgumentException(table);};
+        heldLock = new ExclusiveLock(null);
+        for (long i = 0; i < heldLocks; i++) {
+            locks.putIfAbsent(HELD_LOCK_ID_OFFSET + i, heldLock);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Resources {
+        private final SplittableRandom random = new SplittableRandom();
+
+        long next() {
+            return random.nextLong(HELD_LOCK_ID_OFFSET);
+        }
+    }
+
+    @Benchmark
+    public void acquireAndRelease(Resources resources, Blackhole bh) {
+        long resourceId = resources.next();
+        bh.consume(locks.get(resourceId));
+        bh.consume(locks.putIfAbsent(resourceId, heldLock));
+        bh.consume(locks.remove(resourceId));
+    }
+
+    @Benchmark
+    public void lookupHeld(Resources resources, Blackhole bh) {
+        bh.consume(locks.get(HELD_LOCK_ID_OFFSET + (resources.next() % heldLocks)));
+    }
+
+    private interface Locks {
+        ForsetiLockManager.Lock get(long resourceId);
+
+        ForsetiLockManager.Lock putIfAbsent(long resourceId, ForsetiLockManager.Lock lock);
+
+        ForsetiLockManager.Lock remove(long resourceId);
+    }
+
+    private static class ConcurrentHashMapLocks implements Locks {
+        private final ConcurrentHashMap<Long, ForsetiLockManager.Lock> map = new ConcurrentHashMap<>(16, 0.6f, 512);
+
+        @Override
+        public ForsetiLockManager.Lock get(long resourceId) {
+            return map.get(resourceId);
+        }
+
+        @Override
+        public ForsetiLockManager.Lock putIfAbsent(long resourceId, ForsetiLockManager.Lock lock) {
+            return map.putIfAbsent(resourceId, lock);
+        }
+
+        @Override
+        public ForsetiLockManager.Lock remove(long resourceId) {
+            return map.remove(resourceId);
+        }
+    }
+
+    private static class LockTableLocks implements Locks {
+        private final LockTable lockTable = new LockTable();
+
+        @Override
+        public ForsetiLockManager.Lock get(long resourceId) {
+            return lockTable.get(resourceId);
+        }
+
+        @Override
+        public ForsetiLockManager.Lock putIfAbsent(long resourceId, ForsetiLockManager.Lock lock) {
+            return lockTable.putIfAbsent(resourceId, lock);
+        }
+
+        @Override
+        public ForsetiLockManager.Lock remove(long resourceId) {
+            return lockTable.remove(resourceId);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import static org.neo4j.io.pagecache.tracing.PageCacheTracer.NULL;
+import static org.neo4j.kernel.impl.transaction.log.LogPosition.UNSPECIFIED;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.io.fs.WritableChannel;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.context.EmptyVersionContextSupplier;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.lock.LockGroup;
+import org.neo4j.lock.LockService;
+import org.neo4j.lock.LockType;
+import org.neo4j.storageengine.api.CommandStream;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Recovery of a synthetic log by the serial {@link RecoveryVisitor} and the {@link ParallelRecoveryVisitor}.
+ * <p>
+ * Each transaction touches a few nodes picked at random from a node space, so a small node space gives long chains
+ * of dependent transactions and a large one gives mostly independent transactions. Applying a transaction burns a
+ * fixed amount of CPU instead of writing to a store, so the benchmark measures how well the appliers overlap.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecoveryApplierBenchmark {
+    private static final int TRANSACTIONS = 10_000;
+    private static final int NODES_PER_TRANSACTION = 4;
+
+    @Param({"serial", "parallel"})
+    public String applier;
+
+    @Param({"16", "1000000"})
+    public int nodeSpace;
+
+    @Param({"1000"})
+    public long applyCostTokens;
+
+    private final CursorContextFactory contextFactory =
+            new CursorContextFactory(NULL, EmptyVersionContextSupplier.EMPTY);
+    private final List<CommittedTransactionRepresentation> transactions = new ArrayList<>(TRANSACTIONS);
+    private StorageEngine storageEngine;
+
+    @Setup(Level.Trial)
+    public void createSyntheticLog() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (long txId = 2; txId < TRANSACTIONS + 2; txId++) {
+            List<StorageCommand> commands = new ArrayList<>(NODES_PER_TRANSACTION);
+            for (int i = 0; i < NODES_PER_TRANSACTION; i++) {
+                commands.add(new NodeCommand(random.nextInt(nodeSpace)));
+            }
+            transactions.add(new CommittedTransactionRepresentation(
+                    new LogEntryStart(0, 0, 0, new byte[0], UNSPECIFIED),
+                    new PhysicalTransactionRepresentation(commands),
+                    new LogEntryCommit(txId, 0, 0)));
+        }
+        storageEngine = syntheticStorageEngine(applyCostTokens);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSACTIONS)
+    public void recover() throws Exception {
+        try (RecoveryApplier recoveryApplier = "parallel".equals(applier)
+                ? new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "benchmark", 4)
+                : new RecoveryVisitor(storageEngine, RECOVERY, contextFactory, "benchmark")) {
+            for (CommittedTransactionRepresentation transaction : transactions) {
+                recoveryApplier.visit(transaction);
+            }
+        }
+    }
+
+    /**
+     * Only the parts of {@link StorageEngine} that the recovery appliers use are implemented: recovery locks are
+     * taken on the nodes of the {@link NodeCommand}s, and applying a transaction consumes CPU.
+     */
+    private static StorageEngine syntheticStorageEngine(long applyCostTokens) {
+        return (StorageEngine) Proxy.newProxyInstance(
+                StorageEngine.class.getClassLoader(), new Class<?>[] {StorageEngine.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "lockRecoveryCommands" -> {
+                            LockService lockService = (LockService) args[1];
+                            LockGroup locks = (LockGroup) args[2];
+                            ((CommandStream) args[0]).accept(command -> {
+                                long nodeId = ((NodeCommand) command).nodeId;
+                                locks.add(lockService.acquireNodeLock(nodeId, LockType.EXCLUSIVE));
+                                return false;
+                            });
+                            return null;
+                        }
+                        case "apply" -> {
+                            Blackhole.consumeCPU(applyCostTokens);
+                            return null;
+                        }
+                        case "createStorageCursors" -> {
+                            return StoreCursors.NULL;
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static class NodeCommand implements StorageCommand {
+        private final long nodeId;
+
+        NodeCommand(long nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        @Override
+        public void serialize(WritableChannel channel) throws IOException {
+            // never written
+        }
+
+        @Override
+        public KernelVersion version() {
+            return KernelVersion.LATEST;
+        }
+    }
+}
@@ -46,12 +46,15 @@ public enum KernelVersion {
     // Also introduces token index and relationship property index features.
     V4_3_D4((byte) 3),
     V4_4((byte) 4), // 4.4. Introduces RANGE, POINT and TEXT index types.
-    V5_0((byte) 5); // 5.0.
+    V5_0((byte) 5), // 5.0.
+    V5_1((byte) 6); // 5.1. Introduces compressed transaction log entries.
 
     public static final KernelVersion EARLIEST = V4_2;
-    public static final KernelVersion LATEST = V5_0;
+    public static final KernelVersion LATEST = V5_1;
     public static final KernelVersion VERSION_IN_WHICH_TOKEN_INDEXES_ARE_INTRODUCED = V4_3_D4;
     public static final KernelVersion VERSION_LITTLE_ENDIAN_TX_LOG_INTRODUCED = V5_0;
+    public static final KernelVersion VERSION_COMPRESSED_COMMANDS_INTRODUCED = V5_1;
+    public static final KernelVersion VERSION_CHUNKED_TRANSACTIONS_INTRODUCED = V5_1;
     private static final ImmutableByteObjectMap<KernelVersion> versionMap =
             ByteObjectMaps.immutable.from(List.of(values()), KernelVersion::version, v -> v);
 
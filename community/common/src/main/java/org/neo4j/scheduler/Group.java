@@ -48,6 +48,8 @@ public enum Group {
     INDEX_CLEANUP("IndexCleanup"),
     /** Index recovery cleanup work. */
     INDEX_CLEANUP_WORK("IndexCleanupWork"),
+    /** Finds deadlocks between lock clients in the background. */
+    LOCK_MANAGER("LockManager"),
     /** Terminates kernel transactions that have timed out. */
     TRANSACTION_TIMEOUT_MONITOR("TransactionTimeoutMonitor"),
     /** Background index population. */
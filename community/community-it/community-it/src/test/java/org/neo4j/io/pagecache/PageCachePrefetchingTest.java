@@ -19,11 +19,13 @@
  */
 package org.neo4j.io.pagecache;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.eclipse.collections.api.factory.Sets.immutable;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.kernel.impl.store.format.RecordFormatSelector.defaultFormat;
+import static org.neo4j.test.assertion.Assert.assertEventually;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -57,13 +59,14 @@ class PageCachePrefetchingTest {
     PageCache pageCache;
 
     private Path file;
+    private DefaultPageCacheTracer pageCacheTracer;
     private CursorContext cursorContext;
     private Consumer<PageCursor> scanner;
 
     @BeforeEach
     void setUp() {
         file = dir.createFile("file");
-        var pageCacheTracer = new DefaultPageCacheTracer();
+        pageCacheTracer = new DefaultPageCacheTracer();
         var cursorContextFactory = new CursorContextFactory(pageCacheTracer, EmptyVersionContextSupplier.EMPTY);
         cursorContext = cursorContextFactory.create("test");
     }
@@ -117,6 +120,60 @@ class PageCachePrefetchingTest {
         assertThat(faultsWithPreFetch).as("faults").isLessThan(faultsWithoutPreFetch);
     }
 
+    @Test
+    void stridedScanningWithPreFetcherMustGiveScannerFewerPageFaults() throws Exception {
+        scanner = cursor -> cursor.putBytes(PageCache.PAGE_SIZE, (byte) 0xA7);
+        runScan(file, cursorContext, "Warmup", PF_READ_AHEAD);
+
+        long faultsWithPreFetch = runStridedScan(file, cursorContext, "Strided Scanner With Prefetch", PF_READ_AHEAD);
+        long faultsWithoutPreFetch = runStridedScan(file, cursorContext, "Strided Scanner Without Prefetch", 0);
+
+        assertThat(faultsWithPreFetch).as("faults").isLessThan(faultsWithoutPreFetch);
+    }
+
+    @Test
+    void preFetcherMustReportItsPageFaultsToTheTracer() throws Exception {
+        scanner = cursor -> cursor.putBytes(PageCache.PAGE_SIZE, (byte) 0xA7);
+        runScan(file, cursorContext, "Warmup", PF_READ_AHEAD);
+        cursorContext.getCursorTracer().reportEvents();
+        long faultsBefore = pageCacheTracer.faults();
+
+        runScan(file, cursorContext, "Scanner With Prefetch", PF_READ_AHEAD);
+
+        // The scanner has not reported its own faults yet, so these can only come from the pre-fetcher, which reports
+        // them when it is done.
+        assertEventually(() -> pageCacheTracer.faults(), faults -> faults > faultsBefore, 1, MINUTES);
+        assertEventually(() -> pageCacheTracer.pins() == pageCacheTracer.unpins(), pinned -> pinned, 1, MINUTES);
+    }
+
+    private long runStridedScan(Path file, CursorContext cursorContext, String threadName, int additionalPfFlags)
+            throws Exception {
+        long[] faults = new long[1];
+        Thread thread = new Thread(
+                () -> {
+                    try (PagedFile pagedFile = pageCache.map(file, PageCache.PAGE_SIZE, DEFAULT_DATABASE_NAME)) {
+                        cursorContext.getCursorTracer().reportEvents();
+                        for (int i = 0; i < 5; i++) {
+                            try (PageCursor cursor =
+                                    pagedFile.io(0, PagedFile.PF_SHARED_READ_LOCK | additionalPfFlags, cursorContext)) {
+                                for (long pageId = 0; cursor.next(pageId); pageId += 3) {
+                                    do {
+                                        cursor.getBytes(new byte[PageCache.PAGE_SIZE]);
+                                    } while (cursor.shouldRetry());
+                                }
+                            }
+                        }
+                        faults[0] = cursorContext.getCursorTracer().faults();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                threadName);
+        thread.start();
+        thread.join();
+        return faults[0];
+    }
+
     private long runScan(Path file, CursorContext cursorContext, String threadName, int additionalPfFlags)
             throws InterruptedException {
         long faultsWith;
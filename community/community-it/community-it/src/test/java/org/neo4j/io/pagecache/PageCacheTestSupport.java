@@ -131,8 +131,7 @@ public abstract class PageCacheTestSupport<T extends PageCache> {
         return createPageCache(swapperFactory, maxPages, tracer);
     }
 
-    protected SingleFilePageSwapperFactory createDefaultPageSwapperFactory(
-            FileSystemAbstraction fs, PageCacheTracer tracer) {
+    protected PageSwapperFactory createDefaultPageSwapperFactory(FileSystemAbstraction fs, PageCacheTracer tracer) {
         return new SingleFilePageSwapperFactory(fs, tracer, EmptyMemoryTracker.INSTANCE);
     }
 
@@ -522,6 +522,39 @@ public abstract class PageSwapperTest {
         assertThat(getInt(result, 0)).isEqualTo(0);
     }
 
+    @Test
+    void batchedWriteMustWriteEveryVectorAtItsOwnPosition() throws Exception {
+        Path file = file("file");
+        PageSwapperFactory factory = createSwapperFactory(getFs());
+        PageSwapper swapper = createSwapperAndFile(factory, file, 4);
+
+        long pageA = createPage(4);
+        long pageB = createPage(4);
+        long pageC = createPage(4);
+
+        putInt(pageA, 0, 2);
+        putInt(pageB, 0, 3);
+        putInt(pageC, 0, 4);
+
+        int pageSize = 4 + RESERVED_BYTES;
+        long bytesWritten = swapper.write(
+                new long[] {0, 3},
+                new int[] {1, 2},
+                2,
+                new long[] {pageA, pageB, pageC},
+                new int[] {pageSize, pageSize, pageSize},
+                3);
+        assertThat(bytesWritten).isEqualTo(3L * pageSize);
+
+        long result = createPage(4);
+        int[] expectedValues = {2, 0, 0, 3, 4};
+        for (int filePageId = 0; filePageId < expectedValues.length; filePageId++) {
+            putInt(result, 0, -1);
+            read(swapper, filePageId, result);
+            assertThat(getInt(result, 0)).isEqualTo(expectedValues[filePageId]);
+        }
+    }
+
     @Test
     void positionedVectoredWriteMustFlushAllBuffersOfDifferentSizeInOrder() throws Exception {
         assumeThat(RESERVED_BYTES).isEqualTo(0);
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.memory.EmptyMemoryTracker;
+
+/**
+ * Runs the swapper test suite on the real file system, where the swappers have file descriptors that they can do their
+ * IO through io_uring with. Where io_uring is not available, the suite instead checks the fallback to channel IO.
+ */
+@EnabledOnOs(OS.LINUX)
+public class IoUringPageSwapperTest extends SingleFilePageSwapperTest {
+    @Override
+    protected PageSwapperFactory swapperFactory(FileSystemAbstraction fileSystem) {
+        return new IoUringPageSwapperFactory(fileSystem, new DefaultPageCacheTracer(), EmptyMemoryTracker.INSTANCE);
+    }
+
+    @Override
+    protected Path getPath() {
+        return testDir.file(super.getPath().getFileName().toString());
+    }
+
+    @Override
+    protected FileSystemAbstraction getFs() {
+        return getRealFileSystem();
+    }
+
+    @Test
+    void swappersMustBatchWritesWhenIoUringIsAvailable() throws Exception {
+        var swapper = createSwapper(createSwapperFactory(getFs()), getPath(), PAYLOAD_SIZE, NO_CALLBACK, true);
+        assertThat(swapper.canBatchWrites()).isEqualTo(IoUringPageSwapperFactory.isAvailable());
+    }
+
+    @Test
+    void swappersMustWriteThroughTheirChannelOnceTheFactoryIsClosed() throws Exception {
+        // given
+        var factory = createSwapperFactory(getFs());
+        var swapper = createSwapper(factory, getPath(), 4, NO_CALLBACK, true);
+        long pageA = createPage(4);
+        long pageB = createPage(4);
+        long pageC = createPage(4);
+        putInt(pageA, 0, 2);
+        putInt(pageB, 0, 3);
+        putInt(pageC, 0, 4);
+
+        // when
+        factory.close();
+        int pageSize = 4 + RESERVED_BYTES;
+        long bytesWritten = swapper.write(
+                new long[] {0, 3},
+                new int[] {1, 2},
+                2,
+                new long[] {pageA, pageB, pageC},
+                new int[] {pageSize, pageSize, pageSize},
+                3);
+
+        // then
+        assertThat(bytesWritten).isEqualTo(3L * pageSize);
+        long result = createPage(4);
+        int[] expectedValues = {2, 0, 0, 3, 4};
+        for (int filePageId = 0; filePageId < expectedValues.length; filePageId++) {
+            putInt(result, 0, -1);
+            swapper.read(filePageId, result);
+            assertThat(getInt(result, 0)).isEqualTo(expectedValues[filePageId]);
+        }
+    }
+}
@@ -1395,6 +1395,71 @@ public class AbstractPageListTest {
         assertTrue(PageList.decrementUsage(pageRef));
     }
 
+    @ParameterizedTest(name = "pageRef = {0}")
+    @MethodSource("argumentsProvider")
+    public void sweepingMustMarkPagesWithMaxedOutUsageCounterAsHot(int pageId) {
+        init(pageId);
+
+        for (int i = 0; i < 4; i++) {
+            PageList.incrementUsage(pageRef);
+        }
+        assertFalse(PageList.sweepUsage(pageRef));
+        assertThat(PageList.getUsage(pageRef)).isEqualTo(7);
+        PageList.incrementUsage(pageRef);
+        assertThat(PageList.getUsage(pageRef)).isEqualTo(7);
+        assertFalse(PageList.sweepUsage(pageRef));
+        assertFalse(PageList.sweepUsage(pageRef));
+        assertFalse(PageList.sweepUsage(pageRef));
+        assertThat(PageList.getUsage(pageRef)).isEqualTo(3);
+        assertTrue(PageList.decrementUsage(prevPageRef));
+        assertTrue(PageList.decrementUsage(nextPageRef));
+    }
+
+    @ParameterizedTest(name = "pageRef = {0}")
+    @MethodSource("argumentsProvider")
+    public void sweepingMustMarkHotPagesAgainWhenUsedAfterTheirExtraUsageIsSpent(int pageId) {
+        init(pageId);
+
+        for (int i = 0; i < 4; i++) {
+            PageList.incrementUsage(pageRef);
+        }
+        for (int i = 0; i < 4; i++) {
+            assertFalse(PageList.sweepUsage(pageRef));
+        }
+        PageList.incrementUsage(pageRef);
+        assertFalse(PageList.sweepUsage(pageRef));
+        assertThat(PageList.getUsage(pageRef)).isEqualTo(7);
+    }
+
+    @ParameterizedTest(name = "pageRef = {0}")
+    @MethodSource("argumentsProvider")
+    public void sweepingMustEvictUnusedHotPagesOnceTheirUsageIsSpent(int pageId) {
+        init(pageId);
+
+        for (int i = 0; i < 4; i++) {
+            PageList.incrementUsage(pageRef);
+        }
+        for (int i = 0; i < 6; i++) {
+            assertFalse(PageList.sweepUsage(pageRef));
+        }
+        assertTrue(PageList.sweepUsage(pageRef));
+        assertThat(PageList.getUsage(pageRef)).isZero();
+        assertTrue(PageList.sweepUsage(pageRef));
+    }
+
+    @ParameterizedTest(name = "pageRef = {0}")
+    @MethodSource("argumentsProvider")
+    public void sweepingMustDecrementUsageCounterBelowTheMax(int pageId) {
+        init(pageId);
+
+        PageList.incrementUsage(pageRef);
+        PageList.incrementUsage(pageRef);
+        assertFalse(PageList.sweepUsage(pageRef));
+        assertTrue(PageList.sweepUsage(pageRef));
+        assertTrue(PageList.sweepUsage(pageRef));
+        assertThat(PageList.getFilePageId(pageRef)).isEqualTo(PageCursor.UNBOUND_PAGE_ID);
+    }
+
     @ParameterizedTest(name = "pageRef = {0}")
     @MethodSource("argumentsProvider")
     public void incrementingUsageCounterMustNotInterfereWithAdjacentUsageCounters(int pageId) {
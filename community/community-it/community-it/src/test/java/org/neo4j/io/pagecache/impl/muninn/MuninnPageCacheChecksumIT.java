@@ -43,7 +43,6 @@ import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.io.pagecache.context.EmptyVersionContextSupplier;
-import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
@@ -277,7 +276,7 @@ public class MuninnPageCacheChecksumIT extends PageCacheTestSupport<MuninnPageCa
 
     @Override
     protected MuninnPageCache createPageCache(FileSystemAbstraction fs, int maxPages, PageCacheTracer tracer) {
-        SingleFilePageSwapperFactory swapperFactory = createDefaultPageSwapperFactory(fs, tracer);
+        PageSwapperFactory swapperFactory = createDefaultPageSwapperFactory(fs, tracer);
         PageSwapperFactory pageSwapperFactory =
                 (path,
                         filePageSize,
@@ -33,6 +33,9 @@ import org.neo4j.scheduler.JobScheduler;
 public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnPageCache> {
     CountDownLatch backgroundFlushLatch;
     private MemoryAllocator allocator;
+    private EvictionPolicy evictionPolicy = EvictionPolicy.CLOCK;
+    private int flushThreads = 1;
+    private long compressedTierMemory;
 
     @Override
     public MuninnPageCache createPageCache(
@@ -57,7 +60,10 @@ public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnP
         MuninnPageCache.Configuration configuration = MuninnPageCache.config(allocator)
                 .pageCacheTracer(tracer)
                 .bufferFactory(selectBufferFactory(bufferFactory, memoryTracker))
-                .reservedPageBytes(reservedBytes);
+                .reservedPageBytes(reservedBytes)
+                .evictionPolicy(evictionPolicy)
+                .flushThreads(flushThreads)
+                .compressedTierMemory(compressedTierMemory);
         return new MuninnPageCache(swapperFactory, jobScheduler, configuration);
     }
 
@@ -68,6 +74,21 @@ public class MuninnPageCacheFixture extends PageCacheTestSupport.Fixture<MuninnP
                 : new ConfigurableIOBufferFactory(Config.defaults(), memoryTracker);
     }
 
+    public MuninnPageCacheFixture withEvictionPolicy(EvictionPolicy evictionPolicy) {
+        this.evictionPolicy = evictionPolicy;
+        return this;
+    }
+
+    public MuninnPageCacheFixture withFlushThreads(int flushThreads) {
+        this.flushThreads = flushThreads;
+        return this;
+    }
+
+    public MuninnPageCacheFixture withCompressedTierMemory(long compressedTierMemory) {
+        this.compressedTierMemory = compressedTierMemory;
+        return this;
+    }
+
     @Override
     public void tearDownPageCache(MuninnPageCache pageCache) {
         if (backgroundFlushLatch != null) {
@@ -55,6 +55,10 @@ import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.IntSupplier;
 import java.util.function.LongSupplier;
 import org.apache.commons.lang3.mutable.MutableBoolean;
@@ -71,6 +75,9 @@ import org.neo4j.io.fs.DelegatingFileSystemAbstraction;
 import org.neo4j.io.fs.DelegatingStoreChannel;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.mem.HugePagePolicy;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaPolicy;
 import org.neo4j.io.memory.ByteBuffers;
 import org.neo4j.io.pagecache.DelegatingPageSwapper;
 import org.neo4j.io.pagecache.IOController;
@@ -143,6 +150,92 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache> {
         }
     }
 
+    @Test
+    void frequencyEvictionPolicyMustKeepFrequentlyUsedPagesThroughLargeScan() throws IOException {
+        assertThat(hotPageFaultsAfterScan(EvictionPolicy.FREQUENCY, 4)).isZero();
+        assertThat(hotPageFaultsAfterScan(EvictionPolicy.CLOCK, 4)).isPositive();
+    }
+
+    @Test
+    void frequencyEvictionPolicyMustKeepFrequentlyUsedPagesThroughLargePreFetchedScan() throws IOException {
+        // Pages loaded ahead of the scan, like the pre-fetcher does, must not count as used when the scan gets to them
+        assertThat(hotPageFaultsAfterScan(EvictionPolicy.FREQUENCY, 4, true)).isZero();
+    }
+
+    @Test
+    void frequencyEvictionPolicyMustEventuallyEvictFrequentlyUsedPagesThatAreNoLongerUsed() throws IOException {
+        assertThat(hotPageFaultsAfterScan(EvictionPolicy.FREQUENCY, 100)).isPositive();
+    }
+
+    private long hotPageFaultsAfterScan(EvictionPolicy evictionPolicy, int scanLaps) throws IOException {
+        return hotPageFaultsAfterScan(evictionPolicy, scanLaps, false);
+    }
+
+    private long hotPageFaultsAfterScan(EvictionPolicy evictionPolicy, int scanLaps, boolean loadAheadOfScan)
+            throws IOException {
+        int maxPages = 60;
+        int hotPages = 10;
+        int filePages = maxPages * scanLaps;
+        var customFixture = new MuninnPageCacheFixture().withEvictionPolicy(evictionPolicy);
+        var cacheTracer = new DefaultPageCacheTracer();
+        try (var pageCache = customFixture.createPageCache(
+                        new SingleFilePageSwapperFactory(fs, cacheTracer, EmptyMemoryTracker.INSTANCE),
+                        maxPages,
+                        cacheTracer,
+                        jobScheduler,
+                        DISABLED_BUFFER_FACTORY);
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                for (int i = 0; i < filePages; i++) {
+                    assertTrue(cursor.next());
+                }
+            }
+            pagedFile.flushAndForce(FileFlushEvent.NULL);
+
+            for (int round = 0; round < 3; round++) {
+                readPages(pagedFile, 0, hotPages);
+            }
+            if (loadAheadOfScan) {
+                preFetchedScan((MuninnPagedFile) pagedFile, hotPages, filePages);
+            } else {
+                readPages(pagedFile, hotPages, filePages);
+            }
+
+            var contextFactory = new CursorContextFactory(cacheTracer, EMPTY);
+            try (var cursorContext = contextFactory.create("hotPageFaultsAfterScan")) {
+                readPages(pagedFile, 0, hotPages, cursorContext);
+                return cursorContext.getCursorTracer().faults();
+            }
+        }
+    }
+
+    private static void readPages(PagedFile pagedFile, long fromPageId, long toPageId) throws IOException {
+        readPages(pagedFile, fromPageId, toPageId, NULL_CONTEXT);
+    }
+
+    private static void preFetchedScan(MuninnPagedFile pagedFile, long fromPageId, long toPageId) throws IOException {
+        int batch = 8;
+        long[] pageRefs = new long[batch];
+        long[] bufferAddresses = new long[batch];
+        int[] bufferLengths = new int[batch];
+        LatchMap.Latch[] latches = new LatchMap.Latch[batch];
+        for (long pageId = fromPageId; pageId < toPageId; pageId += batch) {
+            int count = (int) Math.min(batch, toPageId - pageId);
+            pagedFile.loadPages(
+                    pageId, count, true, PageCursorTracer.NULL, pageRefs, bufferAddresses, bufferLengths, latches);
+            readPages(pagedFile, pageId, pageId + count);
+        }
+    }
+
+    private static void readPages(PagedFile pagedFile, long fromPageId, long toPageId, CursorContext cursorContext)
+            throws IOException {
+        try (PageCursor cursor = pagedFile.io(fromPageId, PF_SHARED_READ_LOCK, cursorContext)) {
+            for (long pageId = fromPageId; pageId < toPageId; pageId++) {
+                assertTrue(cursor.next(pageId));
+            }
+        }
+    }
+
     @Test
     void payloadSizeForCacheWithCustomConfiguration() throws IOException {
         int reservedBytes = 24;
@@ -1782,6 +1875,248 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache> {
         });
     }
 
+    @Test
+    void flushDirtyPagesMustWriteDirtyPagesOfAllFilesWithoutForcingThem() throws IOException {
+        var cacheTracer = new DefaultPageCacheTracer();
+        var forces = new AtomicInteger();
+        var swapperFactory = new SingleFilePageSwapperFactory(fs, cacheTracer, EmptyMemoryTracker.INSTANCE) {
+            @Override
+            public PageSwapper createPageSwapper(
+                    Path file,
+                    int filePageSize,
+                    int reservedPageBytes,
+                    PageEvictionCallback onEviction,
+                    boolean createIfNotExist,
+                    boolean useDirectIO,
+                    boolean preallocateStoreFiles,
+                    boolean checksumPages,
+                    IOController ioController,
+                    SwapperSet swappers)
+                    throws IOException {
+                return new DelegatingPageSwapper(super.createPageSwapper(
+                        file,
+                        filePageSize,
+                        reservedPageBytes,
+                        onEviction,
+                        createIfNotExist,
+                        useDirectIO,
+                        preallocateStoreFiles,
+                        checksumPages,
+                        ioController,
+                        swappers)) {
+                    @Override
+                    public void force() throws IOException {
+                        forces.incrementAndGet();
+                        super.force();
+                    }
+                };
+            }
+        };
+        int pagesPerFile = 20;
+        var customFixture = new MuninnPageCacheFixture().withFlushThreads(4);
+        try (var pageCache = customFixture.createPageCache(
+                        swapperFactory, 100, cacheTracer, jobScheduler, DISABLED_BUFFER_FACTORY);
+                var first = map(pageCache, existingFile("a"), pageCache.pageSize());
+                var second = map(pageCache, existingFile("b"), pageCache.pageSize())) {
+            List<PagedFile> files = List.of(first, second);
+            for (PagedFile pagedFile : files) {
+                try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                    for (int i = 0; i < pagesPerFile; i++) {
+                        assertTrue(cursor.next());
+                        cursor.putLong(i);
+                    }
+                }
+            }
+
+            var fileFlushes = new AtomicInteger();
+            var databaseFlushEvent = new DatabaseFlushEvent(cacheTracer.beginFileFlush()) {
+                @Override
+                public FileFlushEvent beginFileFlush(PageSwapper swapper) {
+                    fileFlushes.incrementAndGet();
+                    return super.beginFileFlush(swapper);
+                }
+            };
+            try (databaseFlushEvent) {
+                pageCache.flushDirtyPages(files, IOController.DISABLED, databaseFlushEvent);
+            }
+            assertThat(cacheTracer.flushes()).isEqualTo(2L * pagesPerFile);
+            assertThat(databaseFlushEvent.pagesFlushed()).isEqualTo(2L * pagesPerFile);
+            assertThat(fileFlushes.get()).isEqualTo(files.size());
+            assertThat(forces.get()).isZero();
+
+            for (PagedFile pagedFile : files) {
+                try (var flushEvent = cacheTracer.beginFileFlush()) {
+                    pagedFile.flushAndForce(flushEvent);
+                }
+            }
+            assertThat(cacheTracer.flushes()).isEqualTo(2L * pagesPerFile);
+            assertThat(forces.get()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void flushDirtyPagesMustWaitForAllWorkersBeforeThrowing() throws IOException {
+        var failWrite = new AtomicBoolean(true);
+        var slowWrites = new AtomicInteger();
+        var swapperFactory = new SingleFilePageSwapperFactory(fs, PageCacheTracer.NULL, EmptyMemoryTracker.INSTANCE) {
+            @Override
+            public PageSwapper createPageSwapper(
+                    Path file,
+                    int filePageSize,
+                    int reservedPageBytes,
+                    PageEvictionCallback onEviction,
+                    boolean createIfNotExist,
+                    boolean useDirectIO,
+                    boolean preallocateStoreFiles,
+                    boolean checksumPages,
+                    IOController ioController,
+                    SwapperSet swappers)
+                    throws IOException {
+                boolean failing = file.getFileName().toString().equals("a");
+                return new DelegatingPageSwapper(super.createPageSwapper(
+                        file,
+                        filePageSize,
+                        reservedPageBytes,
+                        onEviction,
+                        createIfNotExist,
+                        useDirectIO,
+                        preallocateStoreFiles,
+                        checksumPages,
+                        ioController,
+                        swappers)) {
+                    @Override
+                    public long write(
+                            long startFilePageId,
+                            long[] bufferAddresses,
+                            int[] bufferLengths,
+                            int length,
+                            int totalAffectedPages)
+                            throws IOException {
+                        if (failing && failWrite.compareAndSet(true, false)) {
+                            throw new IOException("Boom");
+                        }
+                        if (!failing) {
+                            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                            slowWrites.incrementAndGet();
+                        }
+                        return super.write(startFilePageId, bufferAddresses, bufferLengths, length, totalAffectedPages);
+                    }
+                };
+            }
+        };
+        var customFixture = new MuninnPageCacheFixture().withFlushThreads(2);
+        try (var pageCache = customFixture.createPageCache(
+                        swapperFactory, 100, PageCacheTracer.NULL, jobScheduler, DISABLED_BUFFER_FACTORY);
+                var first = map(pageCache, existingFile("a"), pageCache.pageSize());
+                var second = map(pageCache, existingFile("b"), pageCache.pageSize())) {
+            List<PagedFile> files = List.of(first, second);
+            for (PagedFile pagedFile : files) {
+                try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(1);
+                }
+            }
+
+            var exception = assertThrows(
+                    IOException.class,
+                    () -> pageCache.flushDirtyPages(files, IOController.DISABLED, DatabaseFlushEvent.NULL));
+            assertThat(exception).hasRootCauseMessage("Boom");
+            assertThat(slowWrites.get()).isOne();
+        }
+    }
+
+    @Test
+    void pagesMustRememberTheNumaNodeTheirMemoryIsPlacedOn() throws IOException {
+        int maxPages = 40;
+        MemoryAllocator delegate =
+                MemoryAllocator.createAllocator(MuninnPageCache.memoryRequiredForPages(maxPages), INSTANCE);
+        MutableIntSet requestedNodes = IntSets.mutable.empty();
+        MemoryAllocator twoNodeAllocator = new MemoryAllocator() {
+            @Override
+            public long usedMemory() {
+                return delegate.usedMemory();
+            }
+
+            @Override
+            public long availableMemory() {
+                return delegate.availableMemory();
+            }
+
+            @Override
+            public long allocateAligned(long bytes, long alignment) {
+                return delegate.allocateAligned(bytes, alignment);
+            }
+
+            @Override
+            public int nodeCount() {
+                return 2;
+            }
+
+            @Override
+            public long allocateAligned(long bytes, long alignment, int node) {
+                requestedNodes.add(node);
+                return delegate.allocateAligned(bytes, alignment);
+            }
+
+            @Override
+            public void close() {
+                delegate.close();
+            }
+        };
+        var swapperFactory = new SingleFilePageSwapperFactory(fs, PageCacheTracer.NULL, INSTANCE);
+        var configuration = MuninnPageCache.config(twoNodeAllocator);
+        try (var pageCache = new MuninnPageCache(swapperFactory, jobScheduler, configuration);
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+            // Write more pages than fit in the cache, so the faulting threads must also evict pages.
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                for (int i = 0; i < maxPages * 3; i++) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(i);
+                }
+            }
+
+            PageList pages = pageCache.pages;
+            int localNode = pages.currentNode();
+            assertThat(pages.isNumaAware()).isTrue();
+            assertThat(requestedNodes.toArray()).containsExactly(localNode);
+            for (int pageId = 0; pageId < pages.getPageCount(); pageId++) {
+                assertThat(pages.getHomeNode(pages.deref(pageId))).isEqualTo(localNode);
+            }
+        } finally {
+            twoNodeAllocator.close();
+        }
+    }
+
+    @Test
+    void pageCacheMustReportHugePageCoverageOfItsMemory() throws IOException {
+        int maxPages = 40;
+        HugePagePolicy hugePagePolicy = HugePagePolicy.TRANSPARENT.availablePolicy();
+        MemoryAllocator allocator = MemoryAllocator.createAllocator(
+                MuninnPageCache.memoryRequiredForPages(maxPages), INSTANCE, NumaPolicy.DEFAULT, hugePagePolicy);
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        var swapperFactory = new SingleFilePageSwapperFactory(fs, tracer, INSTANCE);
+        var configuration = MuninnPageCache.config(allocator).pageCacheTracer(tracer);
+        try (var pageCache = new MuninnPageCache(swapperFactory, jobScheduler, configuration);
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                for (int i = 0; i < maxPages; i++) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(i);
+                }
+            }
+
+            assertThat(tracer.hugePageMemory()).isEqualTo(allocator.hugePageMemory());
+            assertThat(tracer.hugePageCoverage()).isBetween(0d, 1d);
+            if (hugePagePolicy == HugePagePolicy.DISABLED) {
+                assertThat(tracer.hugePageMemory()).isZero();
+            } else {
+                assertThat(tracer.hugePageMemory()).isPositive();
+            }
+        } finally {
+            allocator.close();
+        }
+    }
+
     @Test
     void transientCursorShouldNotUpdateUsageCounter() throws IOException {
         try (MuninnPageCache pageCache = createPageCache(fs, 40, PageCacheTracer.NULL);
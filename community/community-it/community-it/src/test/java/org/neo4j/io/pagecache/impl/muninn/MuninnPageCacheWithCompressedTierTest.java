@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.Test;
+import org.neo4j.io.pagecache.PageCacheTestSupport;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.io.pagecache.tracing.version.FileTruncateEvent;
+
+class MuninnPageCacheWithCompressedTierTest extends PageCacheTestSupport<MuninnPageCache> {
+    private static final int MAX_PAGES = 20;
+    private static final int FILE_PAGES = 100;
+
+    @Override
+    protected Fixture<MuninnPageCache> createFixture() {
+        return new MuninnPageCacheFixture().withCompressedTierMemory(mebiBytes(8));
+    }
+
+    @Test
+    void evictedPagesMustBeFaultedBackInFromTheCompressedTier() throws IOException {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try (MuninnPageCache pageCache = createPageCache(fs, MAX_PAGES, tracer);
+                PagedFile pagedFile = pageCache.map(file("a"), pageCache.pageSize(), DEFAULT_DATABASE_NAME)) {
+            writeFilePages(pagedFile, 1);
+
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                for (int i = 0; i < FILE_PAGES; i++) {
+                    assertTrue(cursor.next());
+                    long value;
+                    do {
+                        value = cursor.getLong();
+                        cursor.setOffset(0);
+                    } while (cursor.shouldRetry());
+                    assertThat(value).isEqualTo(i + 1);
+                }
+            }
+            assertThat(tracer.compressedTierHits()).isPositive();
+        }
+    }
+
+    @Test
+    void truncatedPagesMustNotBeFaultedBackInFromTheCompressedTier() throws IOException {
+        try (MuninnPageCache pageCache = createPageCache(fs, MAX_PAGES, PageCacheTracer.NULL);
+                PagedFile pagedFile = pageCache.map(file("a"), pageCache.pageSize(), DEFAULT_DATABASE_NAME)) {
+            writeFilePages(pagedFile, 1);
+            assertThat(pageCache.compressedTier.usedMemory()).isPositive();
+
+            pagedFile.truncate(0, FileTruncateEvent.NULL);
+            assertThat(pageCache.compressedTier.usedMemory()).isZero();
+
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                for (int i = 0; i < FILE_PAGES; i++) {
+                    assertTrue(cursor.next());
+                    assertThat(cursor.getLong()).isZero();
+                }
+            }
+        }
+    }
+
+    @Test
+    void unmappedFilesMustNotLeaveCompressedPagesBehind() throws IOException {
+        try (MuninnPageCache pageCache = createPageCache(fs, MAX_PAGES, PageCacheTracer.NULL)) {
+            try (PagedFile pagedFile = pageCache.map(file("a"), pageCache.pageSize(), DEFAULT_DATABASE_NAME)) {
+                writeFilePages(pagedFile, 1);
+                assertThat(pageCache.compressedTier.usedMemory()).isPositive();
+            }
+            assertThat(pageCache.compressedTier.usedMemory()).isZero();
+        }
+    }
+
+    @Test
+    void pagesLoadedPastTheCompressedTierMustNotBeFaultedBackInWithOlderData() throws IOException {
+        try (MuninnPageCache pageCache = createPageCache(fs, MAX_PAGES, PageCacheTracer.NULL);
+                MuninnPagedFile pagedFile =
+                        (MuninnPagedFile) pageCache.map(file("a"), pageCache.pageSize(), DEFAULT_DATABASE_NAME)) {
+            // given a first version of page 0 that has been evicted into the compressed tier
+            writeFilePages(pagedFile, 1);
+
+            // when page 0 is loaded from the file, like the pre-fetcher does
+            int loaded = pagedFile.loadPages(
+                    0, 1, true, PageCursorTracer.NULL, new long[1], new long[1], new int[1], new LatchMap.Latch[1]);
+            assertThat(loaded).isOne();
+
+            // and a second version, that does not compress, is written, flushed and evicted
+            byte[] secondVersion = new byte[pageCache.pageSize()];
+            ThreadLocalRandom.current().nextBytes(secondVersion);
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                assertTrue(cursor.next());
+                cursor.putBytes(secondVersion);
+            }
+            readFilePages(pagedFile, 1);
+
+            // then page 0 must be faulted in with the second version
+            byte[] faulted = new byte[pageCache.pageSize()];
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                assertTrue(cursor.next());
+                do {
+                    cursor.getBytes(faulted);
+                    cursor.setOffset(0);
+                } while (cursor.shouldRetry());
+            }
+            assertThat(faulted).isEqualTo(secondVersion);
+        }
+    }
+
+    private static void readFilePages(PagedFile pagedFile, long fromFilePageId) throws IOException {
+        // Reading more pages than fit in the cache makes the pages that were in the cache get evicted.
+        try (PageCursor cursor = pagedFile.io(fromFilePageId, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+            for (long i = fromFilePageId; i < FILE_PAGES; i++) {
+                assertTrue(cursor.next());
+            }
+        }
+    }
+
+    private static void writeFilePages(PagedFile pagedFile, long firstValue) throws IOException {
+        // Writing more pages than fit in the cache makes the first pages get flushed and evicted.
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            for (int i = 0; i < FILE_PAGES; i++) {
+                assertTrue(cursor.next());
+                cursor.putLong(firstValue + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.io.pagecache.PageCacheTestSupport;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.monitoring.PageCacheWarmerMonitor;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.test.OtherThreadExecutor;
+import org.neo4j.test.scheduler.CallingThreadJobScheduler;
+import org.neo4j.time.Clocks;
+
+class PageCacheWarmerTest extends PageCacheTestSupport<MuninnPageCache> {
+    private static final int FILE_PAGES = 30;
+    private static final long[] HOT_PAGES = {1, 2, 3, 4, 9, 17, 18, 29};
+
+    private Path file;
+    private Path profiles;
+
+    @Override
+    protected Fixture<MuninnPageCache> createFixture() {
+        return new MuninnPageCacheFixture();
+    }
+
+    @BeforeEach
+    void createFile() throws IOException {
+        file = file("a");
+        profiles = file("profiles");
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, PageCacheTracer.NULL);
+                PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j");
+                PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            for (int i = 0; i < FILE_PAGES; i++) {
+                cursor.next(i);
+                cursor.putLong(i);
+            }
+        }
+    }
+
+    @Test
+    void reheatMustLoadProfiledPagesBackIntoMemory() throws IOException {
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, PageCacheTracer.NULL);
+                PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            readPages(pagedFile, HOT_PAGES);
+            assertThat(warmer(pageCache).profile()).isEqualTo(HOT_PAGES.length);
+        }
+
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, tracer);
+                PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            assertThat(warmer(pageCache).reheat()).isEqualTo(HOT_PAGES.length);
+            assertThat(tracer.faults()).isEqualTo(HOT_PAGES.length);
+            assertThat(tracer.pins()).isEqualTo(tracer.unpins());
+            long faultsBefore = tracer.faults();
+            readPages(pagedFile, HOT_PAGES);
+            assertThat(tracer.faults()).isEqualTo(faultsBefore);
+        }
+    }
+
+    @Test
+    void reheatMustNotEvictPagesWhenProfileIsLargerThanCache() throws IOException {
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, PageCacheTracer.NULL);
+                PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            readPages(pagedFile, allPages());
+            warmer(pageCache).profile();
+        }
+
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try (MuninnPageCache pageCache = createPageCache(fs, 10, tracer);
+                PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            assertThat(warmer(pageCache).reheat()).isGreaterThan(0).isLessThan(FILE_PAGES);
+            assertThat(tracer.evictions()).isZero();
+            readPages(pagedFile, allPages());
+        }
+    }
+
+    @Test
+    void unmapMustRefreshExistingProfiles() throws IOException {
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, PageCacheTracer.NULL)) {
+            PageCacheWarmer warmer = warmer(pageCache);
+            pageCache.registerFileMappedListener(warmer);
+            try (PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+                readPages(pagedFile, new long[] {1});
+                assertThat(warmer.profile()).isEqualTo(1);
+                readPages(pagedFile, HOT_PAGES);
+            }
+            warmer.stop();
+        }
+
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, PageCacheTracer.NULL);
+                PagedFile ignore = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            assertThat(warmer(pageCache).reheat()).isEqualTo(HOT_PAGES.length);
+        }
+    }
+
+    @Test
+    void reheatMustIgnoreFilesWithoutProfiles() throws IOException {
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, PageCacheTracer.NULL);
+                PagedFile ignore = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            assertThat(warmer(pageCache).reheat()).isZero();
+        }
+    }
+
+    @Test
+    void reheatMustIgnoreCorruptProfiles() throws IOException {
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, PageCacheTracer.NULL);
+                PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            PageCacheWarmer warmer = warmer(pageCache);
+            readPages(pagedFile, HOT_PAGES);
+            warmer.profile();
+            Path profile = warmer.profileFile(file);
+            fs.truncate(profile, fs.getFileSize(profile) / 2);
+        }
+
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, PageCacheTracer.NULL);
+                PagedFile ignore = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            assertThat(warmer(pageCache).reheat()).isZero();
+        }
+    }
+
+    @Test
+    void jobsThatCompleteWhileBeingScheduledMustNotBeKept() throws IOException {
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, PageCacheTracer.NULL);
+                PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            readPages(pagedFile, HOT_PAGES);
+            warmer(pageCache).profile();
+        }
+
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, PageCacheTracer.NULL)) {
+            PageCacheWarmer warmer = new PageCacheWarmer(
+                    pageCache,
+                    fs,
+                    new CallingThreadJobScheduler(),
+                    Clocks.nanoClock(),
+                    profiles,
+                    PageCacheWarmerMonitor.NULL);
+            pageCache.registerFileMappedListener(warmer);
+
+            // when the warmup, and then the profiling on unmap, run before they are even scheduled
+            try (PagedFile ignore = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+                assertThat(warmer.hasPendingJobs()).isFalse();
+            }
+
+            // then
+            assertThat(warmer.hasPendingJobs()).isFalse();
+        }
+    }
+
+    @Test
+    void unmapMustStopRunningWarmupOfTheFile() throws Exception {
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, PageCacheTracer.NULL);
+                PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            readPages(pagedFile, HOT_PAGES);
+            warmer(pageCache).profile();
+        }
+
+        CountDownLatch firstReadDone = new CountDownLatch(1);
+        CountDownLatch continueWarmup = new CountDownLatch(1);
+        AtomicLong pagesLoadedByWarmup = new AtomicLong(-1);
+        PageCacheWarmerMonitor monitor = new PageCacheWarmerMonitor() {
+            @Override
+            public void warmupProgress(Path file, long pagesLoaded, long pagesToLoad) {
+                if (firstReadDone.getCount() > 0) {
+                    firstReadDone.countDown();
+                    try {
+                        continueWarmup.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+
+            @Override
+            public void warmupCompleted(Path file, long pagesLoaded, long elapsedMillis) {
+                pagesLoadedByWarmup.set(pagesLoaded);
+            }
+        };
+        try (MuninnPageCache pageCache = createPageCache(fs, 100, PageCacheTracer.NULL);
+                OtherThreadExecutor executor = new OtherThreadExecutor("unmap")) {
+            PageCacheWarmer warmer =
+                    new PageCacheWarmer(pageCache, fs, jobScheduler, Clocks.nanoClock(), profiles, monitor);
+            pageCache.registerFileMappedListener(warmer);
+            PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j");
+            firstReadDone.await();
+
+            // when
+            Future<Void> unmap = executor.executeDontWait(() -> {
+                pagedFile.close();
+                return null;
+            });
+            executor.waitUntilWaiting(details -> details.isAt(PageCacheWarmer.class, "fileUnmapped"));
+            continueWarmup.countDown();
+            unmap.get();
+
+            // then the warmup was done with the file before it was unmapped, and stopped after the first read
+            assertThat(pagesLoadedByWarmup.get()).isEqualTo(4);
+            assertThat(warmer.hasPendingJobs()).isFalse();
+            warmer.stop();
+        }
+    }
+
+    private PageCacheWarmer warmer(MuninnPageCache pageCache) {
+        return new PageCacheWarmer(
+                pageCache, fs, jobScheduler, Clocks.nanoClock(), profiles, PageCacheWarmerMonitor.NULL);
+    }
+
+    private static long[] allPages() {
+        long[] pages = new long[FILE_PAGES];
+        for (int i = 0; i < FILE_PAGES; i++) {
+            pages[i] = i;
+        }
+        return pages;
+    }
+
+    private static void readPages(PagedFile pagedFile, long[] pageIds) throws IOException {
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+            for (long pageId : pageIds) {
+                assertThat(cursor.next(pageId)).isTrue();
+                long value;
+                do {
+                    value = cursor.getLong();
+                } while (cursor.shouldRetry());
+                assertThat(value).isEqualTo(pageId);
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@
  */
 package org.neo4j.io.pagecache.tracing;
 
+import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
@@ -175,6 +176,31 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         return delegate.snapshotsLoaded();
     }
 
+    @Override
+    public long pagesProtected() {
+        return delegate.pagesProtected();
+    }
+
+    @Override
+    public long hugePageMemory() {
+        return delegate.hugePageMemory();
+    }
+
+    @Override
+    public double hugePageCoverage() {
+        return delegate.hugePageCoverage();
+    }
+
+    @Override
+    public long compressedTierHits() {
+        return delegate.compressedTierHits();
+    }
+
+    @Override
+    public long compressedTierMisses() {
+        return delegate.compressedTierMisses();
+    }
+
     @Override
     public long closedCursors() {
         return delegate.closedCursors();
@@ -245,6 +271,16 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         delegate.snapshotsLoaded(snapshotsLoaded);
     }
 
+    @Override
+    public void compressedTierHits(long hits) {
+        delegate.compressedTierHits(hits);
+    }
+
+    @Override
+    public void compressedTierMisses(long misses) {
+        delegate.compressedTierMisses(misses);
+    }
+
     @Override
     public void merges(long merges) {
         delegate.merges(merges);
@@ -255,6 +291,11 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         delegate.maxPages(maxPages, pageSize);
     }
 
+    @Override
+    public void memoryAllocator(MemoryAllocator memoryAllocator) {
+        delegate.memoryAllocator(memoryAllocator);
+    }
+
     @Override
     public void iopq(long iopq) {
         delegate.iopq(iopq);
@@ -48,6 +48,15 @@ public class DummyPageSwapper implements PageSwapper {
         return bufferLength;
     }
 
+    @Override
+    public long read(long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) {
+        long bytes = 0;
+        for (int i = 0; i < length; i++) {
+            bytes += bufferLengths[i];
+        }
+        return bytes;
+    }
+
     @Override
     public long write(long filePageId, long bufferAddress) throws IOException {
         return filePageSize;
@@ -109,4 +118,20 @@ public class DummyPageSwapper implements PageSwapper {
             long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length, int totalAffectedPages) {
         return 0;
     }
+
+    @Override
+    public long write(
+            long[] startFilePageIds,
+            int[] vectorLengths,
+            int vectors,
+            long[] bufferAddresses,
+            int[] bufferLengths,
+            int totalAffectedPages) {
+        return 0;
+    }
+
+    @Override
+    public boolean canBatchWrites() {
+        return false;
+    }
 }
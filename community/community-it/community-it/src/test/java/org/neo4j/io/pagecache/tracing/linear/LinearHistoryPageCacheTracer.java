@@ -24,6 +24,7 @@ import static org.neo4j.io.pagecache.tracing.linear.HEvents.FileFlushHEvent;
 import static org.neo4j.io.pagecache.tracing.linear.HEvents.MappedFileHEvent;
 import static org.neo4j.io.pagecache.tracing.linear.HEvents.UnmappedFileHEvent;
 
+import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
@@ -233,6 +234,31 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer {
         return 0;
     }
 
+    @Override
+    public long pagesProtected() {
+        return 0;
+    }
+
+    @Override
+    public long hugePageMemory() {
+        return 0;
+    }
+
+    @Override
+    public double hugePageCoverage() {
+        return 0d;
+    }
+
+    @Override
+    public long compressedTierHits() {
+        return 0;
+    }
+
+    @Override
+    public long compressedTierMisses() {
+        return 0;
+    }
+
     @Override
     public void pins(long pins) {}
 
@@ -275,9 +301,18 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer {
     @Override
     public void snapshotsLoaded(long snapshotsLoaded) {}
 
+    @Override
+    public void compressedTierHits(long hits) {}
+
+    @Override
+    public void compressedTierMisses(long misses) {}
+
     @Override
     public void maxPages(long maxPages, long pageSize) {}
 
+    @Override
+    public void memoryAllocator(MemoryAllocator memoryAllocator) {}
+
     @Override
     public void iopq(long iopq) {}
 
@@ -21,6 +21,7 @@ package org.neo4j.io.pagecache.tracing.recording;
 
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicLong;
+import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
@@ -244,6 +245,31 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long pagesProtected() {
+        return 0;
+    }
+
+    @Override
+    public long hugePageMemory() {
+        return 0;
+    }
+
+    @Override
+    public double hugePageCoverage() {
+        return 0d;
+    }
+
+    @Override
+    public long compressedTierHits() {
+        return 0;
+    }
+
+    @Override
+    public long compressedTierMisses() {
+        return 0;
+    }
+
     @Override
     public void pins(long pins) {
         this.pins.getAndAdd(pins);
@@ -289,12 +315,21 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     @Override
     public void snapshotsLoaded(long snapshotsLoaded) {}
 
+    @Override
+    public void compressedTierHits(long hits) {}
+
+    @Override
+    public void compressedTierMisses(long misses) {}
+
     @Override
     public void merges(long merges) {}
 
     @Override
     public void maxPages(long maxPages, long pageSize) {}
 
+    @Override
+    public void memoryAllocator(MemoryAllocator memoryAllocator) {}
+
     @Override
     public void iopq(long iopq) {}
 
@@ -232,6 +232,8 @@ class TransactionLogChannelAllocatorIT {
                 DEFAULT_DATABASE_NAME,
                 config,
                 null,
+                null,
+                0,
                 null);
     }
 
@@ -275,6 +275,32 @@ class RecoveryIT {
         }
     }
 
+    @Test
+    void recoverDatabaseWithTransactionAppendedInChunks() throws Throwable {
+        createBuilder(logical_log_rotation_threshold.defaultValue());
+        builder.setConfig(GraphDatabaseInternalSettings.commit_chunk_size, 10);
+        GraphDatabaseService database = createDatabase();
+
+        int numberOfNodes = 100;
+        try (Transaction transaction = database.beginTx()) {
+            for (int i = 0; i < numberOfNodes; i++) {
+                transaction.createNode();
+            }
+            transaction.commit();
+        }
+        managementService.shutdown();
+        removeLastCheckpointRecordFromLastLogFile(databaseLayout, fileSystem);
+
+        recoverDatabase();
+
+        GraphDatabaseService recoveredDatabase = createDatabase();
+        try (Transaction tx = recoveredDatabase.beginTx()) {
+            assertEquals(numberOfNodes, count(tx.getAllNodes()));
+        } finally {
+            managementService.shutdown();
+        }
+    }
+
     @Test
     void tracePageCacheAccessOnDatabaseRecovery() throws Throwable {
         GraphDatabaseService database = createDatabase();
@@ -91,6 +91,25 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.dbms.lock_manager.verbose_deadlocks", BOOL, false)
             .build();
 
+    @Internal
+    @Description("Detect deadlocks between Forseti lock clients in a background job, instead of having waiting "
+            + "clients search for wait cycles themselves while they wait. Waiting clients still poll for the lock "
+            + "with an increasing backoff, since they are not woken up when it is released, so this saves the cycle "
+            + "search but not the waiting itself.")
+    public static final Setting<Boolean> lock_manager_background_deadlock_detection = newBuilder(
+                    "internal.dbms.lock_manager.background_deadlock_detection", BOOL, false)
+            .build();
+
+    @Internal
+    @Description("How often the background deadlock detector looks for wait cycles. A deadlock is only reported when "
+            + "it is seen in two consecutive rounds.")
+    public static final Setting<Duration> lock_manager_background_deadlock_detection_interval = newBuilder(
+                    "internal.dbms.lock_manager.background_deadlock_detection.interval",
+                    DURATION,
+                    Duration.ofMillis(20))
+            .addConstraint(min(Duration.ofMillis(1)))
+            .build();
+
     @Internal
     @Description("Name of the tracer factory to be used. Current implementations are: null, default & verbose.")
     public static final Setting<String> tracer =
@@ -529,6 +548,26 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.dbms.tx_log.fail_on_corrupted_log_files", BOOL, true)
             .build();
 
+    @Internal
+    @Description("Number of transaction log segments to keep in a pool for reuse. Pruned transaction log files are "
+            + "recycled into the pool instead of being deleted, and the next segment is prepared in the background, "
+            + "so that rotation only has to rename a ready file rather than create and allocate a new one. "
+            + "Pooled segments use disk space of the size of the rotation threshold each. Zero disables the pool.")
+    public static final Setting<Integer> transaction_log_segment_pool_size = newBuilder(
+                    "internal.dbms.tx_log.segment_pool_size", INT, 0)
+            .addConstraint(min(0))
+            .build();
+
+    @Internal
+    @Description("Transactions whose commands serialize to at least this many bytes have their commands written "
+            + "compressed to the transaction log, as a single entry. This reduces the write bandwidth of large write "
+            + "transactions, at the cost of compressing on commit and decompressing on read. Zero disables "
+            + "compression. Only applies to transaction logs of kernel version 5.1 and later.")
+    public static final Setting<Long> transaction_log_compression_threshold = newBuilder(
+                    "internal.dbms.tx_log.compression_threshold", BYTES, 0L)
+            .addConstraint(min(0L))
+            .build();
+
     @Internal
     @Description("Specifies if engine should run cypher query based on a snapshot of accessed data. "
             + "Query will be restarted in case if concurrent modification of data will be detected.")
@@ -789,6 +828,16 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.dbms.strictly_prioritize_id_freelist", BOOL, true)
             .build();
 
+    @Internal
+    @Description("Number of ids a thread claims from high id at a time for high activity id types, such as nodes and "
+            + "relationships. Ids allocated from high id are then handed out from the claimed range of the thread "
+            + "without contending with other threads, and the records a thread creates end up close to each other. "
+            + "Ids of a range that are left unused are reused after the next restart. A value of 1 disables this.")
+    public static final Setting<Integer> id_generator_thread_arena_size = newBuilder(
+                    "internal.dbms.id_generator.thread_arena_size", INT, 1)
+            .addConstraint(range(1, 1024))
+            .build();
+
     @Internal
     @Description("Block/buffer size for index population")
     public static final Setting<Long> index_populator_block_size = newBuilder(
@@ -930,16 +979,171 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.dbms.tx.logs.dedicated.appender", BOOL, Boolean.FALSE)
             .build();
 
+    @Description("Target commit latency of the dedicated transaction appender. When set, the appender waits up to an "
+            + "adaptively tuned interval, bounded by this target minus the measured log force time, for more "
+            + "transactions to arrive so that concurrent commits share one force of the transaction log. "
+            + "A value of zero forces as soon as the appender has drained the transactions that are already queued.")
+    @Internal
+    public static final Setting<Duration> dedicated_transaction_appender_target_commit_latency = newBuilder(
+                    "internal.dbms.tx.logs.dedicated.appender.target_commit_latency", DURATION, Duration.ZERO)
+            .addConstraint(min(Duration.ZERO))
+            .build();
+
+    @Description("Close committed transactions strictly in commit order, so that appending and forcing the next "
+            + "transactions to the transaction log overlaps with the store application of the previous ones. "
+            + "Transactions committed in external mode, such as those pulled from another instance, are applied in "
+            + "commit order on a dedicated thread and are not waited for. All others are applied by their committing "
+            + "threads and return once they are closed.")
+    @Internal
+    public static final Setting<Boolean> pipelined_commit =
+            newBuilder("internal.dbms.tx.pipelined_commit", BOOL, false).build();
+
+    @Description("Transactions that create at least this many commands append them to the transaction log in chunks of "
+            + "this many commands while they are being created, instead of all at once when they commit. Other "
+            + "transactions wait to be appended until a transaction that is appended in chunks has committed or rolled "
+            + "back. Zero disables chunked commits. Only applies to transaction logs of kernel version 5.1 and later, "
+            + "and not when the dedicated transaction appender is used.")
+    @Internal
+    public static final Setting<Integer> commit_chunk_size = newBuilder("internal.dbms.tx.commit_chunk_size", INT, 0)
+            .addConstraint(min(0))
+            .build();
+
     @Internal
     @Description("Enable per page file metrics collection in a default page cache and cursor tracer.")
     public static final Setting<Boolean> per_file_metrics_counters =
             newBuilder("internal.dbms.page.file.tracer", BOOL, false).build();
 
+    public enum PageCacheEvictionPolicy {
+        CLOCK,
+        FREQUENCY
+    }
+
+    @Internal
+    @Description("The policy the page cache uses to choose which pages to evict. "
+            + "'CLOCK' evicts the pages that have not been used recently. "
+            + "'FREQUENCY' additionally protects frequently used pages from being evicted by large scans, "
+            + "by evicting pages that have only been used once first.")
+    public static final Setting<PageCacheEvictionPolicy> pagecache_eviction_policy = newBuilder(
+                    "internal.dbms.memory.pagecache.eviction_policy",
+                    ofEnum(PageCacheEvictionPolicy.class),
+                    PageCacheEvictionPolicy.CLOCK)
+            .build();
+
+    public enum PageCacheNumaPolicy {
+        DEFAULT,
+        INTERLEAVE,
+        LOCAL
+    }
+
+    @Internal
+    @Description("How the page cache places its memory on the NUMA nodes of the machine. "
+            + "'DEFAULT' leaves the placement to the operating system. "
+            + "'INTERLEAVE' spreads the memory evenly over all nodes. "
+            + "'LOCAL' places the memory of each page on the node of the thread that first loads it, and lets "
+            + "threads that need a free page prefer to evict pages on their own node.")
+    public static final Setting<PageCacheNumaPolicy> pagecache_numa_policy = newBuilder(
+                    "internal.dbms.memory.pagecache.numa_policy",
+                    ofEnum(PageCacheNumaPolicy.class),
+                    PageCacheNumaPolicy.DEFAULT)
+            .build();
+
+    public enum PageCacheHugePages {
+        DISABLED,
+        TRANSPARENT,
+        EXPLICIT
+    }
+
+    @Internal
+    @Description("Back the page cache memory with huge pages, to reduce the TLB misses of page cache access. "
+            + "'DISABLED' uses regular pages. "
+            + "'TRANSPARENT' advises the operating system to back the memory with transparent huge pages. "
+            + "'EXPLICIT' maps the memory from the pool of huge pages reserved in /proc/sys/vm/nr_hugepages. "
+            + "When the chosen kind of huge pages is not available at startup, the page cache falls back to "
+            + "transparent huge pages, and then to regular pages.")
+    public static final Setting<PageCacheHugePages> pagecache_huge_pages = newBuilder(
+                    "internal.dbms.memory.pagecache.huge_pages",
+                    ofEnum(PageCacheHugePages.class),
+                    PageCacheHugePages.DISABLED)
+            .build();
+
+    @Internal
+    @Description("The amount of memory used to keep pages that are evicted from the page cache in compressed form, "
+            + "so they can be faulted back in without reading them from the store files. "
+            + "Pages that do not compress well are not kept. The compressed tier is disabled when this is 0.")
+    public static final Setting<Long> pagecache_compressed_tier_size = newBuilder(
+                    "internal.dbms.memory.pagecache.compressed_tier_size", BYTES, 0L)
+            .addConstraint(min(0L))
+            .build();
+
+    @Internal
+    @Description("Use Linux io_uring for the vectored reads and writes of the page cache, and write the pages of a "
+            + "flush in batches. The page cache falls back to regular file channel IO when io_uring is not available.")
+    public static final Setting<Boolean> pagecache_io_uring_enabled = newBuilder(
+                    "internal.dbms.memory.pagecache.io_uring_enabled", BOOL, false)
+            .build();
+
+    @Internal
+    @Description("The number of threads the page cache uses to write out the dirty pages of many files at once.")
+    public static final Setting<Integer> pagecache_flush_threads = newBuilder(
+                    "internal.dbms.memory.pagecache.flush_threads", INT, 4)
+            .addConstraint(min(1))
+            .build();
+
+    @Internal
+    @Description("Let checkpoints write out the dirty pages of all store and index files at once, before forcing the "
+            + "files one by one. The writes are spread over 'internal.dbms.memory.pagecache.flush_threads' threads, "
+            + "and are limited by the checkpoint IO limit.")
+    public static final Setting<Boolean> checkpoint_parallel_flush =
+            newBuilder("internal.db.checkpoint.parallel_flush", BOOL, false).build();
+
+    @Internal
+    @Description("Let the IO limit of checkpoints adapt to the latency of transaction log forces. The limit is "
+            + "lowered while log forces are slower than "
+            + "'internal.db.checkpoint.adaptive_io_limit.target_log_force_latency', and raised while they are fast, "
+            + "between 'internal.db.checkpoint.adaptive_io_limit.min_iops' and 'db.checkpoint.iops.limit'. "
+            + "The limit is raised gradually as a checkpoint approaches "
+            + "'internal.db.checkpoint.adaptive_io_limit.deadline', and lifted entirely when it passes it.")
+    public static final Setting<Boolean> checkpoint_adaptive_io_limit =
+            newBuilder("internal.db.checkpoint.adaptive_io_limit", BOOL, false).build();
+
+    @Internal
+    @Description("The lowest IOPS limit that the adaptive checkpoint IO limit will lower the limit to.")
+    public static final Setting<Integer> checkpoint_adaptive_io_limit_min_iops = newBuilder(
+                    "internal.db.checkpoint.adaptive_io_limit.min_iops", INT, 100)
+            .addConstraint(min(1))
+            .build();
+
+    @Internal
+    @Description("The transaction log force latency that the adaptive checkpoint IO limit tries to stay below.")
+    public static final Setting<Duration> checkpoint_adaptive_io_limit_target_log_force_latency = newBuilder(
+                    "internal.db.checkpoint.adaptive_io_limit.target_log_force_latency", DURATION, ofMillis(5))
+            .addConstraint(min(ofMillis(1)))
+            .build();
+
+    @Internal
+    @Description("The time within which a checkpoint should be done flushing when the adaptive checkpoint IO limit "
+            + "is used. After half of it the lowest limit is raised gradually, and after all of it the checkpoint "
+            + "flushes without limit.")
+    public static final Setting<Duration> checkpoint_adaptive_io_limit_deadline = newBuilder(
+                    "internal.db.checkpoint.adaptive_io_limit.deadline", DURATION, ofMinutes(10))
+            .addConstraint(min(ofSeconds(1)))
+            .build();
+
     @Internal
     @Description("Enables sketching of next transaction log file in the background during reverse recovery.")
     public static final Setting<Boolean> pre_sketch_transaction_logs =
             newBuilder("internal.dbms.tx_log.presketch", BOOL, false).build();
 
+    @Internal
+    @Description("The number of transaction log files that are sketched in parallel in the background during reverse "
+            + "recovery, when 'internal.dbms.tx_log.presketch' is enabled. Each sketched file keeps a read-ahead "
+            + "buffer and the offsets of its transactions in memory until it has been read, so this also bounds "
+            + "the memory used by pre-sketching.")
+    public static final Setting<Integer> pre_sketch_transaction_logs_parallelism = newBuilder(
+                    "internal.dbms.tx_log.presketch.parallelism", INT, 2)
+            .addConstraint(min(1))
+            .build();
+
     @Internal
     @Description(
             "Enables using format versions that are still under development, which will trigger migration to them on start up. "
@@ -602,7 +602,8 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
             "Page cache can be configured to perform usage sampling of loaded pages that can be used to construct active load profile. "
                     + "According to that profile pages can be reloaded on the restart, replication, etc. "
                     + "This setting allows disabling that behavior.\n"
-                    + "This feature is available in Neo4j Enterprise Edition.")
+                    + "This feature is available in Neo4j Enterprise Edition. "
+                    + "Community Edition only profiles and warms up the page cache when this is explicitly set to true.")
     public static final Setting<Boolean> pagecache_warmup_enabled =
             newBuilder("db.memory.pagecache.warmup.enable", BOOL, true).build();
 
@@ -220,6 +220,11 @@ public interface IdGenerator extends IdSequence, Closeable, ConsistencyCheckable
             return delegate.nextId(cursorContext);
         }
 
+        @Override
+        public long nextId(long nearId, CursorContext cursorContext) {
+            return delegate.nextId(nearId, cursorContext);
+        }
+
         @Override
         public long nextConsecutiveIdRange(int numberOfIds, boolean favorSamePage, CursorContext cursorContext) {
             return delegate.nextConsecutiveIdRange(numberOfIds, favorSamePage, cursorContext);
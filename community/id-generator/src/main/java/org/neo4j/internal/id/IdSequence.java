@@ -23,4 +23,17 @@ import org.neo4j.io.pagecache.context.CursorContext;
 
 public interface IdSequence {
     long nextId(CursorContext cursorContext);
+
+    /**
+     * Allocates an ID like {@link #nextId(CursorContext)}, but with a hint that an ID close to {@code nearId} would be
+     * preferable, e.g. because the record with that ID is related to the new one and will likely be read together
+     * with it. The hint is only a preference and implementations are free to ignore it.
+     *
+     * @param nearId ID of a related record, or a negative value if there's no such record.
+     * @param cursorContext for tracking cursor interaction.
+     * @return an ID available to use, guaranteed not used anywhere else.
+     */
+    default long nextId(long nearId, CursorContext cursorContext) {
+        return nextId(cursorContext);
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.id.indexed;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size, lossy set of id ranges that may have free ids, so that looking for a free id in one specific range can
+ * skip the tree when that range certainly has none. It's updated by the {@link IdRangeMarker} when ids become free
+ * and by the {@link FreeIdScanner} when it sees that a range has no free ids.
+ * <p>
+ * Ranges share bits by their range index modulo the number of bits, so a set bit may be for another range. Clearing a
+ * bit can in the same way hide free ids of another range, which only leaves those ids to the regular scan.
+ */
+class FreeIdRangeHints {
+    private static final int BITS = 1 << 12;
+
+    private final AtomicLongArray bits = new AtomicLongArray(BITS / Long.SIZE);
+
+    /**
+     * Marks all ranges as possibly having free ids, used when it's not known which ranges have free ids.
+     */
+    void setAll() {
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, -1L);
+        }
+    }
+
+    void set(long rangeIdx) {
+        int index = index(rangeIdx);
+        long mask = mask(rangeIdx);
+        if ((bits.get(index) & mask) == 0) {
+            bits.getAndAccumulate(index, mask, (current, bit) -> current | bit);
+        }
+    }
+
+    void clear(long rangeIdx) {
+        int index = index(rangeIdx);
+        long mask = mask(rangeIdx);
+        if ((bits.get(index) & mask) != 0) {
+            bits.getAndAccumulate(index, ~mask, (current, keep) -> current & keep);
+        }
+    }
+
+    /**
+     * @return {@code false} if the range certainly has no free ids, otherwise {@code true}.
+     */
+    boolean mayHaveFreeIds(long rangeIdx) {
+        return (bits.get(index(rangeIdx)) & mask(rangeIdx)) != 0;
+    }
+
+    private static int index(long rangeIdx) {
+        return (int) ((rangeIdx & (BITS - 1)) >>> 6);
+    }
+
+    private static long mask(long rangeIdx) {
+        return 1L << rangeIdx;
+    }
+}
@@ -58,6 +58,7 @@ class FreeIdScanner implements Closeable {
     private final IdRangeLayout layout;
     private final IdCache cache;
     private final AtomicBoolean atLeastOneIdOnFreelist;
+    private final FreeIdRangeHints freeIdRangeHints;
     private final MarkerProvider markerProvider;
     private final long generation;
     private final ScanLock lock;
@@ -89,6 +90,7 @@ class FreeIdScanner implements Closeable {
             IdRangeLayout layout,
             IdCache cache,
             AtomicBoolean atLeastOneIdOnFreelist,
+            FreeIdRangeHints freeIdRangeHints,
             MarkerProvider markerProvider,
             long generation,
             boolean strictlyPrioritizeFreelistOverHighId,
@@ -98,6 +100,7 @@ class FreeIdScanner implements Closeable {
         this.layout = layout;
         this.cache = cache;
         this.atLeastOneIdOnFreelist = atLeastOneIdOnFreelist;
+        this.freeIdRangeHints = freeIdRangeHints;
         this.markerProvider = markerProvider;
         this.generation = generation;
         this.lock = strictlyPrioritizeFreelistOverHighId
@@ -224,6 +227,53 @@ class FreeIdScanner implements Closeable {
         return lock.tryLock();
     }
 
+    /**
+     * Looks for a free id in the same id range as {@code nearId}, i.e. ids that are likely to be located close to
+     * {@code nearId} in the store, and marks the closest one found as reserved. This is a best-effort attempt which
+     * will not block on the scan lock and will not look outside of that single id range, nor look in the range at all
+     * when {@link FreeIdRangeHints} say that it has no free ids.
+     * @return a reserved id close to {@code nearId}, or {@link IndexedIdGenerator#NO_ID} if none could be found.
+     */
+    long tryAllocateFreeIdNear(long nearId, CursorContext cursorContext) {
+        long rangeIdx = layout.idRangeIndex(nearId);
+        if (!atLeastOneIdOnFreelist.get() || !freeIdRangeHints.mayHaveFreeIds(rangeIdx) || !lock.tryLock()) {
+            return IndexedIdGenerator.NO_ID;
+        }
+        try {
+            // Cleared before looking, so that ids made free in the range while we look set it again
+            freeIdRangeHints.clear(rangeIdx);
+            long[] closest = {IndexedIdGenerator.NO_ID, Long.MAX_VALUE};
+            IdRange.FreeIdVisitor visitor = (id, numberOfIds) -> {
+                long candidate = Math.min(Math.max(nearId, id), id + numberOfIds - 1);
+                long distance = Math.abs(candidate - nearId);
+                if (distance < closest[1]) {
+                    closest[0] = candidate;
+                    closest[1] = distance;
+                }
+                return distance > 0;
+            };
+            try (Seeker<IdRangeKey, IdRange> seeker =
+                    tree.seek(new IdRangeKey(rangeIdx), new IdRangeKey(rangeIdx + 1), cursorContext)) {
+                if (seeker.next()) {
+                    seeker.value().visitFreeIds(rangeIdx * idsPerEntry, generation, visitor);
+                }
+            }
+            long id = closest[0];
+            if (id != IndexedIdGenerator.NO_ID) {
+                // There may be more free ids in the range than the one we take
+                freeIdRangeHints.set(rangeIdx);
+                try (InternalMarker marker = markerProvider.getMarker(cursorContext)) {
+                    marker.markReserved(id, 1);
+                }
+            }
+            return id;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     void clearCache(CursorContext cursorContext) {
         lock.lock();
         try {
@@ -72,6 +72,12 @@ class IdRangeMarker implements IndexedIdGenerator.InternalMarker {
      */
     private final AtomicBoolean freeIdsNotifier;
 
+    /**
+     * Told about every range that this marker makes ids free or unreserved in, so that the {@link FreeIdScanner} knows
+     * which ranges are worth looking in for a free id near another id.
+     */
+    private final FreeIdRangeHints freeIdRangeHints;
+
     /**
      * Generation that this marker was instantiated at. It cannot change as long as this marker is unclosed.
      * All {@link IdRange ranges} written by this marker will get updated with this generation.
@@ -112,6 +118,7 @@ class IdRangeMarker implements IndexedIdGenerator.InternalMarker {
             ValueMerger<IdRangeKey, IdRange> merger,
             boolean started,
             AtomicBoolean freeIdsNotifier,
+            FreeIdRangeHints freeIdRangeHints,
             long generation,
             AtomicLong highestWrittenId,
             boolean bridgeIdGaps,
@@ -124,6 +131,7 @@ class IdRangeMarker implements IndexedIdGenerator.InternalMarker {
         this.merger = merger;
         this.started = started;
         this.freeIdsNotifier = freeIdsNotifier;
+        this.freeIdRangeHints = freeIdRangeHints;
         this.generation = generation;
         this.highestWrittenId = highestWrittenId;
         this.bridgeIdGaps = bridgeIdGaps;
@@ -180,6 +188,7 @@ class IdRangeMarker implements IndexedIdGenerator.InternalMarker {
             value.setBits(BITSET_RESERVED, idOffset(id), numberOfIds);
             writer.merge(key, value, merger);
             monitor.markedAsUnreserved(id);
+            freeIdRangeHints.set(idRangeIndex(id));
         }
     }
 
@@ -190,6 +199,7 @@ class IdRangeMarker implements IndexedIdGenerator.InternalMarker {
             value.setBits(BITSET_REUSE, idOffset(id), numberOfIds);
             writer.merge(key, value, merger);
             monitor.markedAsFree(id, numberOfIds);
+            freeIdRangeHints.set(idRangeIndex(id));
         }
 
         freeIdsNotifier.set(true);
@@ -208,6 +218,7 @@ class IdRangeMarker implements IndexedIdGenerator.InternalMarker {
             value.setBits(BITSET_RESERVED, idOffset, numberOfIds);
             writer.merge(key, value, merger);
             monitor.markedAsFree(id, numberOfIds);
+            freeIdRangeHints.set(idRangeIndex(id));
         }
 
         freeIdsNotifier.set(true);
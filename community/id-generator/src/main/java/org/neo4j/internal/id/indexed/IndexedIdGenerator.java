@@ -246,6 +246,23 @@ public class IndexedIdGenerator implements IdGenerator {
      */
     private final AtomicLong highId = new AtomicLong();
 
+    /**
+     * Number of ids a thread claims from {@link #highId} at a time, or 1 if ids are allocated from high id one at a
+     * time. See {@link #nextIdFromThreadArena()}.
+     */
+    private final int threadArenaSize;
+
+    /**
+     * The range of ids that each thread has claimed from {@link #highId}.
+     */
+    private final ThreadLocal<IdArena> threadArenas = ThreadLocal.withInitial(IdArena::new);
+
+    /**
+     * Bumped when the ids in the claimed ranges can no longer be trusted to be unused, which makes every thread claim
+     * a new range on its next allocation.
+     */
+    private final AtomicLong arenaEpoch = new AtomicLong();
+
     /**
      * Maximum id that this id generator can allocate.
      */
@@ -257,6 +274,11 @@ public class IndexedIdGenerator implements IdGenerator {
      */
     private final AtomicBoolean atLeastOneIdOnFreelist = new AtomicBoolean();
 
+    /**
+     * Which id ranges may have free ids, for {@link #nextId(long, CursorContext)}.
+     */
+    private final FreeIdRangeHints freeIdRangeHints = new FreeIdRangeHints();
+
     /**
      * Current generation of this id generator. Generation is used to normalize id states so that a deleted id of a previous generation
      * can be seen as free in the current generation. Generation is bumped on restart.
@@ -345,6 +367,7 @@ public class IndexedIdGenerator implements IdGenerator {
             // Let's optimistically think assume that there may be some free ids in here. This will ensure that a scan
             // is triggered on first request
             this.atLeastOneIdOnFreelist.set(true);
+            this.freeIdRangeHints.setAll();
         } else {
             needsRebuild = true;
             // We'll create this index when constructing the GBPTree below. The generation on its creation will be
@@ -368,6 +391,9 @@ public class IndexedIdGenerator implements IdGenerator {
                 openOptions);
 
         this.strictlyPrioritizeFreelist = config.get(GraphDatabaseInternalSettings.strictly_prioritize_id_freelist);
+        this.threadArenaSize = idType.highActivity() && allowLargeIdCaches
+                ? config.get(GraphDatabaseInternalSettings.id_generator_thread_arena_size)
+                : 1;
         this.cacheOptimisticRefillThreshold = strictlyPrioritizeFreelist ? 0 : cacheCapacity / 4;
         this.scanner = new FreeIdScanner(
                 idsPerEntry,
@@ -375,6 +401,7 @@ public class IndexedIdGenerator implements IdGenerator {
                 layout,
                 cache,
                 atLeastOneIdOnFreelist,
+                freeIdRangeHints,
                 context -> lockAndInstantiateMarker(true, context),
                 generation,
                 strictlyPrioritizeFreelist,
@@ -437,6 +464,9 @@ public class IndexedIdGenerator implements IdGenerator {
         // ongoing scan to find IDs (fast as it may be, although it can be I/O bound) so we allocate from highId
         // instead. This make highId slide a little even if there actually are free ids available,
         // but this should be a fairly rare event.
+        if (threadArenaSize > 1) {
+            return nextIdFromThreadArena();
+        }
         long id;
         do {
             id = highId.getAndIncrement();
@@ -446,6 +476,58 @@ public class IndexedIdGenerator implements IdGenerator {
         return id;
     }
 
+    /**
+     * Prefers a free id in the same id range as {@code nearId}, which is cheap to look for since it's a single entry
+     * in the tree, over whatever the cache or high id would hand out. Falls back to {@link #nextId(CursorContext)}.
+     */
+    @Override
+    public long nextId(long nearId, CursorContext cursorContext) {
+        if (started && nearId >= 0 && nearId < highId.get()) {
+            long id = scanner.tryAllocateFreeIdNear(nearId, cursorContext);
+            if (id != NO_ID) {
+                monitor.allocatedFromReused(id, 1);
+                return id;
+            }
+        }
+        return nextId(cursorContext);
+    }
+
+    /**
+     * Allocates the next id of the range the calling thread has claimed from {@link #highId}, and claims a new range
+     * when that one runs out. Only claiming a range contends with other threads, and the records a thread creates
+     * end up next to each other in the store instead of interleaved with records of other threads.
+     * <p>
+     * Ids of a range that never get used are like other ids allocated from high id whose transaction never committed:
+     * they get marked as deleted when the gap is bridged by a higher committed id, and are free after the next
+     * restart.
+     */
+    private long nextIdFromThreadArena() {
+        IdArena arena = threadArenas.get();
+        long epoch = arenaEpoch.get();
+        long id;
+        do {
+            if (arena.epoch != epoch || arena.nextId == arena.endId) {
+                claimArena(arena, epoch);
+            }
+            id = arena.nextId++;
+        } while (IdValidator.isReservedId(id));
+        monitor.allocatedFromHigh(id, 1);
+        return id;
+    }
+
+    private void claimArena(IdArena arena, long epoch) {
+        long startId;
+        long endId;
+        do {
+            startId = highId.get();
+            IdValidator.assertIdWithinMaxCapacity(idType, startId, maxId);
+            endId = Math.min(startId + threadArenaSize, maxId + 1);
+        } while (!highId.compareAndSet(startId, endId));
+        arena.nextId = startId;
+        arena.endId = endId;
+        arena.epoch = epoch;
+    }
+
     @Override
     public long nextConsecutiveIdRange(int numberOfIds, boolean favorSamePage, CursorContext cursorContext) {
         if (numberOfIds <= biggestSlotSize) {
@@ -522,6 +604,7 @@ public class IndexedIdGenerator implements IdGenerator {
                     started ? defaultMerger : recoveryMerger,
                     started,
                     atLeastOneIdOnFreelist,
+                    freeIdRangeHints,
                     generation,
                     highestWrittenId,
                     bridgeIdGaps,
@@ -573,6 +656,8 @@ public class IndexedIdGenerator implements IdGenerator {
                 highestWrittenId.set(highestId);
             }
         }
+        // Ranges claimed before this point, e.g. during recovery, may not agree with the high id we start with
+        arenaEpoch.incrementAndGet();
 
         started = true;
 
@@ -607,6 +692,9 @@ public class IndexedIdGenerator implements IdGenerator {
 
     @Override
     public void clearCache(CursorContext cursorContext) {
+        // Ids in claimed ranges may have been allocated by someone else in the meantime, e.g. in a cluster
+        // where another member allocated ids while this one was following
+        arenaEpoch.incrementAndGet();
         if (!readOnlyChecker.isReadOnly()) {
             // Make the scanner clear it because it needs to coordinate with the scan lock
             monitor.clearingCache();
@@ -838,6 +926,15 @@ public class IndexedIdGenerator implements IdGenerator {
         readOnlyChecker.check();
     }
 
+    /**
+     * A range of ids claimed from high id by one thread, only ever accessed by that thread.
+     */
+    private static class IdArena {
+        private long nextId;
+        private long endId;
+        private long epoch = -1;
+    }
+
     interface InternalMarker extends Marker {
         default void markReserved(long id) {
             markReserved(id, 1);
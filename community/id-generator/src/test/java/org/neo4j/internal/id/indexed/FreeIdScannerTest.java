@@ -85,6 +85,7 @@ class FreeIdScannerTest {
 
     // instantiated in tests
     private AtomicBoolean atLeastOneFreeId;
+    private FreeIdRangeHints freeIdRangeHints;
     private IdCache cache;
     private RecordingReservedMarkerProvider reuser;
     private RecordingMonitor recordingMonitor;
@@ -130,6 +131,33 @@ class FreeIdScannerTest {
         assertThat(scanner.tryLoadFreeIdsIntoCache(false, NULL_CONTEXT)).isTrue();
     }
 
+    @Test
+    void shouldOnlyLookForFreeIdNearHintedIdInRangesWhereIdsWereMadeFree() {
+        // given
+        int generation = 1;
+        FreeIdScanner scanner = scanner(IDS_PER_ENTRY, 8, generation, true);
+        forEachId(generation, range(10, 11)).accept((marker, id) -> {
+            marker.markDeleted(id);
+            marker.markFree(id);
+        });
+        assertThat(freeIdRangeHints.mayHaveFreeIds(0)).isTrue();
+        assertThat(freeIdRangeHints.mayHaveFreeIds(1)).isFalse();
+
+        // when
+        long nearFreeId = scanner.tryAllocateFreeIdNear(12, NULL_CONTEXT);
+
+        // then the range is still looked in since it may have more free ids
+        assertThat(nearFreeId).isEqualTo(10);
+        assertThat(freeIdRangeHints.mayHaveFreeIds(0)).isTrue();
+
+        // when
+        long noFreeId = scanner.tryAllocateFreeIdNear(12, NULL_CONTEXT);
+
+        // then the range is not looked in again until an id in it is made free
+        assertThat(noFreeId).isEqualTo(IndexedIdGenerator.NO_ID);
+        assertThat(freeIdRangeHints.mayHaveFreeIds(0)).isFalse();
+    }
+
     @Test
     void shouldFindMarkAndCacheOneIdFromAnEntry() {
         // given
@@ -718,9 +746,19 @@ class FreeIdScannerTest {
         this.cache = cache;
         this.reuser = new RecordingReservedMarkerProvider(tree, generation, new AtomicLong());
         this.atLeastOneFreeId = new AtomicBoolean();
+        this.freeIdRangeHints = new FreeIdRangeHints();
         this.recordingMonitor = new RecordingMonitor();
         return new FreeIdScanner(
-                idsPerEntry, tree, layout, cache, atLeastOneFreeId, reuser, generation, strict, recordingMonitor);
+                idsPerEntry,
+                tree,
+                layout,
+                cache,
+                atLeastOneFreeId,
+                freeIdRangeHints,
+                reuser,
+                generation,
+                strict,
+                recordingMonitor);
     }
 
     private void assertCacheHasIdsNonExhaustive(Range... ranges) {
@@ -763,6 +801,7 @@ class FreeIdScannerTest {
                 IdRangeMerger.DEFAULT,
                 true,
                 atLeastOneFreeId,
+                freeIdRangeHints,
                 generation,
                 new AtomicLong(),
                 bridgeIdGaps,
@@ -848,6 +887,7 @@ class FreeIdScannerTest {
                         new IdRangeMerger(false, NO_MONITOR),
                         true,
                         atLeastOneFreeId,
+                        freeIdRangeHints,
                         generation,
                         highestWrittenId,
                         false,
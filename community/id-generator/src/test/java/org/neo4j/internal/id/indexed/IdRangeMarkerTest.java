@@ -210,6 +210,7 @@ class IdRangeMarkerTest {
                 mock(ValueMerger.class),
                 true,
                 new AtomicBoolean(),
+                new FreeIdRangeHints(),
                 1,
                 new AtomicLong(0),
                 true,
@@ -236,6 +237,7 @@ class IdRangeMarkerTest {
                 IdRangeMerger.DEFAULT,
                 true,
                 new AtomicBoolean(),
+                new FreeIdRangeHints(),
                 1,
                 new AtomicLong(reservedId - 1),
                 true,
@@ -284,6 +286,7 @@ class IdRangeMarkerTest {
                 IdRangeMerger.DEFAULT,
                 true,
                 new AtomicBoolean(),
+                new FreeIdRangeHints(),
                 1,
                 new AtomicLong(0),
                 true,
@@ -319,6 +322,7 @@ class IdRangeMarkerTest {
                 merger,
                 true,
                 new AtomicBoolean(),
+                new FreeIdRangeHints(),
                 1,
                 highestWritternId,
                 true,
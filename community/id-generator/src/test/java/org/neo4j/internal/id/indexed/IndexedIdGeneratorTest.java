@@ -39,6 +39,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.neo4j.annotations.documented.ReporterFactories.noopReporterFactory;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.id_generator_thread_arena_size;
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.strictly_prioritize_id_freelist;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.readOnly;
@@ -101,6 +102,7 @@ import org.neo4j.internal.id.FreeIds;
 import org.neo4j.internal.id.IdCapacityExceededException;
 import org.neo4j.internal.id.IdGenerator.Marker;
 import org.neo4j.internal.id.IdSlotDistribution;
+import org.neo4j.internal.id.IdType;
 import org.neo4j.internal.id.IdValidator;
 import org.neo4j.internal.id.TestIdType;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -1492,6 +1494,113 @@ class IndexedIdGeneratorTest {
         }
     }
 
+    @Test
+    void shouldAllocateContiguousIdsFromThreadArenas() throws Exception {
+        // given
+        openWithThreadArenas(16);
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        long first = idGenerator.nextId(NULL_CONTEXT);
+
+        // when
+        long otherThreadsId;
+        try (var t2 = new OtherThreadExecutor("T2")) {
+            otherThreadsId =
+                    t2.executeDontWait(() -> idGenerator.nextId(NULL_CONTEXT)).get();
+        }
+        long second = idGenerator.nextId(NULL_CONTEXT);
+
+        // then
+        assertThat(first).isEqualTo(0);
+        assertThat(otherThreadsId).isEqualTo(16);
+        assertThat(second).isEqualTo(1);
+        assertThat(idGenerator.getHighId()).isEqualTo(32);
+    }
+
+    @Test
+    void shouldPreferFreeIdsOverThreadArena() throws IOException {
+        // given
+        openWithThreadArenas(16);
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        long id = idGenerator.nextId(NULL_CONTEXT);
+        markUsed(id);
+        markDeleted(id);
+        markFree(id);
+
+        // when
+        idGenerator.maintenance(NULL_CONTEXT);
+
+        // then
+        assertThat(idGenerator.nextId(NULL_CONTEXT)).isEqualTo(id);
+        assertThat(idGenerator.nextId(NULL_CONTEXT)).isEqualTo(id + 1);
+    }
+
+    @Test
+    void shouldClaimNewThreadArenaAfterClearCache() throws IOException {
+        // given
+        openWithThreadArenas(16);
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        assertThat(idGenerator.nextId(NULL_CONTEXT)).isEqualTo(0);
+
+        // when
+        idGenerator.clearCache(NULL_CONTEXT);
+        idGenerator.setHighId(10);
+
+        // then
+        assertThat(idGenerator.nextId(NULL_CONTEXT)).isEqualTo(16);
+    }
+
+    @Test
+    void shouldPreferFreeIdsNearHintedId() throws IOException {
+        // given
+        open();
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        idGenerator.setHighId(3 * IDS_PER_ENTRY);
+        long[] freedIds = {10, 20, IDS_PER_ENTRY + 50};
+        for (long id : freedIds) {
+            markUsed(id);
+            markDeleted(id);
+            markFree(id);
+        }
+
+        // when/then
+        assertThat(idGenerator.nextId(18, NULL_CONTEXT)).isEqualTo(20);
+        assertThat(idGenerator.nextId(IDS_PER_ENTRY + 5, NULL_CONTEXT)).isEqualTo(IDS_PER_ENTRY + 50);
+        assertThat(idGenerator.nextId(18, NULL_CONTEXT)).isEqualTo(10);
+        // no more free ids near the hint, nor anywhere else since the ones above were reserved when allocated
+        assertThat(idGenerator.nextId(18, NULL_CONTEXT)).isEqualTo(3 * IDS_PER_ENTRY);
+    }
+
+    private void openWithThreadArenas(int arenaSize) {
+        IdType highActivityIdType = new IdType() {
+            @Override
+            public boolean highActivity() {
+                return true;
+            }
+
+            @Override
+            public String name() {
+                return "HIGH_ACTIVITY_TEST";
+            }
+        };
+        idGenerator = new IndexedIdGenerator(
+                pageCache,
+                fileSystem,
+                file,
+                immediate(),
+                highActivityIdType,
+                true,
+                () -> 0,
+                MAX_ID,
+                writable(),
+                Config.defaults(id_generator_thread_arena_size, arenaSize),
+                DEFAULT_DATABASE_NAME,
+                CONTEXT_FACTORY,
+                NO_MONITOR,
+                getOpenOptions(),
+                SINGLE_IDS,
+                PageCacheTracer.NULL);
+    }
+
     private void assertOperationThrowInReadOnlyMode(Function<IndexedIdGenerator, Executable> operation)
             throws IOException {
         Path file = directory.file("existing");
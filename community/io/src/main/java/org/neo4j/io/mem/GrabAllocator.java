@@ -20,15 +20,27 @@
 package org.neo4j.io.mem;
 
 import static org.neo4j.io.ByteUnit.kibiBytes;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.util.FeatureToggles.getInteger;
 
 import java.lang.ref.Cleaner;
+import org.neo4j.internal.nativeimpl.HugePages;
+import org.neo4j.internal.nativeimpl.Numa;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.memory.MemoryTracker;
 
 /**
  * This memory allocator is allocating memory in large segments, called "grabs", and the memory returned by the memory
  * manager is page aligned, and plays well with transparent huge pages and other operating system optimisations.
+ * <p>
+ * Each grab is placed on the NUMA nodes of the machine according to a {@link NumaPolicy}. With the
+ * {@link NumaPolicy#LOCAL local} policy, the allocator keeps a current grab per node, and allocates from the grab of
+ * the requested node.
+ * <p>
+ * Grabs can also be backed by huge pages, according to a {@link HugePagePolicy}. Such grabs are mapped directly from
+ * the operating system in multiples of the huge page size, and the allocator falls back to regular pages for any grab
+ * that cannot be backed by huge pages. Huge pages that are too large to size grabs by, like the one gigabyte pages of
+ * some machines, are not used for grabs, and the allocator falls back to the next weaker policy instead.
  */
 public final class GrabAllocator implements MemoryAllocator {
     private static final Cleaner globalCleaner = globalCleaner();
@@ -43,9 +55,12 @@ public final class GrabAllocator implements MemoryAllocator {
      * @param expectedMaxMemory The maximum amount of memory that this memory manager is expected to allocate. The
      * actual amount of memory used can end up greater than this value, if some of it gets wasted on alignment padding.
      * @param memoryTracker memory usage tracker
+     * @param numaPolicy how the grabs are placed on the NUMA nodes of the machine.
+     * @param hugePagePolicy whether the grabs are backed by huge pages.
      */
-    GrabAllocator(long expectedMaxMemory, MemoryTracker memoryTracker) {
-        this.grabs = new Grabs(expectedMaxMemory, memoryTracker);
+    GrabAllocator(
+            long expectedMaxMemory, MemoryTracker memoryTracker, NumaPolicy numaPolicy, HugePagePolicy hugePagePolicy) {
+        this.grabs = new Grabs(expectedMaxMemory, memoryTracker, numaPolicy, hugePagePolicy);
         this.cleanable = globalCleaner.register(this, new GrabsDeallocator(grabs));
     }
 
@@ -59,9 +74,24 @@ public final class GrabAllocator implements MemoryAllocator {
         return grabs.availableMemory();
     }
 
+    @Override
+    public synchronized long hugePageMemory() {
+        return grabs.hugePageMemory();
+    }
+
     @Override
     public synchronized long allocateAligned(long bytes, long alignment) {
-        return grabs.allocateAligned(bytes, alignment);
+        return grabs.allocateAligned(bytes, alignment, grabs.localNode());
+    }
+
+    @Override
+    public int nodeCount() {
+        return grabs.nodeCount();
+    }
+
+    @Override
+    public synchronized long allocateAligned(long bytes, long alignment, int node) {
+        return grabs.allocateAligned(bytes, alignment, Math.floorMod(node, grabs.nodeCount()));
     }
 
     @Override
@@ -74,22 +104,46 @@ public final class GrabAllocator implements MemoryAllocator {
         private final long address;
         private final long limit;
         private final MemoryTracker memoryTracker;
+        private final boolean hugePages;
         private long nextPointer;
 
-        Grab(Grab next, long size, MemoryTracker memoryTracker) {
+        Grab(Grab next, long size, MemoryTracker memoryTracker, HugePagePolicy hugePagePolicy) {
+            long mapped = map(size, hugePagePolicy);
+            if (mapped != 0) {
+                try {
+                    UnsafeUtil.registerAllocation(mapped, size, memoryTracker);
+                } catch (Throwable t) {
+                    HugePages.unmap(mapped, size);
+                    throw t;
+                }
+            }
             this.next = next;
-            this.address = UnsafeUtil.allocateMemory(size, memoryTracker);
+            this.address = mapped != 0 ? mapped : UnsafeUtil.allocateMemory(size, memoryTracker);
             this.limit = address + size;
             this.memoryTracker = memoryTracker;
+            this.hugePages = mapped != 0;
             nextPointer = address;
         }
 
-        Grab(Grab next, long address, long limit, long nextPointer, MemoryTracker memoryTracker) {
+        Grab(Grab next, long address, long limit, long nextPointer, MemoryTracker memoryTracker, boolean hugePages) {
             this.next = next;
             this.address = address;
             this.limit = limit;
             this.nextPointer = nextPointer;
             this.memoryTracker = memoryTracker;
+            this.hugePages = hugePages;
+        }
+
+        private static long map(long size, HugePagePolicy hugePagePolicy) {
+            long address = 0;
+            if (hugePagePolicy == HugePagePolicy.EXPLICIT) {
+                address = HugePages.mapExplicit(size);
+            }
+            if (address == 0 && hugePagePolicy != HugePagePolicy.DISABLED) {
+                // The pool of explicit huge pages can run dry, so fall back to transparent huge pages.
+                address = HugePages.mapTransparent(size);
+            }
+            return address;
         }
 
         private static long nextAligned(long pointer, long alignment) {
@@ -103,6 +157,10 @@ public final class GrabAllocator implements MemoryAllocator {
             return pointer + (alignment - off);
         }
 
+        long size() {
+            return limit - address;
+        }
+
         long allocate(long bytes, long alignment) {
             long allocation = nextAligned(nextPointer, alignment);
             nextPointer = allocation + bytes;
@@ -110,7 +168,23 @@ public final class GrabAllocator implements MemoryAllocator {
         }
 
         void free() {
-            UnsafeUtil.free(address, limit - address, memoryTracker);
+            if (hugePages) {
+                UnsafeUtil.unregisterAllocation(address, limit - address, memoryTracker);
+                HugePages.unmap(address, limit - address);
+            } else {
+                UnsafeUtil.free(address, limit - address, memoryTracker);
+            }
+        }
+
+        void place(NumaPolicy numaPolicy, int node) {
+            long pageSize = UnsafeUtil.pageSize();
+            long start = nextAligned(address, pageSize);
+            long end = limit - (limit % pageSize);
+            if (numaPolicy == NumaPolicy.INTERLEAVE) {
+                Numa.interleave(start, end - start);
+            } else if (numaPolicy == NumaPolicy.LOCAL) {
+                Numa.bindToNode(start, end - start, node);
+            }
         }
 
         boolean canAllocate(long bytes, long alignment) {
@@ -118,7 +192,7 @@ public final class GrabAllocator implements MemoryAllocator {
         }
 
         Grab setNext(Grab grab) {
-            return new Grab(grab, address, limit, nextPointer, memoryTracker);
+            return new Grab(grab, address, limit, nextPointer, memoryTracker, hugePages);
         }
 
         @Override
@@ -126,7 +200,9 @@ public final class GrabAllocator implements MemoryAllocator {
             long size = limit - address;
             long reserve = nextPointer > limit ? 0 : limit - nextPointer;
             double use = (1.0 - reserve / ((double) size)) * 100.0;
-            return String.format("Grab[size = %d bytes, reserve = %d bytes, use = %5.2f %%]", size, reserve, use);
+            return String.format(
+                    "Grab[size = %d bytes, reserve = %d bytes, use = %5.2f %%, huge pages = %b]",
+                    size, reserve, use, hugePages);
         }
     }
 
@@ -135,81 +211,153 @@ public final class GrabAllocator implements MemoryAllocator {
          * The amount of memory, in bytes, to grab in each Grab.
          */
         private static final long GRAB_SIZE = getInteger(GrabAllocator.class, "GRAB_SIZE", (int) kibiBytes(512));
+        /**
+         * The largest huge page size, in bytes, that grabs can be sized in multiples of.
+         */
+        private static final long MAX_HUGE_PAGE_SIZE =
+                getInteger(GrabAllocator.class, "MAX_HUGE_PAGE_SIZE", (int) mebiBytes(32));
 
         private final MemoryTracker memoryTracker;
+        private final NumaPolicy numaPolicy;
+        private final HugePagePolicy hugePagePolicy;
+        // Grabs backed by huge pages are sized in multiples of the huge page size, and at least one huge page large.
+        private final long grabSize;
+        private final long grabSizeMultiple;
+        // The current grab of each node, each heading the list of all the grabs on that node.
+        private final Grab[] heads;
         private long expectedMaxMemory;
-        private Grab head;
 
-        Grabs(long expectedMaxMemory, MemoryTracker memoryTracker) {
+        Grabs(
+                long expectedMaxMemory,
+                MemoryTracker memoryTracker,
+                NumaPolicy numaPolicy,
+                HugePagePolicy hugePagePolicy) {
             this.expectedMaxMemory = expectedMaxMemory;
             this.memoryTracker = memoryTracker;
+            this.numaPolicy = numaPolicy;
+            this.hugePagePolicy = usablePolicy(hugePagePolicy);
+            this.grabSizeMultiple = hugePageSize(this.hugePagePolicy);
+            this.grabSize = Math.max(GRAB_SIZE, grabSizeMultiple);
+            this.heads = new Grab[numaPolicy == NumaPolicy.LOCAL ? Numa.nodeCount() : 1];
+        }
+
+        private static HugePagePolicy usablePolicy(HugePagePolicy hugePagePolicy) {
+            HugePagePolicy policy = hugePagePolicy;
+            while (hugePageSize(policy) > MAX_HUGE_PAGE_SIZE) {
+                policy = HugePagePolicy.values()[policy.ordinal() - 1];
+            }
+            return policy;
+        }
+
+        private static long hugePageSize(HugePagePolicy hugePagePolicy) {
+            return switch (hugePagePolicy) {
+                case DISABLED -> 1;
+                case TRANSPARENT -> HugePages.transparentHugePageSize();
+                case EXPLICIT -> HugePages.hugePageSize();
+            };
+        }
+
+        int nodeCount() {
+            return heads.length;
+        }
+
+        int localNode() {
+            return heads.length == 1 ? 0 : Math.floorMod(Numa.currentNode(), heads.length);
         }
 
         long usedMemory() {
             long sum = 0;
-            Grab grab = head;
-            while (grab != null) {
-                sum += grab.nextPointer - grab.address;
-                grab = grab.next;
+            for (Grab head : heads) {
+                Grab grab = head;
+                while (grab != null) {
+                    sum += grab.nextPointer - grab.address;
+                    grab = grab.next;
+                }
+            }
+            return sum;
+        }
+
+        long hugePageMemory() {
+            long sum = 0;
+            for (Grab head : heads) {
+                Grab grab = head;
+                while (grab != null) {
+                    if (grab.hugePages) {
+                        sum += grab.nextPointer - grab.address;
+                    }
+                    grab = grab.next;
+                }
             }
             return sum;
         }
 
         long availableMemory() {
-            Grab grab = head;
-            long availableInCurrentGrab = 0;
-            if (grab != null) {
-                availableInCurrentGrab = grab.limit - grab.nextPointer;
+            long availableInCurrentGrabs = 0;
+            for (Grab grab : heads) {
+                if (grab != null) {
+                    availableInCurrentGrabs += grab.limit - grab.nextPointer;
+                }
             }
-            return Math.max(expectedMaxMemory, 0L) + availableInCurrentGrab;
+            return Math.max(expectedMaxMemory, 0L) + availableInCurrentGrabs;
         }
 
         public void close() {
-            Grab current = head;
+            for (int node = 0; node < heads.length; node++) {
+                Grab current = heads[node];
 
-            while (current != null) {
-                current.free();
-                current = current.next;
+                while (current != null) {
+                    current.free();
+                    current = current.next;
+                }
+                heads[node] = null;
             }
-            head = null;
         }
 
-        long allocateAligned(long bytes, long alignment) {
+        private Grab newGrab(Grab next, long size, int node) {
+            long roundedSize = (size + grabSizeMultiple - 1) / grabSizeMultiple * grabSizeMultiple;
+            Grab grab = new Grab(next, roundedSize, memoryTracker, hugePagePolicy);
+            grab.place(numaPolicy, node);
+            return grab;
+        }
+
+        long allocateAligned(long bytes, long alignment, int node) {
             if (alignment <= 0) {
                 throw new IllegalArgumentException("Invalid alignment: " + alignment + ". Alignment must be positive.");
             }
-            long grabSize = Math.min(GRAB_SIZE, expectedMaxMemory);
+            Grab head = heads[node];
+            long grabSize = Math.min(this.grabSize, expectedMaxMemory);
             long maxAllocationSize = bytes + alignment - 1;
-            if (maxAllocationSize > GRAB_SIZE) {
+            if (maxAllocationSize > this.grabSize) {
                 // This is a huge allocation. Put it in its own grab and keep any existing grab at the head.
                 grabSize = bytes;
                 Grab nextGrab = head == null ? null : head.next;
-                Grab allocationGrab = new Grab(nextGrab, grabSize, memoryTracker);
+                Grab allocationGrab = newGrab(nextGrab, grabSize, node);
                 if (!allocationGrab.canAllocate(bytes, alignment)) {
                     allocationGrab.free();
                     grabSize = maxAllocationSize;
-                    allocationGrab = new Grab(nextGrab, grabSize, memoryTracker);
+                    allocationGrab = newGrab(nextGrab, grabSize, node);
                 }
                 long allocation = allocationGrab.allocate(bytes, alignment);
-                head = head == null ? allocationGrab : head.setNext(allocationGrab);
-                expectedMaxMemory -= bytes;
+                heads[node] = head == null ? allocationGrab : head.setNext(allocationGrab);
+                expectedMaxMemory -= allocationGrab.size();
                 return allocation;
             }
 
             if (head == null || !head.canAllocate(bytes, alignment)) {
                 if (grabSize < maxAllocationSize) {
                     grabSize = bytes;
-                    Grab grab = new Grab(head, grabSize, memoryTracker);
+                    Grab grab = newGrab(head, grabSize, node);
                     if (grab.canAllocate(bytes, alignment)) {
-                        expectedMaxMemory -= grabSize;
-                        head = grab;
-                        return head.allocate(bytes, alignment);
+                        expectedMaxMemory -= grab.size();
+                        heads[node] = grab;
+                        return grab.allocate(bytes, alignment);
                     }
                     grab.free();
                     grabSize = maxAllocationSize;
                 }
-                head = new Grab(head, grabSize, memoryTracker);
-                expectedMaxMemory -= grabSize;
+                head = newGrab(head, grabSize, node);
+                heads[node] = head;
+                expectedMaxMemory -= head.size();
             }
             return head.allocate(bytes, alignment);
         }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import org.neo4j.internal.nativeimpl.HugePages;
+
+/**
+ * Whether a {@link MemoryAllocator} backs the memory it allocates with huge pages, which cover more memory per TLB
+ * entry than regular pages, and so cut down on TLB misses when large amounts of memory are accessed at random.
+ */
+public enum HugePagePolicy {
+    /**
+     * Allocate memory with regular pages.
+     */
+    DISABLED {
+        @Override
+        boolean isAvailable() {
+            return true;
+        }
+    },
+    /**
+     * Advise the operating system to back the memory with transparent huge pages, which it does when it can find
+     * free huge pages.
+     */
+    TRANSPARENT {
+        @Override
+        boolean isAvailable() {
+            return HugePages.isTransparentAvailable();
+        }
+    },
+    /**
+     * Map the memory from the pool of huge pages that has been reserved by the administrator.
+     */
+    EXPLICIT {
+        @Override
+        boolean isAvailable() {
+            return HugePages.isAvailable() && HugePages.explicitPagesFree() > 0;
+        }
+    };
+
+    abstract boolean isAvailable();
+
+    /**
+     * @return this policy if it is available on this machine, otherwise the closest weaker policy that is. Explicit
+     * huge pages fall back to transparent huge pages, and transparent huge pages fall back to regular pages.
+     */
+    public HugePagePolicy availablePolicy() {
+        HugePagePolicy policy = this;
+        while (!policy.isAvailable()) {
+            policy = values()[policy.ordinal() - 1];
+        }
+        return policy;
+    }
+}
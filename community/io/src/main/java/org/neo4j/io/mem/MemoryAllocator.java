@@ -26,7 +26,16 @@ import org.neo4j.memory.MemoryTracker;
  */
 public interface MemoryAllocator {
     static MemoryAllocator createAllocator(long expectedMemory, MemoryTracker memoryTracker) {
-        return new GrabAllocator(expectedMemory, memoryTracker);
+        return createAllocator(expectedMemory, memoryTracker, NumaPolicy.DEFAULT);
+    }
+
+    static MemoryAllocator createAllocator(long expectedMemory, MemoryTracker memoryTracker, NumaPolicy numaPolicy) {
+        return createAllocator(expectedMemory, memoryTracker, numaPolicy, HugePagePolicy.DISABLED);
+    }
+
+    static MemoryAllocator createAllocator(
+            long expectedMemory, MemoryTracker memoryTracker, NumaPolicy numaPolicy, HugePagePolicy hugePagePolicy) {
+        return new GrabAllocator(expectedMemory, memoryTracker, numaPolicy, hugePagePolicy);
     }
 
     /**
@@ -39,6 +48,14 @@ public interface MemoryAllocator {
      */
     long availableMemory();
 
+    /**
+     * @return The part of {@link #usedMemory()}, in bytes, that is backed by huge pages. For transparent huge pages,
+     * this is the memory that the operating system has been advised to back with huge pages.
+     */
+    default long hugePageMemory() {
+        return 0;
+    }
+
     /**
      * Allocate a contiguous, aligned region of memory of the given size in bytes.
      * @param bytes the number of bytes to allocate.
@@ -48,6 +65,28 @@ public interface MemoryAllocator {
      */
     long allocateAligned(long bytes, long alignment);
 
+    /**
+     * @return the number of NUMA nodes that this allocator places memory on, with
+     * {@link #allocateAligned(long, long, int)}. This is {@code 1} for allocators that are not NUMA aware, or that
+     * spread their memory over all nodes.
+     */
+    default int nodeCount() {
+        return 1;
+    }
+
+    /**
+     * Allocate a contiguous, aligned region of memory of the given size in bytes, on the given NUMA node.
+     * Allocators that do not place memory on specific nodes ignore the node.
+     * @param bytes the number of bytes to allocate.
+     * @param alignment The byte multiple that the allocated pointers have to be aligned at.
+     * @param node the node to place the memory on, less than {@link #nodeCount()}.
+     * @return A pointer to the allocated memory.
+     * @throws OutOfMemoryError if the requested memory could not be allocated.
+     */
+    default long allocateAligned(long bytes, long alignment, int node) {
+        return allocateAligned(bytes, alignment);
+    }
+
     /**
      * Close all allocated resources and free all allocated memory.
      * Closing can happen by calling close explicitly or by GC as soon as allocator will become phantom reachable.
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+/**
+ * How a {@link MemoryAllocator} places the memory it allocates on the NUMA nodes of the machine.
+ */
+public enum NumaPolicy {
+    /**
+     * Leave the placement to the operating system, which usually puts memory on the node of the thread that first
+     * touches it.
+     */
+    DEFAULT,
+    /**
+     * Spread the memory evenly over all nodes, so the memory bandwidth of all nodes is used, and no node runs out of
+     * memory before the others.
+     */
+    INTERLEAVE,
+    /**
+     * Place each allocation on the node of the thread that makes it, so threads can access the memory they allocate
+     * without crossing the interconnect between the nodes.
+     */
+    LOCAL
+}
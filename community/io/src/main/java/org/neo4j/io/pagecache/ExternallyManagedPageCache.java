@@ -74,6 +74,12 @@ public class ExternallyManagedPageCache implements PageCache {
         delegate.flushAndForce(flushEvent);
     }
 
+    @Override
+    public void flushDirtyPages(List<PagedFile> files, IOController ioController, DatabaseFlushEvent flushEvent)
+            throws IOException {
+        delegate.flushDirtyPages(files, ioController, flushEvent);
+    }
+
     @Override
     public int pageSize() {
         return delegate.pageSize();
@@ -73,4 +73,18 @@ public interface IOController {
     default boolean isEnabled() {
         return false;
     }
+
+    /**
+     * Invoked when a checkpoint starts to flush the {@link PageCache}, before any IO of that flush is limited.
+     */
+    default void checkpointStarted() {}
+
+    /**
+     * Invoked when a checkpoint is done flushing the {@link PageCache}, to report how the IO of that flush was limited.
+     *
+     * @param flushEvent the event of the flush made by the checkpoint.
+     */
+    default void checkpointCompleted(DatabaseFlushEvent flushEvent) {
+        flushEvent.ioControllerLimit(configuredLimit());
+    }
 }
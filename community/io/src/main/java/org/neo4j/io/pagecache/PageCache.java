@@ -31,6 +31,7 @@ import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.io.pagecache.buffer.IOBufferFactory;
 import org.neo4j.io.pagecache.impl.muninn.VersionStorage;
 import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 
 /**
  * A page caching mechanism that allows caching multiple files and accessing their data
@@ -175,6 +176,26 @@ public interface PageCache extends AutoCloseable {
      */
     void flushAndForce(DatabaseFlushEvent flushEvent) throws IOException;
 
+    /**
+     * Write out the dirty pages of the given files, without forcing them.
+     * <p>
+     * This is meant for writing out many files at once, like a checkpoint does, ahead of forcing each of them with
+     * {@link PagedFile#flushAndForce(FileFlushEvent)}. Implementations are free to spread the writes over several
+     * threads. Implementations that cannot write pages without forcing them, flush and force each file in turn.
+     *
+     * @param files the mapped files to write out.
+     * @param ioController the io controller that limits the writes.
+     * @param flushEvent the database flush event to report the writes to.
+     */
+    default void flushDirtyPages(List<PagedFile> files, IOController ioController, DatabaseFlushEvent flushEvent)
+            throws IOException {
+        for (PagedFile file : files) {
+            try (FileFlushEvent fileFlushEvent = flushEvent.beginFileFlush()) {
+                file.flushAndForce(fileFlushEvent);
+            }
+        }
+    }
+
     /**
      * Close the page cache to prevent any future mapping of files.
      *
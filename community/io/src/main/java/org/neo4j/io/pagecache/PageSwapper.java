@@ -61,6 +61,24 @@ public interface PageSwapper extends Closeable {
      */
     long read(long filePageId, long bufferAddress, int bufferLength) throws IOException;
 
+    /**
+     * Read pages from the concrete file on the file system into the given buffers, starting at the location of the
+     * given startFilePageId. The buffers are filled in order, so this is a single sequential read of the file region
+     * covered by the sum of the buffer lengths.
+     * <p>
+     * Returns the number of bytes read in from the file. May be zero if the requested startFilePageId was beyond the
+     * end of the file. If the file does not have enough data to fill up all the buffers, then the remaining buffer
+     * space will be filled with zeros.
+     * <p>
+     * The contents of the buffers are undefined if an exception is thrown.
+     * <p>
+     * Note: It is possible for the channel to be asynchronously closed while
+     * this operation is taking place. For instance, if the current thread is
+     * interrupted. If this happens, then the implementation must reopen the
+     * channel and the operation must be retried.
+     */
+    long read(long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException;
+
     /**
      * Write the contents of the page given by the bufferAddress and default length of page buffer,
      * to the concrete file on the file system, at the located indicated by the given
@@ -108,6 +126,34 @@ public interface PageSwapper extends Closeable {
     long write(long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length, int totalAffectedPages)
             throws IOException;
 
+    /**
+     * Write a batch of page vectors, to the concrete file on the file system.
+     * Each vector is a run of consecutive file pages, that starts at the location of the corresponding file page id in
+     * startFilePageIds, and is made of the next vectorLengths buffers in the bufferAddresses and bufferLengths arrays.
+     * <p>
+     * Swappers that {@link #canBatchWrites() can batch writes} hand all the vectors to the operating system at once.
+     * Other swappers write them one vector at a time.
+     * <p>
+     * The same guarantees as for the vectored {@link #write(long, long[], int[], int, int)} apply, if an exception is
+     * thrown.
+     * <p>
+     * Returns the number of bytes written to the file.
+     */
+    long write(
+            long[] startFilePageIds,
+            int[] vectorLengths,
+            int vectors,
+            long[] bufferAddresses,
+            int[] bufferLengths,
+            int totalAffectedPages)
+            throws IOException;
+
+    /**
+     * @return {@code true} if this swapper can write a batch of page vectors at once, such that callers should prefer
+     * to collect the pages they write into batches, over writing each vector as soon as it is complete.
+     */
+    boolean canBatchWrites();
+
     /**
      * Notification that a page has been evicted, used to clean up state in structures
      * outside the page table.
@@ -70,4 +70,10 @@ public interface PageSwapperFactory {
             IOController ioController,
             SwapperSet swappers)
             throws IOException;
+
+    /**
+     * Release any resources that are shared by the swappers from this factory. This is called when the page cache
+     * that uses this factory is closed, after all of its files have been unmapped.
+     */
+    default void close() {}
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory.createBlockSwapper;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import org.neo4j.internal.nativeimpl.IoUring;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * A factory for SingleFilePageSwapper instances, that do their vectored reads and writes through Linux io_uring.
+ * <p>
+ * The swappers can then write the pages of a flush in batches, with one system call per batch instead of one per run
+ * of consecutive pages, and without holding the position lock of the channel.
+ * <p>
+ * The swappers automatically fall back to doing their IO through the file channel, when io_uring is not available on
+ * this platform, when the file system does not give access to file descriptors, or when all rings are busy.
+ * <p>
+ * The rings belong to this factory, and are closed when the page cache that uses it is closed.
+ *
+ * @see org.neo4j.io.pagecache.impl.SingleFilePageSwapper
+ */
+public class IoUringPageSwapperFactory implements PageSwapperFactory {
+    private final FileSystemAbstraction fs;
+    private final PageCacheTracer pageCacheTracer;
+    private final BlockSwapper blockSwapper;
+    private final IoUringRings rings;
+
+    public IoUringPageSwapperFactory(
+            FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker) {
+        this.fs = fs;
+        this.pageCacheTracer = pageCacheTracer;
+        this.blockSwapper = createBlockSwapper(memoryTracker);
+        this.rings = isAvailable()
+                ? new IoUringRings(Math.max(4, Runtime.getRuntime().availableProcessors()))
+                : null;
+    }
+
+    /**
+     * @return {@code true} if io_uring is available, and swappers from this factory will use it.
+     */
+    public static boolean isAvailable() {
+        return IoUring.isAvailable();
+    }
+
+    @Override
+    public PageSwapper createPageSwapper(
+            Path file,
+            int filePageSize,
+            int reservedPageBytes,
+            PageEvictionCallback onEviction,
+            boolean createIfNotExist,
+            boolean useDirectIO,
+            boolean preallocateStoreFiles,
+            boolean checksumPages,
+            IOController ioController,
+            SwapperSet swappers)
+            throws IOException {
+        if (!createIfNotExist && !fs.fileExists(file)) {
+            throw new NoSuchFileException(file.toString(), null, "Cannot map non-existing file");
+        }
+        return new SingleFilePageSwapper(
+                file,
+                fs,
+                filePageSize,
+                reservedPageBytes,
+                onEviction,
+                useDirectIO,
+                preallocateStoreFiles,
+                checksumPages,
+                ioController,
+                swappers,
+                pageCacheTracer.createFileSwapperTracer(),
+                blockSwapper,
+                rings);
+    }
+
+    @Override
+    public void close() {
+        if (rings != null) {
+            rings.close();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.neo4j.internal.nativeimpl.IoUring;
+
+/**
+ * A bounded pool of io_uring instances, that page swappers use to hand batches of page vectors to the kernel with a
+ * single system call.
+ * <p>
+ * A ring is only ever used by one thread at a time. When all rings are in use, or io_uring is not available, or a
+ * transfer through the ring comes up short, the swapper is told to do the transfer through its channel instead.
+ * <p>
+ * The rings are owned by the {@link IoUringPageSwapperFactory} that created this pool, and are closed with it.
+ */
+final class IoUringRings {
+    // The number of operations, that can be handed to a ring at once.
+    private static final int ringEntries = getInteger(IoUringRings.class, "ringEntries", 64);
+    // The number of buffers in the IO vector of each operation.
+    private static final int maxVectors = getInteger(IoUringRings.class, "maxVectors", 64);
+
+    private final ConcurrentLinkedQueue<Ring> freeRings = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger createdRings = new AtomicInteger();
+    private final int maxRings;
+    private volatile boolean closed;
+
+    IoUringRings(int maxRings) {
+        this.maxRings = maxRings;
+    }
+
+    /**
+     * Transfer the given page vectors between the buffers and the file, through a ring. Each vector starts at the
+     * corresponding file offset, and is made of the next vectorLengths buffers.
+     *
+     * @return the number of bytes transferred, or -1 if the transfer did not happen, or did not complete, through the
+     * ring. In that case, the entire transfer must be redone by other means.
+     */
+    long transfer(
+            boolean write,
+            int fd,
+            long[] fileOffsets,
+            int[] vectorLengths,
+            int vectors,
+            long[] bufferAddresses,
+            int[] bufferLengths)
+            throws IOException {
+        Ring ring = acquire();
+        if (ring == null) {
+            return -1;
+        }
+        try {
+            long transferred =
+                    ring.transfer(write, fd, fileOffsets, vectorLengths, vectors, bufferAddresses, bufferLengths);
+            release(ring);
+            return transferred;
+        } catch (IOException e) {
+            // The ring has waited for the operations that it managed to submit, so none of them are touching the
+            // buffers anymore, but a ring that failed is not trusted with any more transfers.
+            ring.close();
+            createdRings.decrementAndGet();
+            return -1;
+        }
+    }
+
+    /**
+     * Close all the rings. Transfers that are in progress complete normally, and close their ring once they are done.
+     * Any later transfers are told to go through the channel.
+     */
+    void close() {
+        closed = true;
+        closeFreeRings();
+    }
+
+    private void release(Ring ring) {
+        freeRings.offer(ring);
+        if (closed) {
+            // The pool may have been closed after we took the ring, in which case nobody else is going to close it.
+            closeFreeRings();
+        }
+    }
+
+    private void closeFreeRings() {
+        Ring ring;
+        while ((ring = freeRings.poll()) != null) {
+            ring.close();
+        }
+    }
+
+    private Ring acquire() {
+        if (closed) {
+            return null;
+        }
+        Ring ring = freeRings.poll();
+        if (ring != null || !IoUring.isAvailable()) {
+            return ring;
+        }
+        int created;
+        do {
+            created = createdRings.get();
+            if (created >= maxRings) {
+                return null;
+            }
+        } while (!createdRings.compareAndSet(created, created + 1));
+        try {
+            return new Ring(IoUring.create(ringEntries, maxVectors));
+        } catch (IOException e) {
+            // This is not expected to happen once io_uring has been found to be available, but if it does, we'll keep
+            // the slot taken, so we won't keep trying to set up rings.
+            return null;
+        }
+    }
+
+    private static final class Ring {
+        private final IoUring ring;
+        private final long[] userData;
+        private final int[] results;
+        private boolean complete;
+
+        Ring(IoUring ring) {
+            this.ring = ring;
+            this.userData = new long[ring.entries()];
+            this.results = new int[ring.entries()];
+        }
+
+        long transfer(
+                boolean write,
+                int fd,
+                long[] fileOffsets,
+                int[] vectorLengths,
+                int vectors,
+                long[] bufferAddresses,
+                int[] bufferLengths)
+                throws IOException {
+            complete = true;
+            long transferred = 0;
+            int buffer = 0;
+            for (int vector = 0; vector < vectors; vector++) {
+                long fileOffset = fileOffsets[vector];
+                int end = buffer + vectorLengths[vector];
+                while (buffer < end) {
+                    if (ring.remaining() == 0) {
+                        awaitCompletions();
+                    }
+                    // Vectors that are longer than the ring allows are split into several operations.
+                    int count = Math.min(end - buffer, ring.maxVectors());
+                    long bytes = 0;
+                    for (int i = buffer; i < buffer + count; i++) {
+                        bytes += bufferLengths[i];
+                    }
+                    if (write) {
+                        ring.prepareWrite(fd, fileOffset, bufferAddresses, bufferLengths, buffer, count, bytes);
+                    } else {
+                        ring.prepareRead(fd, fileOffset, bufferAddresses, bufferLengths, buffer, count, bytes);
+                    }
+                    fileOffset += bytes;
+                    transferred += bytes;
+                    buffer += count;
+                }
+            }
+            awaitCompletions();
+            return complete ? transferred : -1;
+        }
+
+        void close() {
+            ring.close();
+        }
+
+        private void awaitCompletions() throws IOException {
+            int completed = ring.submitAndAwait(userData, results);
+            for (int i = 0; i < completed; i++) {
+                // The user data of each operation is the number of bytes it was expected to transfer.
+                complete &= results[i] == userData[i];
+            }
+        }
+    }
+}
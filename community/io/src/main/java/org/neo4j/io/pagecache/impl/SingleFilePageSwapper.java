@@ -47,6 +47,7 @@ import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.fs.ChecksumMismatchException;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.fs.StoreFileChannel;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageEvictionCallback;
@@ -79,6 +80,7 @@ public class SingleFilePageSwapper implements PageSwapper {
     private final int swapperId;
     private final PageFileSwapperTracer fileSwapperTracer;
     private final BlockSwapper blockSwapper;
+    private final IoUringRings rings;
     private final XXHash64 xxHash64 = XXHashFactory.fastestInstance().hash64();
 
     // Guarded by synchronized(this). See tryReopen() and close().
@@ -110,7 +112,8 @@ public class SingleFilePageSwapper implements PageSwapper {
             IOController ioController,
             SwapperSet swapperSet,
             PageFileSwapperTracer fileSwapperTracer,
-            BlockSwapper blockSwapper)
+            BlockSwapper blockSwapper,
+            IoUringRings rings)
             throws IOException {
         this.fs = fs;
         this.path = path;
@@ -145,6 +148,7 @@ public class SingleFilePageSwapper implements PageSwapper {
         this.canDoVectorizedIO = channel.hasPositionLock() && UnsafeUtil.unsafeByteBufferAccessAvailable();
         this.swapperId = swapperSet.allocate(this);
         this.blockSwapper = blockSwapper;
+        this.rings = rings;
     }
 
     private StoreChannel createStoreChannel() throws IOException {
@@ -247,9 +251,102 @@ public class SingleFilePageSwapper implements PageSwapper {
         return -1;
     }
 
+    @Override
+    public long read(long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        try (Retry retry = new Retry()) {
+            do {
+                try {
+                    long fileOffset = pageIdToPosition(startFilePageId);
+                    if (fileOffset >= getCurrentFileSize()) {
+                        for (int i = 0; i < length; i++) {
+                            clear(bufferAddresses[i], bufferLengths[i]);
+                        }
+                        return 0;
+                    }
+                    long bytesRead = ringTransfer(false, fileOffset, bufferAddresses, bufferLengths, length);
+                    if (bytesRead != -1) {
+                        ioController.reportIO(1);
+                        if (checksumPages) {
+                            verifyChecksums(bufferAddresses, bufferLengths, length);
+                        }
+                        return bytesRead;
+                    }
+                    if (canDoVectorizedIO) {
+                        return readPositionedVectoredFromFileChannel(
+                                fileOffset, bufferAddresses, bufferLengths, length);
+                    }
+                    return readPositionVectoredFallback(fileOffset, bufferAddresses, bufferLengths, length);
+                } catch (ClosedChannelException e) {
+                    retry.caught(e);
+                }
+            } while (retry.shouldRetry());
+        }
+        return -1;
+    }
+
+    private long readPositionedVectoredFromFileChannel(
+            long fileOffset, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
+        long bytesToRead = countBuffersLengths(bufferLengths, length);
+        ByteBuffer[] dsts = convertToByteBuffers(bufferAddresses, bufferLengths, 0, length);
+        long bytesRead = lockPositionReadVector(fileOffset, dsts, bytesToRead);
+        ioController.reportIO(1);
+        for (int i = 0; i < length; i++) {
+            // Zero-fill whatever part of the buffers we could not read from the file.
+            ByteBuffer dst = dsts[i];
+            if (dst.hasRemaining()) {
+                clear(bufferAddresses[i] + dst.position(), dst.remaining());
+            }
+        }
+        if (checksumPages) {
+            verifyChecksums(bufferAddresses, bufferLengths, length);
+        }
+        return bytesRead;
+    }
+
+    private long lockPositionReadVector(long fileOffset, ByteBuffer[] dsts, long bytesToRead) throws IOException {
+        try {
+            long bytesRead = 0;
+            synchronized (channel.getPositionLock()) {
+                setPositionUnderLock(fileOffset);
+                long read;
+                do {
+                    read = channel.read(dsts);
+                } while (read != -1 && (bytesRead += read) < bytesToRead);
+                return bytesRead;
+            }
+        } catch (ClosedChannelException e) {
+            tryReopen(e);
+            throw new IOException("IO failed due to interruption", e);
+        }
+    }
+
+    private long readPositionVectoredFallback(long fileOffset, long[] bufferAddresses, int[] bufferLengths, int length)
+            throws IOException {
+        long bytes = 0;
+        long offset = fileOffset;
+        for (int i = 0; i < length; i++) {
+            int bufferLength = bufferLengths[i];
+            if (offset < getCurrentFileSize()) {
+                bytes += swapIn(bufferAddresses[i], offset, bufferLength);
+            } else {
+                clear(bufferAddresses[i], bufferLength);
+            }
+            offset += bufferLength;
+        }
+        return bytes;
+    }
+
     private static long countBuffersLengths(int[] bufferLengths, int length) {
+        return countBuffersLengths(bufferLengths, 0, length);
+    }
+
+    private static long countBuffersLengths(int[] bufferLengths, int from, int length) {
         long bytesToRead = 0;
-        for (int i = 0; i < length; i++) {
+        for (int i = from; i < from + length; i++) {
             bytesToRead += bufferLengths[i];
         }
         return bytesToRead;
@@ -292,11 +389,11 @@ public class SingleFilePageSwapper implements PageSwapper {
         try (Retry retry = new Retry()) {
             do {
                 try {
-                    if (canDoVectorizedIO) {
-                        return writePositionedVectoredToFileChannel(
-                                startFilePageId, bufferAddresses, bufferLengths, length);
+                    long bytesWritten = ringWrite(startFilePageId, bufferAddresses, bufferLengths, length);
+                    if (bytesWritten != -1) {
+                        return bytesWritten;
                     }
-                    return writePositionVectoredFallback(startFilePageId, bufferAddresses, bufferLengths, length);
+                    return writeThroughChannel(startFilePageId, bufferAddresses, bufferLengths, 0, length);
                 } catch (ClosedChannelException e) {
                     retry.caught(e);
                 }
@@ -305,25 +402,150 @@ public class SingleFilePageSwapper implements PageSwapper {
         return -1;
     }
 
+    @Override
+    public long write(
+            long[] startFilePageIds,
+            int[] vectorLengths,
+            int vectors,
+            long[] bufferAddresses,
+            int[] bufferLengths,
+            int totalAffectedPages)
+            throws IOException {
+        if (totalAffectedPages == 0) {
+            return 0;
+        }
+        if (rings != null) {
+            long[] fileOffsets = new long[vectors];
+            int buffers = 0;
+            for (int i = 0; i < vectors; i++) {
+                long fileOffset = pageIdToPosition(startFilePageIds[i]);
+                long bytesToWrite = countBuffersLengths(bufferLengths, buffers, vectorLengths[i]);
+                increaseFileSizeTo(fileOffset + bytesToWrite);
+                fileOffsets[i] = fileOffset;
+                buffers += vectorLengths[i];
+            }
+            if (checksumPages) {
+                for (int i = 0; i < buffers; i++) {
+                    writeChecksum(bufferAddresses[i], bufferLengths[i]);
+                }
+            }
+            long bytesWritten = ringTransfer(true, fileOffsets, vectorLengths, vectors, bufferAddresses, bufferLengths);
+            if (bytesWritten != -1) {
+                return bytesWritten;
+            }
+        }
+
+        // Write the vectors one at a time.
+        long bytesWritten = 0;
+        int firstBuffer = 0;
+        for (int i = 0; i < vectors; i++) {
+            bytesWritten +=
+                    writeVector(startFilePageIds[i], bufferAddresses, bufferLengths, firstBuffer, vectorLengths[i]);
+            firstBuffer += vectorLengths[i];
+        }
+        return bytesWritten;
+    }
+
+    private long writeVector(long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int from, int length)
+            throws IOException {
+        try (Retry retry = new Retry()) {
+            do {
+                try {
+                    return writeThroughChannel(startFilePageId, bufferAddresses, bufferLengths, from, length);
+                } catch (ClosedChannelException e) {
+                    retry.caught(e);
+                }
+            } while (retry.shouldRetry());
+        }
+        return -1;
+    }
+
+    private long writeThroughChannel(
+            long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int from, int length)
+            throws IOException {
+        if (canDoVectorizedIO) {
+            return writePositionedVectoredToFileChannel(startFilePageId, bufferAddresses, bufferLengths, from, length);
+        }
+        return writePositionVectoredFallback(startFilePageId, bufferAddresses, bufferLengths, from, length);
+    }
+
+    @Override
+    public boolean canBatchWrites() {
+        return rings != null;
+    }
+
+    private long ringWrite(long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length)
+            throws IOException {
+        if (rings == null || length == 0) {
+            return -1;
+        }
+        long fileOffset = pageIdToPosition(startFilePageId);
+        increaseFileSizeTo(fileOffset + countBuffersLengths(bufferLengths, length));
+        if (checksumPages) {
+            for (int i = 0; i < length; i++) {
+                writeChecksum(bufferAddresses[i], bufferLengths[i]);
+            }
+        }
+        return ringTransfer(true, fileOffset, bufferAddresses, bufferLengths, length);
+    }
+
+    private long ringTransfer(boolean write, long fileOffset, long[] bufferAddresses, int[] bufferLengths, int length)
+            throws IOException {
+        if (rings == null) {
+            return -1;
+        }
+        return ringTransfer(write, new long[] {fileOffset}, new int[] {length}, 1, bufferAddresses, bufferLengths);
+    }
+
+    /**
+     * Transfer the given vectors through an io_uring, if we have rings and a plain file channel.
+     * The ring goes around the channel, so channels that wrap the file channel, to observe or transform the data,
+     * must do their own IO.
+     * Reads that come up short, because they reach the end of the file, and operations that fail, are not completed
+     * by the ring, so they will be redone through the channel, which takes care of zero filling and errors.
+     *
+     * @return the number of bytes transferred, or -1 if the transfer must be done through the channel instead.
+     */
+    private long ringTransfer(
+            boolean write,
+            long[] fileOffsets,
+            int[] vectorLengths,
+            int vectors,
+            long[] bufferAddresses,
+            int[] bufferLengths)
+            throws IOException {
+        StoreChannel channel = this.channel;
+        if (channel.getClass() != StoreFileChannel.class) {
+            return -1;
+        }
+        int fd = channel.getFileDescriptor();
+        if (fd == INVALID_FILE_DESCRIPTOR || !channel.isOpen()) {
+            return -1;
+        }
+        return rings.transfer(write, fd, fileOffsets, vectorLengths, vectors, bufferAddresses, bufferLengths);
+    }
+
     private long writePositionedVectoredToFileChannel(
-            long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
+            long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int from, int length)
+            throws IOException {
         long fileOffset = pageIdToPosition(startFilePageId);
-        long bytesToWrite = countBuffersLengths(bufferLengths, length);
+        long bytesToWrite = countBuffersLengths(bufferLengths, from, length);
         increaseFileSizeTo(fileOffset + bytesToWrite);
-        ByteBuffer[] srcs = convertToByteBuffers(bufferAddresses, bufferLengths, length);
+        ByteBuffer[] srcs = convertToByteBuffers(bufferAddresses, bufferLengths, from, length);
         if (checksumPages) {
             for (int i = 0; i < srcs.length; i++) {
-                writeChecksum(srcs[i], bufferAddresses[i], bufferLengths[i]);
+                writeChecksum(srcs[i], bufferAddresses[from + i], bufferLengths[from + i]);
             }
         }
         return lockPositionWriteVector(fileOffset, srcs, bytesToWrite);
     }
 
-    private static ByteBuffer[] convertToByteBuffers(long[] bufferAddresses, int[] bufferLengths, int length) {
+    private static ByteBuffer[] convertToByteBuffers(
+            long[] bufferAddresses, int[] bufferLengths, int from, int length) {
         ByteBuffer[] buffers = new ByteBuffer[length];
         for (int i = 0; i < length; i++) {
             try {
-                buffers[i] = UnsafeUtil.newDirectByteBuffer(bufferAddresses[i], bufferLengths[i]);
+                buffers[i] = UnsafeUtil.newDirectByteBuffer(bufferAddresses[from + i], bufferLengths[from + i]);
             } catch (Throwable e) {
                 throw new RuntimeException("Failed to wrap pointer in ByteBuffer.", e);
             }
@@ -361,10 +583,11 @@ public class SingleFilePageSwapper implements PageSwapper {
     }
 
     private int writePositionVectoredFallback(
-            long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
+            long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int from, int length)
+            throws IOException {
         int bytes = 0;
         long filePageId = startFilePageId;
-        for (int i = 0; i < length; i++) {
+        for (int i = from; i < from + length; i++) {
             long address = bufferAddresses[i];
             int bufferLength = bufferLengths[i];
             bytes += write(filePageId, address, bufferLength, false);
@@ -572,6 +795,15 @@ public class SingleFilePageSwapper implements PageSwapper {
         }
     }
 
+    private void verifyChecksums(long[] bufferAddresses, int[] bufferLengths, int length) {
+        for (int i = 0; i < length; i++) {
+            long bufferAddress = bufferAddresses[i];
+            for (int pageOffset = 0; pageOffset < bufferLengths[i]; pageOffset += filePageSize) {
+                verifyChecksum(bufferAddress + pageOffset, filePageSize);
+            }
+        }
+    }
+
     private void verifyChecksum(ByteBuffer byteBuffer, long bufferAddress, int capacity) {
         long checksum = xxHash64.hash(byteBuffer, reservedPageBytes, capacity - reservedPageBytes, CHECKSUM_SEED);
         long storedChecksum = UnsafeUtil.getLong(bufferAddress + CHECKSUM_OFFSET);
@@ -77,10 +77,11 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory {
                 ioController,
                 swappers,
                 pageCacheTracer.createFileSwapperTracer(),
-                blockSwapper);
+                blockSwapper,
+                null);
     }
 
-    private static BlockSwapper createBlockSwapper(MemoryTracker memoryTracker) {
+    static BlockSwapper createBlockSwapper(MemoryTracker memoryTracker) {
         if (UnsafeUtil.unsafeByteBufferAccessAvailable()) {
             return new UnsafeBlockSwapper();
         }
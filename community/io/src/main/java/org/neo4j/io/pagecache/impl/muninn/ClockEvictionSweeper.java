@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
+
+/**
+ * The classic CLOCK sweep, where each pass of the clock hand decrements the usage counter of the page, and pages are
+ * evicted once their usage counter reaches zero. Pages that the clock hand finds with a maxed out usage counter are
+ * marked as hot, see {@link PageList#sweepUsage(long)}.
+ */
+final class ClockEvictionSweeper implements EvictionSweeper {
+    @Override
+    public boolean shouldEvict(long pageRef, EvictionEventOpportunity evictionOpportunity) {
+        return PageList.sweepUsage(pageRef);
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * The compressed tier keeps pages that are evicted from the page cache in compressed form in memory, so they can be
+ * faulted back in by decompressing them, instead of reading them from their file.
+ * <p>
+ * Pages are only put in the compressed tier once they have been flushed, so the compressed tier never holds data
+ * that is not also in the file. A page is taken out of the compressed tier when it is faulted back in, so each file
+ * page is in at most one of the tiers at a time. The compressed pages are kept in off-heap memory, and when the
+ * compressed tier is full, the pages that were put in it first are dropped first.
+ * <p>
+ * The compressed pages are spread over a number of stripes, each with its own lock and its share of the memory,
+ * so the evicting and faulting threads mostly use different locks. The compressing and decompressing is done
+ * outside of the locks.
+ */
+final class CompressedPageTier implements AutoCloseable {
+    private static final int STRIPES = 16;
+    private static final int STRIPE_MASK = STRIPES - 1;
+    private static final int SHIFT_FILE_PAGE_ID = 21;
+    private static final long BYTE_ARRAY_BASE_OFFSET = UnsafeUtil.arrayBaseOffset(byte[].class);
+
+    private final int cachePageSize;
+    // Pages that do not compress to at most this many bytes are not worth keeping in the compressed tier.
+    private final int maxCompressedPageSize;
+    private final long stripeMemory;
+    private final MemoryTracker memoryTracker;
+    private final PageCacheTracer pageCacheTracer;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+    private final ThreadLocal<byte[][]> scratchBuffers;
+    private final Stripe[] stripes;
+
+    /**
+     * @param memory the maximum amount of memory, in bytes, to keep compressed pages in.
+     * @param cachePageSize the size of the pages of the page cache.
+     * @param memoryTracker tracker of the memory that the compressed pages are kept in.
+     * @param pageCacheTracer tracer that the hits and misses of the compressed tier are reported to.
+     */
+    CompressedPageTier(long memory, int cachePageSize, MemoryTracker memoryTracker, PageCacheTracer pageCacheTracer) {
+        this.cachePageSize = cachePageSize;
+        this.maxCompressedPageSize = cachePageSize - cachePageSize / 4;
+        this.stripeMemory = memory / STRIPES;
+        this.memoryTracker = memoryTracker;
+        this.pageCacheTracer = pageCacheTracer;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+        int maxCompressedLength = compressor.maxCompressedLength(cachePageSize);
+        this.scratchBuffers =
+                ThreadLocal.withInitial(() -> new byte[][] {new byte[cachePageSize], new byte[maxCompressedLength]});
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Compress the given evicted, and no longer modified, page and keep it in the compressed tier, unless it does not
+     * compress well enough.
+     *
+     * @param swapper the swapper of the file the page is bound to.
+     * @param swapperId the id of the swapper.
+     * @param filePageId the file page id the page is bound to.
+     * @param address the address of the page memory.
+     */
+    void store(PageSwapper swapper, int swapperId, long filePageId, long address) {
+        byte[][] scratch = scratchBuffers.get();
+        byte[] page = scratch[0];
+        byte[] compressed = scratch[1];
+        UnsafeUtil.copyMemory(null, address, page, BYTE_ARRAY_BASE_OFFSET, cachePageSize);
+        int length = compressor.compress(page, 0, cachePageSize, compressed, 0, compressed.length);
+        long key = key(swapperId, filePageId);
+        if (length > maxCompressedPageSize || length > stripeMemory) {
+            // An older version of the page must not be faulted back in instead of the version in the file.
+            discard(key);
+            return;
+        }
+        long compressedAddress = UnsafeUtil.allocateMemory(length, memoryTracker);
+        UnsafeUtil.copyMemory(compressed, BYTE_ARRAY_BASE_OFFSET, null, compressedAddress, length);
+        CompressedPage compressedPage = new CompressedPage(swapper, compressedAddress, length);
+        stripe(key).put(key, compressedPage);
+    }
+
+    /**
+     * Take the given file page out of the compressed tier, and decompress it into the given page memory.
+     *
+     * @param swapper the swapper of the file the page is faulted from.
+     * @param swapperId the id of the swapper.
+     * @param filePageId the file page id that is faulted.
+     * @param address the address of the page memory to decompress the page into.
+     * @return {@code true} if the page was in the compressed tier, or {@code false} if it must be read from the file.
+     */
+    boolean load(PageSwapper swapper, int swapperId, long filePageId, long address) {
+        long key = key(swapperId, filePageId);
+        CompressedPage compressedPage = stripe(key).remove(key);
+        if (compressedPage == null) {
+            pageCacheTracer.compressedTierMisses(1);
+            return false;
+        }
+        try {
+            if (compressedPage.swapper != swapper) {
+                // The page was compressed for a file that has since been unmapped, and the swapper id reused.
+                pageCacheTracer.compressedTierMisses(1);
+                return false;
+            }
+            byte[][] scratch = scratchBuffers.get();
+            byte[] page = scratch[0];
+            byte[] compressed = scratch[1];
+            UnsafeUtil.copyMemory(
+                    null, compressedPage.address, compressed, BYTE_ARRAY_BASE_OFFSET, compressedPage.length);
+            decompressor.decompress(compressed, 0, page, 0, cachePageSize);
+            UnsafeUtil.copyMemory(page, BYTE_ARRAY_BASE_OFFSET, null, address, cachePageSize);
+            pageCacheTracer.compressedTierHits(1);
+            return true;
+        } finally {
+            free(compressedPage);
+        }
+    }
+
+    /**
+     * Drop the given file page from the compressed tier, if it is there. This is used when the page is faulted in
+     * without going through the compressed tier, since the page may then be modified and evicted again.
+     *
+     * @param swapperId the id of the swapper.
+     * @param filePageId the file page id that is faulted.
+     */
+    void discard(int swapperId, long filePageId) {
+        discard(key(swapperId, filePageId));
+    }
+
+    /**
+     * Drop the pages of the given file, from the given file page id and onwards, from the compressed tier. This is used
+     * when the file is truncated or unmapped.
+     */
+    void remove(PageSwapper swapper, long fromFilePageId) {
+        for (Stripe stripe : stripes) {
+            stripe.removeIf(swapper, fromFilePageId);
+        }
+    }
+
+    /**
+     * @return the amount of memory, in bytes, used by the compressed pages.
+     */
+    long usedMemory() {
+        long sum = 0;
+        for (Stripe stripe : stripes) {
+            sum += stripe.usedMemory();
+        }
+        return sum;
+    }
+
+    @Override
+    public void close() {
+        for (Stripe stripe : stripes) {
+            stripe.close();
+        }
+    }
+
+    private Stripe stripe(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash >>> 32) & STRIPE_MASK];
+    }
+
+    private static long key(int swapperId, long filePageId) {
+        return (filePageId << SHIFT_FILE_PAGE_ID) | swapperId;
+    }
+
+    private void discard(long key) {
+        CompressedPage compressedPage = stripe(key).remove(key);
+        if (compressedPage != null) {
+            free(compressedPage);
+        }
+    }
+
+    private void free(CompressedPage compressedPage) {
+        UnsafeUtil.free(compressedPage.address, compressedPage.length, memoryTracker);
+    }
+
+    private record CompressedPage(PageSwapper swapper, long address, int length) {}
+
+    private final class Stripe {
+        // In insertion order, so the pages that were put in the compressed tier first are dropped first.
+        private final LinkedHashMap<Long, CompressedPage> pages = new LinkedHashMap<>();
+        private long usedMemory;
+        private boolean closed;
+
+        synchronized void put(long key, CompressedPage compressedPage) {
+            if (closed) {
+                free(compressedPage);
+                return;
+            }
+            CompressedPage previous = pages.put(key, compressedPage);
+            if (previous != null) {
+                usedMemory -= previous.length;
+                free(previous);
+            }
+            usedMemory += compressedPage.length;
+            Iterator<CompressedPage> oldest = pages.values().iterator();
+            while (usedMemory > stripeMemory) {
+                CompressedPage dropped = oldest.next();
+                oldest.remove();
+                usedMemory -= dropped.length;
+                free(dropped);
+            }
+        }
+
+        synchronized CompressedPage remove(long key) {
+            CompressedPage compressedPage = pages.remove(key);
+            if (compressedPage != null) {
+                usedMemory -= compressedPage.length;
+            }
+            return compressedPage;
+        }
+
+        synchronized void removeIf(PageSwapper swapper, long fromFilePageId) {
+            Iterator<Map.Entry<Long, CompressedPage>> entries = pages.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Long, CompressedPage> entry = entries.next();
+                CompressedPage compressedPage = entry.getValue();
+                if (compressedPage.swapper == swapper && entry.getKey() >>> SHIFT_FILE_PAGE_ID >= fromFilePageId) {
+                    entries.remove();
+                    usedMemory -= compressedPage.length;
+                    free(compressedPage);
+                }
+            }
+        }
+
+        synchronized long usedMemory() {
+            return usedMemory;
+        }
+
+        synchronized void close() {
+            closed = true;
+            for (CompressedPage compressedPage : pages.values()) {
+                free(compressedPage);
+            }
+            pages.clear();
+            usedMemory = 0;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * The policies that the {@link MuninnPageCache} can use, to choose which pages to evict when it needs free pages.
+ */
+public enum EvictionPolicy {
+    /**
+     * A plain CLOCK policy. Every page has a usage counter that is incremented when the page is used, and decremented
+     * when the clock hand passes over it. Pages are evicted when their usage counter reaches zero.
+     */
+    CLOCK {
+        @Override
+        EvictionSweeper createSweeper(int pageCount) {
+            return new ClockEvictionSweeper();
+        }
+    },
+    /**
+     * A scan resistant, frequency aware policy. Pages that have only been used once since they were loaded are
+     * evicted first, and pages that have been used more than once are protected from eviction, and mostly do not age,
+     * for as long as there are enough pages used only once to evict. This way, large scans can only push other pages
+     * out of the page cache once they are used frequently enough to compete with them. Protected pages still age every
+     * few laps of the clock hand, so pages that are no longer used eventually become eligible for eviction.
+     */
+    FREQUENCY {
+        @Override
+        EvictionSweeper createSweeper(int pageCount) {
+            return new FrequencyEvictionSweeper(pageCount);
+        }
+    };
+
+    abstract EvictionSweeper createSweeper(int pageCount);
+}
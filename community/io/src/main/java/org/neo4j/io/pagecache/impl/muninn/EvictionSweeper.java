@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
+
+/**
+ * The part of an {@link EvictionPolicy} that decides, as the clock hand of the eviction sweep passes over a page,
+ * if that page should be evicted.
+ * <p>
+ * Sweepers are called concurrently by the background eviction thread, and by threads that cooperatively evict pages
+ * in their page faults, so any state they keep must either be thread-safe, or be benignly racy.
+ */
+interface EvictionSweeper {
+    /**
+     * Decide if the given loaded page should be evicted, and update its usage metadata in the {@link PageList} as the
+     * clock hand passes over it.
+     *
+     * @param pageRef the page the clock hand is at.
+     * @param evictionOpportunity the event to report to, if the page is protected from eviction.
+     * @return {@code true} if an attempt should be made to evict the page.
+     */
+    boolean shouldEvict(long pageRef, EvictionEventOpportunity evictionOpportunity);
+
+    /**
+     * Called when the clock hand passes over a page that is not considered for eviction, because it is not loaded, or
+     * because the sweep is looking for pages in a particular place. This way, sweepers that keep track of laps of the
+     * clock hand can count every page it passes.
+     */
+    default void slotPassed() {}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
+
+/**
+ * A scan resistant variant of the CLOCK sweep, that uses the same usage counters in the {@link PageList}, but tells
+ * cold pages, that have been used at most once since they were loaded, apart from hot pages, that have been used more
+ * than that.
+ * <p>
+ * Cold pages are evicted as soon as the clock hand gets to them, while hot pages are passed over without aging them.
+ * When a full lap of the clock hand finds too few cold pages to evict, the next lap ages the hot pages, the same way
+ * a plain CLOCK sweep would. A large scan only produces cold pages, which are then evicted before anything else,
+ * instead of aging the whole working set out of the cache. Hot pages are also aged in at least one of every
+ * {@code maxProtectedLaps} laps, regardless of how many cold pages there are, so a hot set that is no longer used
+ * eventually loses its protection. A lap is counted over every slot the clock hand passes, loaded or not.
+ * <p>
+ * The lap statistics are deliberately kept in plain fields. Lost updates from racing sweeps only make the decision
+ * of when to start aging hot pages slightly less precise.
+ */
+final class FrequencyEvictionSweeper implements EvictionSweeper {
+    // Hot pages are aged in the next lap, if fewer than one in this many pages were cold in the current lap.
+    private static final int coldPageRatio = getInteger(FrequencyEvictionSweeper.class, "coldPageRatio", 32);
+    // Hot pages are aged in at least one of every this many laps.
+    private static final int maxProtectedLaps = getInteger(FrequencyEvictionSweeper.class, "maxProtectedLaps", 16);
+    private static final long HOT_USAGE = 2;
+
+    private final int pageCount;
+    private int slotsSeen;
+    private int coldPagesSeen;
+    private int protectedLaps;
+    private boolean ageHotPages;
+
+    FrequencyEvictionSweeper(int pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    @Override
+    public boolean shouldEvict(long pageRef, EvictionEventOpportunity evictionOpportunity) {
+        slotPassed();
+        if (PageList.getUsage(pageRef) < HOT_USAGE) {
+            coldPagesSeen++;
+            return PageList.decrementUsage(pageRef);
+        }
+        if (ageHotPages) {
+            return PageList.decrementUsage(pageRef);
+        }
+        evictionOpportunity.pageProtected();
+        return false;
+    }
+
+    @Override
+    public void slotPassed() {
+        if (++slotsSeen >= pageCount) {
+            lapCompleted();
+        }
+    }
+
+    private void lapCompleted() {
+        boolean tooFewColdPages = (long) coldPagesSeen * coldPageRatio < slotsSeen;
+        ageHotPages = tooFewColdPages || ++protectedLaps >= maxProtectedLaps;
+        if (ageHotPages) {
+            protectedLaps = 0;
+        }
+        slotsSeen = 0;
+        coldPagesSeen = 0;
+    }
+}
@@ -28,6 +28,7 @@ import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
 import static org.neo4j.util.FeatureToggles.flag;
 import static org.neo4j.util.FeatureToggles.getInteger;
 import static org.neo4j.util.Preconditions.requireNonNegative;
+import static org.neo4j.util.Preconditions.requirePositive;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -40,12 +41,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 import org.eclipse.collections.api.set.ImmutableSet;
+import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.IOController;
@@ -57,6 +60,7 @@ import org.neo4j.io.pagecache.buffer.IOBufferFactory;
 import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.io.pagecache.tracing.FileMappedListener;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 import org.neo4j.memory.EmptyMemoryTracker;
@@ -168,7 +172,10 @@ public class MuninnPageCache implements PageCache {
     private final int faultLockStriping;
     private final boolean preallocateStoreFiles;
     private final boolean enableEvictionThread;
+    private final EvictionSweeper evictionSweeper;
+    private final int flushThreads;
     final PageList pages;
+    final CompressedPageTier compressedTier;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we don't have to throw
     // exceptions on bounds checking failures; we can instead return the victim page pointer, and permit the page
     // accesses to take place without fear of segfaulting newly allocated cursors.
@@ -188,6 +195,9 @@ public class MuninnPageCache implements PageCache {
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
 
+    // Listeners that are notified when files are mapped and unmapped. Invoked while holding the monitor lock.
+    private final List<FileMappedListener> mappedListeners = new CopyOnWriteArrayList<>();
+
     // The thread that runs the eviction algorithm. We unpark this when we've run out of
     // free pages to grab.
     private volatile Thread evictionThread;
@@ -237,6 +247,9 @@ public class MuninnPageCache implements PageCache {
         private final boolean enableEvictionThread;
         private final boolean preallocateStoreFiles;
         private final int reservedPageSize;
+        private final EvictionPolicy evictionPolicy;
+        private final int flushThreads;
+        private final long compressedTierMemory;
 
         private Configuration(
                 MemoryAllocator memoryAllocator,
@@ -248,7 +261,10 @@ public class MuninnPageCache implements PageCache {
                 int faultLockStriping,
                 boolean enableEvictionThread,
                 boolean preallocateStoreFiles,
-                int reservedPageSize) {
+                int reservedPageSize,
+                EvictionPolicy evictionPolicy,
+                int flushThreads,
+                long compressedTierMemory) {
             this.memoryAllocator = memoryAllocator;
             this.clock = clock;
             this.memoryTracker = memoryTracker;
@@ -259,6 +275,9 @@ public class MuninnPageCache implements PageCache {
             this.faultLockStriping = faultLockStriping;
             this.enableEvictionThread = enableEvictionThread;
             this.preallocateStoreFiles = preallocateStoreFiles;
+            this.evictionPolicy = evictionPolicy;
+            this.flushThreads = flushThreads;
+            this.compressedTierMemory = compressedTierMemory;
         }
 
         /**
@@ -275,7 +294,10 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
         }
 
         /**
@@ -292,7 +314,10 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
         }
 
         /**
@@ -309,7 +334,10 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
         }
 
         /**
@@ -326,7 +354,10 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
         }
 
         /**
@@ -343,7 +374,10 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
         }
 
         /**
@@ -360,7 +394,10 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
         }
 
         /**
@@ -377,7 +414,10 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageBytes);
+                    reservedPageBytes,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
         }
 
         /**
@@ -394,7 +434,10 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
         }
 
         /**
@@ -411,7 +454,10 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     false,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
         }
 
         /**
@@ -428,7 +474,72 @@ public class MuninnPageCache implements PageCache {
                     faultLockStriping,
                     enableEvictionThread,
                     preallocateStoreFiles,
-                    reservedPageSize);
+                    reservedPageSize,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
+        }
+
+        /**
+         * @param evictionPolicy the policy used to choose which pages to evict, when the page cache needs free pages.
+         */
+        public Configuration evictionPolicy(EvictionPolicy evictionPolicy) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
+        }
+
+        /**
+         * @param flushThreads the number of threads used to write out the dirty pages of many files at once,
+         * see {@link PageCache#flushDirtyPages(List, IOController, DatabaseFlushEvent)}.
+         */
+        public Configuration flushThreads(int flushThreads) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
+        }
+
+        /**
+         * @param compressedTierMemory the amount of memory, in bytes, to keep evicted pages in, in compressed form,
+         * so they can be faulted back in without reading them from their files. {@code 0} disables the compressed tier.
+         */
+        public Configuration compressedTierMemory(long compressedTierMemory) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    evictionPolicy,
+                    flushThreads,
+                    compressedTierMemory);
         }
     }
 
@@ -455,7 +566,10 @@ public class MuninnPageCache implements PageCache {
                 LatchMap.faultLockStriping,
                 true,
                 true,
-                RESERVED_BYTES);
+                RESERVED_BYTES,
+                EvictionPolicy.CLOCK,
+                1,
+                0);
     }
 
     /**
@@ -479,22 +593,33 @@ public class MuninnPageCache implements PageCache {
         this.printExceptionsOnClose = true;
         this.bufferFactory = configuration.bufferFactory;
         this.victimPage = VictimPageReference.getVictimPage(cachePageSize, configuration.memoryTracker);
+        this.compressedTier = requireNonNegative(configuration.compressedTierMemory) == 0
+                ? null
+                : new CompressedPageTier(
+                        configuration.compressedTierMemory,
+                        cachePageSize,
+                        configuration.memoryTracker,
+                        configuration.pageCacheTracer);
         this.pages = new PageList(
                 maxPages,
                 cachePageSize,
                 configuration.memoryAllocator,
                 new SwapperSet(),
                 victimPage,
-                UnsafeUtil.pageSize());
+                UnsafeUtil.pageSize(),
+                compressedTier);
         this.scheduler = jobScheduler;
         this.clock = configuration.clock;
         this.faultLockStriping = configuration.faultLockStriping;
         this.enableEvictionThread = configuration.enableEvictionThread;
+        this.evictionSweeper = configuration.evictionPolicy.createSweeper(maxPages);
+        this.flushThreads = requirePositive(configuration.flushThreads);
         this.preallocateStoreFiles = configuration.preallocateStoreFiles;
         setFreelistHead(new AtomicInteger());
 
         // Expose the total number of pages
         pageCacheTracer.maxPages(maxPages, cachePageSize);
+        pageCacheTracer.memoryAllocator(configuration.memoryAllocator);
     }
 
     private static int calculatePagesToKeepFree(int maxPages) {
@@ -637,9 +762,25 @@ public class MuninnPageCache implements PageCache {
         current.next = mappedFiles;
         mappedFiles = current;
         pageCacheTracer.mappedFile(pagedFile.swapperId, pagedFile);
+        for (FileMappedListener mappedListener : mappedListeners) {
+            mappedListener.fileMapped(pagedFile);
+        }
         return pagedFile;
     }
 
+    /**
+     * Register a listener that is notified every time a new file is mapped, and every time the last mapping of a file
+     * is about to be unmapped. The listener is invoked while holding the page cache mapping lock, so it should not
+     * do any long-running work on the calling thread.
+     */
+    public void registerFileMappedListener(FileMappedListener mappedListener) {
+        mappedListeners.add(mappedListener);
+    }
+
+    public void unregisterFileMappedListener(FileMappedListener mappedListener) {
+        mappedListeners.remove(mappedListener);
+    }
+
     @Override
     public synchronized Optional<PagedFile> getExistingMapping(Path path) throws IOException {
         assertHealthy();
@@ -727,6 +868,9 @@ public class MuninnPageCache implements PageCache {
                         prev.next = current.next;
                     }
                     pageCacheTracer.unmappedFile(file.swapperId, file);
+                    for (FileMappedListener mappedListener : mappedListeners) {
+                        mappedListener.fileUnmapped(file);
+                    }
                     flushAndCloseWithoutFail(file);
                     break;
                 }
@@ -792,15 +936,111 @@ public class MuninnPageCache implements PageCache {
         }
 
         // Wait for all to complete
+        awaitFlushes(flushes);
+    }
+
+    /**
+     * Wait for all the given flushes to terminate, even if some of them fail, so no flush is still running once we
+     * return. The first failure is thrown, with any others added as suppressed exceptions.
+     */
+    private static void awaitFlushes(List<JobHandle<?>> flushes) throws IOException {
+        Exception failure = null;
+        boolean interrupted = false;
         for (JobHandle<?> flush : flushes) {
-            try {
-                flush.waitTermination();
-            } catch (InterruptedException | ExecutionException e) {
-                throw new IOException(e);
+            boolean terminated = false;
+            while (!terminated) {
+                try {
+                    flush.waitTermination();
+                    terminated = true;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    failure = Exceptions.chain(failure, e);
+                } catch (ExecutionException e) {
+                    terminated = true;
+                    failure = Exceptions.chain(failure, e);
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+    }
+
+    /**
+     * Split the files into their translation table chunks, and let a pool of {@code flushThreads} workers take chunks
+     * off a shared queue until they are all written. Within a chunk, the dirty pages are visited in file order and
+     * adjacent pages are merged into vectored writes, so the workers all issue large writes, and they keep several
+     * of them in flight at a time.
+     * <p>
+     * Each file is reported through a single file flush event of the given database flush event, that the workers
+     * share through a {@link SerializedFileFlushEvent}.
+     */
+    @Override
+    public void flushDirtyPages(List<PagedFile> files, IOController ioController, DatabaseFlushEvent flushEvent)
+            throws IOException {
+        List<MuninnPagedFile> muninnFiles = new ArrayList<>(files.size());
+        List<FileFlushEvent> fileFlushEvents = new ArrayList<>(files.size());
+        List<FlushRange> ranges = new ArrayList<>();
+        Object eventLock = new Object();
+        try {
+            for (PagedFile file : files) {
+                if (file instanceof MuninnPagedFile muninnPagedFile) {
+                    muninnFiles.add(muninnPagedFile);
+                    FileFlushEvent fileFlushEvent = flushEvent.beginFileFlush(muninnPagedFile.swapper);
+                    fileFlushEvents.add(fileFlushEvent);
+                    var workerFlushEvent = new SerializedFileFlushEvent(fileFlushEvent, eventLock);
+                    int chunks = muninnPagedFile.chunkCount();
+                    for (int chunk = 0; chunk < chunks; chunk++) {
+                        ranges.add(new FlushRange(muninnPagedFile, workerFlushEvent, chunk));
+                    }
+                } else {
+                    try (FileFlushEvent fileFlushEvent = flushEvent.beginFileFlush()) {
+                        file.flushAndForce(fileFlushEvent);
+                    }
+                }
+            }
+            if (ranges.isEmpty()) {
+                return;
+            }
+
+            AtomicInteger nextRange = new AtomicInteger();
+            int workers = Math.min(flushThreads, ranges.size());
+            List<JobHandle<?>> flushes = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                flushes.add(scheduler.schedule(
+                        FILE_IO_HELPER, systemJob(muninnFiles.get(0).getDatabaseName(), "Flushing dirty pages"), () -> {
+                            try {
+                                flushRanges(ranges, nextRange, ioController);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }));
+            }
+            awaitFlushes(flushes);
+        } finally {
+            for (FileFlushEvent fileFlushEvent : fileFlushEvents) {
+                fileFlushEvent.close();
             }
         }
+        clearEvictorException();
     }
 
+    private void flushRanges(List<FlushRange> ranges, AtomicInteger nextRange, IOController limiter)
+            throws IOException {
+        try (var buffer = bufferFactory.createBuffer()) {
+            int index;
+            while ((index = nextRange.getAndIncrement()) < ranges.size()) {
+                FlushRange range = ranges.get(index);
+                range.file.flushChunks(range.chunk, range.chunk + 1, range.flushEvent, limiter, buffer);
+            }
+        }
+    }
+
+    private record FlushRange(MuninnPagedFile file, FileFlushEvent flushEvent, int chunk) {}
+
     private void flushFile(MuninnPagedFile muninnPagedFile, IOController limiter) throws IOException {
         try (FileFlushEvent flushEvent = pageCacheTracer.beginFileFlush(muninnPagedFile.swapper);
                 var buffer = bufferFactory.createBuffer()) {
@@ -832,6 +1072,10 @@ public class MuninnPageCache implements PageCache {
 
         interrupt(evictionThread);
         evictionThread = null;
+        if (compressedTier != null) {
+            compressedTier.close();
+        }
+        swapperFactory.close();
     }
 
     private static void interrupt(Thread thread) {
@@ -933,6 +1177,39 @@ public class MuninnPageCache implements PageCache {
         }
     }
 
+    /**
+     * Grab a free page without resorting to eviction. This is used by background work, like page cache warmup, that
+     * should only make use of memory that is not already used by other pages. Pages are only handed out as long as
+     * there are more free pages than the eviction thread is trying to keep free, so we never cause evictions.
+     *
+     * @return an exclusively locked free page, or {@code 0} if there are no spare free pages left.
+     */
+    long tryGrabFreeAndExclusivelyLockedPage() {
+        for (; ; ) {
+            assertNotClosed();
+            Object current = getFreelistHead();
+            if (current instanceof AtomicInteger counter) {
+                int pageCount = pages.getPageCount();
+                int pageId = counter.get();
+                if (pageCount - pageId <= keepFree) {
+                    return 0;
+                }
+                if (counter.compareAndSet(pageId, pageId + 1)) {
+                    return pages.deref(pageId);
+                }
+            } else if (current instanceof FreePage freePage) {
+                if (freePage == shutdownSignal || freePage.count <= keepFree) {
+                    return 0;
+                }
+                if (compareAndSetFreelistHead(freePage, freePage.next)) {
+                    return freePage.pageRef;
+                }
+            } else {
+                return 0;
+            }
+        }
+    }
+
     private static int getFreeListSize(PageList pageList, Object next) {
         if (next instanceof FreePage) {
             return ((FreePage) next).count;
@@ -947,6 +1224,9 @@ public class MuninnPageCache implements PageCache {
         int iterations = 0;
         int pageCount = pages.getPageCount();
         int clockArm = ThreadLocalRandom.current().nextInt(pageCount);
+        // When the page buffers are spread over NUMA nodes, we first look for a page to evict on our own node, so the
+        // page we fault into is local to us. We give up on that once we have been around to the end of the page list.
+        int localNode = pages.isNumaAware() ? pages.currentNode() : -1;
         boolean evicted = false;
         long pageRef;
         do {
@@ -961,11 +1241,16 @@ public class MuninnPageCache implements PageCache {
                 }
                 iterations++;
                 clockArm = 0;
+                localNode = -1;
             }
 
             pageRef = pages.deref(clockArm);
-            if (PageList.isLoaded(pageRef) && PageList.decrementUsage(pageRef)) {
-                evicted = pages.tryEvict(pageRef, faultEvent);
+            if (PageList.isLoaded(pageRef) && (localNode == -1 || pages.getHomeNode(pageRef) == localNode)) {
+                if (evictionSweeper.shouldEvict(pageRef, faultEvent)) {
+                    evicted = pages.tryEvict(pageRef, faultEvent);
+                }
+            } else {
+                evictionSweeper.slotPassed();
             }
             clockArm++;
         } while (!evicted);
@@ -1085,7 +1370,9 @@ public class MuninnPageCache implements PageCache {
             }
 
             long pageRef = pages.deref(clockArm);
-            if (PageList.isLoaded(pageRef) && PageList.decrementUsage(pageRef)) {
+            if (!PageList.isLoaded(pageRef)) {
+                evictionSweeper.slotPassed();
+            } else if (evictionSweeper.shouldEvict(pageRef, evictionRunEvent)) {
                 try {
                     pageCountToEvict--;
                     if (pages.tryEvict(pageRef, evictionRunEvent)) {
@@ -1158,8 +1445,8 @@ public class MuninnPageCache implements PageCache {
         });
     }
 
-    void startPreFetching(MuninnPageCursor cursor, CursorFactory cursorFactory) {
-        PreFetcher preFetcher = new PreFetcher(cursor, cursorFactory, clock);
+    void startPreFetching(MuninnPageCursor cursor) {
+        PreFetcher preFetcher = new PreFetcher(cursor, clock);
         var pagedFile = cursor.pagedFile;
         var fileName = pagedFile.swapper.path().getFileName();
         var monitoringParams = systemJob(pagedFile.databaseName, "Pre-fetching of file '" + fileName + "'");
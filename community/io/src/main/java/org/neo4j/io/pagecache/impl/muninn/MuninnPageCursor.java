@@ -425,7 +425,7 @@ public abstract class MuninnPageCursor extends PageCursor {
                 // the file channel.
                 assertCursorOpenFileMappedAndGetIdOfLastPage();
                 pagedFile.initBuffer(pageRef);
-                PageList.fault(pageRef, swapper, pagedFile.swapperId, filePageId, faultEvent);
+                pagedFile.faultThroughCompressedTier(pageRef, swapper, pagedFile.swapperId, filePageId, faultEvent);
             } catch (Throwable throwable) {
                 try {
                     // Make sure to unlock the page, so the eviction thread can pick up our trash.
@@ -46,6 +46,7 @@ import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.io.pagecache.tracing.version.FileTruncateEvent;
 
 final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
@@ -91,6 +92,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
     // Used to trace the causes of any exceptions from getLastPageId.
     private volatile Exception closeStackTrace;
 
+    // What the last pre-fetcher of this file learned about how the file is scanned, or null if it has not been scanned.
+    volatile PreFetcher.PreFetchHint preFetchHint;
+
     // max modifier transaction id among evicted pages for this file
     @SuppressWarnings("unused") // accessed with VarHandle
     private volatile long highestEvictedTransactionId;
@@ -242,7 +246,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         }
 
         if ((pf_flags & PF_READ_AHEAD) == PF_READ_AHEAD && (pf_flags & PF_NO_FAULT) != PF_NO_FAULT) {
-            pageCache.startPreFetching(cursor, cursorFactory);
+            pageCache.startPreFetching(cursor);
         }
         return cursor;
     }
@@ -289,6 +293,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         setLastPageIdTo(pagesToKeep - 1);
         // update translation table
         truncateCapacity(pagesToKeep);
+        removeCompressedPages(swapper, pagesToKeep);
         // truncate file
         swapper.truncate(pagesToKeep * filePageSize);
         truncateEvent.truncatedBytes(lastPageId, pagesToKeep, filePageSize);
@@ -310,6 +315,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         closeStackTrace = new Exception("tracing paged file closing");
 
         evictPages();
+        removeCompressedPages(swapper, 0);
         if (!deleteOnClose) {
             swapper.close();
         } else {
@@ -472,34 +478,79 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         try {
             doFlushAndForceInternal(flushEvent, forClosing, limiter, ioBuffer);
         } catch (ClosedChannelException e) {
-            if (getRefCount() > 0) {
-                // The file is not supposed to be closed, since we have a positive ref-count, yet we got a
-                // ClosedChannelException anyway? It's an odd situation, so let's tell the outside world about
-                // this failure.
-                e.addSuppressed(closeStackTrace);
-                throw e;
-            }
-            // Otherwise: The file was closed while we were trying to flush it. Since unmapping implies a flush
-            // anyway, we can safely assume that this is not a problem. The file was flushed, and it doesn't
-            // really matter how that happened. We'll ignore this exception.
+            handleClosedChannel(e);
         }
     }
 
+    /**
+     * Write out the dirty pages in the given range of translation table chunks, without forcing the file.
+     * This allows the page cache to spread the flushing of a file over several threads.
+     *
+     * @param fromChunk the first chunk to flush, inclusive.
+     * @param toChunk the last chunk to flush, exclusive. Chunks beyond the end of the translation table are ignored.
+     */
+    void flushChunks(
+            int fromChunk, int toChunk, FileFlushEvent flushEvent, IOController limiter, NativeIOBuffer ioBuffer)
+            throws IOException {
+        try {
+            int[][] tt = this.translationTable;
+            flushEvent.startFlush(tt);
+            flushChunks(tt, fromChunk, Math.min(toChunk, tt.length), flushEvent, false, limiter, ioBuffer);
+        } catch (ClosedChannelException e) {
+            handleClosedChannel(e);
+        }
+    }
+
+    int chunkCount() {
+        return translationTable.length;
+    }
+
+    private void handleClosedChannel(ClosedChannelException e) throws ClosedChannelException {
+        if (getRefCount() > 0) {
+            // The file is not supposed to be closed, since we have a positive ref-count, yet we got a
+            // ClosedChannelException anyway? It's an odd situation, so let's tell the outside world about
+            // this failure.
+            e.addSuppressed(closeStackTrace);
+            throw e;
+        }
+        // Otherwise: The file was closed while we were trying to flush it. Since unmapping implies a flush
+        // anyway, we can safely assume that this is not a problem. The file was flushed, and it doesn't
+        // really matter how that happened. We'll ignore this exception.
+    }
+
     private void doFlushAndForceInternal(
             FileFlushEvent flushes, boolean forClosing, IOController limiter, NativeIOBuffer ioBuffer)
             throws IOException {
         // TODO it'd be awesome if, on Linux, we'd call sync_file_range(2) instead of fsync
+        int[][] tt = this.translationTable;
+        flushes.startFlush(tt);
+        flushChunks(tt, 0, tt.length, flushes, forClosing, limiter, ioBuffer);
+        swapper.force();
+    }
+
+    private void flushChunks(
+            int[][] tt,
+            int fromChunk,
+            int toChunk,
+            FileFlushEvent flushes,
+            boolean forClosing,
+            IOController limiter,
+            NativeIOBuffer ioBuffer)
+            throws IOException {
         long[] pages = new long[translationTableChunkSize];
         long[] flushStamps = forClosing ? null : new long[translationTableChunkSize];
         long[] bufferAddresses = new long[translationTableChunkSize];
         int[] bufferLengths = new int[translationTableChunkSize];
-        long filePageId = -1; // Start at -1 because we increment at the *start* of the chunk-loop iteration.
-        int[][] tt = this.translationTable;
+        // Start one page before the range because we increment at the *start* of the chunk-loop iteration.
+        long filePageId = ((long) fromChunk << translationTableChunkSizePower) - 1;
         boolean useTemporaryBuffer = ioBuffer.isEnabled();
+        // When the swapper can batch writes, we collect all the runs of dirty pages in a chunk, and write them at once.
+        boolean batchWrites = !useTemporaryBuffer && swapper.canBatchWrites();
+        long[] vectorStartPageIds = batchWrites ? new long[translationTableChunkSize] : null;
+        int[] vectorLengths = batchWrites ? new int[translationTableChunkSize] : null;
 
-        flushes.startFlush(tt);
-
-        for (int[] chunk : tt) {
+        for (int chunkId = fromChunk; chunkId < toChunk; chunkId++) {
+            int[] chunk = tt[chunkId];
             var chunkEvent = flushes.startChunk(chunk);
             long notModifiedPages = 0;
             long flushPerChunk = 0;
@@ -513,6 +564,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             int numberOfBuffers = 0;
             int lastBufferIndex = -1;
             int mergedPages = 0;
+            int vectors = 0;
+            int vectorStartPage = 0;
+            int vectorStartBuffer = 0;
 
             boolean fillingDirtyBuffer = false;
             if (useTemporaryBuffer) {
@@ -602,7 +656,17 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                     }
                     break;
                 }
-                if (pagesGrabbed > 0) {
+                if (batchWrites) {
+                    if (pagesGrabbed > vectorStartPage) {
+                        // End the current run of dirty pages, and keep collecting runs until the end of the chunk.
+                        vectorStartPageIds[vectors] = getFilePageId(pages[vectorStartPage]);
+                        vectorLengths[vectors] = numberOfBuffers - vectorStartBuffer;
+                        vectors++;
+                        vectorStartPage = pagesGrabbed;
+                        vectorStartBuffer = numberOfBuffers;
+                        nextSequentialAddress = -1;
+                    }
+                } else if (pagesGrabbed > 0) {
                     vectoredFlush(
                             pages,
                             bufferAddresses,
@@ -611,6 +675,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                             numberOfBuffers,
                             pagesGrabbed,
                             mergedPages,
+                            null,
+                            null,
+                            0,
                             flushes,
                             forClosing);
                     flushes.reportIO(numberOfBuffers);
@@ -625,6 +692,11 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                     bufferLengths[0] = 0;
                 }
             }
+            if (pagesGrabbed > vectorStartPage && batchWrites) {
+                vectorStartPageIds[vectors] = getFilePageId(pages[vectorStartPage]);
+                vectorLengths[vectors] = numberOfBuffers - vectorStartBuffer;
+                vectors++;
+            }
             if (pagesGrabbed > 0) {
                 vectoredFlush(
                         pages,
@@ -634,6 +706,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                         numberOfBuffers,
                         pagesGrabbed,
                         mergedPages,
+                        vectorStartPageIds,
+                        vectorLengths,
+                        vectors,
                         flushes,
                         forClosing);
                 flushes.reportIO(numberOfBuffers);
@@ -642,8 +717,6 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             }
             chunkEvent.chunkFlushed(notModifiedPages, flushPerChunk, buffersPerChunk, mergesPerChunk);
         }
-
-        swapper.force();
     }
 
     private void vectoredFlush(
@@ -654,17 +727,26 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             int numberOfBuffers,
             int pagesToFlush,
             int pagesMerged,
+            long[] vectorStartPageIds,
+            int[] vectorLengths,
+            int vectors,
             FileFlushEvent flushEvent,
             boolean forClosing)
             throws IOException {
         try (var flush = flushEvent.beginFlush(pages, swapper, this, pagesToFlush, pagesMerged)) {
             boolean successful = false;
             try {
-                // Write the pages vector
-                long firstPageRef = pages[0];
-                long startFilePageId = getFilePageId(firstPageRef);
-                long bytesWritten =
-                        swapper.write(startFilePageId, bufferAddresses, bufferLengths, numberOfBuffers, pagesToFlush);
+                // Write the pages vector, or the batch of page vectors
+                long bytesWritten;
+                if (vectors > 1) {
+                    bytesWritten = swapper.write(
+                            vectorStartPageIds, vectorLengths, vectors, bufferAddresses, bufferLengths, pagesToFlush);
+                } else {
+                    long firstPageRef = pages[0];
+                    long startFilePageId = getFilePageId(firstPageRef);
+                    bytesWritten = swapper.write(
+                            startFilePageId, bufferAddresses, bufferLengths, numberOfBuffers, pagesToFlush);
+                }
 
                 // Update the flush event
                 flush.addBytesWritten(bytesWritten);
@@ -850,6 +932,165 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         return pageCache.grabFreeAndExclusivelyLockedPage(faultEvent);
     }
 
+    PageCursorTracer createPageCursorTracer(String tag) {
+        return pageCacheTracer.createPageCursorTracer(tag);
+    }
+
+    /**
+     * Build a bitmap of the file pages that are currently resident in the page cache. Bit {@code n} in the returned
+     * array is set if file page {@code n} is in memory. This is a racy snapshot, and is only meant as a hint.
+     * Unlike most other methods, this also works while the file is being unmapped, up until its pages are evicted.
+     *
+     * @return the bitmap of resident pages, with room for at least one bit per page in the file.
+     */
+    long[] residentPages() {
+        long lastPageId = getHeaderState() & HEADER_STATE_LAST_PAGE_ID_MASK;
+        if (lastPageId < 0) {
+            return new long[0];
+        }
+        long[] bitmap = new long[(int) ((lastPageId + Long.SIZE) >>> 6)];
+        int[][] tt = this.translationTable;
+        for (int chunkId = 0; chunkId < tt.length; chunkId++) {
+            int[] chunk = tt[chunkId];
+            long chunkStartPageId = ((long) chunkId) << translationTableChunkSizePower;
+            for (int i = 0; i < chunk.length; i++) {
+                long filePageId = chunkStartPageId + i;
+                if (filePageId > lastPageId) {
+                    return bitmap;
+                }
+                int pageId = (int) TRANSLATION_TABLE_ARRAY.getVolatile(chunk, i);
+                if (pageId != UNMAPPED_TTE && isBoundTo(deref(pageId), swapperId, filePageId)) {
+                    bitmap[(int) (filePageId >>> 6)] |= 1L << (filePageId & 63);
+                }
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Load up to {@code count} consecutive file pages, starting from {@code startFilePageId}, into free pages of the
+     * page cache, using a single vectored read. Loading stops at the end of the file, at the first page that is
+     * already in memory or is being faulted in by someone else, or, unless {@code evict} is set, when the page cache
+     * runs out of spare free pages.
+     *
+     * @param startFilePageId the first file page to load.
+     * @param count the maximum number of pages to load.
+     * @param evict {@code true} if pages may be evicted to make room, like a page fault would, or {@code false} if
+     * only spare free pages should be used.
+     * @param cursorTracer the tracer that each loaded page is reported to, as a pin with a page fault.
+     * @param pageRefs scratch space for the grabbed pages, with room for at least {@code count} entries.
+     * @param bufferAddresses scratch space for the read vector, with room for at least {@code count} entries.
+     * @param bufferLengths scratch space for the read vector, with room for at least {@code count} entries.
+     * @param latches scratch space for the fault latches, with room for at least {@code count} entries.
+     * @return the number of pages loaded, or {@code -1} if the page cache has no spare free pages left.
+     * @throws IOException if the pages could not be read.
+     */
+    int loadPages(
+            long startFilePageId,
+            int count,
+            boolean evict,
+            PageCursorTracer cursorTracer,
+            long[] pageRefs,
+            long[] bufferAddresses,
+            int[] bufferLengths,
+            LatchMap.Latch[] latches)
+            throws IOException {
+        count = (int) Math.min(count, getLastPageId() - startFilePageId + 1);
+        int[][] tt = translationTable;
+        int grabbed = 0;
+        boolean outOfFreePages = false;
+        boolean published = false;
+        try {
+            while (grabbed < count) {
+                long filePageId = startFilePageId + grabbed;
+                int chunkId = computeChunkId(filePageId);
+                if (chunkId >= tt.length) {
+                    break;
+                }
+                int[] chunk = tt[chunkId];
+                int chunkIndex = computeChunkIndex(filePageId);
+                if ((int) TRANSLATION_TABLE_ARRAY.getVolatile(chunk, chunkIndex) != UNMAPPED_TTE) {
+                    break;
+                }
+                LatchMap.Latch latch = pageFaultLatches.takeOrAwaitLatch(filePageId);
+                if (latch == null) {
+                    // Someone else faulted the page in, while we were looking.
+                    break;
+                }
+                if ((int) TRANSLATION_TABLE_ARRAY.getVolatile(chunk, chunkIndex) != UNMAPPED_TTE) {
+                    latch.release();
+                    break;
+                }
+                long pageRef = pageCache.tryGrabFreeAndExclusivelyLockedPage();
+                if (pageRef == 0 && !evict) {
+                    latch.release();
+                    outOfFreePages = true;
+                    break;
+                }
+                // Each page is traced as a pin with a page fault, just like a cursor would have when loading it.
+                // The pin is released again once the pages have been published.
+                try (var pinEvent = cursorTracer.beginPin(false, filePageId, swapper);
+                        var faultEvent = pinEvent.beginPageFault(filePageId, swapper)) {
+                    try {
+                        if (pageRef == 0) {
+                            pageRef = grabFreeAndExclusivelyLockedPage(faultEvent);
+                        }
+                    } catch (Throwable throwable) {
+                        faultEvent.setException(throwable);
+                        latch.release();
+                        throw throwable;
+                    }
+                    faultEvent.addBytesRead(filePageSize);
+                    faultEvent.setCachePageId(toId(pageRef));
+                    pinEvent.setCachePageId(toId(pageRef));
+                }
+                initBuffer(pageRef);
+                latches[grabbed] = latch;
+                pageRefs[grabbed] = pageRef;
+                grabbed++;
+            }
+
+            if (grabbed > 0) {
+                // Check if we're racing with unmapping, before we touch the file.
+                getLastPageId();
+                fault(
+                        pageRefs,
+                        bufferAddresses,
+                        bufferLengths,
+                        grabbed,
+                        filePageSize,
+                        swapper,
+                        swapperId,
+                        startFilePageId);
+                for (int i = 0; i < grabbed; i++) {
+                    long filePageId = startFilePageId + i;
+                    long pageRef = pageRefs[i];
+                    int[] chunk = tt[computeChunkId(filePageId)];
+                    TRANSLATION_TABLE_ARRAY.setVolatile(chunk, computeChunkIndex(filePageId), toId(pageRef));
+                    // Loaded pages start out unused; the first cursor to pin one counts as its first use, same as
+                    // for a page faulted in by that cursor. Otherwise a pre-fetched scan would look hot to eviction.
+                    unlockExclusive(pageRef);
+                }
+                published = true;
+            }
+        } finally {
+            if (!published) {
+                // Something went wrong before the pages were made visible, so put them back on the freelist.
+                for (int i = 0; i < grabbed; i++) {
+                    long pageRef = pageRefs[i];
+                    clearBinding(pageRef);
+                    pageCache.addFreePageToFreelist(pageRef, EvictionRunEvent.NULL);
+                }
+            }
+            for (int i = 0; i < grabbed; i++) {
+                cursorTracer.unpin(startFilePageId + i, swapper);
+                latches[i].release();
+                latches[i] = null;
+            }
+        }
+        return grabbed == 0 && outOfFreePages ? -1 : grabbed;
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      * @param filePageId The id of the file page to evict.
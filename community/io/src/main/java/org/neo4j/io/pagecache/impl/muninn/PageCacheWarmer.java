@@ -0,0 +1,482 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.monitoring.PageCacheWarmerMonitor;
+import org.neo4j.io.pagecache.tracing.FileMappedListener;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.SystemNanoClock;
+import org.neo4j.util.VisibleForTesting;
+
+/**
+ * The page cache warmer periodically writes a profile of which pages of each mapped file are in memory, and uses
+ * those profiles to load the same pages back into memory when the files are mapped again, typically after a restart.
+ * <p>
+ * A profile is a gzipped bitmap with one bit per file page. Warmup of a file reads the profiled pages with large,
+ * sequential, vectored reads of consecutive pages, and the files are warmed up in parallel. Warmup only ever uses
+ * free pages in the page cache, and stops as soon as it runs out of them, so it never evicts anything.
+ */
+public class PageCacheWarmer implements FileMappedListener {
+    // The maximum number of consecutive pages that warmup will load with a single read.
+    private static final int warmupReadPages = getInteger(PageCacheWarmer.class, "warmupReadPages", 64);
+
+    private static final String TRACER_WARMUP_TAG = "Page cache warmup";
+
+    static final String PROFILE_SUFFIX = ".cacheprof";
+    private static final long PROFILE_MAGIC = 0x5043_5052_4F46_0001L; // "PCPROF" followed by the format version.
+
+    private final MuninnPageCache pageCache;
+    private final FileSystemAbstraction fs;
+    private final JobScheduler scheduler;
+    private final SystemNanoClock clock;
+    private final Path profilesDirectory;
+    private final PageCacheWarmerMonitor monitor;
+    private final Map<MuninnPagedFile, FileJob> warmups = new ConcurrentHashMap<>();
+    private final Map<MuninnPagedFile, FileJob> unmapProfiles = new ConcurrentHashMap<>();
+    // Guards the writing of profile files. Must never be held while taking the page cache monitor lock.
+    private final Lock profileLock = new ReentrantLock();
+    private volatile boolean stopped;
+    private JobHandle<?> profileJob;
+
+    public PageCacheWarmer(
+            MuninnPageCache pageCache,
+            FileSystemAbstraction fs,
+            JobScheduler scheduler,
+            SystemNanoClock clock,
+            Path profilesDirectory,
+            PageCacheWarmerMonitor monitor) {
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.profilesDirectory = profilesDirectory;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Start warming up files as they get mapped, and start profiling the mapped files with the given interval.
+     * Files that are already mapped when the warmer is started will also be warmed up.
+     */
+    public synchronized void start(Duration profileInterval) throws IOException {
+        stopped = false;
+        pageCache.registerFileMappedListener(this);
+        for (PagedFile pagedFile : pageCache.listExistingMappings()) {
+            scheduleWarmup((MuninnPagedFile) pagedFile);
+        }
+        long intervalMillis = profileInterval.toMillis();
+        profileJob = scheduler.scheduleRecurring(
+                Group.FILE_IO_HELPER,
+                systemJob("Profiling of page cache"),
+                this::profileQuietly,
+                intervalMillis,
+                intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop profiling, and stop any ongoing warmups. Waits for ongoing warmups, and the profiling of recently unmapped
+     * files, to finish.
+     */
+    public synchronized void stop() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        pageCache.unregisterFileMappedListener(this);
+        if (profileJob != null) {
+            profileJob.cancel();
+            profileJob = null;
+        }
+        awaitAll(warmups);
+        awaitAll(unmapProfiles);
+    }
+
+    private static void awaitAll(Map<MuninnPagedFile, FileJob> jobs) {
+        for (FileJob job : jobs.values()) {
+            try {
+                job.awaitDone();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        jobs.clear();
+    }
+
+    @VisibleForTesting
+    boolean hasPendingJobs() {
+        return !warmups.isEmpty() || !unmapProfiles.isEmpty();
+    }
+
+    /**
+     * Write a profile of the pages in memory for all of the currently mapped files.
+     * @return the total number of pages in memory across all of the profiled files.
+     */
+    public long profile() throws IOException {
+        long pagesInMemory = 0;
+        for (PagedFile pagedFile : pageCache.listExistingMappings()) {
+            try {
+                pagesInMemory += profile((MuninnPagedFile) pagedFile);
+            } catch (FileIsNotMappedException e) {
+                // The file got unmapped while we were profiling it. That is fine, since we profile files on unmap.
+            }
+        }
+        return pagesInMemory;
+    }
+
+    /**
+     * Warm up all the currently mapped files that have profiles, in parallel, and wait for the warmup to complete.
+     * @return the total number of pages that were loaded into memory.
+     */
+    public long reheat() throws IOException {
+        List<JobHandle<Long>> jobs = new ArrayList<>();
+        for (PagedFile pagedFile : pageCache.listExistingMappings()) {
+            MuninnPagedFile file = (MuninnPagedFile) pagedFile;
+            jobs.add(scheduler.schedule(Group.FILE_IO_HELPER, warmupMonitoringParams(file), () -> {
+                try {
+                    return warmUp(file, () -> false);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        long pagesLoaded = 0;
+        for (JobHandle<Long> job : jobs) {
+            try {
+                pagesLoaded += job.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IOException(e);
+            }
+        }
+        return pagesLoaded;
+    }
+
+    @Override
+    public void fileMapped(PagedFile pagedFile) {
+        scheduleWarmup((MuninnPagedFile) pagedFile);
+    }
+
+    @Override
+    public void fileUnmapped(PagedFile pagedFile) {
+        // This is called with the page cache monitor held, so we only take a snapshot of the pages in memory here,
+        // before the file is flushed and its pages evicted, and leave the file system work to the scheduler.
+        MuninnPagedFile file = (MuninnPagedFile) pagedFile;
+        FileJob warmup = warmups.remove(file);
+        if (warmup != null) {
+            // A running warmup checks for cancellation between reads, so this doesn't wait for long.
+            try {
+                warmup.cancel();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Path path = file.path();
+        int pageSize = file.pageSize();
+        boolean deleteOnClose = file.isDeleteOnClose();
+        long[] bitmap = deleteOnClose ? null : file.residentPages();
+        schedule(
+                unmapProfiles,
+                file,
+                systemJob(
+                        file.getDatabaseName(),
+                        "Profiling of page cache for unmapped file '" + path.getFileName() + "'"),
+                job -> {
+                    try {
+                        Path profile = profileFile(path);
+                        if (deleteOnClose) {
+                            fs.deleteFile(profile);
+                        } else if (fs.fileExists(profile)) {
+                            // Refresh existing profiles on unmap, so they reflect the state of the cache at shutdown.
+                            writeProfile(path, pageSize, bitmap);
+                        }
+                    } catch (IOException ignore) {
+                        // Profiling is best-effort. We will keep the previous profile, if there was one.
+                    }
+                });
+    }
+
+    private void scheduleWarmup(MuninnPagedFile pagedFile) {
+        if (stopped || !fs.fileExists(profileFile(pagedFile.path()))) {
+            return;
+        }
+        schedule(warmups, pagedFile, warmupMonitoringParams(pagedFile), job -> {
+            try {
+                warmUp(pagedFile, job::isCancelled);
+            } catch (IOException ignore) {
+                // Warmup is best-effort. A failed warmup only means that the cache will take longer to warm up.
+            }
+        });
+    }
+
+    /**
+     * Puts the job in {@code jobs} before scheduling it, and lets the job only remove its own entry, so that a job
+     * that completes before the scheduler has returned its handle doesn't leave an entry behind for an unmapped file.
+     */
+    private void schedule(
+            Map<MuninnPagedFile, FileJob> jobs,
+            MuninnPagedFile file,
+            JobMonitoringParams monitoringParams,
+            Consumer<FileJob> task) {
+        FileJob job = new FileJob();
+        jobs.put(file, job);
+        try {
+            scheduler.schedule(Group.FILE_IO_HELPER, monitoringParams, () -> {
+                try {
+                    job.run(task);
+                } finally {
+                    jobs.remove(file, job);
+                }
+            });
+        } catch (RuntimeException e) {
+            jobs.remove(file, job);
+            job.cancelBeforeStart();
+            throw e;
+        }
+    }
+
+    private static JobMonitoringParams warmupMonitoringParams(MuninnPagedFile pagedFile) {
+        return systemJob(
+                pagedFile.getDatabaseName(),
+                "Warmup of page cache for file '" + pagedFile.path().getFileName() + "'");
+    }
+
+    private void profileQuietly() {
+        try {
+            profile();
+        } catch (IOException | IllegalStateException ignore) {
+            // Profiling is best-effort, and the page cache might be shutting down. We will try again next time.
+        }
+    }
+
+    private long profile(MuninnPagedFile pagedFile) throws IOException {
+        return writeProfile(pagedFile.path(), pagedFile.pageSize(), pagedFile.residentPages());
+    }
+
+    private long writeProfile(Path file, int pageSize, long[] bitmap) throws IOException {
+        long pagesInMemory = 0;
+        for (long word : bitmap) {
+            pagesInMemory += Long.bitCount(word);
+        }
+
+        Path profile = profileFile(file);
+        Path tempProfile = profile.resolveSibling(profile.getFileName() + ".tmp");
+        profileLock.lock();
+        try {
+            fs.mkdirs(profilesDirectory);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new GZIPOutputStream(fs.openAsOutputStream(tempProfile, false))))) {
+                out.writeLong(PROFILE_MAGIC);
+                out.writeUTF(file.toString());
+                out.writeInt(pageSize);
+                out.writeInt(bitmap.length);
+                for (long word : bitmap) {
+                    out.writeLong(word);
+                }
+            }
+            fs.renameFile(tempProfile, profile, ATOMIC_MOVE, REPLACE_EXISTING);
+        } finally {
+            profileLock.unlock();
+        }
+        monitor.profileCompleted(file, pagesInMemory);
+        return pagesInMemory;
+    }
+
+    private long[] readProfile(MuninnPagedFile pagedFile) {
+        Path file = pagedFile.path();
+        Path profile = profileFile(file);
+        profileLock.lock();
+        try (DataInputStream in =
+                new DataInputStream(new BufferedInputStream(new GZIPInputStream(fs.openAsInputStream(profile))))) {
+            if (in.readLong() != PROFILE_MAGIC
+                    || !in.readUTF().equals(file.toString())
+                    || in.readInt() != pagedFile.pageSize()) {
+                return null;
+            }
+            long[] bitmap = new long[in.readInt()];
+            for (int i = 0; i < bitmap.length; i++) {
+                bitmap[i] = in.readLong();
+            }
+            return bitmap;
+        } catch (IOException e) {
+            // Missing, truncated or otherwise broken profile. We'll just have to do without it.
+            return null;
+        } finally {
+            profileLock.unlock();
+        }
+    }
+
+    private long warmUp(MuninnPagedFile pagedFile, BooleanSupplier cancelled) throws IOException {
+        long[] bitmap = readProfile(pagedFile);
+        if (bitmap == null) {
+            return 0;
+        }
+        Path file = pagedFile.path();
+        long pagesToLoad = 0;
+        for (long word : bitmap) {
+            pagesToLoad += Long.bitCount(word);
+        }
+
+        long startMillis = clock.millis();
+        long pagesLoaded = 0;
+        monitor.warmupStarted(file, pagesToLoad);
+        try (PageCursorTracer cursorTracer = pagedFile.createPageCursorTracer(TRACER_WARMUP_TAG)) {
+            long lastPageId = pagedFile.getLastPageId();
+            long[] pageRefs = new long[warmupReadPages];
+            long[] bufferAddresses = new long[warmupReadPages];
+            int[] bufferLengths = new int[warmupReadPages];
+            LatchMap.Latch[] latches = new LatchMap.Latch[warmupReadPages];
+
+            long filePageId = nextSetBit(bitmap, 0);
+            while (filePageId != -1 && filePageId <= lastPageId && !stopped && !cancelled.getAsBoolean()) {
+                int run = 1;
+                while (run < warmupReadPages && filePageId + run <= lastPageId && isSet(bitmap, filePageId + run)) {
+                    run++;
+                }
+                int loaded = pagedFile.loadPages(
+                        filePageId, run, false, cursorTracer, pageRefs, bufferAddresses, bufferLengths, latches);
+                if (loaded < 0) {
+                    // The page cache is full.
+                    break;
+                }
+                pagesLoaded += loaded;
+                monitor.warmupProgress(file, pagesLoaded, pagesToLoad);
+                // If we loaded fewer pages than we asked for, then the page after the last loaded page was already
+                // in memory, and we skip it.
+                filePageId = nextSetBit(bitmap, filePageId + (loaded == run ? run : loaded + 1));
+            }
+        } catch (FileIsNotMappedException e) {
+            // The file was unmapped while we were warming it up, so there is no point in continuing.
+        } finally {
+            monitor.warmupCompleted(file, pagesLoaded, clock.millis() - startMillis);
+        }
+        return pagesLoaded;
+    }
+
+    private static boolean isSet(long[] bitmap, long bit) {
+        int index = (int) (bit >>> 6);
+        return index < bitmap.length && (bitmap[index] & (1L << (bit & 63))) != 0;
+    }
+
+    private static long nextSetBit(long[] bitmap, long fromBit) {
+        int index = (int) (fromBit >>> 6);
+        if (index >= bitmap.length) {
+            return -1;
+        }
+        long word = bitmap[index] & (-1L << (fromBit & 63));
+        while (word == 0) {
+            if (++index == bitmap.length) {
+                return -1;
+            }
+            word = bitmap[index];
+        }
+        return ((long) index << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * A warmup or profiling job of one file, which can be cancelled before it starts, or asked to stop and be waited
+     * for once it has started.
+     */
+    private static final class FileJob {
+        private static final int NEW = 0;
+        private static final int RUNNING = 1;
+        private static final int CANCELLED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(NEW);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean cancelled;
+
+        void run(Consumer<FileJob> task) {
+            if (!state.compareAndSet(NEW, RUNNING)) {
+                return;
+            }
+            try {
+                task.accept(this);
+            } finally {
+                done.countDown();
+            }
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Stops the job from starting, or if it has already started, asks it to stop and waits for it to finish.
+         */
+        void cancel() throws InterruptedException {
+            cancelled = true;
+            if (!cancelBeforeStart()) {
+                done.await();
+            }
+        }
+
+        boolean cancelBeforeStart() {
+            if (state.compareAndSet(NEW, CANCELLED)) {
+                done.countDown();
+                return true;
+            }
+            return false;
+        }
+
+        void awaitDone() throws InterruptedException {
+            done.await();
+        }
+    }
+
+    Path profileFile(Path file) {
+        String fileName = file.getFileName().toString();
+        String pathHash = Integer.toHexString(file.toAbsolutePath().toString().hashCode());
+        return profilesDirectory.resolve(fileName + "-" + pathHash + PROFILE_SUFFIX);
+    }
+}
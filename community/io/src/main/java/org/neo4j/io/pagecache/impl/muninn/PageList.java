@@ -24,6 +24,7 @@ import static org.neo4j.util.FeatureToggles.flag;
 
 import java.io.IOException;
 import java.lang.invoke.VarHandle;
+import org.neo4j.internal.nativeimpl.Numa;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.PageCursor;
@@ -56,6 +57,8 @@ class PageList implements PageReferenceTranslator {
 
     private static final int UNBOUND_LAST_MODIFIED_TX_ID = -1;
     private static final long MAX_USAGE_COUNT = 4;
+    // Usage counts above the max can only be reached through the eviction sweeper marking a page as hot
+    private static final long HOT_USAGE_COUNT = 7;
     private static final int SHIFT_FILE_PAGE_ID = 24;
     private static final int SHIFT_SWAPPER_ID = 3;
     private static final int SHIFT_PARTIAL_FILE_PAGE_ID = SHIFT_FILE_PAGE_ID - SHIFT_SWAPPER_ID;
@@ -83,6 +86,11 @@ class PageList implements PageReferenceTranslator {
     private final long victimPageAddress;
     private final long baseAddress;
     private final long bufferAlignment;
+    private final int nodeCount;
+    // One byte per page with the NUMA node its buffer is placed on, or 0 when the memory allocator only has one node.
+    private final long homeNodesAddress;
+    // Evicted pages are kept here in compressed form, or null if there is no compressed tier.
+    private final CompressedPageTier compressedTier;
 
     PageList(
             int pageCount,
@@ -91,6 +99,17 @@ class PageList implements PageReferenceTranslator {
             SwapperSet swappers,
             long victimPageAddress,
             long bufferAlignment) {
+        this(pageCount, cachePageSize, memoryAllocator, swappers, victimPageAddress, bufferAlignment, null);
+    }
+
+    PageList(
+            int pageCount,
+            int cachePageSize,
+            MemoryAllocator memoryAllocator,
+            SwapperSet swappers,
+            long victimPageAddress,
+            long bufferAlignment,
+            CompressedPageTier compressedTier) {
         this.pageCount = pageCount;
         this.cachePageSize = cachePageSize;
         this.memoryAllocator = memoryAllocator;
@@ -99,6 +118,14 @@ class PageList implements PageReferenceTranslator {
         long bytes = ((long) pageCount) * META_DATA_BYTES_PER_PAGE;
         this.baseAddress = memoryAllocator.allocateAligned(bytes, Long.BYTES);
         this.bufferAlignment = bufferAlignment;
+        this.nodeCount = memoryAllocator.nodeCount();
+        if (nodeCount > 1) {
+            this.homeNodesAddress = memoryAllocator.allocateAligned(pageCount, Long.BYTES);
+            UnsafeUtil.setMemory(homeNodesAddress, pageCount, (byte) 0);
+        } else {
+            this.homeNodesAddress = 0;
+        }
+        this.compressedTier = compressedTier;
         clearMemory(baseAddress, pageCount);
     }
 
@@ -118,6 +145,9 @@ class PageList implements PageReferenceTranslator {
         this.victimPageAddress = pageList.victimPageAddress;
         this.baseAddress = pageList.baseAddress;
         this.bufferAlignment = pageList.bufferAlignment;
+        this.nodeCount = pageList.nodeCount;
+        this.homeNodesAddress = pageList.homeNodesAddress;
+        this.compressedTier = pageList.compressedTier;
     }
 
     private static void clearMemory(long baseAddress, long pageCount) {
@@ -271,11 +301,40 @@ class PageList implements PageReferenceTranslator {
 
     void initBuffer(long pageRef) {
         if (getAddress(pageRef) == 0L) {
-            long addr = memoryAllocator.allocateAligned(getCachePageSize(), bufferAlignment);
+            long addr;
+            if (homeNodesAddress == 0) {
+                addr = memoryAllocator.allocateAligned(getCachePageSize(), bufferAlignment);
+            } else {
+                // Place the buffer on the node of the faulting thread, and remember where we put it.
+                int node = currentNode();
+                addr = memoryAllocator.allocateAligned(getCachePageSize(), bufferAlignment, node);
+                UnsafeUtil.putByte(homeNodesAddress + toId(pageRef), (byte) node);
+            }
             UnsafeUtil.putLong(offAddress(pageRef), addr);
         }
     }
 
+    /**
+     * @return {@code true} if the page buffers are placed on different NUMA nodes.
+     */
+    boolean isNumaAware() {
+        return homeNodesAddress != 0;
+    }
+
+    /**
+     * @return the NUMA node of the calling thread, among the nodes that page buffers are placed on.
+     */
+    int currentNode() {
+        return homeNodesAddress == 0 ? 0 : Math.floorMod(Numa.currentNode(), nodeCount);
+    }
+
+    /**
+     * @return the NUMA node that the buffer of the given page is placed on. Pages without a buffer are on node 0.
+     */
+    int getHomeNode(long pageRef) {
+        return homeNodesAddress == 0 ? 0 : UnsafeUtil.getByte(homeNodesAddress + toId(pageRef)) & 0xFF;
+    }
+
     /**
      * Increment the usage stamp to at most 4.
      **/
@@ -312,6 +371,37 @@ class PageList implements PageReferenceTranslator {
         return usage <= 1;
     }
 
+    /**
+     * Age the usage stamp for the eviction sweeper. Returns true if the page should be evicted.
+     * <p>
+     * Unlike {@link #decrementUsage(long)}, a page whose usage stamp is maxed out when the sweeper gets to it is marked
+     * as hot, by raising its stamp above what pins can reach. Pins skip their usage stamp write while the stamp is at
+     * or above the max, so the readers of a hot page, like a GBPTree root, only read its meta-data while the sweeper
+     * spends the extra usage in its next laps. When the extra usage is spent, the stamp drops to just below the max,
+     * so the next pin writes it back to the max, where the sweeper marks the page as hot again. Readers of a hot page
+     * thereby write to its meta-data once every four laps of the sweeper, instead of once every lap, and a hot page
+     * that is no longer used is evicted three laps later than it would otherwise be.
+     **/
+    static boolean sweepUsage(long pageRef) {
+        // This is intentionally left benignly racy for performance.
+        long address = offPageBinding(pageRef);
+        long value = UnsafeUtil.getLongVolatile(address);
+        long usage = value & MASK_USAGE_COUNT;
+        long updatedUsage;
+        if (usage == MAX_USAGE_COUNT) {
+            updatedUsage = HOT_USAGE_COUNT;
+        } else if (usage == MAX_USAGE_COUNT + 1) {
+            updatedUsage = MAX_USAGE_COUNT - 1;
+        } else if (usage > 0) {
+            updatedUsage = usage - 1;
+        } else {
+            return true;
+        }
+        // See `incrementUsage` about why we use `compareAndSwapLong`.
+        UnsafeUtil.compareAndSwapLong(null, address, value, value - usage + updatedUsage);
+        return usage <= 1;
+    }
+
     static long getUsage(long pageRef) {
         return UnsafeUtil.getLongVolatile(offPageBinding(pageRef)) & MASK_USAGE_COUNT;
     }
@@ -372,6 +462,27 @@ class PageList implements PageReferenceTranslator {
 
     static void fault(long pageRef, PageSwapper swapper, int swapperId, long filePageId, PageFaultEvent event)
             throws IOException {
+        fault(pageRef, swapper, swapperId, filePageId, event, null);
+    }
+
+    /**
+     * Fault the given file page into the given page, from the compressed tier if the page is there, or otherwise from
+     * the file.
+     */
+    void faultThroughCompressedTier(
+            long pageRef, PageSwapper swapper, int swapperId, long filePageId, PageFaultEvent event)
+            throws IOException {
+        fault(pageRef, swapper, swapperId, filePageId, event, compressedTier);
+    }
+
+    private static void fault(
+            long pageRef,
+            PageSwapper swapper,
+            int swapperId,
+            long filePageId,
+            PageFaultEvent event,
+            CompressedPageTier compressedTier)
+            throws IOException {
         if (swapper == null) {
             throw swapperCannotBeNull();
         }
@@ -391,11 +502,59 @@ class PageList implements PageReferenceTranslator {
         // the file page, so any subsequent thread that finds the page in their
         // translation table will re-do the page fault.
         setFilePageId(pageRef, filePageId); // Page now considered isLoaded()
-        long bytesRead = swapper.read(filePageId, getAddress(pageRef));
-        event.addBytesRead(bytesRead);
+        long address = getAddress(pageRef);
+        if (compressedTier == null || !compressedTier.load(swapper, swapperId, filePageId, address)) {
+            long bytesRead = swapper.read(filePageId, address);
+            event.addBytesRead(bytesRead);
+        }
         setSwapperId(pageRef, swapperId); // Page now considered isBoundTo( swapper, filePageId )
     }
 
+    /**
+     * Fault a range of consecutive file pages into the given exclusively locked and unbound pages, using a single
+     * vectored read. The given address and length arrays are used as scratch space for the read vector. The pages are
+     * read from the file even if they are in the compressed tier, so they are dropped from the compressed tier.
+     *
+     * @return the number of bytes read from the file.
+     */
+    long fault(
+            long[] pageRefs,
+            long[] bufferAddresses,
+            int[] bufferLengths,
+            int count,
+            int filePageSize,
+            PageSwapper swapper,
+            int swapperId,
+            long startFilePageId)
+            throws IOException {
+        if (swapper == null) {
+            throw swapperCannotBeNull();
+        }
+        for (int i = 0; i < count; i++) {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            int currentSwapper = getSwapperId(pageRef);
+            long currentFilePageId = getFilePageId(pageRef);
+            if (!isExclusivelyLocked(pageRef)
+                    || currentSwapper != 0
+                    || currentFilePageId != PageCursor.UNBOUND_PAGE_ID) {
+                throw cannotFaultException(pageRef, swapper, swapperId, filePageId, currentSwapper, currentFilePageId);
+            }
+            // Same as for single page faults; the file page id is assigned before, and the swapper id after the read.
+            setFilePageId(pageRef, filePageId);
+            bufferAddresses[i] = getAddress(pageRef);
+            bufferLengths[i] = filePageSize;
+            if (compressedTier != null) {
+                compressedTier.discard(swapperId, filePageId);
+            }
+        }
+        long bytesRead = swapper.read(startFilePageId, bufferAddresses, bufferLengths, count);
+        for (int i = 0; i < count; i++) {
+            setSwapperId(pageRefs[i], swapperId);
+        }
+        return bytesRead;
+    }
+
     private static IllegalArgumentException swapperCannotBeNull() {
         return new IllegalArgumentException("swapper cannot be null");
     }
@@ -444,6 +603,9 @@ class PageList implements PageReferenceTranslator {
                 if (isModified(pageRef)) {
                     flushModifiedPage(pageRef, evictionEvent, filePageId, swapper, this);
                 }
+                if (compressedTier != null) {
+                    compressedTier.store(swapper, swapperId, filePageId, getAddress(pageRef));
+                }
                 swapper.evicted(filePageId);
             }
         }
@@ -473,6 +635,15 @@ class PageList implements PageReferenceTranslator {
         }
     }
 
+    /**
+     * Drop the pages of the given file, from the given file page id and onwards, from the compressed tier.
+     */
+    void removeCompressedPages(PageSwapper swapper, long fromFilePageId) {
+        if (compressedTier != null) {
+            compressedTier.remove(swapper, fromFilePageId);
+        }
+    }
+
     static void clearBinding(long pageRef) {
         UnsafeUtil.putLong(offPageBinding(pageRef), UNBOUND_PAGE_BINDING);
     }
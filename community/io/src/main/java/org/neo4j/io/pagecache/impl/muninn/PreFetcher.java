@@ -20,142 +20,281 @@
 package org.neo4j.io.pagecache.impl.muninn;
 
 import static org.neo4j.io.pagecache.PageCursor.UNBOUND_PAGE_ID;
-import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.util.FeatureToggles.getInteger;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 import org.neo4j.internal.unsafe.UnsafeUtil;
-import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.scheduler.CancelListener;
 import org.neo4j.time.SystemNanoClock;
 
 /**
- * An adaptive page pre-fetcher for sequential scans, for either forwards (increasing page id order) or backwards (decreasing page id order) scans.
+ * An adaptive page pre-fetcher for scans, for either forwards (increasing page id order) or backwards (decreasing page
+ * id order) scans, that visit either every page, or every n'th page of a file.
  *
- * The given page cursor is being "weakly" observed from a background pre-fetcher thread, as it is progressing through its scan, and the pre-fetcher tries
- * to touch pages ahead of the scanning cursor in order to move page fault overhead from the scanning thread to the pre-fetching thread.
+ * The given page cursor is being "weakly" observed from a background pre-fetcher thread, as it is progressing through its scan, and the pre-fetcher
+ * loads pages ahead of the scanning cursor in order to move page fault overhead from the scanning thread to the pre-fetching thread.
  *
  * The pre-fetcher relies on {@code ordered stores} of the "current page id" from the scanner thread,
  * and on {@link UnsafeUtil#getLongVolatile(long) volatile loads} in the pre-fetcher thread, in order to observe the progress of the scanner without placing
  * too much synchronisation overhead on the scanner. Because this does not form a "synchronises-with" edge in Java Memory Model palace, we say that the
  * scanning cursor is being "weakly" observed. Ordered stores have compiler barriers, but no CPU or cache coherence barriers beyond plain stores.
  *
- * The pre-fetcher is adaptive because the number of pages the pre-fetcher will move ahead of the scanning cursor, and the length of time the pre-fetcher
- * will wait in between checking on the progress of the scanner, are dynamically computed and updated based on how fast the scanner appears to be.
- * The pre-fetcher also automatically figures out if the scanner is scanning the file in a forward or backwards direction.
+ * The stride of the scan is the greatest common divisor of the distances the scanner has been observed to move, so a sequential scan has a stride
+ * of 1, or -1 if it goes backwards. Consecutive pages are loaded with vectored reads of up to {@code maxReadPages} pages at a time, through
+ * {@link MuninnPagedFile#loadPages(long, int, boolean, PageCursorTracer, long[], long[], int[], LatchMap.Latch[])}.
+ *
+ * The pre-fetcher is adaptive because the number of pages it will keep loaded ahead of the scanning cursor is sized from how often the scanner
+ * catches up with the pre-fetcher (a miss), versus how often it finds the pages it needs already loaded (a hit). The window grows when the scanner
+ * keeps catching up, and shrinks when the pages ahead of the scanner turn out to be in memory already.
+ * When the pre-fetcher finishes, it leaves the stride, window and pace of the scan behind as a hint on the {@link MuninnPagedFile},
+ * so that the next pre-fetcher of that file, from any cursor, can skip most of the detection and start with a well sized window.
  */
 class PreFetcher implements Runnable, CancelListener {
+    // The largest stride, in pages, that we still consider to be a scan. Anything further apart is random access.
+    private static final int maxStride = getInteger(PreFetcher.class, "maxStride", 16);
+    // The largest number of pages, in the scan direction, that we will try to keep loaded ahead of the scanner.
+    private static final int maxWindow = getInteger(PreFetcher.class, "maxWindow", 1024);
+    // The largest number of consecutive pages that we will load with a single vectored read.
+    private static final int maxReadPages = getInteger(PreFetcher.class, "maxReadPages", 64);
+    private static final int MIN_WINDOW = 4;
+    private static final int ROUNDS_PER_ADJUSTMENT = 8;
+    private static final long MAX_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
     private static final String TRACER_PRE_FETCHER_TAG = "Pre-fetcher";
+
     private final MuninnPageCursor observedCursor;
-    private final CursorFactory cursorFactory;
+    private final MuninnPagedFile pagedFile;
     private final SystemNanoClock clock;
+    private final long[] pageRefs = new long[maxReadPages];
+    private final long[] bufferAddresses = new long[maxReadPages];
+    private final int[] bufferLengths = new int[maxReadPages];
+    private final LatchMap.Latch[] latches = new LatchMap.Latch[maxReadPages];
+    // The pages we load are traced in a context of our own, related to that of the observed cursor.
+    private PageCursorTracer cursorTracer = PageCursorTracer.NULL;
     private volatile boolean cancelled;
     private long startTime;
     private long deadline;
     private long tripCount;
-    private long pauseNanos = TimeUnit.MILLISECONDS.toNanos(10);
+    private long pauseNanos = MAX_PAUSE_NANOS;
+    private long moveNanos;
+
+    // The adaptive state of the scan.
+    private long stride;
+    private int window;
+    private long frontier;
+    private int rounds;
+    private int hits;
+    private long pagesRequested;
+    private long pagesLoaded;
 
-    PreFetcher(MuninnPageCursor observedCursor, CursorFactory cursorFactory, SystemNanoClock clock) {
+    PreFetcher(MuninnPageCursor observedCursor, SystemNanoClock clock) {
         this.observedCursor = observedCursor;
-        this.cursorFactory = cursorFactory;
+        this.pagedFile = observedCursor.pagedFile;
         this.clock = clock;
     }
 
     @Override
     public void run() {
+        PreFetchHint hint = pagedFile.preFetchHint;
+        long startTimeout = hint == null ? TimeUnit.MILLISECONDS.toNanos(150) : idleTimeout(hint.moveNanos());
+        long moveTimeout = hint == null ? TimeUnit.MILLISECONDS.toNanos(200) : idleTimeout(hint.moveNanos());
+
         // Phase 1: Wait for observed cursor to start moving.
-        setDeadline(150, TimeUnit.MILLISECONDS); // Give up if nothing happens for 150 milliseconds.
-        long initialPageId;
-        while ((initialPageId = getCurrentObservedPageId()) == UNBOUND_PAGE_ID) {
+        setDeadline(startTimeout);
+        long previousPageId;
+        while ((previousPageId = getCurrentObservedPageId()) == UNBOUND_PAGE_ID) {
             pause();
             if (pastDeadline()) {
                 return; // Give up. Looks like this cursor is either already finished, or never started.
             }
         }
 
-        // Phase 2: Wait for the cursor to move either forwards or backwards, to determine the prefetching direction.
-        setDeadline(200, TimeUnit.MILLISECONDS); // We will wait up to 200 milliseconds for this phase to complete.
-        long secondPageId;
-        while ((secondPageId = getCurrentObservedPageId()) == initialPageId) {
-            pause();
-            if (pastDeadline()) {
-                return; // Okay, this is going too slow. Give up.
+        // Phase 2: Wait for the cursor to move, to determine the prefetching direction and stride.
+        // If an earlier scan of this file left us a hint, then one move is enough to tell the direction.
+        // Otherwise, we need two moves to get a reasonable idea of the stride.
+        int movesNeeded = hint == null ? 2 : 1;
+        long detectedStride = hint == null ? 0 : hint.stride();
+        long lastDelta = 0;
+        for (int moves = 0; moves < movesNeeded; moves++) {
+            setDeadline(moveTimeout);
+            long currentPageId;
+            while ((currentPageId = getCurrentObservedPageId()) == previousPageId || currentPageId == UNBOUND_PAGE_ID) {
+                pause();
+                if (pastDeadline()) {
+                    return; // Okay, this is going too slow. Give up.
+                }
+            }
+            madeProgress();
+            long delta = currentPageId - previousPageId;
+            if (detectedStride != 0 && Long.signum(delta) != Long.signum(detectedStride) && moves > 0) {
+                return; // The cursor is going back and forth, so this is not a scan.
             }
+            long magnitude = detectedStride == 0 ? Math.abs(delta) : gcd(Math.abs(delta), Math.abs(detectedStride));
+            detectedStride = delta < 0 ? -magnitude : magnitude;
+            lastDelta = delta;
+            previousPageId = currentPageId;
         }
-        if (secondPageId == UNBOUND_PAGE_ID) {
-            return; // We're done. The observed cursor was closed.
+        if (Math.abs(detectedStride) > maxStride) {
+            return; // Random access. There is nothing for us to do here.
         }
 
-        // Phase 3: We now know what direction to prefetch in.
-        // Just keep loading pages on the right side of the cursor until its closed.
-        boolean forward = initialPageId < secondPageId;
-        long currentPageId;
-        long cp;
-        long nextPageId;
-        long fromPage;
-        long toPage;
-
-        // Offset is a fixed adjustment of the observed cursor position.
-        // This moves the start of the pre-fetch range forward for forward pre-fetching,
-        // or the end position backward for backward pre-fetching.
-        long offset = forward ? 1 : -1;
-
-        // Jump is the dynamically adjusted size of the prefetch range,
-        // with a sign component to indicate forwards or backwards pre-fetching.
-        // That is, jump is negative if we are pre-fetching backwards.
-        // This way, observed position + jump is the end or start of the pre-fetch range,
-        // for forwards or backwards pre-fetch respectively.
-        // The initial value don't matter so much. Just same as offset, so we initially fetch one page.
-        long jump = offset;
-
-        try (var context = observedCursor.cursorContext.createRelatedContext(TRACER_PRE_FETCHER_TAG);
-                PageCursor prefetchCursor = cursorFactory.takeReadCursor(0, PF_SHARED_READ_LOCK, context)) {
-            currentPageId = getCurrentObservedPageId();
-            while (currentPageId != UNBOUND_PAGE_ID) {
-                cp = currentPageId + offset;
-                if (forward) {
-                    fromPage = cp;
-                    toPage = cp + jump;
-                } else {
-                    fromPage = Math.max(0, cp + jump);
-                    toPage = cp;
-                }
-                while (fromPage < toPage) {
-                    if (!prefetchCursor.next(fromPage) || cancelled) {
-                        return; // Reached the end of the file. Or got cancelled.
-                    }
-                    fromPage++;
+        // Phase 3: We now know what direction and stride to prefetch in.
+        // Just keep loading pages ahead of the cursor until it is closed.
+        stride = detectedStride;
+        window = hint == null ? MIN_WINDOW : hint.window();
+        frontier = previousPageId;
+        try (var context = observedCursor.cursorContext.createRelatedContext(TRACER_PRE_FETCHER_TAG)) {
+            cursorTracer = context.getCursorTracer();
+            long currentPageId = previousPageId;
+            long moved = Math.abs(lastDelta);
+            while (!cancelled) {
+                boolean miss = isAhead(currentPageId, frontier);
+                if (miss) {
+                    frontier = currentPageId;
                 }
+                adjustWindow(miss, moved / Math.abs(stride));
+                preFetch(currentPageId);
 
                 // Phase 3.5: After each prefetch round, we wait for the cursor to move again.
-                // If it just stops somewhere for more than a second, then we quit.
-                nextPageId = getCurrentObservedPageId();
-                if (nextPageId == currentPageId) {
-                    setDeadline(10, TimeUnit.SECONDS);
-                    while (nextPageId == currentPageId) {
+                // If it just stops somewhere for too long, then we quit.
+                long nextPageId = getCurrentObservedPageId();
+                if (nextPageId == currentPageId || nextPageId == UNBOUND_PAGE_ID) {
+                    setDeadline(TimeUnit.SECONDS.toNanos(10));
+                    while (nextPageId == currentPageId || nextPageId == UNBOUND_PAGE_ID) {
                         pause();
                         if (pastDeadline()) {
-                            return; // The cursor hasn't made any progress for a whole second. Leave it alone.
+                            return; // The cursor hasn't made any progress for a long time. Leave it alone.
                         }
                         nextPageId = getCurrentObservedPageId();
                     }
                     madeProgress();
                 }
-                if (nextPageId != UNBOUND_PAGE_ID) {
-                    jump = (nextPageId - currentPageId) * 2;
+                long delta = nextPageId - currentPageId;
+                if (Long.signum(delta) != Long.signum(stride)) {
+                    return; // The cursor changed direction, so this scan is over.
                 }
+                stride = delta < 0 ? -gcd(-delta, -stride) : gcd(delta, stride);
+                moved = Math.abs(delta);
                 currentPageId = nextPageId;
             }
+        } catch (FileIsNotMappedException e) {
+            // The file got unmapped underneath us, which means that the scan is over.
         } catch (IOException e) {
             throw new UncheckedIOException(e);
+        } finally {
+            cursorTracer = PageCursorTracer.NULL;
+            pagedFile.preFetchHint = new PreFetchHint(stride, Math.max(window, MIN_WINDOW), moveNanos);
         }
     }
 
-    private void setDeadline(long timeout, TimeUnit unit) {
+    private void preFetch(long currentPageId) throws IOException {
+        long target = currentPageId + window * stride;
+        if (stride == 1) {
+            frontier = loadRange(frontier + 1, target + 1) - 1;
+        } else if (stride == -1) {
+            // Load the pages closest to the scanner first, but still read each batch in increasing page id order.
+            while (frontier > target && frontier > 0 && !cancelled) {
+                long from = Math.max(Math.max(target, 0), frontier - maxReadPages);
+                if (loadRange(from, frontier) < frontier) {
+                    return;
+                }
+                frontier = from;
+            }
+        } else {
+            while (isAhead(target, frontier) && frontier + stride >= 0 && !cancelled) {
+                if (load(frontier + stride, 1) == 0) {
+                    return;
+                }
+                frontier += stride;
+            }
+        }
+    }
+
+    /**
+     * Load the pages from {@code fromPageId} (inclusive) to {@code toPageId} (exclusive), and return the id of the
+     * first page that was not taken care of, which is {@code toPageId} unless we reached the end of the file.
+     */
+    private long loadRange(long fromPageId, long toPageId) throws IOException {
+        long pageId = fromPageId;
+        while (pageId < toPageId && !cancelled) {
+            int done = load(pageId, (int) Math.min(toPageId - pageId, maxReadPages));
+            if (done == 0) {
+                break;
+            }
+            pageId += done;
+        }
+        return pageId;
+    }
+
+    /**
+     * Load up to {@code count} consecutive pages starting at {@code pageId}, and return the number of pages that we
+     * are done with; either because they were loaded, or because they were already in memory.
+     * Returns zero if we've reached the end of the file.
+     */
+    private int load(long pageId, int count) throws IOException {
+        int loaded = pagedFile.loadPages(
+                pageId, count, true, cursorTracer, pageRefs, bufferAddresses, bufferLengths, latches);
+        if (loaded <= 0 && pageId > pagedFile.getLastPageId()) {
+            return 0;
+        }
+        loaded = Math.max(loaded, 0);
+        // Loading stops short of the count when it finds a page that is already in memory, and we skip over that one.
+        int done = Math.min(loaded + 1, count);
+        pagesRequested += done;
+        pagesLoaded += loaded;
+        return done;
+    }
+
+    /**
+     * Account for a round of pre-fetching, and resize the window accordingly.
+     * @param miss {@code true} if the scanner had caught up with us, since the previous round.
+     * @param moved how many strides the scanner moved, since the previous round.
+     */
+    private void adjustWindow(boolean miss, long moved) {
+        long windowLimit = Math.min(maxWindow, Math.max(MIN_WINDOW, pagedFile.pageCache.maxCachedPages() / 4));
+        if (miss) {
+            // The scanner caught up with us, so we need to stay further ahead; at least as far as it moves per round.
+            window = (int) Math.min(Math.max(window * 2L, moved * 2), windowLimit);
+        } else {
+            hits++;
+        }
+        if (++rounds == ROUNDS_PER_ADJUSTMENT) {
+            if (hits == rounds && pagesLoaded * 4 < pagesRequested) {
+                // The pages ahead of the scanner are mostly in memory already, so we are mostly wasting our time.
+                window = Math.max(window / 2, MIN_WINDOW);
+            }
+            rounds = 0;
+            hits = 0;
+            pagesRequested = 0;
+            pagesLoaded = 0;
+        }
+    }
+
+    private boolean isAhead(long pageId, long otherPageId) {
+        return stride > 0 ? pageId > otherPageId : pageId < otherPageId;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static long idleTimeout(long moveNanos) {
+        long timeout = moveNanos * 16;
+        return Math.min(Math.max(timeout, TimeUnit.MILLISECONDS.toNanos(150)), TimeUnit.SECONDS.toNanos(10));
+    }
+
+    private void setDeadline(long timeoutNanos) {
         startTime = clock.nanos();
-        deadline = unit.toNanos(timeout) + startTime;
+        deadline = timeoutNanos + startTime;
         if (tripCount != 0) {
             tripCount = 0;
         }
@@ -185,7 +324,8 @@ class PreFetcher implements Runnable, CancelListener {
         // time).
         long timeToProgressNanos = clock.nanos() - startTime;
         long pause = (pauseNanos * 3 + timeToProgressNanos * 5) / 8;
-        pauseNanos = Math.min(pause, TimeUnit.MILLISECONDS.toNanos(10));
+        pauseNanos = Math.min(pause, MAX_PAUSE_NANOS);
+        moveNanos = moveNanos == 0 ? timeToProgressNanos : (moveNanos * 3 + timeToProgressNanos * 5) / 8;
     }
 
     private long getCurrentObservedPageId() {
@@ -199,4 +339,12 @@ class PreFetcher implements Runnable, CancelListener {
     public void cancelled() {
         cancelled = true;
     }
+
+    /**
+     * What a finished pre-fetcher learned about the scans of a file.
+     * @param stride the stride of the scan. The sign is the direction of the last scan.
+     * @param window the number of pages the pre-fetcher ended up keeping ahead of the scanner.
+     * @param moveNanos roughly how long the scanner spent on each page.
+     */
+    record PreFetchHint(long stride, int window, long moveNanos) {}
 }
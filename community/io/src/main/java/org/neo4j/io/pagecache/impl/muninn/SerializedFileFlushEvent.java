@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.IOException;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.io.pagecache.tracing.FlushEvent;
+import org.neo4j.io.pagecache.tracing.PageReferenceTranslator;
+
+/**
+ * A file flush event for the workers of a parallel flush, that forwards what they report to the file flush event that
+ * the flush was started with.
+ * <p>
+ * The file flush events of a database flush are not thread safe, and may even be the same instance for every file.
+ * The workers therefore only report to them while holding a lock, that is shared by all the files of the flush.
+ * Each write is reported once it has completed, so the lock is never held while doing IO.
+ */
+final class SerializedFileFlushEvent implements FileFlushEvent {
+    private final FileFlushEvent fileFlushEvent;
+    private final Object lock;
+    private boolean flushStarted;
+
+    SerializedFileFlushEvent(FileFlushEvent fileFlushEvent, Object lock) {
+        this.fileFlushEvent = fileFlushEvent;
+        this.lock = lock;
+    }
+
+    @Override
+    public FlushEvent beginFlush(
+            long[] pageRefs,
+            PageSwapper swapper,
+            PageReferenceTranslator pageReferenceTranslator,
+            int pagesToFlush,
+            int mergedPages) {
+        return new DeferredFlushEvent(pageRefs, 0, swapper, pageReferenceTranslator, pagesToFlush, mergedPages);
+    }
+
+    @Override
+    public FlushEvent beginFlush(long pageRef, PageSwapper swapper, PageReferenceTranslator pageReferenceTranslator) {
+        return new DeferredFlushEvent(null, pageRef, swapper, pageReferenceTranslator, 1, 0);
+    }
+
+    @Override
+    public void startFlush(int[][] translationTable) {
+        synchronized (lock) {
+            // Every worker starts flushing its own range of the file, but the file is only flushed once.
+            if (!flushStarted) {
+                flushStarted = true;
+                fileFlushEvent.startFlush(translationTable);
+            }
+        }
+    }
+
+    @Override
+    public ChunkEvent startChunk(int[] chunk) {
+        return new DeferredChunkEvent(chunk);
+    }
+
+    @Override
+    public void throttle(long recentlyCompletedIOs, long millis) {
+        synchronized (lock) {
+            fileFlushEvent.throttle(recentlyCompletedIOs, millis);
+        }
+    }
+
+    @Override
+    public void reportIO(int completedIOs) {
+        synchronized (lock) {
+            fileFlushEvent.reportIO(completedIOs);
+        }
+    }
+
+    @Override
+    public void reset() {
+        synchronized (lock) {
+            fileFlushEvent.reset();
+        }
+    }
+
+    @Override
+    public long ioPerformed() {
+        synchronized (lock) {
+            return fileFlushEvent.ioPerformed();
+        }
+    }
+
+    @Override
+    public long limitedNumberOfTimes() {
+        synchronized (lock) {
+            return fileFlushEvent.limitedNumberOfTimes();
+        }
+    }
+
+    @Override
+    public long limitedMillis() {
+        synchronized (lock) {
+            return fileFlushEvent.limitedMillis();
+        }
+    }
+
+    @Override
+    public long pagesFlushed() {
+        synchronized (lock) {
+            return fileFlushEvent.pagesFlushed();
+        }
+    }
+
+    @Override
+    public void close() {
+        // The file flush event is closed by whoever started the flush, once all the workers are done.
+    }
+
+    private class DeferredFlushEvent implements FlushEvent {
+        private final long[] pageRefs;
+        private final long pageRef;
+        private final PageSwapper swapper;
+        private final PageReferenceTranslator pageReferenceTranslator;
+        private final int pagesToFlush;
+        private final int mergedPages;
+        private long bytesWritten;
+        private int pagesFlushed;
+        private int pagesMerged;
+        private IOException exception;
+
+        DeferredFlushEvent(
+                long[] pageRefs,
+                long pageRef,
+                PageSwapper swapper,
+                PageReferenceTranslator pageReferenceTranslator,
+                int pagesToFlush,
+                int mergedPages) {
+            this.pageRefs = pageRefs;
+            this.pageRef = pageRef;
+            this.swapper = swapper;
+            this.pageReferenceTranslator = pageReferenceTranslator;
+            this.pagesToFlush = pagesToFlush;
+            this.mergedPages = mergedPages;
+        }
+
+        @Override
+        public void addBytesWritten(long bytes) {
+            bytesWritten += bytes;
+        }
+
+        @Override
+        public void addPagesFlushed(int pageCount) {
+            pagesFlushed += pageCount;
+        }
+
+        @Override
+        public void addPagesMerged(int pagesMerged) {
+            this.pagesMerged += pagesMerged;
+        }
+
+        @Override
+        public void setException(IOException exception) {
+            this.exception = exception;
+        }
+
+        @Override
+        public void close() {
+            // The page references are still the ones we were given, since the flush only reuses its array once this
+            // event is closed.
+            synchronized (lock) {
+                try (FlushEvent flushEvent = pageRefs != null
+                        ? fileFlushEvent.beginFlush(
+                                pageRefs, swapper, pageReferenceTranslator, pagesToFlush, mergedPages)
+                        : fileFlushEvent.beginFlush(pageRef, swapper, pageReferenceTranslator)) {
+                    flushEvent.addBytesWritten(bytesWritten);
+                    flushEvent.addPagesFlushed(pagesFlushed);
+                    flushEvent.addPagesMerged(pagesMerged);
+                    if (exception != null) {
+                        flushEvent.setException(exception);
+                    }
+                }
+            }
+        }
+    }
+
+    private class DeferredChunkEvent extends ChunkEvent {
+        private final int[] chunk;
+
+        DeferredChunkEvent(int[] chunk) {
+            this.chunk = chunk;
+        }
+
+        @Override
+        public void chunkFlushed(long notModifiedPages, long flushPerChunk, long buffersPerChunk, long mergesPerChunk) {
+            synchronized (lock) {
+                fileFlushEvent
+                        .startChunk(chunk)
+                        .chunkFlushed(notModifiedPages, flushPerChunk, buffersPerChunk, mergesPerChunk);
+            }
+        }
+    }
+}
@@ -156,4 +156,31 @@ public interface PageCacheCounters {
     long chainsPatched();
 
     long snapshotsLoaded();
+
+    /**
+     * @return The number of times page eviction passed over a page, because the eviction policy protected it.
+     */
+    long pagesProtected();
+
+    /**
+     * @return The amount of page cache memory, in bytes, that is backed by huge pages.
+     */
+    long hugePageMemory();
+
+    /**
+     * @return The ratio of page cache memory that is backed by huge pages, to all allocated page cache memory, or
+     * {@code 0} if it cannot be determined.
+     */
+    double hugePageCoverage();
+
+    /**
+     * @return The number of page faults that were served by decompressing the page from the compressed tier.
+     */
+    long compressedTierHits();
+
+    /**
+     * @return The number of page faults that looked for the page in the compressed tier, but had to read it from the
+     * file.
+     */
+    long compressedTierMisses();
 }
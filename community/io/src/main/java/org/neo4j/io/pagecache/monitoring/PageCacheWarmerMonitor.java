@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.monitoring;
+
+import java.nio.file.Path;
+
+/**
+ * Monitor of the page cache warmer, which profiles the pages that are in memory, and loads them back in after a
+ * restart.
+ */
+public interface PageCacheWarmerMonitor {
+    PageCacheWarmerMonitor NULL = new PageCacheWarmerMonitor() {};
+
+    /**
+     * Called when the warmup of the given file starts.
+     * @param file the file that is being warmed up.
+     * @param pagesToLoad the number of pages in the profile of the file.
+     */
+    default void warmupStarted(Path file, long pagesToLoad) {
+        // noop
+    }
+
+    /**
+     * Called periodically while the given file is being warmed up.
+     * @param file the file that is being warmed up.
+     * @param pagesLoaded the number of pages loaded into memory so far.
+     * @param pagesToLoad the number of pages in the profile of the file.
+     */
+    default void warmupProgress(Path file, long pagesLoaded, long pagesToLoad) {
+        // noop
+    }
+
+    /**
+     * Called when the warmup of the given file is done, either because all profiled pages have been loaded,
+     * or because the page cache ran out of free pages, or because the warmup was stopped.
+     * @param file the file that was warmed up.
+     * @param pagesLoaded the number of pages loaded into memory.
+     * @param elapsedMillis the time the warmup took, in milliseconds.
+     */
+    default void warmupCompleted(Path file, long pagesLoaded, long elapsedMillis) {
+        // noop
+    }
+
+    /**
+     * Called when a profile of the pages in memory has been written for the given file.
+     * @param file the profiled file.
+     * @param pagesInMemory the number of pages of the file that were in memory.
+     */
+    default void profileCompleted(Path file, long pagesInMemory) {
+        // noop
+    }
+}
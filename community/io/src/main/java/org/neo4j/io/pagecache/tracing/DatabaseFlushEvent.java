@@ -33,6 +33,8 @@ public class DatabaseFlushEvent implements AutoCloseablePageCacheTracerEvent {
     private long ioLimit;
     private long timesLimited;
     private long millisLimited;
+    private long ioLimitDecreases;
+    private long ioLimitIncreases;
     private final FileFlushEvent flushEvent;
 
     public DatabaseFlushEvent(FileFlushEvent flushEvent) {
@@ -45,6 +47,8 @@ public class DatabaseFlushEvent implements AutoCloseablePageCacheTracerEvent {
         timesLimited = 0;
         millisLimited = 0;
         ioLimit = 0;
+        ioLimitDecreases = 0;
+        ioLimitIncreases = 0;
         flushEvent.reset();
     }
 
@@ -84,7 +88,23 @@ public class DatabaseFlushEvent implements AutoCloseablePageCacheTracerEvent {
         return millisLimited;
     }
 
+    public long getIoLimitDecreases() {
+        return ioLimitDecreases;
+    }
+
+    public long getIoLimitIncreases() {
+        return ioLimitIncreases;
+    }
+
     public void ioControllerLimit(long configuredLimit) {
         ioLimit = configuredLimit;
     }
+
+    /**
+     * Report the number of times an io controller that adapts its limit while flushing lowered and raised it.
+     */
+    public void ioControllerAdjustments(long decreases, long increases) {
+        ioLimitDecreases = decreases;
+        ioLimitIncreases = increases;
+    }
 }
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 import org.neo4j.internal.helpers.MathUtil;
+import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
@@ -59,7 +60,11 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
     protected final LongAdder copiedPages = new LongAdder();
     protected final LongAdder chainsPatched = new LongAdder();
     protected final LongAdder snapshotsLoaded = new LongAdder();
+    protected final LongAdder pagesProtected = new LongAdder();
+    protected final LongAdder compressedTierHits = new LongAdder();
+    protected final LongAdder compressedTierMisses = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
+    private volatile MemoryAllocator memoryAllocator;
 
     private final boolean tracePageFileIndividually;
 
@@ -140,6 +145,11 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         return evictions.sum();
     }
 
+    @Override
+    public long pagesProtected() {
+        return pagesProtected.sum();
+    }
+
     @Override
     public long cooperativeEvictions() {
         return cooperativeEvictions.sum();
@@ -224,6 +234,28 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         return maxPages.get();
     }
 
+    @Override
+    public long hugePageMemory() {
+        MemoryAllocator allocator = memoryAllocator;
+        return allocator == null ? 0 : allocator.hugePageMemory();
+    }
+
+    @Override
+    public double hugePageCoverage() {
+        MemoryAllocator allocator = memoryAllocator;
+        return allocator == null ? 0 : MathUtil.portion(allocator.hugePageMemory(), allocator.usedMemory());
+    }
+
+    @Override
+    public long compressedTierHits() {
+        return compressedTierHits.sum();
+    }
+
+    @Override
+    public long compressedTierMisses() {
+        return compressedTierMisses.sum();
+    }
+
     @Override
     public long iopqPerformed() {
         return iopqPerformed.sum();
@@ -330,6 +362,16 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         this.snapshotsLoaded.add(snapshotsLoaded);
     }
 
+    @Override
+    public void compressedTierHits(long hits) {
+        this.compressedTierHits.add(hits);
+    }
+
+    @Override
+    public void compressedTierMisses(long misses) {
+        this.compressedTierMisses.add(misses);
+    }
+
     @Override
     public void noFaults(long noFaults) {
         this.noFaults.add(noFaults);
@@ -380,6 +422,11 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         this.maxPages.set(maxPages);
     }
 
+    @Override
+    public void memoryAllocator(MemoryAllocator memoryAllocator) {
+        this.memoryAllocator = memoryAllocator;
+    }
+
     private class PageCacheFlushEvent implements FlushEvent {
         private PageFileSwapperTracer swapperTracer;
         private long pagesFlushed;
@@ -423,6 +470,11 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         @Override
         public void freeListSize(int size) {}
 
+        @Override
+        public void pageProtected() {
+            pagesProtected.increment();
+        }
+
         @Override
         public EvictionEvent beginEviction(long cachePageId) {
             return evictionEvent;
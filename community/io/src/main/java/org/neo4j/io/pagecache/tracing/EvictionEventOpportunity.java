@@ -27,4 +27,9 @@ public interface EvictionEventOpportunity {
      * Begin an eviction event.
      */
     EvictionEvent beginEviction(long cachePageId);
+
+    /**
+     * A page was passed over for eviction, because the eviction policy protects it.
+     */
+    default void pageProtected() {}
 }
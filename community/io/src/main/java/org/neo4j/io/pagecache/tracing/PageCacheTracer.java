@@ -19,6 +19,7 @@
  */
 package org.neo4j.io.pagecache.tracing;
 
+import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
@@ -95,6 +96,31 @@ public interface PageCacheTracer extends PageCacheCounters {
             return 0;
         }
 
+        @Override
+        public long pagesProtected() {
+            return 0;
+        }
+
+        @Override
+        public long hugePageMemory() {
+            return 0;
+        }
+
+        @Override
+        public double hugePageCoverage() {
+            return 0d;
+        }
+
+        @Override
+        public long compressedTierHits() {
+            return 0;
+        }
+
+        @Override
+        public long compressedTierMisses() {
+            return 0;
+        }
+
         @Override
         public long cooperativeEvictions() {
             return 0;
@@ -257,9 +283,18 @@ public interface PageCacheTracer extends PageCacheCounters {
         @Override
         public void snapshotsLoaded(long snapshotsLoaded) {}
 
+        @Override
+        public void compressedTierHits(long hits) {}
+
+        @Override
+        public void compressedTierMisses(long misses) {}
+
         @Override
         public void maxPages(long maxPages, long pageSize) {}
 
+        @Override
+        public void memoryAllocator(MemoryAllocator memoryAllocator) {}
+
         @Override
         public void iopq(long iopq) {}
 
@@ -428,6 +463,12 @@ public interface PageCacheTracer extends PageCacheCounters {
      */
     void maxPages(long maxPages, long pageSize);
 
+    /**
+     * Sets the allocator of the page cache memory, to report how that memory is backed.
+     * @param memoryAllocator the allocator the page cache allocates its pages with.
+     */
+    void memoryAllocator(MemoryAllocator memoryAllocator);
+
     /**
      * Report number of performed iopq.
      * @param iopq number of performed io operations per quantum of time.
@@ -455,6 +496,18 @@ public interface PageCacheTracer extends PageCacheCounters {
      */
     void snapshotsLoaded(long snapshotsLoaded);
 
+    /**
+     * Report number of page faults served from the compressed tier.
+     * @param hits number of pages decompressed from the compressed tier
+     */
+    void compressedTierHits(long hits);
+
+    /**
+     * Report number of page faults that did not find their page in the compressed tier.
+     * @param misses number of pages read from file after looking in the compressed tier
+     */
+    void compressedTierMisses(long misses);
+
     /**
      * report number of copied pages
      */
@@ -22,10 +22,12 @@ package org.neo4j.io.mem;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.neo4j.io.ByteUnit.MebiByte;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.neo4j.internal.nativeimpl.HugePages;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.PageCache;
@@ -200,6 +202,67 @@ class MemoryAllocatorTest {
         UnsafeUtil.getLong(address + ONE_PAGE - Long.BYTES); // End of allocation.
     }
 
+    @Test
+    void allocationsMustBeAccessibleWithEveryNumaPolicy() {
+        for (NumaPolicy numaPolicy : NumaPolicy.values()) {
+            closeAllocator();
+            allocator = MemoryAllocator.createAllocator(MebiByte.toBytes(2), new LocalMemoryTracker(), numaPolicy);
+            assertThat(allocator.nodeCount()).isPositive();
+            for (int node = 0; node < allocator.nodeCount(); node++) {
+                long address = allocator.allocateAligned(ONE_PAGE, UnsafeUtil.pageSize(), node);
+                assertThat(address % UnsafeUtil.pageSize()).isEqualTo(0L);
+                // This must not throw any bad access exceptions.
+                UnsafeUtil.putLong(address, node);
+                UnsafeUtil.putLong(address + ONE_PAGE - Long.BYTES, node);
+            }
+            long largeBlock = allocator.allocateAligned(MebiByte.toBytes(1), 1);
+            UnsafeUtil.putLong(largeBlock + MebiByte.toBytes(1) - Long.BYTES, 1);
+            assertThat(allocator.usedMemory()).isGreaterThanOrEqualTo(MebiByte.toBytes(1));
+        }
+    }
+
+    @Test
+    void allocationsMustBeAccessibleWithEveryAvailableHugePagePolicy() {
+        for (HugePagePolicy hugePagePolicy : HugePagePolicy.values()) {
+            closeAllocator();
+            LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+            allocator = MemoryAllocator.createAllocator(
+                    MebiByte.toBytes(4), memoryTracker, NumaPolicy.DEFAULT, hugePagePolicy.availablePolicy());
+            long address = allocator.allocateAligned(ONE_PAGE, UnsafeUtil.pageSize());
+            long largeBlock = allocator.allocateAligned(MebiByte.toBytes(3), UnsafeUtil.pageSize());
+            // This must not throw any bad access exceptions.
+            UnsafeUtil.putLong(address + ONE_PAGE - Long.BYTES, 1);
+            UnsafeUtil.putLong(largeBlock + MebiByte.toBytes(3) - Long.BYTES, 1);
+            assertThat(allocator.hugePageMemory()).isBetween(0L, allocator.usedMemory());
+            if (hugePagePolicy.availablePolicy() == HugePagePolicy.DISABLED) {
+                assertThat(allocator.hugePageMemory()).isZero();
+            }
+            assertThat(memoryTracker.usedNativeMemory()).isGreaterThanOrEqualTo(allocator.usedMemory());
+            allocator.close();
+            assertThat(memoryTracker.usedNativeMemory()).isZero();
+        }
+    }
+
+    @Test
+    void availableMemoryMustAccountForWholeHugePageGrabs() {
+        assumeTrue(HugePagePolicy.TRANSPARENT.availablePolicy() == HugePagePolicy.TRANSPARENT);
+        long hugePageSize = HugePages.transparentHugePageSize();
+        allocator = MemoryAllocator.createAllocator(
+                4 * hugePageSize, new LocalMemoryTracker(), NumaPolicy.DEFAULT, HugePagePolicy.TRANSPARENT);
+
+        // An allocation of just over one huge page is mapped as two huge pages.
+        allocator.allocateAligned(hugePageSize + 1, 1);
+
+        assertThat(allocator.availableMemory()).isEqualTo(3 * hugePageSize - 1);
+    }
+
+    @Test
+    void hugePagePoliciesMustFallBackToWeakerPolicies() {
+        assertThat(HugePagePolicy.DISABLED.availablePolicy()).isEqualTo(HugePagePolicy.DISABLED);
+        assertThat(HugePagePolicy.TRANSPARENT.availablePolicy()).isNotEqualTo(HugePagePolicy.EXPLICIT);
+        assertThat(HugePagePolicy.EXPLICIT.availablePolicy()).isNotNull();
+    }
+
     private void closeAllocator() {
         if (allocator != null) {
             allocator.close();
@@ -107,6 +107,25 @@ public class DatabasePageCache implements PageCache {
         flushAndForce(flushEvent, NO_BARRIER);
     }
 
+    @Override
+    public void flushDirtyPages(List<PagedFile> files, IOController ignoredController, DatabaseFlushEvent flushEvent)
+            throws IOException {
+        List<PagedFile> globalFiles = new ArrayList<>(files.size());
+        for (PagedFile file : files) {
+            globalFiles.add(file instanceof DatabasePageFile databasePageFile ? databasePageFile.delegate : file);
+        }
+        globalPageCache.flushDirtyPages(globalFiles, ioController, flushEvent);
+    }
+
+    /**
+     * Write out the dirty pages of all the files mapped by this database, without forcing them.
+     * Spreading the writes of all files over the flushing threads of the global page cache leaves little for the
+     * flushes of the individual files to do, when they are forced by a checkpoint.
+     */
+    public void flushDirtyPages(DatabaseFlushEvent flushEvent) throws IOException {
+        flushDirtyPages(listExistingMappings(), ioController, flushEvent);
+    }
+
     private void flushAndForce(DatabaseFlushEvent flushEvent, Barrier barrier) throws IOException {
         for (DatabasePageFile pagedFile : databasePagedFiles) {
             if (barrier.canPass(pagedFile.flushTicket())) {
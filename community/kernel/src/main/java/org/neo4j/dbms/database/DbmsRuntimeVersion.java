@@ -45,9 +45,14 @@ public enum DbmsRuntimeVersion implements ComponentVersion {
     /**
      * Introduced new transaction log version
      */
-    V5_0(6, DBMS_RUNTIME_COMPONENT, Neo4jVersions.VERSION_50, KernelVersion.V5_0);
+    V5_0(6, DBMS_RUNTIME_COMPONENT, Neo4jVersions.VERSION_50, KernelVersion.V5_0),
 
-    public static final DbmsRuntimeVersion LATEST_DBMS_RUNTIME_COMPONENT_VERSION = V5_0;
+    /**
+     * Compressed transaction log entries.
+     */
+    V5_1(7, DBMS_RUNTIME_COMPONENT, Neo4jVersions.VERSION_51, KernelVersion.V5_1);
+
+    public static final DbmsRuntimeVersion LATEST_DBMS_RUNTIME_COMPONENT_VERSION = V5_1;
 
     DbmsRuntimeVersion(int version, String componentName, String description, KernelVersion kernelVersion) {
         this.version = version;
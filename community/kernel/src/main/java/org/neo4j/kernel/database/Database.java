@@ -98,6 +98,7 @@ import org.neo4j.kernel.impl.api.ExternalIdReuseConditionProvider;
 import org.neo4j.kernel.impl.api.KernelImpl;
 import org.neo4j.kernel.impl.api.KernelTransactions;
 import org.neo4j.kernel.impl.api.LeaseService;
+import org.neo4j.kernel.impl.api.TransactionApplicationPipeline;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionIdSequence;
 import org.neo4j.kernel.impl.api.TransactionRegistry;
@@ -116,6 +117,7 @@ import org.neo4j.kernel.impl.factory.FacadeKernelTransactionFactory;
 import org.neo4j.kernel.impl.factory.GraphDatabaseFacade;
 import org.neo4j.kernel.impl.factory.KernelTransactionFactory;
 import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.pagecache.AdaptiveCheckpointIOController;
 import org.neo4j.kernel.impl.pagecache.IOControllerService;
 import org.neo4j.kernel.impl.pagecache.PageCacheLifecycle;
 import org.neo4j.kernel.impl.pagecache.VersionStorageFactory;
@@ -302,7 +304,9 @@ public class Database extends AbstractDatabase {
     @Override
     protected void specificInit() throws IOException {
         new DatabaseDirectoriesCreator(fs, databaseLayout).createDirectories();
-        ioController = ioControllerService.createIOController(databaseConfig, clock);
+        ioController = databaseConfig.get(GraphDatabaseInternalSettings.checkpoint_adaptive_io_limit)
+                ? new AdaptiveCheckpointIOController(databaseConfig, clock, tracers.getDatabaseTracer())
+                : ioControllerService.createIOController(databaseConfig, clock);
         transactionIdSequence = new TransactionIdSequence();
         var versionStorage = versionStorageFactory.createVersionStorage(
                 globalPageCache,
@@ -482,8 +486,11 @@ public class Database extends AbstractDatabase {
 
         databaseDependencies.satisfyDependency(storageEngine.countsAccessor());
 
-        CheckPointerImpl.ForceOperation forceOperation =
-                new DefaultForceOperation(indexingService, storageEngine, databasePageCache);
+        CheckPointerImpl.ForceOperation forceOperation = new DefaultForceOperation(
+                indexingService,
+                storageEngine,
+                databasePageCache,
+                databaseConfig.get(GraphDatabaseInternalSettings.checkpoint_parallel_flush));
         DatabaseTransactionLogModule transactionLogModule = buildTransactionLogs(
                 logFiles,
                 databaseConfig,
@@ -822,7 +829,7 @@ public class Database extends AbstractDatabase {
         life.add(transactionAppender);
 
         final LogicalTransactionStore logicalTransactionStore = new PhysicalLogicalTransactionStore(
-                logFiles, transactionMetadataCache, commandReaderFactory, monitors, true, config);
+                logFiles, transactionMetadataCache, commandReaderFactory, monitors, true, config, scheduler);
 
         CheckPointThreshold threshold = CheckPointThreshold.createThreshold(config, clock, logPruning, logProvider);
 
@@ -870,8 +877,13 @@ public class Database extends AbstractDatabase {
             CursorContextFactory cursorContextFactory) {
         AtomicReference<CpuClock> cpuClockRef = setupCpuClockAtomicReference();
 
-        TransactionCommitProcess transactionCommitProcess =
-                commitProcessFactory.create(appender, storageEngine, namedDatabaseId, readOnlyDatabaseChecker);
+        TransactionApplicationPipeline applicationPipeline = null;
+        if (databaseConfig.get(GraphDatabaseInternalSettings.pipelined_commit)) {
+            applicationPipeline = life.add(
+                    new TransactionApplicationPipeline(transactionIdStore, databaseHealth, scheduler, namedDatabaseId));
+        }
+        TransactionCommitProcess transactionCommitProcess = commitProcessFactory.create(
+                appender, storageEngine, namedDatabaseId, readOnlyDatabaseChecker, applicationPipeline);
 
         /*
          * This is used by explicit indexes and constraint indexes whenever a transaction is to be spawned
@@ -32,17 +32,26 @@ public class DefaultForceOperation implements CheckPointerImpl.ForceOperation {
     private final IndexingService indexingService;
     private final StorageEngine storageEngine;
     private final DatabasePageCache databasePageCache;
+    private final boolean parallelFlush;
 
     public DefaultForceOperation(
-            IndexingService indexingService, StorageEngine storageEngine, DatabasePageCache databasePageCache) {
+            IndexingService indexingService,
+            StorageEngine storageEngine,
+            DatabasePageCache databasePageCache,
+            boolean parallelFlush) {
         this.indexingService = indexingService;
         this.storageEngine = storageEngine;
         this.databasePageCache = databasePageCache;
+        this.parallelFlush = parallelFlush;
     }
 
     @Override
     public void flushAndForce(DatabaseFlushEvent databaseFlushEvent, CursorContext cursorContext) throws IOException {
         FlushGuard flushGuard = databasePageCache.flushGuard(databaseFlushEvent);
+        if (parallelFlush) {
+            // Write out the dirty pages of all files at once, so the checkpoints below are left mostly with forcing.
+            databasePageCache.flushDirtyPages(databaseFlushEvent);
+        }
         indexingService.checkpoint(databaseFlushEvent, cursorContext);
         storageEngine.checkpoint(databaseFlushEvent, cursorContext);
         flushGuard.flushUnflushed();
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import static org.neo4j.kernel.KernelVersion.VERSION_CHUNKED_TRANSACTIONS_INTRODUCED;
+import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionLogError;
+
+import java.io.IOException;
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import org.neo4j.collection.trackable.HeapTrackingArrayList;
+import org.neo4j.collection.trackable.HeapTrackingCollections;
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.ChunkedTransactionAppend;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.StorageEngine;
+
+/**
+ * Collects the commands of a transaction while the {@link StorageEngine#createCommands storage engine creates them},
+ * and appends them to the transaction log in chunks of {@code chunkSize} commands as they come, instead of all at once
+ * when the transaction is committed. The first full chunk begins a
+ * {@link TransactionCommitProcess#beginChunkedCommit(KernelVersion, long, long) chunked commit}, which keeps other
+ * transactions from being appended until this one is committed or rolled back. Transactions with fewer commands than
+ * one chunk, of kernel versions without chunked transactions, or of commit processes that don't commit in chunks, are
+ * committed as usual.
+ * <p>
+ * All commands are kept regardless, since they are what the lock verification checks and what is applied to the store
+ * once the transaction is committed.
+ */
+class ChunkedCommands extends AbstractCollection<StorageCommand> implements AutoCloseable {
+    private final TransactionCommitProcess commitProcess;
+    private final int chunkSize;
+    private final long timeStarted;
+    private final long latestCommittedTxWhenStarted;
+    private final HeapTrackingArrayList<StorageCommand> commands;
+    private final HeapTrackingArrayList<StorageCommand> chunk;
+    private ChunkedTransactionAppend chunkedAppend;
+    private boolean appendsInChunks;
+
+    /**
+     * @param chunkSize the number of commands in each chunk, or {@code 0} to never append commands in chunks.
+     */
+    ChunkedCommands(
+            TransactionCommitProcess commitProcess,
+            int chunkSize,
+            long timeStarted,
+            long latestCommittedTxWhenStarted,
+            MemoryTracker memoryTracker) {
+        this.commitProcess = commitProcess;
+        this.chunkSize = chunkSize;
+        this.timeStarted = timeStarted;
+        this.latestCommittedTxWhenStarted = latestCommittedTxWhenStarted;
+        this.commands = HeapTrackingCollections.newArrayList(memoryTracker);
+        this.chunk = HeapTrackingCollections.newArrayList(memoryTracker);
+        this.appendsInChunks = chunkSize > 0;
+    }
+
+    @Override
+    public boolean add(StorageCommand command) {
+        commands.add(command);
+        if (appendsInChunks) {
+            chunk.add(command);
+            if (chunk.size() >= chunkSize) {
+                appendChunk();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<StorageCommand> iterator() {
+        return commands.iterator();
+    }
+
+    @Override
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * @return all commands of the transaction, to commit it with.
+     */
+    HeapTrackingArrayList<StorageCommand> commands() {
+        return commands;
+    }
+
+    /**
+     * Appends the commands that are not in a chunk yet as the last chunk, if the transaction is appended in chunks.
+     *
+     * @return the chunked append to commit the transaction with, or {@code null} if the transaction wasn't appended in
+     * chunks and is to be committed as usual.
+     * @throws TransactionFailureException if the last chunk could not be appended.
+     */
+    ChunkedTransactionAppend appendLastChunk() throws TransactionFailureException {
+        if (chunkedAppend == null) {
+            return null;
+        }
+        try {
+            if (!chunk.isEmpty()) {
+                appendChunk();
+            }
+        } catch (ChunkAppendFailure e) {
+            throw e.getCause();
+        }
+        return chunkedAppend;
+    }
+
+    private void appendChunk() {
+        try {
+            if (chunkedAppend == null) {
+                KernelVersion version = chunk.get(0).version();
+                if (version.isLessThan(VERSION_CHUNKED_TRANSACTIONS_INTRODUCED)
+                        || (chunkedAppend = commitProcess.beginChunkedCommit(
+                                        version, timeStarted, latestCommittedTxWhenStarted))
+                                == null) {
+                    appendsInChunks = false;
+                    chunk.clear();
+                    return;
+                }
+            }
+            chunkedAppend.appendChunk(chunk);
+            chunk.clear();
+        } catch (TransactionFailureException e) {
+            throw new ChunkAppendFailure(e);
+        } catch (IOException e) {
+            throw new ChunkAppendFailure(new TransactionFailureException(
+                    TransactionLogError, e, "Could not append transaction representation to log"));
+        }
+    }
+
+    /**
+     * Rolls back the chunked append of the transaction, unless it has been committed.
+     */
+    @Override
+    public void close() throws TransactionFailureException {
+        chunk.close();
+        if (chunkedAppend != null) {
+            try {
+                chunkedAppend.close();
+            } catch (IOException e) {
+                throw new TransactionFailureException(
+                        TransactionLogError, e, "Could not append transaction rollback to log");
+            }
+        }
+    }
+
+    /**
+     * Carries a failure to append a chunk out of {@link #add(StorageCommand)}, through the storage engine that is
+     * creating the commands.
+     */
+    static class ChunkAppendFailure extends RuntimeException {
+        ChunkAppendFailure(TransactionFailureException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized TransactionFailureException getCause() {
+            return (TransactionFailureException) super.getCause();
+        }
+    }
+}
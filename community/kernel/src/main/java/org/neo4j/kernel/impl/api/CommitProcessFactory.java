@@ -25,9 +25,22 @@ import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.storageengine.api.StorageEngine;
 
 public interface CommitProcessFactory {
+    default TransactionCommitProcess create(
+            TransactionAppender appender,
+            StorageEngine storageEngine,
+            NamedDatabaseId databaseId,
+            DatabaseReadOnlyChecker readOnlyDatabaseChecker) {
+        return create(appender, storageEngine, databaseId, readOnlyDatabaseChecker, null);
+    }
+
+    /**
+     * @param applicationPipeline pipeline to apply committed batches with, or {@code null} if every batch should be
+     * applied to the store by the committing thread.
+     */
     TransactionCommitProcess create(
             TransactionAppender appender,
             StorageEngine storageEngine,
             NamedDatabaseId databaseId,
-            DatabaseReadOnlyChecker readOnlyDatabaseChecker);
+            DatabaseReadOnlyChecker readOnlyDatabaseChecker,
+            TransactionApplicationPipeline applicationPipeline);
 }
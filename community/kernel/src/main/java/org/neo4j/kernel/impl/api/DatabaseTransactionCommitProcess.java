@@ -21,6 +21,8 @@ package org.neo4j.kernel.impl.api;
 
 import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.ChunkedTransactionAppend;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 
@@ -40,4 +42,12 @@ public class DatabaseTransactionCommitProcess implements TransactionCommitProces
         readOnlyDatabaseChecker.check();
         return commitProcess.commit(batch, commitEvent, mode);
     }
+
+    @Override
+    public ChunkedTransactionAppend beginChunkedCommit(
+            KernelVersion version, long timeStarted, long latestCommittedTxWhenStarted)
+            throws TransactionFailureException {
+        readOnlyDatabaseChecker.check();
+        return commitProcess.beginChunkedCommit(version, timeStarted, latestCommittedTxWhenStarted);
+    }
 }
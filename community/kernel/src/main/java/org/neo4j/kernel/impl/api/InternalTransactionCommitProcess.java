@@ -23,6 +23,8 @@ import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionComm
 import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionLogError;
 
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.ChunkedTransactionAppend;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
@@ -33,15 +35,35 @@ import org.neo4j.storageengine.api.TransactionApplicationMode;
 public class InternalTransactionCommitProcess implements TransactionCommitProcess {
     private final TransactionAppender appender;
     private final StorageEngine storageEngine;
+    private final TransactionApplicationPipeline applicationPipeline;
 
     public InternalTransactionCommitProcess(TransactionAppender appender, StorageEngine storageEngine) {
+        this(appender, storageEngine, null);
+    }
+
+    /**
+     * @param applicationPipeline when not {@code null}, every batch is applied to the store and closed through this
+     * pipeline, in commit order, while the next batches are appended to the log.
+     */
+    public InternalTransactionCommitProcess(
+            TransactionAppender appender,
+            StorageEngine storageEngine,
+            TransactionApplicationPipeline applicationPipeline) {
         this.appender = appender;
         this.storageEngine = storageEngine;
+        this.applicationPipeline = applicationPipeline;
     }
 
     @Override
     public long commit(TransactionToApply batch, CommitEvent commitEvent, TransactionApplicationMode mode)
             throws TransactionFailureException {
+        if (applicationPipeline != null) {
+            return applicationPipeline.commit(
+                    batch,
+                    mode,
+                    toApply -> appendToLog(toApply, commitEvent),
+                    (toApply, applyMode) -> applyToStore(toApply, commitEvent, applyMode));
+        }
         long lastTxId = appendToLog(batch, commitEvent);
         try {
             applyToStore(batch, commitEvent, mode);
@@ -51,6 +73,18 @@ public class InternalTransactionCommitProcess implements TransactionCommitProces
         }
     }
 
+    @Override
+    public ChunkedTransactionAppend beginChunkedCommit(
+            KernelVersion version, long timeStarted, long latestCommittedTxWhenStarted)
+            throws TransactionFailureException {
+        try {
+            return appender.beginChunkedAppend(version, timeStarted, latestCommittedTxWhenStarted);
+        } catch (Throwable cause) {
+            throw new TransactionFailureException(
+                    TransactionLogError, cause, "Could not append transaction representation to log");
+        }
+    }
+
     private long appendToLog(TransactionToApply batch, CommitEvent commitEvent) throws TransactionFailureException {
         try (LogAppendEvent logAppendEvent = commitEvent.beginLogAppend()) {
             return appender.append(batch, logAppendEvent);
@@ -44,7 +44,6 @@ import java.util.stream.Stream;
 import org.neo4j.collection.Dependencies;
 import org.neo4j.collection.pool.Pool;
 import org.neo4j.collection.trackable.HeapTrackingArrayList;
-import org.neo4j.collection.trackable.HeapTrackingCollections;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.configuration.LocalConfig;
@@ -113,6 +112,7 @@ import org.neo4j.kernel.impl.newapi.KernelToken;
 import org.neo4j.kernel.impl.newapi.Operations;
 import org.neo4j.kernel.impl.query.TransactionExecutionMonitor;
 import org.neo4j.kernel.impl.transaction.TransactionMonitor;
+import org.neo4j.kernel.impl.transaction.log.ChunkedTransactionAppend;
 import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionEvent;
@@ -176,6 +176,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     private final CursorContextFactory contextFactory;
     private final DatabaseReadOnlyChecker readOnlyDatabaseChecker;
     private final SecurityAuthorizationHandler securityAuthorizationHandler;
+    private final int commitChunkSize;
 
     // State that needs to be reset between uses. Most of these should be cleared or released in #release(),
     // whereas others, such as timestamp or txId when transaction starts, even locks, needs to be set in #initialize().
@@ -262,6 +263,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
             KernelTransactions kernelTransactions,
             LogProvider logProvider) {
         this.config = new LocalConfig(externalConfig);
+        this.commitChunkSize = config.get(GraphDatabaseInternalSettings.commit_chunk_size);
         this.accessCapabilityFactory = accessCapabilityFactory;
         this.contextFactory = contextFactory;
         this.readOnlyDatabaseChecker = readOnlyDatabaseChecker;
@@ -764,56 +766,62 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                 forceThawLocks();
                 lockClient.prepareForCommit();
 
-                // Gather up commands from the various sources
-                HeapTrackingArrayList<StorageCommand> extractedCommands =
-                        HeapTrackingCollections.newArrayList(memoryTracker);
-                storageEngine.createCommands(
-                        extractedCommands,
-                        txState,
-                        storageReader,
-                        commandCreationContext,
-                        lockClient,
-                        lockTracer(),
-                        this::enforceConstraints,
-                        cursorContext,
-                        transactionalCursors,
-                        memoryTracker);
-
-                /* Here's the deal: we track a quick-to-access hasChanges in transaction state which is true
-                 * if there are any changes imposed by this transaction. Some changes made inside a transaction undo
-                 * previously made changes in that same transaction, and so at some point a transaction may have
-                 * changes and at another point, after more changes seemingly,
-                 * the transaction may not have any changes.
-                 * However, to track that "undoing" of the changes is a bit tedious, intrusive and hard to maintain
-                 * and get right.... So to really make sure the transaction has changes we re-check by looking if we
-                 * have produced any commands to add to the logical log.
-                 */
-                if (!extractedCommands.isEmpty()) {
-                    // Finish up the whole transaction representation
-                    PhysicalTransactionRepresentation transactionRepresentation =
-                            new PhysicalTransactionRepresentation(extractedCommands);
-                    long timeCommitted = clocks.systemClock().millis();
-                    transactionRepresentation.setHeader(
-                            EMPTY_BYTE_ARRAY,
-                            startTimeMillis,
-                            lastTransactionIdWhenStarted,
-                            timeCommitted,
-                            leaseClient.leaseId(),
-                            securityContext.subject());
-
-                    // Commit the transaction
-                    success = true;
-                    TransactionToApply batch =
-                            new TransactionToApply(transactionRepresentation, cursorContext, transactionalCursors);
-                    kernelTransactionMonitor.beforeApply();
-                    txId = commitProcess.commit(batch, commitEvent, INTERNAL);
-                    commitTime = timeCommitted;
+                // Gather up commands from the various sources, appending them to the log in chunks if there are many
+                try (ChunkedCommands chunkedCommands = new ChunkedCommands(
+                        commitProcess, commitChunkSize, startTimeMillis, lastTransactionIdWhenStarted, memoryTracker)) {
+                    storageEngine.createCommands(
+                            chunkedCommands,
+                            txState,
+                            storageReader,
+                            commandCreationContext,
+                            lockClient,
+                            lockTracer(),
+                            this::enforceConstraints,
+                            cursorContext,
+                            transactionalCursors,
+                            memoryTracker);
+                    HeapTrackingArrayList<StorageCommand> extractedCommands = chunkedCommands.commands();
+
+                    /* Here's the deal: we track a quick-to-access hasChanges in transaction state which is true
+                     * if there are any changes imposed by this transaction. Some changes made inside a transaction undo
+                     * previously made changes in that same transaction, and so at some point a transaction may have
+                     * changes and at another point, after more changes seemingly,
+                     * the transaction may not have any changes.
+                     * However, to track that "undoing" of the changes is a bit tedious, intrusive and hard to maintain
+                     * and get right.... So to really make sure the transaction has changes we re-check by looking if we
+                     * have produced any commands to add to the logical log.
+                     */
+                    if (!extractedCommands.isEmpty()) {
+                        // Finish up the whole transaction representation
+                        PhysicalTransactionRepresentation transactionRepresentation =
+                                new PhysicalTransactionRepresentation(extractedCommands);
+                        long timeCommitted = clocks.systemClock().millis();
+                        transactionRepresentation.setHeader(
+                                EMPTY_BYTE_ARRAY,
+                                startTimeMillis,
+                                lastTransactionIdWhenStarted,
+                                timeCommitted,
+                                leaseClient.leaseId(),
+                                securityContext.subject());
+
+                        // Commit the transaction
+                        ChunkedTransactionAppend chunkedAppend = chunkedCommands.appendLastChunk();
+                        success = true;
+                        TransactionToApply batch =
+                                new TransactionToApply(transactionRepresentation, cursorContext, transactionalCursors);
+                        batch.chunkedAppend(chunkedAppend);
+                        kernelTransactionMonitor.beforeApply();
+                        txId = commitProcess.commit(batch, commitEvent, INTERNAL);
+                        commitTime = timeCommitted;
+                    }
                 }
             }
             success = true;
             return txId;
         } catch (ConstraintValidationException | CreateConstraintFailureException e) {
             throw new ConstraintViolationTransactionFailureException(e.getUserMessage(tokenRead()), e);
+        } catch (ChunkedCommands.ChunkAppendFailure e) {
+            throw e.getCause();
         } finally {
             if (!success) {
                 rollback(listenersState);
@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionCommitFailed;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.EXTERNAL;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.database.NamedDatabaseId;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.monitoring.Health;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.storageengine.api.TransactionIdStore;
+
+/**
+ * Orders the store application and closing of committed batches, so that committing threads can append and force the
+ * next batches to the transaction log while the previous ones are still being applied. No lock is held while
+ * appending, so concurrent committers still share forces of the log.
+ * <p>
+ * Batches committed in {@link TransactionApplicationMode#EXTERNAL} mode are handed over to a dedicated applier thread,
+ * which applies them in transaction id order, and are not waited for. All other batches are applied on their
+ * committing threads, concurrently with each other, and their commits return once they are closed, since their callers
+ * release locks and read their own writes as soon as the commit returns. Either way batches are closed strictly in
+ * transaction id order, which is the order the {@link org.neo4j.kernel.impl.transaction.log.TransactionAppender}
+ * appended them in.
+ * <p>
+ * The number of handed over batches that are not yet applied is bounded, so a slow store application eventually
+ * pushes back on the committing threads. Committers only wait for room once their batch is appended, so that waiting
+ * committers still share forces of the log. A failed application panics the database, after which no later batch is
+ * applied.
+ */
+public class TransactionApplicationPipeline extends LifecycleAdapter {
+    static final int MAX_PENDING_BATCHES = 4;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final TransactionIdStore transactionIdStore;
+    private final Health databaseHealth;
+    private final JobScheduler jobScheduler;
+    private final NamedDatabaseId namedDatabaseId;
+    private final Object progressMonitor = new Object();
+    // Guarded by progressMonitor, batches that are appended but not yet closed, by their first transaction id
+    private final Map<Long, PendingBatch> pendingBatches = new HashMap<>();
+    private int handedOverBatches;
+    private long nextTxIdToClose;
+    private long lastAppliedTxId;
+    private boolean stopped = true;
+    private volatile Throwable failure;
+    private JobHandle<?> applierHandle;
+
+    public TransactionApplicationPipeline(
+            TransactionIdStore transactionIdStore,
+            Health databaseHealth,
+            JobScheduler jobScheduler,
+            NamedDatabaseId namedDatabaseId) {
+        this.transactionIdStore = transactionIdStore;
+        this.databaseHealth = databaseHealth;
+        this.jobScheduler = jobScheduler;
+        this.namedDatabaseId = namedDatabaseId;
+    }
+
+    @Override
+    public synchronized void start() {
+        synchronized (progressMonitor) {
+            lastAppliedTxId = transactionIdStore.getLastCommittedTransactionId();
+            nextTxIdToClose = lastAppliedTxId + 1;
+            stopped = false;
+        }
+        applierHandle = jobScheduler.schedule(
+                Group.APPLY_UPDATES,
+                JobMonitoringParams.systemJob(
+                        namedDatabaseId.name(), "Pipelined application of committed transactions"),
+                this::applyHandedOverBatches);
+    }
+
+    @Override
+    public synchronized void stop() throws ExecutionException, InterruptedException {
+        synchronized (progressMonitor) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            progressMonitor.notifyAll();
+        }
+        JobHandle<?> handle = applierHandle;
+        if (handle != null) {
+            handle.waitTermination();
+            applierHandle = null;
+        }
+        // Handed over batches can only be left behind if the database panicked before the batches ahead of them
+        // were closed. Batches applied by committing threads are still owned by those threads.
+        ArrayList<PendingBatch> leftBehind = new ArrayList<>();
+        synchronized (progressMonitor) {
+            pendingBatches.values().removeIf(pendingBatch -> {
+                if (pendingBatch.mode == EXTERNAL || pendingBatch.done) {
+                    leftBehind.add(pendingBatch);
+                    return true;
+                }
+                return false;
+            });
+        }
+        for (PendingBatch pendingBatch : leftBehind) {
+            close(pendingBatch.batch);
+        }
+    }
+
+    /**
+     * Appends the given batch to the transaction log and applies it to the store. Batches committed in
+     * {@link TransactionApplicationMode#EXTERNAL} mode are handed over to the applier thread and not waited for, all
+     * others are applied by the calling thread and return once they are closed.
+     *
+     * @param batch batch to commit.
+     * @param mode mode to apply the batch with.
+     * @param logAppender appends the batch to the log and returns the id of its last transaction.
+     * @param storeApplier applies the batch to the store.
+     * @return the id of the last transaction in the batch.
+     * @throws TransactionFailureException if the log append failed, or if the batch could not be applied.
+     */
+    public long commit(
+            TransactionToApply batch,
+            TransactionApplicationMode mode,
+            LogAppender logAppender,
+            StoreApplier storeApplier)
+            throws TransactionFailureException {
+        checkNoFailure();
+        long lastTxId = logAppender.append(batch);
+        PendingBatch pendingBatch = new PendingBatch(batch, mode, lastTxId, storeApplier);
+        if (mode == EXTERNAL) {
+            handOver(pendingBatch);
+            return lastTxId;
+        }
+
+        synchronized (progressMonitor) {
+            pendingBatches.put(batch.transactionId(), pendingBatch);
+        }
+        TransactionFailureException applyFailure = null;
+        try {
+            // Once a batch failed the store is in an unknown state, so later batches are only closed
+            checkNoFailure();
+            storeApplier.apply(batch, mode);
+            pendingBatch.applied = true;
+        } catch (TransactionFailureException e) {
+            applyFailure = e;
+            failed(e);
+        } catch (Throwable t) {
+            failed(t);
+            throw t;
+        } finally {
+            done(pendingBatch);
+        }
+        if (applyFailure != null) {
+            throw applyFailure;
+        }
+        awaitApplied(lastTxId);
+        return lastTxId;
+    }
+
+    /**
+     * Waits until the batch ending with the given transaction has been applied to the store and closed.
+     *
+     * @throws TransactionFailureException if that batch, or one before it, failed to apply.
+     */
+    void awaitApplied(long txId) throws TransactionFailureException {
+        boolean interrupted = false;
+        synchronized (progressMonitor) {
+            // The batch is already in the log at this point, so it has to be waited for until it is applied, or
+            // until the database panicked and it never will be
+            while (lastAppliedTxId < txId && failure == null && databaseHealth.isHealthy()) {
+                try {
+                    progressMonitor.wait(POLL_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (lastAppliedTxId >= txId) {
+                return;
+            }
+        }
+        Throwable cause = failure != null ? failure : databaseHealth.cause();
+        throw new TransactionFailureException(
+                TransactionCommitFailed, cause, "Could not apply the transaction to the store after written to log");
+    }
+
+    private void checkNoFailure() throws TransactionFailureException {
+        Throwable cause = failure;
+        if (cause != null) {
+            throw new TransactionFailureException(
+                    TransactionCommitFailed,
+                    cause,
+                    "Could not apply an earlier transaction to the store after written to log");
+        }
+    }
+
+    private void failed(Throwable cause) {
+        if (failure == null) {
+            failure = cause;
+            databaseHealth.panic(cause);
+        }
+    }
+
+    private void handOver(PendingBatch pendingBatch) {
+        boolean interrupted = false;
+        synchronized (progressMonitor) {
+            // The batch is already in the log, so it is handed over even if interrupted or once the database panicked
+            while (handedOverBatches >= MAX_PENDING_BATCHES && failure == null && databaseHealth.isHealthy()) {
+                try {
+                    progressMonitor.wait(POLL_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            handedOverBatches++;
+            pendingBatches.put(pendingBatch.batch.transactionId(), pendingBatch);
+            progressMonitor.notifyAll();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void applyHandedOverBatches() {
+        try {
+            PendingBatch pendingBatch;
+            while ((pendingBatch = nextHandedOverBatch()) != null) {
+                try {
+                    // Once a batch failed the store is in an unknown state, so later batches are only closed
+                    if (failure == null) {
+                        pendingBatch.storeApplier.apply(pendingBatch.batch, pendingBatch.mode);
+                        pendingBatch.applied = true;
+                    }
+                } catch (Throwable cause) {
+                    failed(cause);
+                } finally {
+                    done(pendingBatch);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PendingBatch nextHandedOverBatch() throws InterruptedException {
+        synchronized (progressMonitor) {
+            while (true) {
+                // Handed over batches are applied once all batches before them are closed, i.e. in transaction id order
+                PendingBatch pendingBatch = pendingBatches.get(nextTxIdToClose);
+                if (pendingBatch != null && pendingBatch.mode == EXTERNAL && !pendingBatch.done) {
+                    return pendingBatch;
+                }
+                if (stopped && (handedOverBatches == 0 || !databaseHealth.isHealthy())) {
+                    return null;
+                }
+                progressMonitor.wait(POLL_INTERVAL_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Marks the given batch as applied, or failed, and closes it along with all batches after it that are done too,
+     * as soon as all batches before it are closed.
+     */
+    private void done(PendingBatch pendingBatch) {
+        synchronized (progressMonitor) {
+            pendingBatch.done = true;
+            if (pendingBatch.mode == EXTERNAL) {
+                handedOverBatches--;
+            }
+            PendingBatch next;
+            while ((next = pendingBatches.get(nextTxIdToClose)) != null && next.done) {
+                pendingBatches.remove(nextTxIdToClose);
+                close(next.batch);
+                nextTxIdToClose = next.lastTxId + 1;
+                if (next.applied) {
+                    lastAppliedTxId = next.lastTxId;
+                }
+            }
+            progressMonitor.notifyAll();
+        }
+    }
+
+    private static void close(TransactionToApply batch) {
+        while (batch != null) {
+            batch.publishAsClosed();
+            batch.close();
+            batch = batch.next();
+        }
+    }
+
+    @FunctionalInterface
+    public interface LogAppender {
+        long append(TransactionToApply batch) throws TransactionFailureException;
+    }
+
+    @FunctionalInterface
+    public interface StoreApplier {
+        void apply(TransactionToApply batch, TransactionApplicationMode mode) throws TransactionFailureException;
+    }
+
+    private static class PendingBatch {
+        private final TransactionToApply batch;
+        private final TransactionApplicationMode mode;
+        private final long lastTxId;
+        private final StoreApplier storeApplier;
+        // Set before the batch is marked as done
+        private boolean applied;
+        // Guarded by progressMonitor
+        private boolean done;
+
+        PendingBatch(
+                TransactionToApply batch, TransactionApplicationMode mode, long lastTxId, StoreApplier storeApplier) {
+            this.batch = batch;
+            this.mode = mode;
+            this.lastTxId = lastTxId;
+            this.storeApplier = storeApplier;
+        }
+    }
+}
@@ -20,7 +20,9 @@
 package org.neo4j.kernel.impl.api;
 
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.ChunkedTransactionAppend;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 
@@ -46,4 +48,22 @@ public interface TransactionCommitProcess {
      */
     long commit(TransactionToApply batch, CommitEvent commitEvent, TransactionApplicationMode mode)
             throws TransactionFailureException;
+
+    /**
+     * Begin committing a transaction whose commands are appended to the log in chunks while they are created.
+     * The transaction is committed by {@link #commit(TransactionToApply, CommitEvent, TransactionApplicationMode)
+     * committing} a batch of only that transaction, which {@link TransactionToApply#chunkedAppend(ChunkedTransactionAppend)
+     * refers to} the returned chunked append, from the same thread.
+     *
+     * @param version kernel version of the commands of the transaction.
+     * @param timeStarted time when the transaction was started.
+     * @param latestCommittedTxWhenStarted id of the last committed transaction when the transaction was started.
+     * @return the begun chunked append, or {@code null} if this commit process doesn't commit transactions in chunks.
+     * @throws TransactionFailureException If the start of the transaction could not be appended.
+     */
+    default ChunkedTransactionAppend beginChunkedCommit(
+            KernelVersion version, long timeStarted, long latestCommittedTxWhenStarted)
+            throws TransactionFailureException {
+        return null;
+    }
 }
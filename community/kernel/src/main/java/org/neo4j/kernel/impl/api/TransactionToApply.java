@@ -30,6 +30,7 @@ import org.neo4j.internal.helpers.collection.Visitor;
 import org.neo4j.internal.kernel.api.security.AuthSubject;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.ChunkedTransactionAppend;
 import org.neo4j.kernel.impl.transaction.log.Commitment;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
@@ -70,6 +71,7 @@ public class TransactionToApply implements CommandsToApply, AutoCloseable {
     private final CursorContext cursorContext;
     private final StoreCursors storeCursors;
     private TransactionToApply nextTransactionInBatch;
+    private ChunkedTransactionAppend chunkedAppend;
 
     // These fields are provided by commit process, storage engine, or recovery process
     private Commitment commitment;
@@ -102,6 +104,17 @@ public class TransactionToApply implements CommandsToApply, AutoCloseable {
         nextTransactionInBatch = next;
     }
 
+    /**
+     * Marks this transaction as already appended to the log in chunks, up to its commit.
+     */
+    public void chunkedAppend(ChunkedTransactionAppend chunkedAppend) {
+        this.chunkedAppend = chunkedAppend;
+    }
+
+    public ChunkedTransactionAppend chunkedAppend() {
+        return chunkedAppend;
+    }
+
     public void publishAsCommitted() {
         commitment.publishAsCommitted();
     }
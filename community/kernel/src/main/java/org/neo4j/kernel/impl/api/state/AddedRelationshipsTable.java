@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.state;
+
+import static java.util.Collections.emptyList;
+
+import org.eclipse.collections.api.IntIterable;
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.neo4j.collection.trackable.HeapTrackingLongArrayList;
+import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.RelationshipVisitor;
+import org.neo4j.storageengine.api.RelationshipVisitorWithProperties;
+import org.neo4j.storageengine.api.StorageProperty;
+import org.neo4j.storageengine.api.txstate.RelationshipState;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Type and end nodes of the relationships created in a transaction, kept in one primitive map from the
+ * {@link CollectionsFactory} to a slot of three longs, instead of one {@link RelationshipStateImpl} per relationship.
+ * With off-heap transaction state this keeps transactions that create many relationships from growing the heap with
+ * them, and each created relationship costs a single hash insert. A relationship is moved out of this table into a
+ * {@link RelationshipStateImpl} once its properties are changed.
+ */
+class AddedRelationshipsTable {
+    private static final int SLOT_SIZE = 3;
+    private static final int TYPE = 0;
+    private static final int START_NODE = 1;
+    private static final int END_NODE = 2;
+    private static final int NO_SLOT = -1;
+
+    private final MutableLongLongMap slotsById;
+    private final HeapTrackingLongArrayList slots;
+    private final AddedRelationshipState state = new AddedRelationshipState();
+    // Slots of removed relationships are chained through their type field and reused by later additions
+    private int firstFreeSlot = NO_SLOT;
+
+    AddedRelationshipsTable(CollectionsFactory collectionsFactory, MemoryTracker memoryTracker) {
+        this.slotsById = collectionsFactory.newLongLongMap(memoryTracker);
+        this.slots = HeapTrackingLongArrayList.newLongArrayList(memoryTracker);
+    }
+
+    void add(long relationshipId, int type, long startNode, long endNode) {
+        int slot;
+        if (firstFreeSlot != NO_SLOT) {
+            slot = firstFreeSlot;
+            firstFreeSlot = (int) slots.get(offset(slot, TYPE));
+            slots.set(offset(slot, TYPE), type);
+            slots.set(offset(slot, START_NODE), startNode);
+            slots.set(offset(slot, END_NODE), endNode);
+        } else {
+            slot = slots.size() / SLOT_SIZE;
+            slots.addAll(type, startNode, endNode);
+        }
+        slotsById.put(relationshipId, slot);
+    }
+
+    void remove(long relationshipId) {
+        long slot = slotsById.removeKeyIfAbsent(relationshipId, NO_SLOT);
+        if (slot != NO_SLOT) {
+            slots.set(offset((int) slot, TYPE), firstFreeSlot);
+            firstFreeSlot = (int) slot;
+        }
+    }
+
+    /**
+     * Visit the given relationship, if it was created in this transaction.
+     *
+     * @return {@code true} if the relationship was created in this transaction, otherwise {@code false}.
+     */
+    <EX extends Exception> boolean visit(long relationshipId, RelationshipVisitor<EX> visitor) throws EX {
+        int slot = slotOf(relationshipId);
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        visitor.visit(
+                relationshipId,
+                (int) slots.get(offset(slot, TYPE)),
+                slots.get(offset(slot, START_NODE)),
+                slots.get(offset(slot, END_NODE)));
+        return true;
+    }
+
+    /**
+     * Visit the given relationship, without properties, if it was created in this transaction.
+     *
+     * @return {@code true} if the relationship was created in this transaction, otherwise {@code false}.
+     */
+    <EX extends Exception> boolean visit(long relationshipId, RelationshipVisitorWithProperties<EX> visitor) throws EX {
+        int slot = slotOf(relationshipId);
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        visitor.visit(
+                relationshipId,
+                (int) slots.get(offset(slot, TYPE)),
+                slots.get(offset(slot, START_NODE)),
+                slots.get(offset(slot, END_NODE)),
+                emptyList());
+        return true;
+    }
+
+    /**
+     * @return state without property changes of the given relationship, or {@code null} if it was not created in
+     * this transaction. The state is a flyweight that is repositioned by the next call, and reads type and end nodes
+     * from this table when visited.
+     */
+    RelationshipState stateOf(long relationshipId) {
+        if (!slotsById.containsKey(relationshipId)) {
+            return null;
+        }
+        state.relationshipId = relationshipId;
+        return state;
+    }
+
+    private int slotOf(long relationshipId) {
+        return (int) slotsById.getIfAbsent(relationshipId, NO_SLOT);
+    }
+
+    private static int offset(int slot, int field) {
+        return slot * SLOT_SIZE + field;
+    }
+
+    private class AddedRelationshipState implements RelationshipState {
+        private long relationshipId;
+
+        @Override
+        public long getId() {
+            return relationshipId;
+        }
+
+        @Override
+        public <EX extends Exception> boolean accept(RelationshipVisitor<EX> visitor) throws EX {
+            return visit(relationshipId, visitor);
+        }
+
+        @Override
+        public <EX extends Exception> boolean accept(RelationshipVisitorWithProperties<EX> visitor) throws EX {
+            return visit(relationshipId, visitor);
+        }
+
+        @Override
+        public Iterable<StorageProperty> addedProperties() {
+            return emptyList();
+        }
+
+        @Override
+        public Iterable<StorageProperty> changedProperties() {
+            return emptyList();
+        }
+
+        @Override
+        public IntIterable removedProperties() {
+            return IntSets.immutable.empty();
+        }
+
+        @Override
+        public Iterable<StorageProperty> addedAndChangedProperties() {
+            return emptyList();
+        }
+
+        @Override
+        public boolean hasPropertyChanges() {
+            return false;
+        }
+
+        @Override
+        public boolean isPropertyChangedOrRemoved(int propertyKey) {
+            return false;
+        }
+
+        @Override
+        public Value propertyValue(int propertyKey) {
+            return null;
+        }
+    }
+}
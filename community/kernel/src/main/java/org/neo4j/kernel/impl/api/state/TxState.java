@@ -94,6 +94,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home {
     private MutableLongObjectMap<NodeStateImpl> nodeStatesMap;
     private MutableLongObjectMap<MutableLongDiffSets> relationshipTypeStatesMap;
     private MutableLongObjectMap<RelationshipStateImpl> relationshipStatesMap;
+    private AddedRelationshipsTable addedRelationshipsTable;
 
     private MutableLongObjectMap<TokenState> createdLabelTokens;
     private MutableLongObjectMap<TokenState> createdPropertyKeyTokens;
@@ -347,7 +348,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home {
             getOrCreateNodeState(endNodeId).addRelationship(id, relationshipTypeId, RelationshipDirection.INCOMING);
         }
 
-        getOrCreateRelationshipState(id, relationshipTypeId, startNodeId, endNodeId);
+        addedRelationshipsTable().add(id, relationshipTypeId, startNodeId, endNodeId);
         getOrCreateTypeStateRelationshipDiffSets(relationshipTypeId).add(id);
 
         dataChanged();
@@ -371,6 +372,9 @@ public class TxState implements TransactionState, RelationshipVisitor.Home {
             getOrCreateNodeState(endNodeId).removeRelationship(id, type, RelationshipDirection.INCOMING);
         }
 
+        if (wasAddedInThisTx && addedRelationshipsTable != null) {
+            addedRelationshipsTable.remove(id);
+        }
         if (wasAddedInThisTx || !behaviour.keepMetaDataForDeletedRelationship()) {
             if (relationshipStatesMap != null) {
                 RelationshipStateImpl removed = relationshipStatesMap.remove(id);
@@ -388,7 +392,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home {
 
     @Override
     public void relationshipDoDeleteAddedInThisTx(long relationshipId) {
-        getRelationshipState(relationshipId).accept(this::relationshipDoDelete);
+        relationshipVisit(relationshipId, this::relationshipDoDelete);
     }
 
     @Override
@@ -493,20 +497,27 @@ public class TxState implements TransactionState, RelationshipVisitor.Home {
 
     @Override
     public RelationshipState getRelationshipState(long id) {
-        if (relationshipStatesMap == null) {
-            return RelationshipStateImpl.EMPTY;
+        final RelationshipStateImpl relationshipState = relationshipStateOf(id);
+        if (relationshipState == null) {
+            return addedRelationshipState(id);
         }
-        final RelationshipStateImpl relationshipState = relationshipStatesMap.get(id);
-        return relationshipState == null || relationshipState.isDeleted()
-                ? RelationshipStateImpl.EMPTY
-                : relationshipState;
+        return relationshipState.isDeleted() ? RelationshipStateImpl.EMPTY : relationshipState;
     }
 
     public RelationshipState getRelationshipStateEvenThoDeleted(long id) {
-        if (relationshipStatesMap == null) {
+        final RelationshipStateImpl relationshipState = relationshipStateOf(id);
+        return relationshipState == null ? addedRelationshipState(id) : relationshipState;
+    }
+
+    private RelationshipStateImpl relationshipStateOf(long id) {
+        return relationshipStatesMap == null ? null : relationshipStatesMap.get(id);
+    }
+
+    private RelationshipState addedRelationshipState(long id) {
+        if (addedRelationshipsTable == null) {
             return RelationshipStateImpl.EMPTY;
         }
-        final RelationshipStateImpl relationshipState = relationshipStatesMap.get(id);
+        final RelationshipState relationshipState = addedRelationshipsTable.stateOf(id);
         return relationshipState == null ? RelationshipStateImpl.EMPTY : relationshipState;
     }
 
@@ -599,6 +610,13 @@ public class TxState implements TransactionState, RelationshipVisitor.Home {
         return relationships == null ? LongDiffSets.EMPTY : relationships;
     }
 
+    private AddedRelationshipsTable addedRelationshipsTable() {
+        if (addedRelationshipsTable == null) {
+            addedRelationshipsTable = new AddedRelationshipsTable(collectionsFactory, memoryTracker);
+        }
+        return addedRelationshipsTable;
+    }
+
     private RemovalsCountingDiffSets relationships() {
         if (relationships == null) {
             relationships = newRemovalsCountingDiffSets(collectionsFactory, memoryTracker);
@@ -626,8 +644,16 @@ public class TxState implements TransactionState, RelationshipVisitor.Home {
         if (relationshipStatesMap == null) {
             relationshipStatesMap = newLongObjectMap(memoryTracker);
         }
-        return relationshipStatesMap.getIfAbsentPut(
-                relationshipId, () -> newRelationshipState(relationshipId, type, startNode, endNode));
+        RelationshipStateImpl relationshipState = relationshipStatesMap.get(relationshipId);
+        if (relationshipState == null) {
+            relationshipState = newRelationshipState(relationshipId, type, startNode, endNode);
+            relationshipStatesMap.put(relationshipId, relationshipState);
+            // The full state now carries type and end nodes of a relationship created in this transaction
+            if (addedRelationshipsTable != null) {
+                addedRelationshipsTable.remove(relationshipId);
+            }
+        }
+        return relationshipState;
     }
 
     @Override
@@ -765,17 +791,30 @@ public class TxState implements TransactionState, RelationshipVisitor.Home {
 
     @Override
     public <EX extends Exception> boolean relationshipVisit(long relId, RelationshipVisitor<EX> visitor) throws EX {
-        return getRelationshipState(relId).accept(visitor);
+        // Visits relationships created in this transaction straight from the table, without a state to wrap them
+        final RelationshipStateImpl relationshipState = relationshipStateOf(relId);
+        if (relationshipState != null) {
+            return !relationshipState.isDeleted() && relationshipState.accept(visitor);
+        }
+        return addedRelationshipsTable != null && addedRelationshipsTable.visit(relId, visitor);
     }
 
     public <EX extends Exception> boolean relationshipVisitWithProperties(
             long relId, RelationshipVisitorWithProperties<EX> visitor) throws EX {
-        return getRelationshipState(relId).accept(visitor);
+        final RelationshipStateImpl relationshipState = relationshipStateOf(relId);
+        if (relationshipState != null) {
+            return !relationshipState.isDeleted() && relationshipState.accept(visitor);
+        }
+        return addedRelationshipsTable != null && addedRelationshipsTable.visit(relId, visitor);
     }
 
     public <EX extends Exception> boolean deletedRelationshipVisit(
             long relId, RelationshipVisitorWithProperties<EX> visitor) throws EX {
-        return getRelationshipStateEvenThoDeleted(relId).accept(visitor);
+        final RelationshipStateImpl relationshipState = relationshipStateOf(relId);
+        if (relationshipState != null) {
+            return relationshipState.accept(visitor);
+        }
+        return addedRelationshipsTable != null && addedRelationshipsTable.visit(relId, visitor);
     }
 
     @Override
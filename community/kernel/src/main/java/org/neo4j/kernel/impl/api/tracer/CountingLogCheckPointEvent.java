@@ -39,7 +39,7 @@ class CountingLogCheckPointEvent implements LogCheckPointEvent {
     private final long maxPages;
     private final BiConsumer<LogPosition, LogPosition> logFileAppendConsumer;
     private final CountingLogRotateEvent countingLogRotateEvent;
-    private volatile LastCheckpointInfo lastCheckpointInfo = new LastCheckpointInfo(0, 0, 0, 0, 0, 0);
+    private volatile LastCheckpointInfo lastCheckpointInfo = new LastCheckpointInfo(0, 0, 0, 0, 0, 0, 0, 0);
     private final DatabaseFlushEvent databaseFlushEvent;
 
     CountingLogCheckPointEvent(
@@ -62,7 +62,9 @@ class CountingLogCheckPointEvent implements LogCheckPointEvent {
                 databaseFlushEvent.ioPerformed(),
                 databaseFlushEvent.getIoLimit(),
                 databaseFlushEvent.getTimesLimited(),
-                databaseFlushEvent.getMillisLimited());
+                databaseFlushEvent.getMillisLimited(),
+                databaseFlushEvent.getIoLimitDecreases(),
+                databaseFlushEvent.getIoLimitIncreases());
     }
 
     @Override
@@ -136,11 +138,26 @@ class CountingLogCheckPointEvent implements LogCheckPointEvent {
         return lastCheckpointInfo.timeMillis();
     }
 
+    long ioLimitDecreases() {
+        return lastCheckpointInfo.ioLimitDecreases();
+    }
+
+    long ioLimitIncreases() {
+        return lastCheckpointInfo.ioLimitIncreases();
+    }
+
     @Override
     public LogRotateEvent beginLogRotate() {
         return countingLogRotateEvent;
     }
 
     private record LastCheckpointInfo(
-            long timeMillis, long pagesFlushed, long performedIO, long ioLimit, long timesPaused, long millisPaused) {}
+            long timeMillis,
+            long pagesFlushed,
+            long performedIO,
+            long ioLimit,
+            long timesPaused,
+            long millisPaused,
+            long ioLimitDecreases,
+            long ioLimitIncreases) {}
 }
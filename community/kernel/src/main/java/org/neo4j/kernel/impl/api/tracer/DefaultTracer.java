@@ -45,11 +45,14 @@ import org.neo4j.kernel.impl.transaction.tracing.TransactionEvent;
 public class DefaultTracer implements DatabaseTracer {
     private final AtomicLong appendedBytes = new AtomicLong();
     private final AtomicLong numberOfFlushes = new AtomicLong();
+    private final AtomicLong numberOfLogForces = new AtomicLong();
+    private final AtomicLong logForceTimeNanos = new AtomicLong();
     private final AtomicLong appliedBatchSize = new AtomicLong();
 
     private final CountingLogRotateEvent countingLogRotateEvent = new CountingLogRotateEvent();
     private final LogFileCreateEvent logFileCreateEvent = () -> appendedBytes.addAndGet(CURRENT_FORMAT_LOG_HEADER_SIZE);
     private final LogFileFlushEvent logFileFlushEvent = numberOfFlushes::incrementAndGet;
+    private final DefaultLogForceEvent logForceEvent = new DefaultLogForceEvent();
     private final LogAppendEvent logAppendEvent = new DefaultLogAppendEvent();
     private final CommitEvent commitEvent = new DefaultCommitEvent();
     private final TransactionEvent transactionEvent = new DefaultTransactionEvent();
@@ -90,6 +93,16 @@ public class DefaultTracer implements DatabaseTracer {
         return numberOfFlushes.get();
     }
 
+    @Override
+    public long numberOfLogForces() {
+        return numberOfLogForces.get();
+    }
+
+    @Override
+    public long logForceAccumulatedTotalTimeNanos() {
+        return logForceTimeNanos.get();
+    }
+
     @Override
     public long lastTransactionLogAppendBatch() {
         return appliedBatchSize.get();
@@ -135,6 +148,16 @@ public class DefaultTracer implements DatabaseTracer {
         return logCheckPointEvent.getMillisPaused();
     }
 
+    @Override
+    public long lastCheckpointIOLimitDecreases() {
+        return logCheckPointEvent.ioLimitDecreases();
+    }
+
+    @Override
+    public long lastCheckpointIOLimitIncreases() {
+        return logCheckPointEvent.ioLimitIncreases();
+    }
+
     @Override
     public LogCheckPointEvent beginCheckPoint() {
         return logCheckPointEvent;
@@ -236,7 +259,26 @@ public class DefaultTracer implements DatabaseTracer {
 
         @Override
         public LogForceEvent beginLogForce() {
-            return LogForceEvent.NULL;
+            logForceEvent.start();
+            return logForceEvent;
+        }
+    }
+
+    /**
+     * Forces done outside the force lock can overlap, so the start of every force is kept per thread, which lets one
+     * event instance be shared by all of them.
+     */
+    private class DefaultLogForceEvent implements LogForceEvent {
+        private final ThreadLocal<long[]> startNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+        void start() {
+            startNanos.get()[0] = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            numberOfLogForces.incrementAndGet();
+            logForceTimeNanos.addAndGet(System.nanoTime() - startNanos.get()[0]);
         }
     }
 }
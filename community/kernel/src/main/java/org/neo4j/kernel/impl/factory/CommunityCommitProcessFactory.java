@@ -24,6 +24,7 @@ import org.neo4j.kernel.database.NamedDatabaseId;
 import org.neo4j.kernel.impl.api.CommitProcessFactory;
 import org.neo4j.kernel.impl.api.DatabaseTransactionCommitProcess;
 import org.neo4j.kernel.impl.api.InternalTransactionCommitProcess;
+import org.neo4j.kernel.impl.api.TransactionApplicationPipeline;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.storageengine.api.StorageEngine;
@@ -34,8 +35,9 @@ public class CommunityCommitProcessFactory implements CommitProcessFactory {
             TransactionAppender appender,
             StorageEngine storageEngine,
             NamedDatabaseId databaseId,
-            DatabaseReadOnlyChecker readOnlyChecker) {
+            DatabaseReadOnlyChecker readOnlyChecker,
+            TransactionApplicationPipeline applicationPipeline) {
         return new DatabaseTransactionCommitProcess(
-                new InternalTransactionCommitProcess(appender, storageEngine), readOnlyChecker);
+                new InternalTransactionCommitProcess(appender, storageEngine, applicationPipeline), readOnlyChecker);
     }
 }
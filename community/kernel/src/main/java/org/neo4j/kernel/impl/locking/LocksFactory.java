@@ -21,11 +21,12 @@ package org.neo4j.kernel.impl.locking;
 
 import org.neo4j.annotations.service.Service;
 import org.neo4j.configuration.Config;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.service.NamedService;
 import org.neo4j.service.PrioritizedService;
 import org.neo4j.time.SystemNanoClock;
 
 @Service
 public interface LocksFactory extends NamedService, PrioritizedService {
-    Locks newInstance(Config config, SystemNanoClock clock);
+    Locks newInstance(Config config, SystemNanoClock clock, JobScheduler jobScheduler);
 }
@@ -82,4 +82,12 @@ class ExclusiveLock implements ForsetiLockManager.Lock {
     void close() {
         closed = true;
     }
+
+    /**
+     * Makes a closed lock usable again. Only safe for a lock that was never put in the global lock map, since no one
+     * else can then hold a reference to it.
+     */
+    void reopen() {
+        closed = false;
+    }
 }
@@ -28,11 +28,11 @@ import static org.neo4j.lock.LockType.EXCLUSIVE;
 import static org.neo4j.lock.LockType.SHARED;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import org.eclipse.collections.api.block.procedure.primitive.LongProcedure;
@@ -54,7 +54,6 @@ import org.neo4j.lock.LockType;
 import org.neo4j.lock.LockWaitEvent;
 import org.neo4j.lock.ResourceType;
 import org.neo4j.lock.ResourceTypes;
-import org.neo4j.memory.HeapEstimator;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.memory.ScopedMemoryTracker;
 import org.neo4j.time.SystemNanoClock;
@@ -78,7 +77,7 @@ public class ForsetiClient implements Locks.Client {
     private static final int NO_CLIENT_ID = -1;
 
     /** resourceType -> lock map. These are the global lock maps, shared across all clients. */
-    private final ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps;
+    private final LockTable[] lockMaps;
 
     /**
      * The client uses this to track which locks it holds. It is solely an optimization to ensure we don't need to
@@ -118,10 +117,19 @@ public class ForsetiClient implements Locks.Client {
     /**
      * For exclusive locks, we only need a single re-usable one per client. We simply CAS this lock into whatever slots
      * we want to hold in the global lock map. We re-create it every time the client is reused in order to avoid issues where a reference
-     * is found after the client is reused, causing false deadlocks.
+     * is found after the client is reused, causing false deadlocks. A lock that was never offered to the global lock
+     * map can't have been seen by anyone else, so that one is kept for the next transaction instead.
      */
     private ExclusiveLock myExclusiveLock;
 
+    private boolean myExclusiveLockPublished;
+
+    /**
+     * A shared lock that was created for a resource, but lost the race to be inserted into the global lock map. Since
+     * no one else has seen it, it is kept for the next resource that we need a new shared lock for.
+     */
+    private SharedLock spareSharedLock;
+
     private volatile boolean hasLocks;
 
     private final ReleaseExclusiveLocksAndClearSharedVisitor releaseExclusiveAndClearSharedVisitor =
@@ -135,18 +143,37 @@ public class ForsetiClient implements Locks.Client {
      */
     private volatile ForsetiLockManager.Lock waitingForLock;
 
+    /**
+     * Detects deadlocks in the background if enabled, otherwise {@code null} and we look for deadlocks ourselves while
+     * waiting for locks.
+     */
+    private final ForsetiDeadlockDetector deadlockDetector;
+
+    private volatile boolean registeredWithDeadlockDetector;
+
+    /**
+     * Set by the {@link #deadlockDetector} to the lock we were waiting for when it found us in a deadlock.
+     */
+    private volatile ForsetiLockManager.Lock deadlockedOn;
+
+    /**
+     * Scratch space for acquiring many exclusive locks at once, created on first use.
+     */
+    private LockTable.BatchBuffers batchBuffers;
+
     private volatile long transactionId;
     private final long clientId;
     private volatile DeferredScopedMemoryTracker memoryTracker;
-    private static final long CONCURRENT_NODE_SIZE = HeapEstimator.LONG_SIZE + HeapEstimator.HASH_MAP_NODE_SHALLOW_SIZE;
     private volatile long prepareThreadId;
 
     public ForsetiClient(
-            ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps,
+            LockTable[] lockMaps,
             SystemNanoClock clock,
             boolean verboseDeadlocks,
-            long clientId) {
+            long clientId,
+            ForsetiDeadlockDetector deadlockDetector) {
         this.lockMaps = lockMaps;
+        this.deadlockDetector = deadlockDetector;
         this.sharedLockCounts = new HeapTrackingLongIntHashMap[lockMaps.length];
         this.exclusiveLockCounts = new HeapTrackingLongIntHashMap[lockMaps.length];
         this.clock = clock;
@@ -159,10 +186,16 @@ public class ForsetiClient implements Locks.Client {
         prepareThreadId = -1;
         stateHolder.reset();
         this.transactionId = transactionId;
+        this.deadlockedOn = null;
         this.memoryTracker = new DeferredScopedMemoryTracker(requireNonNull(memoryTracker));
         this.lockAcquisitionTimeoutNano =
                 config.get(GraphDatabaseSettings.lock_acquisition_timeout).toNanos();
-        this.myExclusiveLock = new ExclusiveLock(this);
+        if (myExclusiveLock == null || myExclusiveLockPublished) {
+            this.myExclusiveLock = new ExclusiveLock(this);
+            this.myExclusiveLockPublished = false;
+        } else {
+            myExclusiveLock.reopen();
+        }
     }
 
     @Override
@@ -174,7 +207,7 @@ public class ForsetiClient implements Locks.Client {
 
         try {
             // Grab the global lock map we will be using
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockMaps[resourceType.typeId()];
 
             // And grab our local lock maps
             HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount(resourceType);
@@ -198,7 +231,7 @@ public class ForsetiClient implements Locks.Client {
                     continue;
                 }
 
-                memoryTracker.allocateHeap(CONCURRENT_NODE_SIZE);
+                memoryTracker.allocateHeap(LockTable.ENTRY_SIZE);
 
                 // We don't hold the lock, so we need to grab it via the global lock map
                 int tries = 0;
@@ -216,11 +249,12 @@ public class ForsetiClient implements Locks.Client {
                     if (existingLock == null) {
                         // Try to create a new shared lock
                         if (mySharedLock == null) {
-                            mySharedLock = new SharedLock(this);
+                            mySharedLock = newSharedLock();
                         }
 
                         if (lockMap.putIfAbsent(resourceId, mySharedLock) == null) {
                             // Success, we now hold the shared lock.
+                            mySharedLock = null;
                             break;
                         } else {
                             continue;
@@ -248,6 +282,9 @@ public class ForsetiClient implements Locks.Client {
                     // And take note of who we are waiting for. This is used for deadlock detection.
                     waitFor(existingLock, resourceType, resourceId, tries++);
                 }
+                if (mySharedLock != null) {
+                    spareSharedLock = mySharedLock;
+                }
 
                 // Make a local note about the fact that we now hold this lock
                 activeLockCount.incrementAndGet();
@@ -263,6 +300,15 @@ public class ForsetiClient implements Locks.Client {
         }
     }
 
+    private SharedLock newSharedLock() {
+        SharedLock sharedLock = spareSharedLock;
+        if (sharedLock == null) {
+            return new SharedLock(this);
+        }
+        spareSharedLock = null;
+        return sharedLock;
+    }
+
     private HeapTrackingLongIntHashMap getSharedLockCount(ResourceType resourceType) {
         HeapTrackingLongIntHashMap sharedLockCount = sharedLockCounts[resourceType.typeId()];
         if (sharedLockCount == null) {
@@ -289,10 +335,18 @@ public class ForsetiClient implements Locks.Client {
         LockWaitEvent waitEvent = null;
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldLocks = getExclusiveLockCount(resourceType);
+            long[] remainingIds = resourceIds;
+            int remainingCount = resourceIds.length;
+            if (resourceIds.length >= LockTable.BATCH_THRESHOLD) {
+                LockTable.BatchBuffers batch = batchBuffers(resourceIds.length);
+                remainingCount = acquireUncontendedExclusive(lockMap, heldLocks, resourceIds, batch);
+                remainingIds = batch.sortedResourceIds;
+            }
 
-            for (long resourceId : resourceIds) {
+            for (int i = 0; i < remainingCount; i++) {
+                long resourceId = remainingIds[i];
                 int heldCount = heldLocks.getIfAbsent(resourceId, NO_CLIENT_ID);
                 if (heldCount != NO_CLIENT_ID) {
                     // We already have a lock on this, just increment our local reference counter.
@@ -300,12 +354,13 @@ public class ForsetiClient implements Locks.Client {
                     continue;
                 }
 
-                memoryTracker.allocateHeap(CONCURRENT_NODE_SIZE);
+                memoryTracker.allocateHeap(LockTable.ENTRY_SIZE);
                 // Grab the global lock
                 ForsetiLockManager.Lock existingLock;
                 int tries = 0;
                 long waitStartNano = clock.nanos();
                 boolean upgraded = false;
+                myExclusiveLockPublished = true;
                 while ((existingLock = lockMap.putIfAbsent(resourceId, myExclusiveLock)) != null) {
                     assertValid(waitStartNano, resourceType, resourceId);
 
@@ -329,7 +384,7 @@ public class ForsetiClient implements Locks.Client {
 
                 if (upgraded) {
                     // return this memory in case of upgrade as shared lock already tracks it
-                    memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+                    memoryTracker.releaseHeap(LockTable.ENTRY_SIZE);
                 } else {
                     activeLockCount.incrementAndGet();
                 }
@@ -345,13 +400,84 @@ public class ForsetiClient implements Locks.Client {
         }
     }
 
+    /**
+     * Batch path for acquiring many exclusive locks at once. The resources are sorted, so that they are locked in
+     * the same order as everyone else locks them, and the ones that nobody holds a lock on are put in the lock map in
+     * one pass, see {@link LockTable#putIfAbsentAll}. We must not hold locks on resources after a contended one while
+     * we wait for it, so those are given back and left to the regular path along with the contended resource.
+     *
+     * @return the number of resources still to be acquired one by one, which are left in order at the start of
+     * {@link LockTable.BatchBuffers#sortedResourceIds}.
+     */
+    private int acquireUncontendedExclusive(
+            LockTable lockMap, HeapTrackingLongIntHashMap heldLocks, long[] resourceIds, LockTable.BatchBuffers batch) {
+        int count = resourceIds.length;
+        long[] sorted = batch.sortedResourceIds;
+        System.arraycopy(resourceIds, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+
+        // Resources we already hold, and repeated resources, only bump the local reference count later
+        long[] candidates = batch.resourceIds;
+        int candidateCount = 0;
+        for (int i = 0; i < count; i++) {
+            long resourceId = sorted[i];
+            if ((candidateCount == 0 || candidates[candidateCount - 1] != resourceId)
+                    && !heldLocks.containsKey(resourceId)) {
+                candidates[candidateCount++] = resourceId;
+            }
+        }
+        if (candidateCount == 0) {
+            return count;
+        }
+
+        memoryTracker.allocateHeap(candidateCount * LockTable.ENTRY_SIZE);
+        myExclusiveLockPublished = true;
+        lockMap.putIfAbsentAll(batch, candidateCount, myExclusiveLock);
+        boolean[] inserted = batch.inserted;
+        int acquired = 0;
+        while (acquired < candidateCount && inserted[acquired]) {
+            acquired++;
+        }
+        for (int i = acquired + 1; i < candidateCount; i++) {
+            if (inserted[i]) {
+                lockMap.remove(candidates[i]);
+            }
+        }
+        memoryTracker.releaseHeap((candidateCount - acquired) * LockTable.ENTRY_SIZE);
+
+        for (int i = 0; i < acquired; i++) {
+            heldLocks.put(candidates[i], 1);
+        }
+        activeLockCount.addAndGet(acquired);
+
+        // Everything but the first occurrence of each acquired resource, both are sorted so this can be done in place
+        int remainingCount = 0;
+        int acquiredIndex = 0;
+        for (int i = 0; i < count; i++) {
+            long resourceId = sorted[i];
+            if (acquiredIndex < acquired && candidates[acquiredIndex] == resourceId) {
+                acquiredIndex++;
+            } else {
+                sorted[remainingCount++] = resourceId;
+            }
+        }
+        return remainingCount;
+    }
+
+    private LockTable.BatchBuffers batchBuffers(int size) {
+        if (batchBuffers == null) {
+            batchBuffers = new LockTable.BatchBuffers();
+        }
+        return batchBuffers.forSize(size);
+    }
+
     @Override
     public boolean tryExclusiveLock(ResourceType resourceType, long resourceId) {
         hasLocks = true;
         stateHolder.incrementActiveClients(this);
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldLocks = getExclusiveLockCount(resourceType);
 
             int heldCount = heldLocks.getIfAbsent(resourceId, NO_CLIENT_ID);
@@ -361,9 +487,10 @@ public class ForsetiClient implements Locks.Client {
                 return true;
             }
 
-            memoryTracker.allocateHeap(CONCURRENT_NODE_SIZE);
+            memoryTracker.allocateHeap(LockTable.ENTRY_SIZE);
             // Grab the global lock
             ForsetiLockManager.Lock lock;
+            myExclusiveLockPublished = true;
             if ((lock = lockMap.putIfAbsent(resourceId, myExclusiveLock)) != null) {
                 if (lock instanceof SharedLock sharedLock
                         && getSharedLockCount(resourceType).containsKey(resourceId)) {
@@ -373,12 +500,12 @@ public class ForsetiClient implements Locks.Client {
                             return true;
                         } else {
                             sharedLock.releaseUpdateLock();
-                            memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+                            memoryTracker.releaseHeap(LockTable.ENTRY_SIZE);
                             return false;
                         }
                     }
                 }
-                memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+                memoryTracker.releaseHeap(LockTable.ENTRY_SIZE);
                 return false;
             }
 
@@ -396,7 +523,7 @@ public class ForsetiClient implements Locks.Client {
         stateHolder.incrementActiveClients(this);
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount(resourceType);
             HeapTrackingLongIntHashMap heldExclusiveLocks = getExclusiveLockCount(resourceType);
 
@@ -414,7 +541,7 @@ public class ForsetiClient implements Locks.Client {
                 return true;
             }
 
-            memoryTracker.allocateHeap(CONCURRENT_NODE_SIZE);
+            memoryTracker.allocateHeap(LockTable.ENTRY_SIZE);
             long waitStartNano = clock.nanos();
             while (true) {
                 assertValid(waitStartNano, resourceType, resourceId);
@@ -422,10 +549,12 @@ public class ForsetiClient implements Locks.Client {
                 ForsetiLockManager.Lock existingLock = lockMap.get(resourceId);
                 if (existingLock == null) {
                     // Try to create a new shared lock
-                    if (lockMap.putIfAbsent(resourceId, new SharedLock(this)) == null) {
+                    SharedLock mySharedLock = newSharedLock();
+                    if (lockMap.putIfAbsent(resourceId, mySharedLock) == null) {
                         // Success!
                         break;
                     }
+                    spareSharedLock = mySharedLock;
                 } else if (existingLock instanceof SharedLock) {
                     // Note that there is a "safe" race here where someone may be releasing the last reference to a lock
                     // and thus removing that lock instance (making it unacquirable). In this case, we allow retrying,
@@ -434,11 +563,11 @@ public class ForsetiClient implements Locks.Client {
                         // Success!
                         break;
                     } else if (((SharedLock) existingLock).isUpdateLock()) {
-                        memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+                        memoryTracker.releaseHeap(LockTable.ENTRY_SIZE);
                         return false;
                     }
                 } else if (existingLock instanceof ExclusiveLock) {
-                    memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+                    memoryTracker.releaseHeap(LockTable.ENTRY_SIZE);
                     return false;
                 } else {
                     throw new UnsupportedOperationException("Unknown lock type: " + existingLock);
@@ -459,7 +588,7 @@ public class ForsetiClient implements Locks.Client {
         try {
             HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount(resourceType);
             HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount(resourceType);
-            ConcurrentMap<Long, ForsetiLockManager.Lock> resourceTypeLocks = lockMaps[resourceType.typeId()];
+            LockTable resourceTypeLocks = lockMaps[resourceType.typeId()];
             for (long resourceId : resourceIds) {
                 if (releaseLocalLock(resourceType, resourceId, sharedLocks)) {
                     continue;
@@ -479,7 +608,7 @@ public class ForsetiClient implements Locks.Client {
         stateHolder.incrementActiveClients(this);
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> resourceTypeLocks = lockMaps[resourceType.typeId()];
+            LockTable resourceTypeLocks = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount(resourceType);
             HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount(resourceType);
             for (long resourceId : resourceIds) {
@@ -499,8 +628,7 @@ public class ForsetiClient implements Locks.Client {
                         }
                     } else {
                         // in case if current lock is exclusive we swap it to new shared lock
-                        SharedLock sharedLock = new SharedLock(this);
-                        resourceTypeLocks.put(resourceId, sharedLock);
+                        resourceTypeLocks.put(resourceId, newSharedLock());
                     }
                 } else {
                     // we do not hold shared lock so we just releasing it
@@ -605,7 +733,7 @@ public class ForsetiClient implements Locks.Client {
         List<ActiveLock> locks = new ArrayList<>();
         for (int typeId = 0; typeId < lockMaps.length; typeId++) {
             ResourceType resourceType = ResourceTypes.fromId(typeId);
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[typeId];
+            LockTable lockMap = lockMaps[typeId];
             if (lockMap != null) {
                 lockMap.forEach((resourceId, lock) -> {
                     if (lock.isOwnedBy(this)) {
@@ -619,7 +747,7 @@ public class ForsetiClient implements Locks.Client {
 
     @Override
     public boolean holdsLock(long id, ResourceType resource, LockType lockType) {
-        ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resource.typeId()];
+        LockTable lockMap = lockMaps[resource.typeId()];
         ForsetiLockManager.Lock lock = lockMap.get(id);
         if (lock == null) {
             return false;
@@ -670,15 +798,15 @@ public class ForsetiClient implements Locks.Client {
     }
 
     /** Release a lock from the global pool. */
-    private void releaseGlobalLock(ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap, long resourceId) {
+    private void releaseGlobalLock(LockTable lockMap, long resourceId) {
         ForsetiLockManager.Lock lock = lockMap.get(resourceId);
         if (lock instanceof ExclusiveLock) {
             lockMap.remove(resourceId);
-            memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+            memoryTracker.releaseHeap(LockTable.ENTRY_SIZE);
         } else if (lock instanceof SharedLock && ((SharedLock) lock).release(this)) {
             // We were the last to hold this lock
             lockMap.remove(resourceId);
-            memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+            memoryTracker.releaseHeap(LockTable.ENTRY_SIZE);
         }
         activeLockCount.decrementAndGet();
     }
@@ -705,7 +833,7 @@ public class ForsetiClient implements Locks.Client {
             LockTracer tracer,
             LockWaitEvent waitEvent,
             ResourceType resourceType,
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap,
+            LockTable lockMap,
             long resourceId,
             SharedLock sharedLock,
             long waitStartNano)
@@ -713,10 +841,10 @@ public class ForsetiClient implements Locks.Client {
         int tries = 0;
         boolean holdsSharedLock = getSharedLockCount(resourceType).containsKey(resourceId);
         if (!holdsSharedLock) {
-            memoryTracker.allocateHeap(CONCURRENT_NODE_SIZE);
+            memoryTracker.allocateHeap(LockTable.ENTRY_SIZE);
             // We don't hold the shared lock, we need to grab it to upgrade it to an exclusive one
             if (!sharedLock.acquire(this)) {
-                memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+                memoryTracker.releaseHeap(LockTable.ENTRY_SIZE);
                 return false;
             }
             activeLockCount.incrementAndGet();
@@ -787,6 +915,10 @@ public class ForsetiClient implements Locks.Client {
     private void waitFor(ForsetiLockManager.Lock lock, ResourceType type, long resourceId, int tries) {
         waitingForLock = lock;
         clearAndCopyWaitList(lock);
+        if (deadlockDetector != null) {
+            waitForWithBackgroundDeadlockDetection(lock, type, resourceId, tries);
+            return;
+        }
         incrementalBackoffWait(tries);
 
         ForsetiClient clientId = lock.detectDeadlock(this);
@@ -798,34 +930,94 @@ public class ForsetiClient implements Locks.Client {
             // is that the Lock.collectOwners, which is algorithm relies upon, is inherently racy, and so only
             // reduces the probably of a false positive, but does not eliminate them.
             if (tries > 100 && isDeadlockReal(lock)) {
-                String message = this + " can't acquire " + lock + " on " + type + "(" + resourceId
-                        + "), because holders of that lock "
-                        + "are waiting for "
-                        + this + ".\n Wait list:" + lock.describeWaitList();
-                if (verboseDeadlocks) {
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(" All locks:[");
-                    for (int i = 0; i < lockMaps.length; i++) {
-                        sb.append(ResourceTypes.fromId(i)).append("[");
-                        sb.append(lockMaps[i]).append("]");
-                    }
-                    sb.append("]");
-                    message += sb.toString();
-                }
                 // After checking several times, this really does look like a real deadlock.
-                throw new DeadlockDetectedException(message);
+                throw new DeadlockDetectedException(deadlockMessage(lock, type, resourceId));
             }
             Thread.yield();
         } else if ((tries & 8191) == 8191) // Each try sleeps for up to 1ms, so 8k tries will be every ~8s
         {
-            for (ForsetiClient client : waitList) {
-                if (clientCommittingByCurrentThread(client) && isDeadlockReal(lock)) {
-                    String message = this + " can't acquire " + lock + " on " + type + "(" + resourceId
-                            + "), because we are waiting for " + client + " that is committing on the same thread";
-                    throw new DeadlockDetectedException(message);
-                }
+            assertNotWaitingForClientCommittingOnThisThread(lock, type, resourceId);
+        }
+    }
+
+    /**
+     * Waits without searching for wait cycles, that is left to the {@link #deadlockDetector}. We only register as a
+     * waiter and check whether the detector has picked us as the victim of a deadlock.
+     */
+    private void waitForWithBackgroundDeadlockDetection(
+            ForsetiLockManager.Lock lock, ResourceType type, long resourceId, int tries) {
+        // Must come after setting waitingForLock, see unregisteredFromDeadlockDetector
+        if (!registeredWithDeadlockDetector) {
+            registeredWithDeadlockDetector = true;
+            deadlockDetector.register(this);
+        }
+        incrementalBackoffWait(tries);
+
+        ForsetiLockManager.Lock deadlocked = deadlockedOn;
+        if (deadlocked != null) {
+            deadlockedOn = null;
+            // The detector may have been late, and we have moved on to wait for another lock since
+            if (deadlocked == lock) {
+                throw new DeadlockDetectedException(deadlockMessage(lock, type, resourceId));
+            }
+        }
+        if ((tries & 8191) == 8191) {
+            // A client committing on our thread isn't waiting, so the detector can't see this one
+            assertNotWaitingForClientCommittingOnThisThread(lock, type, resourceId);
+        }
+    }
+
+    private void assertNotWaitingForClientCommittingOnThisThread(
+            ForsetiLockManager.Lock lock, ResourceType type, long resourceId) {
+        for (ForsetiClient client : waitList) {
+            if (clientCommittingByCurrentThread(client) && isDeadlockReal(lock)) {
+                String message = this + " can't acquire " + lock + " on " + type + "(" + resourceId
+                        + "), because we are waiting for " + client + " that is committing on the same thread";
+                throw new DeadlockDetectedException(message);
+            }
+        }
+    }
+
+    private String deadlockMessage(ForsetiLockManager.Lock lock, ResourceType type, long resourceId) {
+        String message = this + " can't acquire " + lock + " on " + type + "(" + resourceId
+                + "), because holders of that lock "
+                + "are waiting for "
+                + this + ".\n Wait list:" + lock.describeWaitList();
+        if (verboseDeadlocks) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(" All locks:[");
+            for (int i = 0; i < lockMaps.length; i++) {
+                sb.append(ResourceTypes.fromId(i)).append("[");
+                sb.append(lockMaps[i]).append("]");
             }
+            sb.append("]");
+            message += sb.toString();
+        }
+        return message;
+    }
+
+    ForsetiLockManager.Lock waitingForLock() {
+        return waitingForLock;
+    }
+
+    /**
+     * Called by the {@link #deadlockDetector} after it dropped this client from its waiters, because it saw it not
+     * waiting. Together with registering after setting {@link #waitingForLock} this makes sure that a client that
+     * starts waiting concurrently stays registered.
+     *
+     * @return {@code true} if the client is waiting again and needs to be registered.
+     */
+    boolean unregisteredFromDeadlockDetector() {
+        registeredWithDeadlockDetector = false;
+        if (waitingForLock != null) {
+            registeredWithDeadlockDetector = true;
+            return true;
         }
+        return false;
+    }
+
+    void deadlockDetected(ForsetiLockManager.Lock lock) {
+        deadlockedOn = lock;
     }
 
     @VisibleForTesting
@@ -988,9 +1180,9 @@ public class ForsetiClient implements Locks.Client {
      * is no need to check for those. It is used when releasing all locks.
      */
     private class ReleaseSharedDontCheckExclusiveVisitor implements LongProcedure {
-        private ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap;
+        private LockTable lockMap;
 
-        private LongProcedure initialize(ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap) {
+        private LongProcedure initialize(LockTable lockMap) {
             this.lockMap = lockMap;
             return this;
         }
@@ -1007,10 +1199,9 @@ public class ForsetiClient implements Locks.Client {
      */
     private class ReleaseExclusiveLocksAndClearSharedVisitor implements LongProcedure {
         private HeapTrackingLongIntHashMap sharedLockCounts;
-        private ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap;
+        private LockTable lockMap;
 
-        private LongProcedure initialize(
-                HeapTrackingLongIntHashMap sharedLockCounts, ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap) {
+        private LongProcedure initialize(HeapTrackingLongIntHashMap sharedLockCounts, LockTable lockMap) {
             this.sharedLockCounts = sharedLockCounts;
             this.lockMap = lockMap;
             return this;
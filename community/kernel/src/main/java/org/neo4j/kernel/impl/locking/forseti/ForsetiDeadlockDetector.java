@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+/**
+ * Finds deadlocks between {@link ForsetiClient}s in a recurring background job, so that waiting clients don't have to walk
+ * the lock owners themselves on every wait iteration.
+ * <p>
+ * Clients register with the detector when they start waiting for a lock. Each round the detector builds a wait-for
+ * graph from the registered clients, where a client has an edge to every other owner of the lock it waits for, and
+ * searches it for cycles. From each cycle the client that would be aborted by {@link ForsetiClient}'s own deadlock
+ * detection, the one holding the fewest locks, is picked as victim. Since the owners of a lock are collected racily,
+ * a victim is only told about the deadlock when it is found waiting for the same lock in two consecutive rounds.
+ * The victim notices this the next time it checks in its wait loop, and fails with a
+ * {@link org.neo4j.kernel.DeadlockDetectedException}.
+ */
+class ForsetiDeadlockDetector {
+    private final Set<ForsetiClient> waiters = ConcurrentHashMap.newKeySet();
+    private final JobScheduler jobScheduler;
+    private final long intervalNanos;
+    private Map<ForsetiClient, ForsetiLockManager.Lock> suspectedVictims = new HashMap<>();
+    private JobHandle<?> job;
+
+    ForsetiDeadlockDetector(JobScheduler jobScheduler, Duration interval) {
+        this.jobScheduler = jobScheduler;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    void start() {
+        job = jobScheduler.scheduleRecurring(
+                Group.LOCK_MANAGER,
+                systemJob("Forseti deadlock detection"),
+                this::detectDeadlocks,
+                intervalNanos,
+                intervalNanos,
+                NANOSECONDS);
+    }
+
+    void stop() {
+        if (job != null) {
+            job.cancel();
+        }
+    }
+
+    void register(ForsetiClient client) {
+        waiters.add(client);
+    }
+
+    /**
+     * One round of deadlock detection.
+     */
+    void detectDeadlocks() {
+        Map<ForsetiClient, ForsetiLockManager.Lock> waitingFor = new HashMap<>();
+        Map<ForsetiClient, Set<ForsetiClient>> waitsForClients = new HashMap<>();
+        for (ForsetiClient waiter : waiters) {
+            ForsetiLockManager.Lock lock = waiter.waitingForLock();
+            if (lock == null) {
+                waiters.remove(waiter);
+                if (waiter.unregisteredFromDeadlockDetector()) {
+                    // It started waiting again while we dropped it
+                    waiters.add(waiter);
+                }
+                continue;
+            }
+            if (lock.isClosed()) {
+                continue;
+            }
+            Set<ForsetiClient> owners = new HashSet<>();
+            lock.collectOwners(owners);
+            // Waiting for a lock we hold ourselves, i.e. an upgrade, isn't an edge in the wait-for graph
+            owners.removeIf(owner -> owner.getTransactionId() == waiter.getTransactionId());
+            if (!owners.isEmpty()) {
+                waitingFor.put(waiter, lock);
+                waitsForClients.put(waiter, owners);
+            }
+        }
+
+        Map<ForsetiClient, ForsetiLockManager.Lock> victims = new HashMap<>();
+        List<ForsetiClient> cycle;
+        while ((cycle = findCycle(waitsForClients)) != null) {
+            ForsetiClient victim = chooseVictim(cycle);
+            victims.put(victim, waitingFor.get(victim));
+            // Aborting the victim breaks this cycle, look for cycles that don't go through it
+            waitsForClients.remove(victim);
+        }
+
+        victims.forEach((victim, lock) -> {
+            if (suspectedVictims.get(victim) == lock && victim.waitingForLock() == lock) {
+                victim.deadlockDetected(lock);
+            }
+        });
+        suspectedVictims = victims;
+    }
+
+    /**
+     * The client with the fewest held locks is aborted, and among those the one with the highest transaction id,
+     * same as {@link ForsetiClient} picks when detecting deadlocks itself.
+     */
+    private static ForsetiClient chooseVictim(List<ForsetiClient> cycle) {
+        ForsetiClient victim = cycle.get(0);
+        for (int i = 1; i < cycle.size(); i++) {
+            ForsetiClient candidate = cycle.get(i);
+            long candidateLocks = candidate.activeLockCount();
+            long victimLocks = victim.activeLockCount();
+            if (candidateLocks < victimLocks
+                    || (candidateLocks == victimLocks && candidate.getTransactionId() > victim.getTransactionId())) {
+                victim = candidate;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Depth first search for a cycle in the wait-for graph.
+     *
+     * @return the clients of a cycle, or {@code null} if there are no cycles.
+     */
+    private static List<ForsetiClient> findCycle(Map<ForsetiClient, Set<ForsetiClient>> waitsForClients) {
+        Set<ForsetiClient> visited = new HashSet<>();
+        for (ForsetiClient start : waitsForClients.keySet()) {
+            if (!visited.add(start)) {
+                continue;
+            }
+            Deque<ForsetiClient> path = new ArrayDeque<>();
+            Deque<Iterator<ForsetiClient>> pathEdges = new ArrayDeque<>();
+            Set<ForsetiClient> onPath = new HashSet<>();
+            path.push(start);
+            pathEdges.push(waitsForClients.get(start).iterator());
+            onPath.add(start);
+            while (!path.isEmpty()) {
+                Iterator<ForsetiClient> edges = pathEdges.peek();
+                if (!edges.hasNext()) {
+                    onPath.remove(path.pop());
+                    pathEdges.pop();
+                    continue;
+                }
+                ForsetiClient next = edges.next();
+                if (onPath.contains(next)) {
+                    List<ForsetiClient> cycle = new ArrayList<>();
+                    for (ForsetiClient client : path) {
+                        cycle.add(client);
+                        if (client.equals(next)) {
+                            break;
+                        }
+                    }
+                    return cycle;
+                }
+                Set<ForsetiClient> nextEdges = waitsForClients.get(next);
+                if (nextEdges != null && visited.add(next)) {
+                    path.push(next);
+                    pathEdges.push(nextEdges.iterator());
+                    onPath.add(next);
+                }
+            }
+        }
+        return null;
+    }
+}
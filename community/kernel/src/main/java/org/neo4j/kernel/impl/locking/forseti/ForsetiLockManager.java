@@ -19,10 +19,7 @@
  */
 package org.neo4j.kernel.impl.locking.forseti;
 
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.collections.api.set.primitive.LongSet;
 import org.neo4j.configuration.Config;
@@ -30,6 +27,7 @@ import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.lock.LockType;
 import org.neo4j.lock.ResourceType;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.time.SystemNanoClock;
 
 /**
@@ -151,7 +149,7 @@ public class ForsetiLockManager implements Locks {
     }
 
     /** Pointers to lock maps, one array per resource type. */
-    private final ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps;
+    private final LockTable[] lockMaps;
 
     /** Reverse lookup resource types by id, used for introspection */
     private final ResourceType[] resourceTypes;
@@ -161,20 +159,38 @@ public class ForsetiLockManager implements Locks {
 
     private final SystemNanoClock clock;
     private final boolean verboseDeadlocks;
+    private final ForsetiDeadlockDetector deadlockDetector;
     private volatile boolean closed;
 
-    @SuppressWarnings("unchecked")
     public ForsetiLockManager(Config config, SystemNanoClock clock, ResourceType... resourceTypes) {
+        this(config, clock, null, resourceTypes);
+    }
+
+    /**
+     * @param jobScheduler scheduler for the background deadlock detection, or {@code null} to always have waiting
+     * clients detect deadlocks themselves.
+     */
+    public ForsetiLockManager(
+            Config config, SystemNanoClock clock, JobScheduler jobScheduler, ResourceType... resourceTypes) {
         int maxResourceId = findMaxResourceId(resourceTypes);
-        this.lockMaps = new ConcurrentMap[maxResourceId];
+        this.lockMaps = new LockTable[maxResourceId];
         this.resourceTypes = new ResourceType[maxResourceId];
 
         for (ResourceType type : resourceTypes) {
-            this.lockMaps[type.typeId()] = new ConcurrentHashMap<>(16, 0.6f, 512);
+            this.lockMaps[type.typeId()] = new LockTable();
             this.resourceTypes[type.typeId()] = type;
         }
         this.clock = clock;
         this.verboseDeadlocks = config.get(GraphDatabaseInternalSettings.lock_manager_verbose_deadlocks);
+        if (jobScheduler != null
+                && config.get(GraphDatabaseInternalSettings.lock_manager_background_deadlock_detection)) {
+            this.deadlockDetector = new ForsetiDeadlockDetector(
+                    jobScheduler,
+                    config.get(GraphDatabaseInternalSettings.lock_manager_background_deadlock_detection_interval));
+            this.deadlockDetector.start();
+        } else {
+            this.deadlockDetector = null;
+        }
     }
 
     /**
@@ -186,7 +202,7 @@ public class ForsetiLockManager implements Locks {
             throw new IllegalStateException(this + " already closed");
         }
 
-        return new ForsetiClient(lockMaps, clock, verboseDeadlocks, clientIds.incrementAndGet());
+        return new ForsetiClient(lockMaps, clock, verboseDeadlocks, clientIds.incrementAndGet(), deadlockDetector);
     }
 
     @Override
@@ -194,14 +210,13 @@ public class ForsetiLockManager implements Locks {
         for (int i = 0; i < lockMaps.length; i++) {
             if (lockMaps[i] != null) {
                 var resourceType = resourceTypes[i];
-                for (Map.Entry<Long, Lock> entry : lockMaps[i].entrySet()) {
-                    var lock = entry.getValue();
+                lockMaps[i].forEach((resourceId, lock) -> {
                     var description = lock.describeWaitList();
                     var transactionIds = lock.transactionIds();
                     int lockIdentityHashCode = System.identityHashCode(lock);
                     transactionIds.forEach(txId -> out.visit(
-                            lock.type(), resourceType, txId, entry.getKey(), description, 0, lockIdentityHashCode));
-                }
+                            lock.type(), resourceType, txId, resourceId, description, 0, lockIdentityHashCode));
+                });
             }
         }
     }
@@ -217,5 +232,8 @@ public class ForsetiLockManager implements Locks {
     @Override
     public void close() {
         this.closed = true;
+        if (deadlockDetector != null) {
+            deadlockDetector.stop();
+        }
     }
 }
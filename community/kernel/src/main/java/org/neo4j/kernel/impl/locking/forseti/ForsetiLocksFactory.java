@@ -24,6 +24,7 @@ import org.neo4j.configuration.Config;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.locking.LocksFactory;
 import org.neo4j.lock.ResourceTypes;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.time.SystemNanoClock;
 
 @ServiceProvider
@@ -41,7 +42,7 @@ public class ForsetiLocksFactory implements LocksFactory {
     }
 
     @Override
-    public Locks newInstance(Config config, SystemNanoClock clock) {
-        return new ForsetiLockManager(config, clock, ResourceTypes.values());
+    public Locks newInstance(Config config, SystemNanoClock clock, JobScheduler jobScheduler) {
+        return new ForsetiLockManager(config, clock, jobScheduler, ResourceTypes.values());
     }
 }
@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_BOOLEAN_ARRAY;
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_INT_ARRAY;
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_LONG_ARRAY;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import org.neo4j.memory.HeapEstimator;
+
+/**
+ * The global map from resource id to {@link ForsetiLockManager.Lock} for one resource type.
+ * <p>
+ * Resource ids are kept as primitive longs in open addressing tables, so that looking up, inserting and removing a
+ * lock doesn't box the resource id or allocate a map node. The table is split into stripes by the hash of the
+ * resource id, each guarded by its own {@link StampedLock}. Lookups are optimistic and only take the read lock of
+ * the stripe if they race with a modification of it.
+ */
+class LockTable {
+    /**
+     * Heap used per lock in the table. A stripe is never more than half full, so each lock accounts for two slots.
+     */
+    static final long ENTRY_SIZE = 2 * (HeapEstimator.LONG_SIZE + HeapEstimator.OBJECT_REFERENCE_BYTES);
+
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPE_COUNT = 1 << STRIPE_BITS;
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+    /**
+     * Fewest resources worth a {@link #putIfAbsentAll}. With fewer there are hardly any resources sharing a stripe,
+     * so the batch would take about as many stripe locks as putting them one by one, on top of sorting and grouping.
+     * At half the number of stripes around a fifth of the resources share a stripe with another one.
+     */
+    static final int BATCH_THRESHOLD = STRIPE_COUNT / 2;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    LockTable() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    ForsetiLockManager.Lock get(long resourceId) {
+        long hash = hash(resourceId);
+        return stripe(hash).get(resourceId, hash);
+    }
+
+    /**
+     * @return the lock already mapped to the resource, or {@code null} if {@code lock} was inserted.
+     */
+    ForsetiLockManager.Lock putIfAbsent(long resourceId, ForsetiLockManager.Lock lock) {
+        long hash = hash(resourceId);
+        return stripe(hash).put(resourceId, hash, lock, true);
+    }
+
+    /**
+     * Inserts {@code lock} for each of the first {@code count} {@link BatchBuffers#resourceIds} of {@code batch} that
+     * doesn't have a lock yet, and sets {@link BatchBuffers#inserted} to whether it did. The resources are grouped by
+     * stripe, so that the lock of each stripe is taken at most once.
+     */
+    void putIfAbsentAll(BatchBuffers batch, int count, ForsetiLockManager.Lock lock) {
+        long[] resourceIds = batch.resourceIds;
+        long[] hashes = batch.hashes;
+        int[] byStripe = batch.byStripe;
+        int[] stripeStarts = batch.stripeStarts;
+        int[] stripeEnds = batch.stripeEnds;
+        Arrays.fill(stripeStarts, 0);
+        for (int i = 0; i < count; i++) {
+            hashes[i] = hash(resourceIds[i]);
+            stripeStarts[stripeIndex(hashes[i]) + 1]++;
+        }
+        for (int s = 0; s < STRIPE_COUNT; s++) {
+            stripeStarts[s + 1] += stripeStarts[s];
+        }
+        System.arraycopy(stripeStarts, 0, stripeEnds, 0, STRIPE_COUNT + 1);
+        for (int i = 0; i < count; i++) {
+            byStripe[stripeEnds[stripeIndex(hashes[i])]++] = i;
+        }
+
+        boolean[] inserted = batch.inserted;
+        for (int s = 0; s < STRIPE_COUNT; s++) {
+            int from = stripeStarts[s];
+            int to = stripeStarts[s + 1];
+            if (from == to) {
+                continue;
+            }
+            Stripe stripe = stripes[s];
+            long stamp = stripe.writeLock();
+            try {
+                for (int j = from; j < to; j++) {
+                    int i = byStripe[j];
+                    inserted[i] = stripe.putLocked(resourceIds[i], hashes[i], lock, true) == null;
+                }
+            } finally {
+                stripe.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * @return the lock previously mapped to the resource, or {@code null} if there was none.
+     */
+    ForsetiLockManager.Lock put(long resourceId, ForsetiLockManager.Lock lock) {
+        long hash = hash(resourceId);
+        return stripe(hash).put(resourceId, hash, lock, false);
+    }
+
+    /**
+     * @return the removed lock, or {@code null} if there was no lock for the resource.
+     */
+    ForsetiLockManager.Lock remove(long resourceId) {
+        long hash = hash(resourceId);
+        return stripe(hash).remove(resourceId, hash);
+    }
+
+    /**
+     * Visits a snapshot of the locks in the table. Each stripe is copied under its read lock and visited after the
+     * lock is released, so the visitor is free to call back into the table.
+     */
+    void forEach(LockVisitor visitor) {
+        for (Stripe stripe : stripes) {
+            stripe.forEach(visitor);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((resourceId, lock) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(resourceId).append('=').append(lock);
+        });
+        return sb.append('}').toString();
+    }
+
+    private Stripe stripe(long hash) {
+        return stripes[stripeIndex(hash)];
+    }
+
+    private static int stripeIndex(long hash) {
+        return (int) (hash >>> (Long.SIZE - STRIPE_BITS));
+    }
+
+    private static long hash(long resourceId) {
+        long hash = resourceId * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    /**
+     * Arrays for batches of resources, kept by a client between its batches so that they don't allocate. A batch
+     * larger than {@link #MAX_RETAINED_CAPACITY} gets arrays of its own, so that one huge batch doesn't pin them.
+     */
+    static final class BatchBuffers {
+        private static final int MAX_RETAINED_CAPACITY = 256;
+
+        private final int[] stripeStarts = new int[STRIPE_COUNT + 1];
+        private final int[] stripeEnds = new int[STRIPE_COUNT + 1];
+        long[] resourceIds = EMPTY_LONG_ARRAY;
+        long[] sortedResourceIds = EMPTY_LONG_ARRAY;
+        boolean[] inserted = EMPTY_BOOLEAN_ARRAY;
+        private long[] hashes = EMPTY_LONG_ARRAY;
+        private int[] byStripe = EMPTY_INT_ARRAY;
+
+        /**
+         * @return buffers that fit a batch of {@code size} resources, these buffers unless the batch is too large to
+         * retain its arrays.
+         */
+        BatchBuffers forSize(int size) {
+            if (size > MAX_RETAINED_CAPACITY) {
+                BatchBuffers buffers = new BatchBuffers();
+                buffers.allocate(size);
+                return buffers;
+            }
+            if (resourceIds.length < size) {
+                allocate(Math.min(Math.max(size, resourceIds.length * 2), MAX_RETAINED_CAPACITY));
+            }
+            return this;
+        }
+
+        private void allocate(int capacity) {
+            resourceIds = new long[capacity];
+            sortedResourceIds = new long[capacity];
+            inserted = new boolean[capacity];
+            hashes = new long[capacity];
+            byStripe = new int[capacity];
+        }
+    }
+
+    @FunctionalInterface
+    interface LockVisitor {
+        void visit(long resourceId, ForsetiLockManager.Lock lock);
+    }
+
+    /**
+     * Linear probing table where a {@code null} value marks a free slot. Removal shifts the following entries of the
+     * probe sequence back, so there are no tombstones and a lookup can stop at the first free slot.
+     */
+    private static final class Stripe extends StampedLock {
+        private long[] keys = new long[INITIAL_STRIPE_CAPACITY];
+        private ForsetiLockManager.Lock[] values = new ForsetiLockManager.Lock[INITIAL_STRIPE_CAPACITY];
+        private int size;
+
+        ForsetiLockManager.Lock get(long resourceId, long hash) {
+            long stamp = tryOptimisticRead();
+            if (stamp != 0) {
+                long[] keys = this.keys;
+                ForsetiLockManager.Lock[] values = this.values;
+                // A racing resize can leave us with arrays from different generations, validation will catch that
+                if (keys.length == values.length) {
+                    ForsetiLockManager.Lock lock = find(keys, values, resourceId, hash);
+                    if (validate(stamp)) {
+                        return lock;
+                    }
+                }
+            }
+
+            stamp = readLock();
+            try {
+                return find(keys, values, resourceId, hash);
+            } finally {
+                unlockRead(stamp);
+            }
+        }
+
+        ForsetiLockManager.Lock put(long resourceId, long hash, ForsetiLockManager.Lock lock, boolean onlyIfAbsent) {
+            long stamp = writeLock();
+            try {
+                return putLocked(resourceId, hash, lock, onlyIfAbsent);
+            } finally {
+                unlockWrite(stamp);
+            }
+        }
+
+        private ForsetiLockManager.Lock putLocked(
+                long resourceId, long hash, ForsetiLockManager.Lock lock, boolean onlyIfAbsent) {
+            int mask = values.length - 1;
+            int slot = (int) hash & mask;
+            ForsetiLockManager.Lock existing;
+            while ((existing = values[slot]) != null) {
+                if (keys[slot] == resourceId) {
+                    if (!onlyIfAbsent) {
+                        values[slot] = lock;
+                    }
+                    return existing;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = resourceId;
+            values[slot] = lock;
+            if (++size > values.length >>> 1) {
+                resize(values.length << 1);
+            }
+            return null;
+        }
+
+        ForsetiLockManager.Lock remove(long resourceId, long hash) {
+            long stamp = writeLock();
+            try {
+                int mask = values.length - 1;
+                int slot = (int) hash & mask;
+                ForsetiLockManager.Lock existing;
+                while ((existing = values[slot]) != null) {
+                    if (keys[slot] == resourceId) {
+                        shiftBack(slot, mask);
+                        if (--size < values.length >>> 3 && values.length > INITIAL_STRIPE_CAPACITY) {
+                            resize(values.length >>> 1);
+                        }
+                        return existing;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                return null;
+            } finally {
+                unlockWrite(stamp);
+            }
+        }
+
+        void forEach(LockVisitor visitor) {
+            long[] keysCopy;
+            ForsetiLockManager.Lock[] valuesCopy;
+            long stamp = readLock();
+            try {
+                if (size == 0) {
+                    return;
+                }
+                keysCopy = new long[size];
+                valuesCopy = new ForsetiLockManager.Lock[size];
+                for (int slot = 0, i = 0; slot < values.length; slot++) {
+                    if (values[slot] != null) {
+                        keysCopy[i] = keys[slot];
+                        valuesCopy[i++] = values[slot];
+                    }
+                }
+            } finally {
+                unlockRead(stamp);
+            }
+            for (int i = 0; i < keysCopy.length; i++) {
+                visitor.visit(keysCopy[i], valuesCopy[i]);
+            }
+        }
+
+        int size() {
+            long stamp = readLock();
+            try {
+                return size;
+            } finally {
+                unlockRead(stamp);
+            }
+        }
+
+        private static ForsetiLockManager.Lock find(
+                long[] keys, ForsetiLockManager.Lock[] values, long resourceId, long hash) {
+            int mask = values.length - 1;
+            int slot = (int) hash & mask;
+            // Bounded by the capacity, since an optimistic reader may observe a table that is being modified
+            for (int probes = 0; probes <= mask; probes++) {
+                ForsetiLockManager.Lock lock = values[slot];
+                if (lock == null) {
+                    return null;
+                }
+                if (keys[slot] == resourceId) {
+                    return lock;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private void shiftBack(int freed, int mask) {
+            int slot = freed;
+            while (true) {
+                slot = (slot + 1) & mask;
+                ForsetiLockManager.Lock lock = values[slot];
+                if (lock == null) {
+                    break;
+                }
+                int home = (int) hash(keys[slot]) & mask;
+                // Move the entry into the freed slot unless its home slot lies cyclically in (freed, slot]
+                boolean reachable = freed <= slot ? freed < home && home <= slot : freed < home || home <= slot;
+                if (!reachable) {
+                    keys[freed] = keys[slot];
+                    values[freed] = lock;
+                    freed = slot;
+                }
+            }
+            values[freed] = null;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            ForsetiLockManager.Lock[] oldValues = values;
+            long[] newKeys = new long[capacity];
+            ForsetiLockManager.Lock[] newValues = new ForsetiLockManager.Lock[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldValues.length; i++) {
+                ForsetiLockManager.Lock lock = oldValues[i];
+                if (lock != null) {
+                    int slot = (int) hash(oldKeys[i]) & mask;
+                    while (newValues[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    newKeys[slot] = oldKeys[i];
+                    newValues[slot] = lock;
+                }
+            }
+            keys = newKeys;
+            values = newValues;
+        }
+    }
+}
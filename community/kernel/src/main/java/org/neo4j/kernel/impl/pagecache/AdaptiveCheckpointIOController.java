@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.checkpoint_adaptive_io_limit_deadline;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.checkpoint_adaptive_io_limit_min_iops;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.checkpoint_adaptive_io_limit_target_log_force_latency;
+import static org.neo4j.configuration.GraphDatabaseSettings.check_point_iops_limit;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.kernel.impl.transaction.stats.TransactionLogCounters;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * An {@link IOController} whose IOPS limit follows the latency of transaction log forces, which is the part of commit
+ * latency that competes with checkpoint IO. The limit is halved while forces are slower than the target latency and
+ * raised by a quarter while they are fast, or while there are no forces at all, but kept between the configured
+ * lowest limit and {@link org.neo4j.configuration.GraphDatabaseSettings#check_point_iops_limit}.
+ * <p>
+ * To not let a checkpoint fall behind forever, the lowest limit is raised gradually towards the highest one during
+ * the second half of the checkpoint deadline, and the limit is lifted entirely when the deadline has passed.
+ */
+public class AdaptiveCheckpointIOController implements IOController {
+    static final long QUANTUM_NANOS = MILLISECONDS.toNanos(100);
+    static final long ADJUSTMENT_INTERVAL_NANOS = MILLISECONDS.toNanos(500);
+    private static final int QUANTUMS_PER_SECOND = 10;
+    private static final int UNLIMITED = Integer.MAX_VALUE;
+    private static final long NOT_IN_CHECKPOINT = -1;
+
+    private final TransactionLogCounters logCounters;
+    private final SystemNanoClock clock;
+    private final LongConsumer pauseNanos;
+    private final int minIOPS;
+    private final long targetLogForceLatencyNanos;
+    private final long deadlineNanos;
+
+    private int maxIOPS;
+    private int limit;
+    private long quantumStartNanos;
+    private long quantumIOs;
+    private long lastAdjustmentNanos;
+    private long adjustmentIntervalIOs;
+    private long lastLogForces;
+    private long lastLogForceNanos;
+    private long checkpointStartNanos = NOT_IN_CHECKPOINT;
+    private long decreases;
+    private long increases;
+
+    public AdaptiveCheckpointIOController(Config config, SystemNanoClock clock, TransactionLogCounters logCounters) {
+        this(
+                config.get(check_point_iops_limit),
+                config.get(checkpoint_adaptive_io_limit_min_iops),
+                config.get(checkpoint_adaptive_io_limit_target_log_force_latency)
+                        .toNanos(),
+                config.get(checkpoint_adaptive_io_limit_deadline).toNanos(),
+                clock,
+                logCounters,
+                LockSupport::parkNanos);
+        config.addListener(check_point_iops_limit, (before, after) -> setMaxIOPS(after));
+    }
+
+    AdaptiveCheckpointIOController(
+            int maxIOPS,
+            int minIOPS,
+            long targetLogForceLatencyNanos,
+            long deadlineNanos,
+            SystemNanoClock clock,
+            TransactionLogCounters logCounters,
+            LongConsumer pauseNanos) {
+        this.minIOPS = minIOPS;
+        this.targetLogForceLatencyNanos = targetLogForceLatencyNanos;
+        this.deadlineNanos = deadlineNanos;
+        this.clock = clock;
+        this.logCounters = logCounters;
+        this.pauseNanos = pauseNanos;
+        setMaxIOPS(maxIOPS);
+        long now = clock.nanos();
+        this.quantumStartNanos = now;
+        this.lastAdjustmentNanos = now;
+        this.lastLogForces = logCounters.numberOfLogForces();
+        this.lastLogForceNanos = logCounters.logForceAccumulatedTotalTimeNanos();
+    }
+
+    @Override
+    public void maybeLimitIO(int recentlyCompletedIOs, FileFlushEvent flushEvent) {
+        long pause;
+        synchronized (this) {
+            long now = clock.nanos();
+            recordIO(recentlyCompletedIOs, now);
+            maybeAdjustLimit(now);
+            int currentLimit = currentLimit(now);
+            if (currentLimit == UNLIMITED || quantumIOs < Math.max(1, currentLimit / QUANTUMS_PER_SECOND)) {
+                return;
+            }
+            pause = quantumStartNanos + QUANTUM_NANOS - now;
+        }
+        if (pause > 0) {
+            pauseNanos.accept(pause);
+            flushEvent.throttle(recentlyCompletedIOs, NANOSECONDS.toMillis(pause));
+        }
+    }
+
+    @Override
+    public synchronized void reportIO(int completedIOs) {
+        recordIO(completedIOs, clock.nanos());
+    }
+
+    @Override
+    public synchronized long configuredLimit() {
+        return limit == UNLIMITED ? -1 : limit;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public synchronized void checkpointStarted() {
+        checkpointStartNanos = clock.nanos();
+        decreases = 0;
+        increases = 0;
+    }
+
+    @Override
+    public synchronized void checkpointCompleted(DatabaseFlushEvent flushEvent) {
+        flushEvent.ioControllerLimit(configuredLimit());
+        flushEvent.ioControllerAdjustments(decreases, increases);
+        checkpointStartNanos = NOT_IN_CHECKPOINT;
+    }
+
+    synchronized void setMaxIOPS(int maxIOPS) {
+        this.maxIOPS = maxIOPS <= 0 ? UNLIMITED : Math.max(maxIOPS, minIOPS);
+        this.limit = this.maxIOPS;
+    }
+
+    private void recordIO(int completedIOs, long now) {
+        if (now - quantumStartNanos >= QUANTUM_NANOS) {
+            quantumStartNanos = now;
+            quantumIOs = 0;
+        }
+        quantumIOs += completedIOs;
+        adjustmentIntervalIOs += completedIOs;
+    }
+
+    private void maybeAdjustLimit(long now) {
+        long elapsedNanos = now - lastAdjustmentNanos;
+        if (elapsedNanos < ADJUSTMENT_INTERVAL_NANOS) {
+            return;
+        }
+        long logForces = logCounters.numberOfLogForces();
+        long logForceNanos = logCounters.logForceAccumulatedTotalTimeNanos();
+        long forces = logForces - lastLogForces;
+        long averageForceNanos = forces > 0 ? (logForceNanos - lastLogForceNanos) / forces : 0;
+        long observedIOPS = adjustmentIntervalIOs * 1_000_000_000L / elapsedNanos;
+        lastLogForces = logForces;
+        lastLogForceNanos = logForceNanos;
+        lastAdjustmentNanos = now;
+        adjustmentIntervalIOs = 0;
+
+        if (averageForceNanos > targetLogForceLatencyNanos) {
+            // Without a limit there is nothing to halve, so start from the rate that was actually observed
+            long base = limit == UNLIMITED ? observedIOPS : limit;
+            int lowered = (int) Math.max(minIOPS, Math.min(base / 2, UNLIMITED - 1));
+            if (lowered < limit) {
+                limit = lowered;
+                decreases++;
+            }
+        } else if (averageForceNanos <= targetLogForceLatencyNanos / 2 && limit < maxIOPS) {
+            long raised = limit + Math.max(1, limit / 4);
+            limit = raised >= maxIOPS ? maxIOPS : (int) raised;
+            increases++;
+        }
+    }
+
+    private int currentLimit(long now) {
+        if (checkpointStartNanos == NOT_IN_CHECKPOINT) {
+            return limit;
+        }
+        long elapsedNanos = now - checkpointStartNanos;
+        if (elapsedNanos >= deadlineNanos) {
+            // Not an adjustment of the limit, which still applies to the next checkpoint
+            return UNLIMITED;
+        }
+        long halfDeadline = deadlineNanos / 2;
+        if (elapsedNanos <= halfDeadline || maxIOPS == UNLIMITED) {
+            return limit;
+        }
+        double progress = (double) (elapsedNanos - halfDeadline) / (deadlineNanos - halfDeadline);
+        int floor = (int) (minIOPS + (maxIOPS - minIOPS) * progress);
+        return Math.max(limit, floor);
+    }
+}
@@ -19,6 +19,12 @@
  */
 package org.neo4j.kernel.impl.pagecache;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_compressed_tier_size;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_eviction_policy;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_flush_threads;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_huge_pages;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_io_uring_enabled;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_numa_policy;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_store_files;
 import static org.neo4j.configuration.SettingValueParsers.BYTES;
@@ -31,11 +37,15 @@ import org.neo4j.configuration.pagecache.ConfigurableIOBufferFactory;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.mem.HugePagePolicy;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaPolicy;
 import org.neo4j.io.os.OsBeanUtil;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.IoUringPageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.EvictionPolicy;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.logging.InternalLog;
@@ -109,22 +119,36 @@ public class ConfiguringPageCacheFactory {
         long pageCacheMaxMemory = getPageCacheMaxMemory(config);
         var memoryPool = memoryPools.pool(PAGE_CACHE, pageCacheMaxMemory, false, null);
         var memoryTracker = memoryPool.getPoolMemoryTracker();
-        var swapperFactory = createAndConfigureSwapperFactory(fs, pageCacheTracer, memoryTracker, log);
-        MemoryAllocator memoryAllocator = buildMemoryAllocator(pageCacheMaxMemory, memoryTracker);
+        var swapperFactory = createAndConfigureSwapperFactory(fs, config, pageCacheTracer, memoryTracker, log);
+        MemoryAllocator memoryAllocator = buildMemoryAllocator(config, pageCacheMaxMemory, memoryTracker);
         var bufferFactory = new ConfigurableIOBufferFactory(config, memoryTracker);
         MuninnPageCache.Configuration configuration = MuninnPageCache.config(memoryAllocator)
                 .memoryTracker(memoryTracker)
                 .bufferFactory(bufferFactory)
                 .reservedPageBytes(PageCache.RESERVED_BYTES)
                 .preallocateStoreFiles(config.get(preallocate_store_files))
+                .evictionPolicy(EvictionPolicy.valueOf(
+                        config.get(pagecache_eviction_policy).name()))
+                .flushThreads(config.get(pagecache_flush_threads))
+                .compressedTierMemory(config.get(pagecache_compressed_tier_size))
                 .clock(clock)
                 .pageCacheTracer(pageCacheTracer);
         configuration = pageCacheConfigurator.apply(configuration);
         return new MuninnPageCache(swapperFactory, scheduler, configuration);
     }
 
-    private static MemoryAllocator buildMemoryAllocator(long pageCacheMaxMemory, MemoryTracker memoryTracker) {
-        return createAllocator(pageCacheMaxMemory, memoryTracker);
+    private MemoryAllocator buildMemoryAllocator(Config config, long pageCacheMaxMemory, MemoryTracker memoryTracker) {
+        NumaPolicy numaPolicy =
+                NumaPolicy.valueOf(config.get(pagecache_numa_policy).name());
+        HugePagePolicy configuredHugePages =
+                HugePagePolicy.valueOf(config.get(pagecache_huge_pages).name());
+        HugePagePolicy hugePages = configuredHugePages.availablePolicy();
+        if (hugePages != configuredHugePages) {
+            log.warn("The " + pagecache_huge_pages.name() + " setting is configured to " + configuredHugePages
+                    + ", but such huge pages are not available on this machine. The page cache will use "
+                    + hugePages + " instead.");
+        }
+        return createAllocator(pageCacheMaxMemory, memoryTracker, numaPolicy, hugePages);
     }
 
     private long getPageCacheMaxMemory(Config config) {
@@ -198,12 +222,23 @@ public class ConfiguringPageCacheFactory {
     }
 
     private static PageSwapperFactory createAndConfigureSwapperFactory(
-            FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker, InternalLog log) {
+            FileSystemAbstraction fs,
+            Config config,
+            PageCacheTracer pageCacheTracer,
+            MemoryTracker memoryTracker,
+            InternalLog log) {
         if (!UnsafeUtil.unsafeByteBufferAccessAvailable()) {
             log.warn("Reflection access to java.nio.DirectByteBuffer is not available, using fallback mode. "
                     + "This could have negative impact on performance and memory usage. "
                     + "Consider adding --add-opens=java.base/java.nio=ALL-UNNAMED to VM options.");
         }
+        if (config.get(pagecache_io_uring_enabled)) {
+            if (IoUringPageSwapperFactory.isAvailable()) {
+                return new IoUringPageSwapperFactory(fs, pageCacheTracer, memoryTracker);
+            }
+            log.warn("The " + pagecache_io_uring_enabled.name() + " setting is enabled, but io_uring is not "
+                    + "available on this platform. Using file channel IO instead.");
+        }
         return new SingleFilePageSwapperFactory(fs, pageCacheTracer, memoryTracker);
     }
 }
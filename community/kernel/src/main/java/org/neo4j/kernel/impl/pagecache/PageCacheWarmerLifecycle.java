@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+
+import java.nio.file.Path;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.PageCacheWarmer;
+import org.neo4j.io.pagecache.monitoring.PageCacheWarmerMonitor;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * Runs a {@link PageCacheWarmer} for the lifetime of the DBMS, so that the page cache is warmed up from the profiles
+ * of the previous run whenever files are mapped.
+ */
+public class PageCacheWarmerLifecycle extends LifecycleAdapter {
+    public static final String PROFILES_DIRECTORY_NAME = "pagecache-profiles";
+
+    private final PageCacheWarmer warmer;
+    private final Config config;
+
+    public PageCacheWarmerLifecycle(
+            MuninnPageCache pageCache,
+            FileSystemAbstraction fs,
+            JobScheduler scheduler,
+            SystemNanoClock clock,
+            Path dataDirectory,
+            Config config,
+            Monitors monitors) {
+        this.config = config;
+        this.warmer = new PageCacheWarmer(
+                pageCache,
+                fs,
+                scheduler,
+                clock,
+                dataDirectory.resolve(PROFILES_DIRECTORY_NAME),
+                monitors.newMonitor(PageCacheWarmerMonitor.class));
+    }
+
+    @Override
+    public void start() throws Exception {
+        warmer.start(config.get(pagecache_warmup_profiling_interval));
+    }
+
+    @Override
+    public void stop() {
+        warmer.stop();
+    }
+}
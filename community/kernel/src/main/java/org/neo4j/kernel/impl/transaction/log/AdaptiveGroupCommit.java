@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.time.Duration;
+
+/**
+ * Decides how long the transaction log writer should keep appending arriving transactions to a batch before it forces
+ * the log, so that concurrent commits can share one force.
+ * <p>
+ * Waiting only makes sense when another transaction is expected to arrive before the wait has pushed the commit
+ * latency over the target. So the window is the target latency minus the expected force time, and there is no window
+ * at all when the average interval between arriving transactions is longer than that. Both the force time and the
+ * arrival interval are exponentially weighted moving averages. The arrival intervals are measured between the times
+ * that the transactions were submitted to the queue, so they do not include the time the writer spent forcing or
+ * waiting.
+ * <p>
+ * Not thread safe, this is only used by the single log writer thread.
+ */
+class AdaptiveGroupCommit {
+    /**
+     * Each new sample has a weight of 1/8 in the moving averages.
+     */
+    private static final int AVERAGE_SHIFT = 3;
+
+    /**
+     * How many average arrival intervals the writer waits for the next transaction, before it considers the burst of
+     * commits to be over and forces what it has appended so far.
+     */
+    private static final int IDLE_ARRIVAL_INTERVALS = 2;
+
+    private final long targetLatencyNanos;
+    private long averageForceNanos;
+    private long averageArrivalNanos;
+    private long lastArrivalNanos;
+
+    AdaptiveGroupCommit(Duration targetLatency) {
+        this.targetLatencyNanos = targetLatency.toNanos();
+    }
+
+    boolean isEnabled() {
+        return targetLatencyNanos > 0;
+    }
+
+    /**
+     * @return the number of nanoseconds the writer may wait for more transactions, counted from when it appended the
+     * first transactions of the batch.
+     */
+    long windowNanos() {
+        long budget = targetLatencyNanos - averageForceNanos;
+        if (budget <= 0 || averageArrivalNanos == 0 || averageArrivalNanos >= budget) {
+            return 0;
+        }
+        return budget;
+    }
+
+    /**
+     * @return the number of nanoseconds without any new transaction after which the writer should stop waiting.
+     */
+    long idleNanos() {
+        return averageArrivalNanos * IDLE_ARRIVAL_INTERVALS;
+    }
+
+    /**
+     * Record the arrival of a transaction in the queue.
+     *
+     * @param arrivalNanos the {@link System#nanoTime()} at which the transaction was submitted to the queue.
+     */
+    void transactionArrived(long arrivalNanos) {
+        if (lastArrivalNanos != 0) {
+            // Concurrent submitters can read the clock in a different order than they enqueue their transactions,
+            // and an average of zero means that no arrivals have been measured yet.
+            averageArrivalNanos = average(averageArrivalNanos, Math.max(arrivalNanos - lastArrivalNanos, 1));
+        }
+        lastArrivalNanos = Math.max(arrivalNanos, lastArrivalNanos);
+    }
+
+    /**
+     * Record a completed force of the log.
+     *
+     * @param forceNanos how long the force of the log took.
+     */
+    void forceCompleted(long forceNanos) {
+        averageForceNanos = average(averageForceNanos, forceNanos);
+    }
+
+    private static long average(long average, long sample) {
+        return average == 0 ? sample : average + ((sample - average) >> AVERAGE_SHIFT);
+    }
+}
@@ -19,9 +19,13 @@
  */
 package org.neo4j.kernel.impl.transaction.log;
 
+import static org.apache.commons.lang3.ArrayUtils.EMPTY_BYTE_ARRAY;
 import static org.neo4j.kernel.impl.api.TransactionToApply.TRANSACTION_ID_NOT_SPECIFIED;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
@@ -31,11 +35,16 @@ import org.neo4j.kernel.impl.transaction.tracing.AppendTransactionEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.monitoring.Health;
+import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.TransactionIdStore;
 
 /**
  * Concurrently appends transactions to the transaction log, while coordinating with the log rotation and forcing the
  * log file in batches for higher throughput in a concurrent scenario.
+ * <p>
+ * A transaction appended in chunks holds the {@link #appendLock} from its start entry to its commit or rollback entry,
+ * so that no other transaction, and no log rotation, ends up in between its chunks. Each chunk is written under the
+ * logFile monitor, like any other append, so that forces of earlier transactions can flush the log in between.
  */
 class BatchingTransactionAppender extends LifecycleAdapter implements TransactionAppender {
     private final TransactionMetadataCache transactionMetadataCache;
@@ -43,6 +52,7 @@ class BatchingTransactionAppender extends LifecycleAdapter implements Transactio
     private final LogRotation logRotation;
     private final TransactionIdStore transactionIdStore;
     private final Health databaseHealth;
+    private final ReentrantLock appendLock = new ReentrantLock();
 
     private TransactionLogWriter transactionLogWriter;
     private int previousChecksum;
@@ -69,31 +79,42 @@ class BatchingTransactionAppender extends LifecycleAdapter implements Transactio
     public long append(TransactionToApply batch, LogAppendEvent logAppendEvent) throws IOException {
         // Assigned base tx id just to make compiler happy
         long lastTransactionId = TransactionIdStore.BASE_TX_ID;
+        // Waits for any transaction that is being appended in chunks by another thread to commit or roll back
+        appendLock.lock();
         // Synchronized with logFile to get absolute control over concurrent rotations happening
-        synchronized (logFile) {
-            // Assert that kernel is healthy before making any changes
-            databaseHealth.assertHealthy(IOException.class);
-            try (AppendTransactionEvent appendEvent = logAppendEvent.beginAppendTransaction(1)) {
-                // Append all transactions in this batch to the log under the same logFile monitor
-                TransactionToApply tx = batch;
-                while (tx != null) {
-                    long transactionId = transactionIdStore.nextCommittingTransactionId();
-
-                    // If we're in a scenario where we're merely replicating transactions, i.e. transaction
-                    // id have already been generated by another entity we simply check that our id
-                    // that we generated match that id. If it doesn't we've run into a problem we can't ´
-                    // really recover from and would point to a bug somewhere.
-                    matchAgainstExpectedTransactionIdIfAny(transactionId, tx);
-
-                    TransactionCommitment commitment = appendToLog(
-                            tx.transactionRepresentation(), transactionId, logAppendEvent, previousChecksum);
-                    previousChecksum = commitment.getTransactionChecksum();
-                    tx.commitment(commitment, transactionId);
-                    tx.logPosition(commitment.logPosition());
-                    tx = tx.next();
-                    lastTransactionId = transactionId;
+        try {
+            synchronized (logFile) {
+                // Assert that kernel is healthy before making any changes
+                databaseHealth.assertHealthy(IOException.class);
+                try (AppendTransactionEvent appendEvent = logAppendEvent.beginAppendTransaction(1)) {
+                    // Append all transactions in this batch to the log under the same logFile monitor
+                    TransactionToApply tx = batch;
+                    while (tx != null) {
+                        long transactionId = transactionIdStore.nextCommittingTransactionId();
+
+                        // If we're in a scenario where we're merely replicating transactions, i.e. transaction
+                        // id have already been generated by another entity we simply check that our id
+                        // that we generated match that id. If it doesn't we've run into a problem we can't ´
+                        // really recover from and would point to a bug somewhere.
+                        matchAgainstExpectedTransactionIdIfAny(transactionId, tx);
+
+                        TransactionCommitment commitment = tx.chunkedAppend() != null
+                                ? commitChunked(tx, transactionId, logAppendEvent)
+                                : appendToLog(
+                                        tx.transactionRepresentation(),
+                                        transactionId,
+                                        logAppendEvent,
+                                        previousChecksum);
+                        previousChecksum = commitment.getTransactionChecksum();
+                        tx.commitment(commitment, transactionId);
+                        tx.logPosition(commitment.logPosition());
+                        tx = tx.next();
+                        lastTransactionId = transactionId;
+                    }
                 }
             }
+        } finally {
+            appendLock.unlock();
         }
 
         // At this point we've appended all transactions in this batch, but we can't mark any of them
@@ -102,9 +123,16 @@ class BatchingTransactionAppender extends LifecycleAdapter implements Transactio
         // in this batch exist durably on disk.
         if (logFile.forceAfterAppend(logAppendEvent)) {
             // We got lucky and were the one forcing the log. It's enough if ones of all doing concurrent committers
-            // checks the need for log rotation.
-            boolean logRotated = logRotation.rotateLogIfNeeded(logAppendEvent);
-            logAppendEvent.setLogRotated(logRotated);
+            // checks the need for log rotation. A transaction that is being appended in chunks must not be split
+            // over two log files, so then the rotation is left to the next committer.
+            if (appendLock.tryLock()) {
+                try {
+                    boolean logRotated = logRotation.rotateLogIfNeeded(logAppendEvent);
+                    logAppendEvent.setLogRotated(logRotated);
+                } finally {
+                    appendLock.unlock();
+                }
+            }
         }
 
         // Mark all transactions as committed
@@ -113,6 +141,38 @@ class BatchingTransactionAppender extends LifecycleAdapter implements Transactio
         return lastTransactionId;
     }
 
+    @Override
+    public ChunkedTransactionAppend beginChunkedAppend(
+            KernelVersion version, long timeStarted, long latestCommittedTxWhenStarted) throws IOException {
+        appendLock.lock();
+        try {
+            synchronized (logFile) {
+                databaseHealth.assertHealthy(IOException.class);
+                try {
+                    LogPosition startPosition = transactionLogWriter.getCurrentPosition();
+                    TransactionLogWriter.ChunkedTransaction transaction = transactionLogWriter.beginChunkedTransaction(
+                            version, timeStarted, latestCommittedTxWhenStarted, previousChecksum, EMPTY_BYTE_ARRAY);
+                    return new ChunkedAppend(transaction, startPosition);
+                } catch (final Throwable panic) {
+                    databaseHealth.panic(panic);
+                    throw panic;
+                }
+            }
+        } catch (Throwable t) {
+            appendLock.unlock();
+            throw t;
+        }
+    }
+
+    private TransactionCommitment commitChunked(
+            TransactionToApply tx, long transactionId, LogAppendEvent logAppendEvent) throws IOException {
+        if (!(tx.chunkedAppend() instanceof ChunkedAppend chunkedAppend)
+                || !chunkedAppend.isActiveOn(Thread.currentThread())) {
+            throw new IllegalStateException(tx + " was not appended in chunks by this thread of this appender");
+        }
+        return chunkedAppend.commit(transactionId, tx.transactionRepresentation(), logAppendEvent);
+    }
+
     private void matchAgainstExpectedTransactionIdIfAny(long transactionId, TransactionToApply tx) {
         long expectedTransactionId = tx.transactionId();
         if (expectedTransactionId != TRANSACTION_ID_NOT_SPECIFIED) {
@@ -169,4 +229,95 @@ class BatchingTransactionAppender extends LifecycleAdapter implements Transactio
             throw panic;
         }
     }
+
+    private class ChunkedAppend implements ChunkedTransactionAppend {
+        private final TransactionLogWriter.ChunkedTransaction transaction;
+        private final LogPosition startPosition;
+        private final Thread owner = Thread.currentThread();
+        private boolean completed;
+
+        ChunkedAppend(TransactionLogWriter.ChunkedTransaction transaction, LogPosition startPosition) {
+            this.transaction = transaction;
+            this.startPosition = startPosition;
+        }
+
+        @Override
+        public void appendChunk(Collection<StorageCommand> commands) throws IOException {
+            checkActive();
+            synchronized (logFile) {
+                databaseHealth.assertHealthy(IOException.class);
+                try {
+                    transaction.appendChunk(commands);
+                } catch (final Throwable panic) {
+                    databaseHealth.panic(panic);
+                    throw panic;
+                }
+            }
+        }
+
+        /**
+         * Called under the logFile monitor, from within {@link #append(TransactionToApply, LogAppendEvent)}.
+         */
+        TransactionCommitment commit(
+                long transactionId, TransactionRepresentation representation, LogAppendEvent logAppendEvent)
+                throws IOException {
+            try {
+                int checksum = transaction.commit(transactionId, representation.getTimeCommitted());
+                var logPositionAfterCommit = transactionLogWriter.getCurrentPosition();
+                logAppendEvent.appendToLogFile(startPosition, logPositionAfterCommit);
+
+                transactionMetadataCache.cacheTransactionMetadata(transactionId, startPosition);
+
+                return new TransactionCommitment(
+                        transactionId,
+                        checksum,
+                        representation.getTimeCommitted(),
+                        logPositionAfterCommit,
+                        transactionIdStore);
+            } catch (final Throwable panic) {
+                databaseHealth.panic(panic);
+                throw panic;
+            } finally {
+                complete();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (completed) {
+                return;
+            }
+            try {
+                synchronized (logFile) {
+                    // If the database panicked, recovery truncates this transaction since it has no end in the log
+                    if (databaseHealth.isHealthy()) {
+                        try {
+                            transaction.rollback(System.currentTimeMillis());
+                        } catch (final Throwable panic) {
+                            databaseHealth.panic(panic);
+                            throw panic;
+                        }
+                    }
+                }
+            } finally {
+                complete();
+            }
+        }
+
+        boolean isActiveOn(Thread thread) {
+            return !completed && owner == thread;
+        }
+
+        private void checkActive() {
+            if (!isActiveOn(Thread.currentThread())) {
+                throw new IllegalStateException("Chunked transaction started at " + startPosition
+                        + " is already completed, or was not started by this thread");
+            }
+        }
+
+        private void complete() {
+            completed = true;
+            appendLock.unlock();
+        }
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+import java.util.Collection;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.storageengine.api.StorageCommand;
+
+/**
+ * A transaction that is appended to the log in chunks of commands while its commands are still being created,
+ * begun by {@link TransactionAppender#beginChunkedAppend(org.neo4j.kernel.KernelVersion, long, long)}.
+ * No other transaction is appended to the log until this one is either committed, by
+ * {@link TransactionAppender#append(TransactionToApply, LogAppendEvent) appending} a {@link TransactionToApply} that
+ * {@link TransactionToApply#chunkedAppend(ChunkedTransactionAppend) refers to it}, or {@link #close() rolled back}.
+ * The transaction is given its transaction id when it commits.
+ */
+public interface ChunkedTransactionAppend extends AutoCloseable {
+    /**
+     * Appends the next chunk of commands of this transaction to the log.
+     * Any failure to append the chunk will cause a kernel panic.
+     */
+    void appendChunk(Collection<StorageCommand> commands) throws IOException;
+
+    /**
+     * Rolls this transaction back, unless it has been committed, and lets other transactions be appended again.
+     * The chunks that were appended stay in the log, but are never applied.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -62,6 +62,17 @@ public class LoggingLogFileMonitor
         }
     }
 
+    @Override
+    public void parallelRecoveryCompleted(
+            long recoveredTransactions, long dependentTransactions, int peakInFlightTransactions) {
+        if (recoveredTransactions != 0) {
+            log.info(format(
+                    "Parallel recovery applied %d transactions, %d of which waited for an earlier transaction. "
+                            + "At most %d transactions were read ahead of the appliers.",
+                    recoveredTransactions, dependentTransactions, peakInFlightTransactions));
+        }
+    }
+
     @Override
     public void failToRecoverTransactionsAfterCommit(
             Throwable t, LogEntryCommit commitEntry, LogPosition recoveryToPosition) {
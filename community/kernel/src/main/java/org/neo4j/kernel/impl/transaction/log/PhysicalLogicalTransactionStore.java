@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.log;
 
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.pre_sketch_transaction_logs;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pre_sketch_transaction_logs_parallelism;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_COMMIT;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_START;
 
@@ -38,6 +39,7 @@ import org.neo4j.kernel.impl.transaction.log.files.LogHeaderVisitor;
 import org.neo4j.kernel.impl.transaction.log.reverse.ReversedMultiFileTransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.reverse.ReversedTransactionCursorMonitor;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.CommandReaderFactory;
 
 public class PhysicalLogicalTransactionStore implements LogicalTransactionStore {
@@ -47,6 +49,8 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
     private final Monitors monitors;
     private final boolean failOnCorruptedLogFiles;
     private final boolean presketchLogFiles;
+    private final int presketchParallelism;
+    private final JobScheduler jobScheduler;
 
     public PhysicalLogicalTransactionStore(
             LogFiles logFiles,
@@ -55,12 +59,29 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
             Monitors monitors,
             boolean failOnCorruptedLogFiles,
             Config config) {
+        this(logFiles, transactionMetadataCache, commandReaderFactory, monitors, failOnCorruptedLogFiles, config, null);
+    }
+
+    /**
+     * @param jobScheduler scheduler to pre-sketch log files on when reading them in reverse order, or {@code null}
+     * to never pre-sketch them.
+     */
+    public PhysicalLogicalTransactionStore(
+            LogFiles logFiles,
+            TransactionMetadataCache transactionMetadataCache,
+            CommandReaderFactory commandReaderFactory,
+            Monitors monitors,
+            boolean failOnCorruptedLogFiles,
+            Config config,
+            JobScheduler jobScheduler) {
         this.logFile = logFiles.getLogFile();
         this.transactionMetadataCache = transactionMetadataCache;
         this.commandReaderFactory = commandReaderFactory;
         this.monitors = monitors;
         this.failOnCorruptedLogFiles = failOnCorruptedLogFiles;
         this.presketchLogFiles = config.get(pre_sketch_transaction_logs);
+        this.presketchParallelism = config.get(pre_sketch_transaction_logs_parallelism);
+        this.jobScheduler = jobScheduler;
     }
 
     @Override
@@ -74,10 +95,11 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
         return ReversedMultiFileTransactionCursor.fromLogFile(
                 logFile,
                 backToPosition,
-                new VersionAwareLogEntryReader(commandReaderFactory),
+                () -> new VersionAwareLogEntryReader(commandReaderFactory),
                 failOnCorruptedLogFiles,
                 monitors.newMonitor(ReversedTransactionCursorMonitor.class),
-                presketchLogFiles);
+                presketchLogFiles && jobScheduler != null ? presketchParallelism : 0,
+                jobScheduler);
     }
 
     @Override
@@ -93,13 +115,18 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
                 return new PhysicalTransactionCursor(channel, logEntryReader);
             }
 
-            // ask logFiles about the version it may be in
-            var headerVisitor = new LogVersionLocator(transactionIdToStartFrom);
-            logFile.accept(headerVisitor);
+            // start from the closest known preceding transaction, or else ask logFiles about the version it may be in
+            LogPosition searchStartPosition =
+                    transactionMetadataCache.getClosestPrecedingPosition(transactionIdToStartFrom);
+            if (searchStartPosition == null) {
+                var headerVisitor = new LogVersionLocator(transactionIdToStartFrom);
+                logFile.accept(headerVisitor);
+                searchStartPosition = headerVisitor.getLogPosition();
+            }
 
             // ask LogFile
             var transactionPositionLocator = new TransactionPositionLocator(transactionIdToStartFrom, logEntryReader);
-            logFile.accept(transactionPositionLocator, headerVisitor.getLogPosition());
+            logFile.accept(transactionPositionLocator, searchStartPosition);
             var position = transactionPositionLocator.getLogPosition();
             transactionMetadataCache.cacheTransactionMetadata(transactionIdToStartFrom, position);
             return new PhysicalTransactionCursor(logFile.getReader(position), logEntryReader);
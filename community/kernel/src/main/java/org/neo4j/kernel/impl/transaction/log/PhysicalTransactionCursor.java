@@ -30,6 +30,8 @@ import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommand;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.LogEntryChunkEndV5_1;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.LogEntryRollbackV5_1;
 import org.neo4j.storageengine.api.StorageCommand;
 
 public class PhysicalTransactionCursor implements TransactionCursor {
@@ -65,9 +67,10 @@ public class PhysicalTransactionCursor implements TransactionCursor {
             LogEntry entry = logEntryCursor.get();
             assert entry instanceof LogEntryStart : "Expected Start entry, read " + entry + " instead";
             LogEntryStart startEntry = (LogEntryStart) entry;
-            LogEntryCommit commitEntry;
+            LogEntryCommit commitEntry = null;
 
             List<StorageCommand> entries = new ArrayList<>();
+            int nextChunkId = 0;
             while (true) {
                 if (!logEntryCursor.next()) {
                     return false;
@@ -78,11 +81,28 @@ public class PhysicalTransactionCursor implements TransactionCursor {
                     commitEntry = (LogEntryCommit) entry;
                     break;
                 }
+                if (entry instanceof LogEntryRollbackV5_1) {
+                    // A transaction written in chunks that was rolled back, it should never be seen by anyone
+                    break;
+                }
+                if (entry instanceof LogEntryChunkEndV5_1 chunkEnd) {
+                    if (chunkEnd.getChunkId() != nextChunkId) {
+                        throw new IOException("Expected end of chunk " + nextChunkId + " of transaction started at "
+                                + startEntry.getStartPosition() + ", but read " + chunkEnd + " instead");
+                    }
+                    nextChunkId++;
+                    continue;
+                }
 
                 LogEntryCommand command = (LogEntryCommand) entry;
                 entries.add(command.getCommand());
             }
 
+            if (commitEntry == null) {
+                channel.getCurrentPosition(lastGoodPositionMarker);
+                continue;
+            }
+
             PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation(entries);
             transaction.setHeader(
                     startEntry.getAdditionalHeader(),
@@ -103,7 +123,8 @@ public class PhysicalTransactionCursor implements TransactionCursor {
     }
 
     /**
-     * @return last known good position, which is a {@link LogPosition} after a {@link LogEntryCommit}.
+     * @return last known good position, which is a {@link LogPosition} after a {@link LogEntryCommit}, or after a
+     * {@link LogEntryRollbackV5_1} of a rolled back transaction.
      */
     @Override
     public LogPosition position() {
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.log;
 
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.DETACHED_CHECK_POINT;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_COMMIT;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_ROLLBACK;
 
 import java.io.IOException;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
@@ -57,7 +58,7 @@ public class SketchingTransactionCursor implements TransactionCursor {
 
             assert entry instanceof LogEntryStart : "Expected Start entry, read " + entry + " instead";
 
-            // Read till commit entry
+            // Read till commit entry, or rollback entry of a transaction appended in chunks, which is skipped
             while (hasEntries()) {
                 entry = logEntryCursor.get();
 
@@ -65,6 +66,10 @@ public class SketchingTransactionCursor implements TransactionCursor {
                     channel.getCurrentPosition(lastGoodPositionMarker);
                     return true;
                 }
+                if (isRollback(entry)) {
+                    channel.getCurrentPosition(lastGoodPositionMarker);
+                    break;
+                }
             }
         }
 
@@ -83,6 +88,10 @@ public class SketchingTransactionCursor implements TransactionCursor {
         return entry.getType() == TX_COMMIT;
     }
 
+    private boolean isRollback(LogEntry entry) {
+        return entry.getType() == TX_ROLLBACK;
+    }
+
     @Override
     public void close() throws IOException {
         logEntryCursor.close();
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.log;
 
 import java.io.IOException;
 import java.util.concurrent.ExecutionException;
+import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.lifecycle.Lifecycle;
@@ -55,4 +56,20 @@ public interface TransactionAppender extends Lifecycle {
      */
     long append(TransactionToApply batch, LogAppendEvent logAppendEvent)
             throws IOException, ExecutionException, InterruptedException;
+
+    /**
+     * Begins appending a single transaction to the log in chunks of commands, while its commands are still being
+     * created. It must be committed by {@link #append(TransactionToApply, LogAppendEvent) appending} it from the
+     * thread that began it, as a batch of its own.
+     *
+     * @param version kernel version of the commands of the transaction.
+     * @param timeStarted time when the transaction was started.
+     * @param latestCommittedTxWhenStarted id of the last committed transaction when the transaction was started.
+     * @return the begun transaction, or {@code null} if this appender doesn't append transactions in chunks.
+     * @throws IOException if there was a problem appending the start of the transaction.
+     */
+    default ChunkedTransactionAppend beginChunkedAppend(
+            KernelVersion version, long timeStarted, long latestCommittedTxWhenStarted) throws IOException {
+        return null;
+    }
 }
@@ -39,7 +39,13 @@ public class TransactionAppenderFactory {
             InternalLogProvider logProvider) {
         if (config.get(dedicated_transaction_appender)) {
             var queue = new TransactionLogQueue(
-                    logFiles, transactionIdStore, databaseHealth, transactionMetadataCache, scheduler, logProvider);
+                    logFiles,
+                    transactionIdStore,
+                    databaseHealth,
+                    transactionMetadataCache,
+                    config,
+                    scheduler,
+                    logProvider);
             return new QueueTransactionAppender(queue);
         }
 
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.log;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.dedicated_transaction_appender_target_commit_latency;
 import static org.neo4j.internal.helpers.Exceptions.throwIfUnchecked;
 import static org.neo4j.kernel.impl.api.TransactionToApply.TRANSACTION_ID_NOT_SPECIFIED;
 
@@ -30,6 +31,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.LockSupport;
 import org.jctools.queues.MessagePassingQueue;
 import org.jctools.queues.MpscUnboundedXaddArrayQueue;
+import org.neo4j.configuration.Config;
 import org.neo4j.graphdb.DatabaseShutdownException;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
@@ -55,6 +57,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
     private final TransactionIdStore transactionIdStore;
     private final Health databaseHealth;
     private final TransactionMetadataCache transactionMetadataCache;
+    private final AdaptiveGroupCommit groupCommit;
     private final MpscUnboundedXaddArrayQueue<TxQueueElement> txAppendQueue;
     private final JobScheduler jobScheduler;
     private final InternalLog log;
@@ -67,6 +70,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
             TransactionIdStore transactionIdStore,
             Health databaseHealth,
             TransactionMetadataCache transactionMetadataCache,
+            Config config,
             JobScheduler jobScheduler,
             InternalLogProvider logProvider) {
         this.logFiles = logFiles;
@@ -74,6 +78,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
         this.transactionIdStore = transactionIdStore;
         this.databaseHealth = databaseHealth;
         this.transactionMetadataCache = transactionMetadataCache;
+        this.groupCommit = new AdaptiveGroupCommit(config.get(dedicated_transaction_appender_target_commit_latency));
         this.txAppendQueue = new MpscUnboundedXaddArrayQueue<>(INITIAL_CAPACITY);
         this.jobScheduler = jobScheduler;
         this.stopped = true;
@@ -84,7 +89,8 @@ public class TransactionLogQueue extends LifecycleAdapter {
         if (stopped) {
             throw new DatabaseShutdownException();
         }
-        TxQueueElement txQueueElement = new TxQueueElement(batch, logAppendEvent);
+        long arrivalNanos = groupCommit.isEnabled() ? System.nanoTime() : 0;
+        TxQueueElement txQueueElement = new TxQueueElement(batch, logAppendEvent, arrivalNanos);
         while (!txAppendQueue.offer(txQueueElement)) {
             if (stopped) {
                 throw new DatabaseShutdownException();
@@ -103,6 +109,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
                 databaseHealth,
                 transactionMetadataCache,
                 logRotation,
+                groupCommit,
                 log);
         logAppender = jobScheduler.threadFactory(Group.LOG_WRITER).newThread(transactionWriter);
         logAppender.start();
@@ -129,15 +136,17 @@ public class TransactionLogQueue extends LifecycleAdapter {
         private final TransactionToApply batch;
         private final LogAppendEvent logAppendEvent;
         private final Thread executor;
+        private final long arrivalNanos;
         private Throwable throwable;
         private TxQueueElement[] elementsToNotify;
         private volatile long[] txIds;
         private volatile long txId;
 
-        TxQueueElement(TransactionToApply batch, LogAppendEvent logAppendEvent) {
+        TxQueueElement(TransactionToApply batch, LogAppendEvent logAppendEvent, long arrivalNanos) {
             this.batch = batch;
             this.logAppendEvent = logAppendEvent;
             this.executor = Thread.currentThread();
+            this.arrivalNanos = arrivalNanos;
         }
 
         public long getCommittedTxId() {
@@ -176,6 +185,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
         private final Health databaseHealth;
         private final TransactionMetadataCache transactionMetadataCache;
         private final LogRotation logRotation;
+        private final AdaptiveGroupCommit groupCommit;
         private final InternalLog log;
         private final int checksum;
         private volatile boolean stopped;
@@ -188,6 +198,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
                 Health databaseHealth,
                 TransactionMetadataCache transactionMetadataCache,
                 LogRotation logRotation,
+                AdaptiveGroupCommit groupCommit,
                 InternalLog log) {
             this.txQueue = txQueue;
             this.transactionLogWriter = logFile.getTransactionLogWriter();
@@ -197,6 +208,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
             this.databaseHealth = databaseHealth;
             this.transactionMetadataCache = transactionMetadataCache;
             this.logRotation = logRotation;
+            this.groupCommit = groupCommit;
             this.log = log;
             this.waitStrategy = new SpinParkCombineWaitingStrategy();
         }
@@ -204,7 +216,12 @@ public class TransactionLogQueue extends LifecycleAdapter {
         @Override
         public void run() {
             TxConsumer txConsumer = new TxConsumer(
-                    databaseHealth, transactionIdStore, transactionLogWriter, checksum, transactionMetadataCache);
+                    databaseHealth,
+                    transactionIdStore,
+                    transactionLogWriter,
+                    checksum,
+                    transactionMetadataCache,
+                    groupCommit);
 
             int idleCounter = 0;
             while (!stopped) {
@@ -213,12 +230,17 @@ public class TransactionLogQueue extends LifecycleAdapter {
                     if (drainedElements > 0) {
                         idleCounter = 0;
                         txConsumer.processBatch();
+                        if (groupCommit.isEnabled()) {
+                            awaitGroupCommit(txConsumer);
+                        }
 
-                        LogAppendEvent logAppendEvent = txConsumer.txElements[drainedElements - 1].logAppendEvent;
+                        LogAppendEvent logAppendEvent = txConsumer.lastElement().logAppendEvent;
                         boolean logRotated = logRotation.locklessRotateLogIfNeeded(logAppendEvent);
                         logAppendEvent.setLogRotated(logRotated);
                         if (!logRotated) {
+                            long forceStart = System.nanoTime();
                             logFile.locklessForce(logAppendEvent);
+                            groupCommit.forceCompleted(System.nanoTime() - forceStart);
                         }
                         txConsumer.complete();
                     } else {
@@ -238,25 +260,57 @@ public class TransactionLogQueue extends LifecycleAdapter {
             }
         }
 
+        /**
+         * Keep appending arriving transactions to the batch for as long as the group commit window allows, or until
+         * the arrivals stop, so that they can all share the force of the log. Only the force is delayed, the
+         * transactions are appended as soon as they are drained. The writer is unparked by
+         * {@link TransactionLogQueue#submit} when transactions arrive.
+         */
+        private void awaitGroupCommit(TxConsumer txConsumer) throws IOException {
+            long windowNanos = groupCommit.windowNanos();
+            if (windowNanos == 0) {
+                return;
+            }
+            long idleNanos = groupCommit.idleNanos();
+            long now = System.nanoTime();
+            long deadline = now + windowNanos;
+            long lastArrival = now;
+            while (txConsumer.size() < CONSUMER_MAX_BATCH && !stopped) {
+                long waitNanos = Math.min(deadline - now, lastArrival + idleNanos - now);
+                if (waitNanos <= 0) {
+                    break;
+                }
+                parkNanos(waitNanos);
+                if (txQueue.drain(txConsumer, CONSUMER_MAX_BATCH - txConsumer.size()) > 0) {
+                    txConsumer.processBatch();
+                    lastArrival = System.nanoTime();
+                }
+                now = System.nanoTime();
+            }
+        }
+
         private static class TxConsumer implements MessagePassingQueue.Consumer<TxQueueElement> {
             private final Health databaseHealth;
             private final TransactionIdStore transactionIdStore;
             private final TransactionLogWriter transactionLogWriter;
             private final TransactionMetadataCache transactionMetadataCache;
+            private final AdaptiveGroupCommit groupCommit;
 
             private int checksum;
             private final TxQueueElement[] txElements = new TransactionLogQueue.TxQueueElement[CONSUMER_MAX_BATCH];
+            private final long[] batchTxIds = new long[CONSUMER_MAX_BATCH];
             private int index;
-            private TxQueueElement[] elements;
-            private long[] txIds;
+            private int appended;
 
             TxConsumer(
                     Health databaseHealth,
                     TransactionIdStore transactionIdStore,
                     TransactionLogWriter transactionLogWriter,
                     int checksum,
-                    TransactionMetadataCache transactionMetadataCache) {
+                    TransactionMetadataCache transactionMetadataCache,
+                    AdaptiveGroupCommit groupCommit) {
                 this.transactionMetadataCache = transactionMetadataCache;
+                this.groupCommit = groupCommit;
                 this.databaseHealth = databaseHealth;
                 this.transactionIdStore = transactionIdStore;
                 this.transactionLogWriter = transactionLogWriter;
@@ -266,16 +320,27 @@ public class TransactionLogQueue extends LifecycleAdapter {
             @Override
             public void accept(TxQueueElement txQueueElement) {
                 txElements[index++] = txQueueElement;
+                if (groupCommit.isEnabled()) {
+                    groupCommit.transactionArrived(txQueueElement.arrivalNanos);
+                }
+            }
+
+            private int size() {
+                return index;
+            }
+
+            private TxQueueElement lastElement() {
+                return txElements[index - 1];
             }
 
+            /**
+             * Append the transactions that have been drained since the last call to the log.
+             */
             private void processBatch() throws IOException {
                 databaseHealth.assertHealthy(IOException.class);
-                int drainedElements = index;
-                elements = new TxQueueElement[drainedElements];
-                txIds = new long[drainedElements];
-                for (int i = 0; i < drainedElements; i++) {
+                int drainedElements = index - appended;
+                for (int i = appended; i < index; i++) {
                     TxQueueElement txQueueElement = txElements[i];
-                    elements[i] = txQueueElement;
                     LogAppendEvent logAppendEvent = txQueueElement.logAppendEvent;
                     long lastTransactionId = TransactionIdStore.BASE_TX_ID;
                     try (var appendEvent = logAppendEvent.beginAppendTransaction(drainedElements)) {
@@ -297,7 +362,8 @@ public class TransactionLogQueue extends LifecycleAdapter {
                             tx = tx.next();
                             lastTransactionId = transactionId;
                         }
-                        txIds[i] = lastTransactionId;
+                        batchTxIds[i] = lastTransactionId;
+                        appended = i + 1;
                     } catch (Exception e) {
                         txQueueElement.fail(e);
                         throwIfUnchecked(e);
@@ -341,12 +407,13 @@ public class TransactionLogQueue extends LifecycleAdapter {
 
             public void complete() {
                 TxQueueElement first = txElements[0];
-                first.elementsToNotify = elements;
-                first.txIds = txIds;
+                first.elementsToNotify = Arrays.copyOf(txElements, index);
+                first.txIds = Arrays.copyOf(batchTxIds, index);
                 LockSupport.unpark(first.executor);
 
                 Arrays.fill(txElements, 0, index, null);
                 index = 0;
+                appended = 0;
             }
 
             public void cancelBatch(Throwable t) {
@@ -355,6 +422,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
                 }
                 Arrays.fill(txElements, 0, index, null);
                 index = 0;
+                appended = 0;
             }
         }
 
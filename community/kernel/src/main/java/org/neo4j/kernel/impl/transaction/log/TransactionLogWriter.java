@@ -19,21 +19,45 @@
  */
 package org.neo4j.kernel.impl.transaction.log;
 
+import static java.util.Objects.requireNonNull;
+
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Collection;
+import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.database.LogEntryWriterFactory;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.CommandsBuffer;
+import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.util.VisibleForTesting;
 
 public class TransactionLogWriter {
     private final FlushablePositionAwareChecksumChannel channel;
     private final LogEntryWriterFactory logEntryWriterFactory;
+    private final long compressionThreshold;
+    private final CommandsBuffer commandsBuffer;
 
     public TransactionLogWriter(
             FlushablePositionAwareChecksumChannel channel, LogEntryWriterFactory logEntryWriterFactory) {
+        this(channel, logEntryWriterFactory, 0, null);
+    }
+
+    /**
+     * @param compressionThreshold the number of bytes that the commands of a transaction must serialize to for them
+     * to be written compressed, or {@code 0} to never compress them.
+     * @param commandsBuffer buffer to serialize commands into before compressing them, owned by the caller.
+     * Only used if {@code compressionThreshold} is positive.
+     */
+    public TransactionLogWriter(
+            FlushablePositionAwareChecksumChannel channel,
+            LogEntryWriterFactory logEntryWriterFactory,
+            long compressionThreshold,
+            CommandsBuffer commandsBuffer) {
         this.channel = channel;
         this.logEntryWriterFactory = logEntryWriterFactory;
+        this.compressionThreshold = compressionThreshold;
+        this.commandsBuffer = compressionThreshold > 0 ? requireNonNull(commandsBuffer) : null;
     }
 
     /**
@@ -50,12 +74,34 @@ public class TransactionLogWriter {
                 transaction.additionalHeader());
 
         // Write all the commands to the log channel
-        writer.serialize(transaction);
+        if (commandsBuffer != null) {
+            writer.serialize(transaction, commandsBuffer, compressionThreshold);
+        } else {
+            writer.serialize(transaction);
+        }
 
         // Write commit record
         return writer.writeCommitEntry(transactionId, transaction.getTimeCommitted());
     }
 
+    /**
+     * Begin appending a transaction to the transaction log in chunks of commands, so that its commands can be written
+     * while the rest of them are still being created. No other transaction may be appended
+     * until the returned transaction has been {@link ChunkedTransaction#commit(long, long) committed} or
+     * {@link ChunkedTransaction#rollback(long) rolled back}.
+     */
+    public ChunkedTransaction beginChunkedTransaction(
+            KernelVersion version,
+            long timeStarted,
+            long latestCommittedTxWhenStarted,
+            int previousChecksum,
+            byte[] additionalHeader)
+            throws IOException {
+        var writer = logEntryWriterFactory.createEntryWriter(channel, version);
+        writer.writeStartEntry(timeStarted, latestCommittedTxWhenStarted, previousChecksum, additionalHeader);
+        return new ChunkedTransaction(writer);
+    }
+
     public LogPosition getCurrentPosition() throws IOException {
         return channel.getCurrentPosition();
     }
@@ -77,4 +123,57 @@ public class TransactionLogWriter {
     public void append(ByteBuffer byteBuffer) throws IOException {
         channel.write(byteBuffer);
     }
+
+    /**
+     * A transaction that is appended to the transaction log one chunk of commands at a time. The transaction id is
+     * only given when the transaction commits, so a transaction that is rolled back doesn't leave a gap in the
+     * sequence of transaction ids.
+     */
+    public static class ChunkedTransaction {
+        private final LogEntryWriter<FlushablePositionAwareChecksumChannel> writer;
+        private int nextChunkId;
+        private boolean completed;
+
+        private ChunkedTransaction(LogEntryWriter<FlushablePositionAwareChecksumChannel> writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * Append a chunk of commands of this transaction.
+         */
+        public void appendChunk(Collection<StorageCommand> commands) throws IOException {
+            checkNotCompleted();
+            writer.serialize(commands);
+            writer.writeChunkEndEntry(nextChunkId++);
+        }
+
+        /**
+         * Commit this transaction.
+         * @return checksum of the transaction
+         */
+        public int commit(long transactionId, long timeCommitted) throws IOException {
+            checkNotCompleted();
+            completed = true;
+            return writer.writeCommitEntry(transactionId, timeCommitted);
+        }
+
+        /**
+         * Roll back this transaction. The chunks already appended stay in the log, but will never be applied.
+         */
+        public void rollback(long timeWritten) throws IOException {
+            checkNotCompleted();
+            completed = true;
+            writer.writeRollbackEntry(timeWritten);
+        }
+
+        public int chunks() {
+            return nextChunkId;
+        }
+
+        private void checkNotCompleted() {
+            if (completed) {
+                throw new IllegalStateException("Chunked transaction has already been committed or rolled back");
+            }
+        }
+    }
 }
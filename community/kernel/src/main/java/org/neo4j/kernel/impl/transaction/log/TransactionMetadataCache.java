@@ -19,32 +19,128 @@
  */
 package org.neo4j.kernel.impl.transaction.log;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.Objects;
-import org.neo4j.internal.helpers.collection.LfuCache;
 
+/**
+ * Maps transaction ids to the position of their start entry in the transaction log, without boxing.
+ * <p>
+ * The most recently appended transactions are kept in a ring that is indexed directly by transaction id, so looking
+ * them up is a single slot read. Reads of the ring do not take any lock; a slot is invalidated before it is
+ * rewritten and its transaction id is checked again after its position has been read.
+ * <p>
+ * In addition, every {@value #SPARSE_INDEX_INTERVAL}th appended transaction, and the first transaction appended to
+ * each log file, is kept in a sparse index ordered by transaction id. It is used to find the closest preceding known
+ * position of a transaction that is no longer in the ring, so that only a few transactions have to be scanned to
+ * reach it, rather than the log files from the start.
+ */
 public class TransactionMetadataCache {
-    private static final int DEFAULT_TRANSACTION_CACHE_SIZE = 10_000;
-    private final LfuCache<Long, TransactionMetadata> txIdMetadataCache;
+    private static final int RING_SIZE = 1 << 14;
+    private static final int RING_MASK = RING_SIZE - 1;
+    private static final int SPARSE_INDEX_INTERVAL = 32;
+    private static final int MAX_SPARSE_INDEX_SIZE = 1 << 16;
+    private static final long NO_TRANSACTION = -1;
+    private static final VarHandle LONG_ARRAY = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] ringTxIds = new long[RING_SIZE];
+    private final long[] ringLogVersions = new long[RING_SIZE];
+    private final long[] ringByteOffsets = new long[RING_SIZE];
+
+    // Guarded by this
+    private long[] indexTxIds = new long[64];
+    private long[] indexLogVersions = new long[64];
+    private long[] indexByteOffsets = new long[64];
+    private int indexSize;
 
     public TransactionMetadataCache() {
-        this.txIdMetadataCache = new LfuCache<>("Tx start position cache", DEFAULT_TRANSACTION_CACHE_SIZE);
+        Arrays.fill(ringTxIds, NO_TRANSACTION);
     }
 
-    public void clear() {
-        txIdMetadataCache.clear();
+    public synchronized void clear() {
+        for (int slot = 0; slot < RING_SIZE; slot++) {
+            LONG_ARRAY.setRelease(ringTxIds, slot, NO_TRANSACTION);
+        }
+        indexSize = 0;
     }
 
     public TransactionMetadata getTransactionMetadata(long txId) {
-        return txIdMetadataCache.get(txId);
+        int slot = (int) (txId & RING_MASK);
+        if ((long) LONG_ARRAY.getAcquire(ringTxIds, slot) != txId) {
+            return null;
+        }
+        long logVersion = ringLogVersions[slot];
+        long byteOffset = ringByteOffsets[slot];
+        VarHandle.acquireFence();
+        if ((long) LONG_ARRAY.getVolatile(ringTxIds, slot) != txId) {
+            return null;
+        }
+        return new TransactionMetadata(new LogPosition(logVersion, byteOffset));
     }
 
-    public void cacheTransactionMetadata(long txId, LogPosition position) {
+    /**
+     * Find the position of the closest transaction at or before {@code txId} in the sparse index. Reading the log
+     * from that position will reach the given transaction if it is still in the log files.
+     *
+     * @param txId the transaction to find a preceding position of.
+     * @return the start position of the closest indexed transaction at or before {@code txId}, or {@code null} if
+     * there is none.
+     */
+    public synchronized LogPosition getClosestPrecedingPosition(long txId) {
+        int index = Arrays.binarySearch(indexTxIds, 0, indexSize, txId);
+        if (index < 0) {
+            index = -index - 2;
+            if (index < 0) {
+                return null;
+            }
+        }
+        return new LogPosition(indexLogVersions[index], indexByteOffsets[index]);
+    }
+
+    public synchronized void cacheTransactionMetadata(long txId, LogPosition position) {
         if (position.getByteOffset() == -1) {
             throw new RuntimeException("StartEntry.position is " + position);
         }
 
-        TransactionMetadata result = new TransactionMetadata(position);
-        txIdMetadataCache.put(txId, result);
+        int slot = (int) (txId & RING_MASK);
+        LONG_ARRAY.setRelease(ringTxIds, slot, NO_TRANSACTION);
+        VarHandle.storeStoreFence();
+        ringLogVersions[slot] = position.getLogVersion();
+        ringByteOffsets[slot] = position.getByteOffset();
+        LONG_ARRAY.setRelease(ringTxIds, slot, txId);
+
+        index(txId, position);
+    }
+
+    private void index(long txId, LogPosition position) {
+        int last = indexSize - 1;
+        if (last >= 0) {
+            if (txId <= indexTxIds[last]) {
+                return;
+            }
+            boolean newLogFile = position.getLogVersion() != indexLogVersions[last];
+            if (!newLogFile && txId - indexTxIds[last] < SPARSE_INDEX_INTERVAL) {
+                return;
+            }
+        }
+        if (indexSize == MAX_SPARSE_INDEX_SIZE) {
+            // Forget the oldest half, those transactions are the most likely to have been pruned already
+            int half = indexSize / 2;
+            System.arraycopy(indexTxIds, half, indexTxIds, 0, indexSize - half);
+            System.arraycopy(indexLogVersions, half, indexLogVersions, 0, indexSize - half);
+            System.arraycopy(indexByteOffsets, half, indexByteOffsets, 0, indexSize - half);
+            indexSize -= half;
+        } else if (indexSize == indexTxIds.length) {
+            int capacity = indexTxIds.length * 2;
+            indexTxIds = Arrays.copyOf(indexTxIds, capacity);
+            indexLogVersions = Arrays.copyOf(indexLogVersions, capacity);
+            indexByteOffsets = Arrays.copyOf(indexByteOffsets, capacity);
+        }
+        indexTxIds[indexSize] = txId;
+        indexLogVersions[indexSize] = position.getLogVersion();
+        indexByteOffsets[indexSize] = position.getByteOffset();
+        indexSize++;
     }
 
     public static class TransactionMetadata {
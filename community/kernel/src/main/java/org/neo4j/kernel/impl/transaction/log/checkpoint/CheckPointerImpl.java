@@ -170,8 +170,9 @@ public class CheckPointerImpl extends LifecycleAdapter implements CheckPointer {
             Stopwatch startTime = Stopwatch.start();
 
             try (var flushEvent = checkPointEvent.beginDatabaseFlush()) {
+                ioController.checkpointStarted();
                 forceOperation.flushAndForce(flushEvent, cursorContext);
-                flushEvent.ioControllerLimit(ioController.configuredLimit());
+                ioController.checkpointCompleted(flushEvent);
             }
 
             /*
@@ -19,8 +19,13 @@
  */
 package org.neo4j.kernel.impl.transaction.log.entry;
 
+import static org.neo4j.kernel.KernelVersion.VERSION_CHUNKED_TRANSACTIONS_INTRODUCED;
+import static org.neo4j.kernel.KernelVersion.VERSION_COMPRESSED_COMMANDS_INTRODUCED;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.CHUNK_END;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.COMMAND;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.COMPRESSED_COMMANDS;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_COMMIT;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_ROLLBACK;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_START;
 
 import java.io.IOException;
@@ -31,15 +36,18 @@ import org.neo4j.io.fs.WritableChecksumChannel;
 import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.CommandsBuffer;
 import org.neo4j.storageengine.api.StorageCommand;
 
 public class LogEntryWriter<T extends WritableChecksumChannel> {
     private final Visitor<StorageCommand, IOException> serializer;
     protected final T channel;
+    private final KernelVersion version;
     private final byte parserSetVersion;
 
     public LogEntryWriter(T channel, KernelVersion version) {
         this.channel = channel;
+        this.version = version;
         this.parserSetVersion = version.version();
         this.serializer = new StorageCommandSerializer(channel, this);
     }
@@ -78,10 +86,74 @@ public class LogEntryWriter<T extends WritableChecksumChannel> {
         return channel.putChecksum();
     }
 
+    /**
+     * Write the end of a chunk of commands of a transaction that is written in chunks.
+     *
+     * @param chunkId the id of the chunk, starting at {@code 0} for the first chunk of a transaction.
+     */
+    public void writeChunkEndEntry(int chunkId) throws IOException {
+        checkChunkedTransactionsSupported();
+        writeLogEntryHeader(CHUNK_END, channel);
+        channel.putInt(chunkId);
+    }
+
+    /**
+     * Write the end of a transaction that is written in chunks, but was rolled back instead of committed.
+     *
+     * @return the checksum of the rolled back transaction, which must not be used as the previous checksum of the
+     * next transaction.
+     */
+    public int writeRollbackEntry(long timeWritten) throws IOException {
+        checkChunkedTransactionsSupported();
+        writeLogEntryHeader(TX_ROLLBACK, channel);
+        channel.putLong(timeWritten);
+        return channel.putChecksum();
+    }
+
+    private void checkChunkedTransactionsSupported() {
+        if (version.isLessThan(VERSION_CHUNKED_TRANSACTIONS_INTRODUCED)) {
+            throw new UnsupportedOperationException("Chunked transactions are not supported in version " + version);
+        }
+    }
+
     public void serialize(TransactionRepresentation tx) throws IOException {
         tx.accept(serializer);
     }
 
+    /**
+     * Serialize the commands of a transaction as a single compressed entry, if they serialize to at least
+     * {@code compressionThreshold} bytes, get smaller when compressed, and the version of this writer supports
+     * compressed entries. Otherwise they are written exactly like {@link #serialize(TransactionRepresentation)} does.
+     *
+     * @param tx the transaction to serialize the commands of.
+     * @param buffer empty buffer to serialize the commands into before they are written to the channel, cleared again
+     * afterwards.
+     * @param compressionThreshold the number of bytes the commands must serialize to for them to be compressed.
+     */
+    public void serialize(TransactionRepresentation tx, CommandsBuffer buffer, long compressionThreshold)
+            throws IOException {
+        if (compressionThreshold <= 0 || version.isLessThan(VERSION_COMPRESSED_COMMANDS_INTRODUCED)) {
+            serialize(tx);
+            return;
+        }
+
+        try {
+            tx.accept(new StorageCommandSerializer(buffer, this));
+            int length = buffer.length();
+            if (length >= compressionThreshold) {
+                int compressedLength = buffer.compress();
+                if (compressedLength < length) {
+                    writeLogEntryHeader(COMPRESSED_COMMANDS, channel);
+                    channel.putInt(length).putInt(compressedLength).put(buffer.compressedArray(), compressedLength);
+                    return;
+                }
+            }
+            channel.put(buffer.array(), length);
+        } finally {
+            buffer.clear();
+        }
+    }
+
     public void serialize(CommittedTransactionRepresentation tx) throws IOException {
         writeStartEntry(tx.getStartEntry());
         serialize(tx.getTransactionRepresentation());
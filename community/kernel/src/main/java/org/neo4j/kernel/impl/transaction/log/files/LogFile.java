@@ -104,6 +104,15 @@ public interface LogFile extends RotatableFile {
 
     Path getLogFileForVersion(long version);
 
+    /**
+     * Remove the file of a log version that is no longer needed. If there is a pool of log segments, the file may be
+     * recycled into it, to be reused for a later log version, rather than deleted.
+     *
+     * @param version the log version to prune.
+     * @throws IOException if the file could not be removed.
+     */
+    void prune(long version) throws IOException;
+
     Path getHighestLogFile();
 
     long getHighestLogVersion();
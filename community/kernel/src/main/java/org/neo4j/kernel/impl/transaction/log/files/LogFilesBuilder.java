@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.transaction.log.files;
 import static java.util.Objects.requireNonNull;
 import static java.util.Objects.requireNonNullElseGet;
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.fail_on_corrupted_log_files;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_segment_pool_size;
 import static org.neo4j.configuration.GraphDatabaseSettings.SYSTEM_DATABASE_NAME;
 import static org.neo4j.configuration.GraphDatabaseSettings.logical_log_rotation_threshold;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_logical_logs;
@@ -52,6 +53,7 @@ import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.monitoring.Monitors;
 import org.neo4j.monitoring.PanicEventGenerator;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.CommandReaderFactory;
 import org.neo4j.storageengine.api.KernelVersionRepository;
 import org.neo4j.storageengine.api.LogVersionRepository;
@@ -98,6 +100,7 @@ public class LogFilesBuilder {
     private NativeAccess nativeAccess;
     private KernelVersionRepository kernelVersionRepository;
     private LogTailMetadata externalLogTail;
+    private JobScheduler jobScheduler;
 
     private LogFilesBuilder() {}
 
@@ -172,6 +175,11 @@ public class LogFilesBuilder {
         return this;
     }
 
+    public LogFilesBuilder withJobScheduler(JobScheduler jobScheduler) {
+        this.jobScheduler = jobScheduler;
+        return this;
+    }
+
     public LogFilesBuilder withLogProvider(InternalLogProvider logProvider) {
         this.logProvider = logProvider;
         return this;
@@ -321,7 +329,26 @@ public class LogFilesBuilder {
                 databaseLayout.getDatabaseName(),
                 config,
                 externalLogTail,
-                dbmsRuntimeRepository);
+                dbmsRuntimeRepository,
+                getSegmentPoolSize(),
+                getJobScheduler());
+    }
+
+    private int getSegmentPoolSize() {
+        if (readOnly || fileBasedOperationsOnly) {
+            return 0;
+        }
+        return config.get(transaction_log_segment_pool_size);
+    }
+
+    private JobScheduler getJobScheduler() {
+        if (jobScheduler != null) {
+            return jobScheduler;
+        }
+        if (dependencies != null && dependencies.containsDependency(JobScheduler.class)) {
+            return dependencies.resolveDependency(JobScheduler.class);
+        }
+        return null;
     }
 
     private CommandReaderFactory commandReaderFactory() {
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import static java.lang.Math.min;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static org.neo4j.io.ByteUnit.kibiBytes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.HeapScopedBuffer;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
+
+/**
+ * A pool of spare segments for the transaction log files.
+ * <p>
+ * Creating the next log file on rotation means creating a file and allocating its space, and the file system metadata
+ * updates that causes can stall the commits that wait for the rotation. With the pool, rotation instead renames a
+ * segment that has already been allocated and filled with zeros, so that it looks like a pre-allocated log file.
+ * Pruned log files are renamed into the pool rather than deleted, and when the pool runs out of segments, the next one
+ * is created. Both the filling of recycled segments and the creation of new ones happen in the background, so the pool
+ * needs a job scheduler, and without one pruned log files are simply deleted.
+ * <p>
+ * Segments are named so that they are never mistaken for log files, and they are filled with zeros before they are
+ * handed out, so that the entries of the log file they used to be can never be read as entries of the log version
+ * they become. The header of a segment is written when it is taken into use, like for any new log file.
+ */
+public class LogSegmentPool {
+    static final String SEGMENT_PREFIX = "pooled-";
+    private static final int ZERO_BUFFER_SIZE = (int) kibiBytes(256);
+
+    private final FileSystemAbstraction fileSystem;
+    private final Path directory;
+    private final String segmentBaseName;
+    private final int capacity;
+    private final AtomicLong segmentSize;
+    private final JobScheduler jobScheduler;
+    private final String databaseName;
+    private final MemoryTracker memoryTracker;
+    private final InternalLog log;
+    private final AtomicBoolean preparing = new AtomicBoolean();
+    // Guarded by this
+    private final Deque<Path> segments = new ArrayDeque<>();
+    // Recycled segments that still have to be filled with zeros. Guarded by this
+    private final Deque<Path> recycledSegments = new ArrayDeque<>();
+    private int reservedSegments;
+    private long nextSegmentId;
+    private volatile boolean stopped = true;
+
+    LogSegmentPool(TransactionLogFilesContext context, Path directory, String baseName) {
+        this.fileSystem = context.getFileSystem();
+        this.directory = directory;
+        this.segmentBaseName = SEGMENT_PREFIX + baseName + ".";
+        this.capacity = context.getSegmentPoolSize();
+        this.segmentSize = context.getRotationThreshold();
+        this.jobScheduler = context.getJobScheduler();
+        this.databaseName = context.getDatabaseName();
+        this.memoryTracker = context.getMemoryTracker();
+        this.log = context.getLogProvider().getLog(getClass());
+    }
+
+    void start() throws IOException {
+        // Segments that were left behind by a previous run may not have been completely filled with zeros,
+        // so start from an empty pool.
+        for (Path segment : fileSystem.listFiles(directory, this::isSegment)) {
+            fileSystem.deleteFile(segment);
+        }
+        synchronized (this) {
+            segments.clear();
+            recycledSegments.clear();
+            reservedSegments = 0;
+        }
+        stopped = false;
+        prepareInBackground();
+    }
+
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Move a log file that is no longer needed into the pool. The file is only renamed, it is filled with zeros in the
+     * background before it can be handed out.
+     *
+     * @param logFile the log file to recycle.
+     * @return {@code true} if the file was recycled, or {@code false} if the pool is full, or has no job scheduler, and
+     * the file should be deleted instead.
+     */
+    boolean recycle(Path logFile) throws IOException {
+        if (jobScheduler == null) {
+            return false;
+        }
+        Path segment = reserveSegment();
+        if (segment == null) {
+            return false;
+        }
+        boolean renamed = false;
+        try {
+            fileSystem.renameFile(logFile, segment, ATOMIC_MOVE);
+            renamed = true;
+        } finally {
+            synchronized (this) {
+                reservedSegments--;
+                if (renamed) {
+                    recycledSegments.addLast(segment);
+                }
+            }
+        }
+        prepareInBackground();
+        return true;
+    }
+
+    /**
+     * Take a segment from the pool, and rename it to the given log file.
+     *
+     * @param logFile the log file to create from a pooled segment.
+     * @return {@code true} if the log file was created from a segment, or {@code false} if the pool was empty.
+     */
+    boolean take(Path logFile) throws IOException {
+        Path segment;
+        synchronized (this) {
+            segment = segments.pollFirst();
+        }
+        if (segment != null) {
+            fileSystem.renameFile(segment, logFile, ATOMIC_MOVE);
+        }
+        prepareInBackground();
+        return segment != null;
+    }
+
+    synchronized int size() {
+        return segments.size();
+    }
+
+    private void prepareInBackground() {
+        if (jobScheduler == null || stopped || !preparing.compareAndSet(false, true)) {
+            return;
+        }
+        var monitoringParams =
+                JobMonitoringParams.systemJob(databaseName, "Preparation of the next transaction log segment");
+        jobScheduler.schedule(Group.LOG_ROTATION, monitoringParams, this::prepareSegments);
+    }
+
+    private void prepareSegments() {
+        try {
+            Path segment;
+            while ((segment = nextSegmentToPrepare()) != null) {
+                completeSegment(segment);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to prepare the next transaction log segment.", e);
+        } finally {
+            preparing.set(false);
+        }
+        if (hasRecycledSegments()) {
+            // A segment was recycled after we last looked, but before we were done.
+            prepareInBackground();
+        }
+    }
+
+    /**
+     * @return the next recycled segment to fill with zeros, or a new segment if the pool is empty, or {@code null} if
+     * there is nothing to prepare.
+     */
+    private synchronized Path nextSegmentToPrepare() {
+        if (stopped) {
+            return null;
+        }
+        Path recycled = recycledSegments.pollFirst();
+        if (recycled != null) {
+            reservedSegments++;
+            return recycled;
+        }
+        return segments.isEmpty() ? reserveSegment() : null;
+    }
+
+    private synchronized boolean hasRecycledSegments() {
+        return !stopped && !recycledSegments.isEmpty();
+    }
+
+    private synchronized Path reserveSegment() {
+        if (stopped || segments.size() + recycledSegments.size() + reservedSegments >= capacity) {
+            return null;
+        }
+        reservedSegments++;
+        return directory.resolve(segmentBaseName + nextSegmentId++);
+    }
+
+    private void completeSegment(Path segment) throws IOException {
+        boolean completed = false;
+        try {
+            completed = fillWithZeros(segment);
+        } finally {
+            synchronized (this) {
+                reservedSegments--;
+                if (completed) {
+                    segments.addLast(segment);
+                }
+            }
+            if (!completed) {
+                fileSystem.deleteFile(segment);
+            }
+        }
+    }
+
+    private boolean fillWithZeros(Path segment) throws IOException {
+        long size = segmentSize.get();
+        try (StoreChannel channel = fileSystem.write(segment);
+                var scopedBuffer = new HeapScopedBuffer(ZERO_BUFFER_SIZE, ByteOrder.LITTLE_ENDIAN, memoryTracker)) {
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+            ByteBuffer zeros = scopedBuffer.getBuffer();
+            for (long position = 0; position < size; position += zeros.capacity()) {
+                if (stopped) {
+                    return false;
+                }
+                zeros.clear().limit((int) min(zeros.capacity(), size - position));
+                channel.writeAll(zeros, position);
+            }
+            channel.force(true);
+        }
+        return true;
+    }
+
+    private boolean isSegment(Path file) {
+        return file.getFileName().toString().startsWith(segmentBaseName);
+    }
+}
@@ -43,18 +43,29 @@ public class TransactionLogChannelAllocator {
     private final LogHeaderCache logHeaderCache;
     private final ChannelNativeAccessor nativeChannelAccessor;
     private final DatabaseTracer databaseTracer;
+    private final LogSegmentPool segmentPool;
 
     public TransactionLogChannelAllocator(
             TransactionLogFilesContext logFilesContext,
             TransactionLogFilesHelper fileHelper,
             LogHeaderCache logHeaderCache,
             ChannelNativeAccessor nativeChannelAccessor) {
+        this(logFilesContext, fileHelper, logHeaderCache, nativeChannelAccessor, null);
+    }
+
+    public TransactionLogChannelAllocator(
+            TransactionLogFilesContext logFilesContext,
+            TransactionLogFilesHelper fileHelper,
+            LogHeaderCache logHeaderCache,
+            ChannelNativeAccessor nativeChannelAccessor,
+            LogSegmentPool segmentPool) {
         this.logFilesContext = logFilesContext;
         this.fileSystem = logFilesContext.getFileSystem();
         this.databaseTracer = logFilesContext.getDatabaseTracers().getDatabaseTracer();
         this.fileHelper = fileHelper;
         this.logHeaderCache = logHeaderCache;
         this.nativeChannelAccessor = nativeChannelAccessor;
+        this.segmentPool = segmentPool;
     }
 
     public PhysicalLogVersionedStoreChannel createLogChannel(long version, LongSupplier lastCommittedTransactionId)
@@ -130,8 +141,10 @@ public class TransactionLogChannelAllocator {
     private AllocatedFile allocateFile(long version) throws IOException {
         Path file = fileHelper.getLogFileForVersion(version);
         boolean fileExist = fileSystem.fileExists(file);
+        // A pooled segment is already allocated and filled with zeros, so it can be used like an existing file
+        boolean pooledSegment = !fileExist && segmentPool != null && segmentPool.take(file);
         StoreChannel storeChannel = fileSystem.write(file);
-        if (fileExist) {
+        if (fileExist || pooledSegment) {
             nativeChannelAccessor.adviseSequentialAccessAndKeepInCache(storeChannel, version);
         } else if (logFilesContext.getTryPreallocateTransactionLogs().get()) {
             nativeChannelAccessor.preallocateSpace(storeChannel, version);
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.transaction.log.files;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_compression_threshold;
 import static org.neo4j.configuration.GraphDatabaseSettings.transaction_log_buffer_size;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.rotation.FileLogRotation.transactionLogRotation;
@@ -69,6 +70,7 @@ import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.CommandsBuffer;
 import org.neo4j.kernel.impl.transaction.log.rotation.LogRotation;
 import org.neo4j.kernel.impl.transaction.log.rotation.monitor.LogRotationMonitor;
 import org.neo4j.kernel.impl.transaction.tracing.LogForceEvent;
@@ -106,6 +108,8 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
     private final LogHeaderCache logHeaderCache;
     private final FileSystemAbstraction fileSystem;
     private final ConcurrentMap<Long, List<StoreChannel>> externalFileReaders = new ConcurrentHashMap<>();
+    private final LogSegmentPool segmentPool;
+    private CommandsBuffer commandsBuffer;
     private TransactionLogWriter transactionLogWriter;
 
     TransactionLogFile(LogFiles logFiles, TransactionLogFilesContext context, String baseName) {
@@ -118,8 +122,15 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         this.fileHelper = new TransactionLogFilesHelper(fileSystem, logFiles.logFilesDirectory(), baseName);
         this.logHeaderCache = new LogHeaderCache(1000);
         this.logFileInformation = new TransactionLogFileInformation(logFiles, logHeaderCache, context);
+        this.segmentPool = context.getSegmentPoolSize() > 0
+                ? new LogSegmentPool(context, logFiles.logFilesDirectory(), baseName)
+                : null;
         this.channelAllocator = new TransactionLogChannelAllocator(
-                context, fileHelper, logHeaderCache, new LogFileChannelNativeAccessor(fileSystem, context));
+                context,
+                fileHelper,
+                logHeaderCache,
+                new LogFileChannelNativeAccessor(fileSystem, context),
+                segmentPool);
         this.readerLogVersionBridge = new ReaderLogVersionBridge(this);
         this.pageCacheTracer = context.getDatabaseTracers().getPageCacheTracer();
         this.logRotation = transactionLogRotation(
@@ -134,6 +145,9 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
 
     @Override
     public void start() throws IOException {
+        if (segmentPool != null) {
+            segmentPool.start();
+        }
         long currentLogVersion = logVersionRepository.getCurrentLogVersion();
         channel = createLogChannelForVersion(currentLogVersion, () -> context.getLastCommittedTransactionIdProvider()
                 .getLastCommittedTransactionId(logFiles));
@@ -146,8 +160,13 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
                 channel,
                 new NativeScopedBuffer(
                         context.getConfig().get(transaction_log_buffer_size), ByteOrder.LITTLE_ENDIAN, memoryTracker));
-        transactionLogWriter =
-                new TransactionLogWriter(writer, new DbmsLogEntryWriterFactory(context.getKernelVersionProvider()));
+        long compressionThreshold = context.getConfig().get(transaction_log_compression_threshold);
+        commandsBuffer = compressionThreshold > 0 ? new CommandsBuffer(memoryTracker) : null;
+        transactionLogWriter = new TransactionLogWriter(
+                writer,
+                new DbmsLogEntryWriterFactory(context.getKernelVersionProvider()),
+                compressionThreshold,
+                commandsBuffer);
     }
 
     // In order to be able to write into a logfile after life.stop during shutdown sequence
@@ -155,7 +174,10 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
     // checkpoint) are already in
     @Override
     public void shutdown() throws IOException {
-        IOUtils.closeAll(writer);
+        if (segmentPool != null) {
+            segmentPool.stop();
+        }
+        IOUtils.closeAll(writer, commandsBuffer);
     }
 
     @Override
@@ -185,6 +207,14 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         return channelAllocator.createLogChannel(version, lastTransactionIdSupplier);
     }
 
+    @Override
+    public void prune(long version) throws IOException {
+        Path logFile = getLogFileForVersion(version);
+        if (segmentPool == null || !segmentPool.recycle(logFile)) {
+            fileSystem.deleteFile(logFile);
+        }
+    }
+
     @Override
     public boolean rotationNeeded() throws IOException {
         return writer.getCurrentPosition().getByteOffset() >= rotateAtSize.get();
@@ -266,6 +296,11 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         return logRotation;
     }
 
+    @VisibleForTesting
+    LogSegmentPool getSegmentPool() {
+        return segmentPool;
+    }
+
     @Override
     public TransactionLogWriter getTransactionLogWriter() {
         return transactionLogWriter;
@@ -34,6 +34,7 @@ import org.neo4j.logging.InternalLogProvider;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.CommandReaderFactory;
 import org.neo4j.storageengine.api.KernelVersionRepository;
 import org.neo4j.storageengine.api.StoreId;
@@ -61,6 +62,8 @@ public class TransactionLogFilesContext {
     private final Config config;
     private final LogTailMetadata externalTailInfo;
     private final DbmsRuntimeRepository dbmsRuntimeRepository;
+    private final int segmentPoolSize;
+    private final JobScheduler jobScheduler;
 
     public TransactionLogFilesContext(
             AtomicLong rotationThreshold,
@@ -84,7 +87,9 @@ public class TransactionLogFilesContext {
             String databaseName,
             Config config,
             LogTailMetadata externalTailInfo,
-            DbmsRuntimeRepository dbmsRuntimeRepository) {
+            DbmsRuntimeRepository dbmsRuntimeRepository,
+            int segmentPoolSize,
+            JobScheduler jobScheduler) {
         this.rotationThreshold = rotationThreshold;
         this.tryPreallocateTransactionLogs = tryPreallocateTransactionLogs;
         this.commandReaderFactory = commandReaderFactory;
@@ -107,6 +112,8 @@ public class TransactionLogFilesContext {
         this.config = config;
         this.externalTailInfo = externalTailInfo;
         this.dbmsRuntimeRepository = dbmsRuntimeRepository;
+        this.segmentPoolSize = segmentPoolSize;
+        this.jobScheduler = jobScheduler;
     }
 
     AtomicLong getRotationThreshold() {
@@ -196,4 +203,15 @@ public class TransactionLogFilesContext {
     public DbmsRuntimeRepository getDbmsRuntimeRepository() {
         return dbmsRuntimeRepository;
     }
+
+    int getSegmentPoolSize() {
+        return segmentPoolSize;
+    }
+
+    /**
+     * @return the job scheduler to run background work of the log files on, or {@code null} if there is none.
+     */
+    JobScheduler getJobScheduler() {
+        return jobScheduler;
+    }
 }
@@ -52,6 +52,7 @@ import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.LogEntryRollbackV5_1;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.LogTailInformation;
@@ -209,6 +210,9 @@ public class DetachedLogTailScanner {
                             commit = (LogEntryCommit) entry;
                         } else if (start == null && entry instanceof LogEntryStart) {
                             start = (LogEntryStart) entry;
+                        } else if (commit == null && entry instanceof LogEntryRollbackV5_1) {
+                            // A transaction appended in chunks that was rolled back needs no recovery
+                            start = null;
                         }
                     }
                 }
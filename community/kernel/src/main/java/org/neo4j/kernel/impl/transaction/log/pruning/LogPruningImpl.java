@@ -89,7 +89,7 @@ public class LogPruningImpl implements LogPruning {
             LogFile logFile = logFiles.getLogFile();
             LogPruneStrategy strategy = this.pruneStrategy;
 
-            CountingDeleter deleter = new CountingDeleter(logFile, fs);
+            CountingDeleter deleter = new CountingDeleter(logFile);
             LongRange versionsToDelete = strategy.findLogVersionsToDelete(upToVersion);
             logFile.terminateExternalReaders(versionsToDelete.to());
             versionsToDelete.stream().forEachOrdered(deleter);
@@ -131,13 +131,11 @@ public class LogPruningImpl implements LogPruning {
     private static class CountingDeleter implements LongConsumer {
         private static final int NO_VERSION = -1;
         private final LogFile logFile;
-        private final FileSystemAbstraction fs;
         private long fromVersion;
         private long toVersion;
 
-        private CountingDeleter(LogFile logFile, FileSystemAbstraction fs) {
+        private CountingDeleter(LogFile logFile) {
             this.logFile = logFile;
-            this.fs = fs;
             fromVersion = NO_VERSION;
             toVersion = NO_VERSION;
         }
@@ -146,9 +144,8 @@ public class LogPruningImpl implements LogPruning {
         public void accept(long version) {
             fromVersion = fromVersion == NO_VERSION ? version : Math.min(fromVersion, version);
             toVersion = toVersion == NO_VERSION ? version : Math.max(toVersion, version);
-            Path logFilePath = logFile.getLogFileForVersion(version);
             try {
-                fs.deleteFile(logFilePath);
+                logFile.prune(version);
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
             }
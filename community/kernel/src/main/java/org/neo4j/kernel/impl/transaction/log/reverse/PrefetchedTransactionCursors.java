@@ -21,13 +21,15 @@ package org.neo4j.kernel.impl.transaction.log.reverse;
 
 import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
 import static org.neo4j.kernel.impl.transaction.log.reverse.EagerlyReversedTransactionCursor.eagerlyReverse;
+import static org.neo4j.scheduler.Group.FILE_IO_HELPER;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
@@ -35,72 +37,119 @@ import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
 import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
 
+/**
+ * Sketches the log versions that are to be read next in the background, while the current one is being read.
+ * Up to {@code parallelism} log versions are sketched in parallel on the {@link JobScheduler}, each with its own
+ * {@link LogEntryReader}. Sketched versions are kept until they are read, so at most {@code parallelism} of them are
+ * held in memory in addition to the one being read.
+ */
 public class PrefetchedTransactionCursors implements TransactionCursors {
-    private final BlockingQueue<TransactionCursor> cursors = new LinkedBlockingDeque<>(2);
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Deque<JobHandle<TransactionCursor>> sketches = new ArrayDeque<>();
+    private final JobScheduler jobScheduler;
     private final LogFile logFile;
     private final LogPosition beginning;
-    private final LogEntryReader reader;
+    private final Supplier<LogEntryReader> readers;
     private final boolean failOnCorruptedLogFiles;
     private final ReversedTransactionCursorMonitor monitor;
-    private long currentVersion;
+    private final int parallelism;
+    private long nextVersionToSketch;
+    private volatile boolean closed;
 
     public PrefetchedTransactionCursors(
             LogFile logFile,
             LogPosition beginning,
-            LogEntryReader reader,
+            Supplier<LogEntryReader> readers,
             boolean failOnCorruptedLogFiles,
-            ReversedTransactionCursorMonitor monitor) {
+            ReversedTransactionCursorMonitor monitor,
+            int parallelism,
+            JobScheduler jobScheduler) {
         this.logFile = logFile;
         this.beginning = beginning;
-        this.reader = reader;
+        this.readers = readers;
         this.failOnCorruptedLogFiles = failOnCorruptedLogFiles;
         this.monitor = monitor;
-        this.currentVersion = logFile.getHighestLogVersion();
+        this.parallelism = parallelism;
+        this.jobScheduler = jobScheduler;
+        this.nextVersionToSketch = logFile.getHighestLogVersion();
         monitor.presketchingTransactionLogs();
-        executor.execute(this::prepare);
+        sketchAhead();
     }
 
     @Override
     public Optional<TransactionCursor> next() {
-        try {
-            var cursor = cursors.take();
-            if (cursor == NO_MORE_CURSORS) {
-                return Optional.empty();
-            }
+        var sketch = sketches.poll();
+        if (sketch == null) {
+            return Optional.empty();
+        }
+        sketchAhead();
 
-            return Optional.of(cursor);
+        try {
+            return Optional.of(sketch.get());
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
         }
     }
 
-    private void prepare() {
-        try {
-            while (currentVersion >= beginning.getLogVersion()) {
-                LogPosition position = currentVersion > beginning.getLogVersion()
-                        ? logFile.extractHeader(currentVersion).getStartPosition()
-                        : beginning;
-                ReadableLogChannel channel = logFile.getReader(position, NO_MORE_CHANNELS);
-                if (channel instanceof ReadAheadLogChannel) {
-                    cursors.put(new ReversedSingleFileTransactionCursor(
-                            (ReadAheadLogChannel) channel, reader, failOnCorruptedLogFiles, monitor));
-                } else {
-                    cursors.put(eagerlyReverse(new PhysicalTransactionCursor(channel, reader)));
-                }
-                currentVersion--;
-            }
+    private void sketchAhead() {
+        while (sketches.size() < parallelism && nextVersionToSketch >= beginning.getLogVersion()) {
+            long version = nextVersionToSketch--;
+            sketches.add(jobScheduler.schedule(
+                    FILE_IO_HELPER,
+                    systemJob("Pre-sketching of transaction log version " + version),
+                    () -> sketch(version)));
+        }
+    }
 
-            // Poison pill
-            cursors.put(NO_MORE_CURSORS);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+    private TransactionCursor sketch(long version) throws IOException {
+        if (closed) {
+            // Closed before this sketch got to run, so there is no one to read it
+            return null;
+        }
+        LogPosition position = version > beginning.getLogVersion()
+                ? logFile.extractHeader(version).getStartPosition()
+                : beginning;
+        ReadableLogChannel channel = logFile.getReader(position, NO_MORE_CHANNELS);
+        LogEntryReader reader = readers.get();
+        if (channel instanceof ReadAheadLogChannel) {
+            return new ReversedSingleFileTransactionCursor(
+                    (ReadAheadLogChannel) channel, reader, failOnCorruptedLogFiles, monitor);
         }
+        return eagerlyReverse(new PhysicalTransactionCursor(channel, reader));
     }
 
     @Override
     public void close() throws IOException {
-        executor.shutdown();
+        // Sketches that were never read still hold on to their channels. Sketches that have not started yet see
+        // the flag and open nothing, the ones that are running are waited for, so that their channels are closed too
+        closed = true;
+        IOException error = null;
+        for (var sketch : sketches) {
+            try {
+                TransactionCursor cursor = sketch.get();
+                if (cursor != null) {
+                    cursor.close();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // Failed sketches have nothing to close
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                } else {
+                    error.addSuppressed(e);
+                }
+            }
+        }
+        sketches.clear();
+        if (error != null) {
+            throw error;
+        }
     }
 }
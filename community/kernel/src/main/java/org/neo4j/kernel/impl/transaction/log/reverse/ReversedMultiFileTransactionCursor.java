@@ -20,12 +20,14 @@
 package org.neo4j.kernel.impl.transaction.log.reverse;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
+import org.neo4j.scheduler.JobScheduler;
 
 /**
  * Similar to {@link PhysicalTransactionCursor} and actually uses it internally. This main difference is that transactions
@@ -49,26 +51,36 @@ public class ReversedMultiFileTransactionCursor implements TransactionCursor {
      *
      * @param logFile accessor of log files.
      * @param backToPosition {@link LogPosition} to read backwards to.
-     * @param logEntryReader {@link LogEntryReader} to use.
+     * @param logEntryReaders supplier of the {@link LogEntryReader} to use for each log version.
      * @param failOnCorruptedLogFiles fail reading from log files as soon as first error is encountered
      * @param monitor reverse transaction cursor monitor
-     * @param presketch enables pre-sketching of next transaction file.
+     * @param presketchParallelism number of next transaction files to pre-sketch in parallel, or {@code 0} to not
+     * pre-sketch at all.
+     * @param jobScheduler scheduler to pre-sketch transaction files on, only used if {@code presketchParallelism}
+     * is positive.
      * @return a {@link TransactionCursor} which returns transactions from the end of the log stream and backwards to
      * and including transaction starting at {@link LogPosition}.
      */
     public static TransactionCursor fromLogFile(
             LogFile logFile,
             LogPosition backToPosition,
-            LogEntryReader logEntryReader,
+            Supplier<LogEntryReader> logEntryReaders,
             boolean failOnCorruptedLogFiles,
             ReversedTransactionCursorMonitor monitor,
-            boolean presketch) {
-        if (presketch) {
+            int presketchParallelism,
+            JobScheduler jobScheduler) {
+        if (presketchParallelism > 0) {
             return new ReversedMultiFileTransactionCursor(new PrefetchedTransactionCursors(
-                    logFile, backToPosition, logEntryReader, failOnCorruptedLogFiles, monitor));
+                    logFile,
+                    backToPosition,
+                    logEntryReaders,
+                    failOnCorruptedLogFiles,
+                    monitor,
+                    presketchParallelism,
+                    jobScheduler));
         } else {
             return new ReversedMultiFileTransactionCursor(new DefaultTransactionCursors(
-                    logFile, backToPosition, logEntryReader, failOnCorruptedLogFiles, monitor));
+                    logFile, backToPosition, logEntryReaders.get(), failOnCorruptedLogFiles, monitor));
         }
     }
 
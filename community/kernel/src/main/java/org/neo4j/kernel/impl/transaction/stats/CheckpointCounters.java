@@ -65,4 +65,14 @@ public interface CheckpointCounters {
      * Number of millis last checkpoint IOs was limited by io controller
      */
     long lastCheckpointIOLimitedMillis();
+
+    /**
+     * Number of times an adaptive io controller lowered its limit during last checkpoint
+     */
+    long lastCheckpointIOLimitDecreases();
+
+    /**
+     * Number of times an adaptive io controller raised its limit during last checkpoint
+     */
+    long lastCheckpointIOLimitIncreases();
 }
@@ -50,6 +50,18 @@ public interface TransactionLogCounters {
      */
     long numberOfFlushes();
 
+    /**
+     * Total number of forces of the transaction log, each of which made a batch of appended transactions durable
+     * @return number of forces
+     */
+    long numberOfLogForces();
+
+    /**
+     * Accumulated time in nanoseconds spent forcing the transaction log
+     * @return accumulated log force time in nanoseconds
+     */
+    long logForceAccumulatedTotalTimeNanos();
+
     /**
      * Size of last batch of transactions that was appended to transaction log
      * @return last append batch size
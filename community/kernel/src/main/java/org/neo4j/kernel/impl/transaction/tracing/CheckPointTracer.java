@@ -67,6 +67,16 @@ public interface CheckPointTracer extends CheckpointCounters {
         public long lastCheckpointIOLimitedMillis() {
             return 0;
         }
+
+        @Override
+        public long lastCheckpointIOLimitDecreases() {
+            return 0;
+        }
+
+        @Override
+        public long lastCheckpointIOLimitIncreases() {
+            return 0;
+        }
     };
 
     /**
@@ -64,6 +64,16 @@ public interface DatabaseTracer extends TransactionTracer, CheckPointTracer {
             return 0;
         }
 
+        @Override
+        public long lastCheckpointIOLimitDecreases() {
+            return 0;
+        }
+
+        @Override
+        public long lastCheckpointIOLimitIncreases() {
+            return 0;
+        }
+
         @Override
         public LogFileCreateEvent createLogFile() {
             return LogFileCreateEvent.NULL;
@@ -120,6 +130,16 @@ public interface DatabaseTracer extends TransactionTracer, CheckPointTracer {
             return 0;
         }
 
+        @Override
+        public long numberOfLogForces() {
+            return 0;
+        }
+
+        @Override
+        public long logForceAccumulatedTotalTimeNanos() {
+            return 0;
+        }
+
         @Override
         public long lastTransactionLogAppendBatch() {
             return 0;
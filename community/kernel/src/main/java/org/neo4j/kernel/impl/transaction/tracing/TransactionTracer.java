@@ -65,6 +65,16 @@ public interface TransactionTracer extends TransactionLogCounters {
             return 0;
         }
 
+        @Override
+        public long numberOfLogForces() {
+            return 0;
+        }
+
+        @Override
+        public long logForceAccumulatedTotalTimeNanos() {
+            return 0;
+        }
+
         @Override
         public long lastTransactionLogAppendBatch() {
             return 0;
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.util.collection;
 
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.neo4j.kernel.impl.util.diffsets.MutableLongDiffSets;
@@ -36,6 +37,8 @@ public interface CollectionsFactory {
 
     MutableLongObjectMap<Value> newValuesMap(MemoryTracker memoryTracker);
 
+    MutableLongLongMap newLongLongMap(MemoryTracker memoryTracker);
+
     /**
      * Release previously created collections. This method does not invalidate the factory.
      */
@@ -23,6 +23,7 @@ import static org.neo4j.kernel.impl.util.diffsets.TrackableDiffSets.newMutableLo
 
 import java.util.ArrayList;
 import java.util.Collection;
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.neo4j.graphdb.Resource;
@@ -65,6 +66,13 @@ public class OffHeapCollectionsFactory implements CollectionsFactory {
         return new ValuesMap(refs, valuesContainer);
     }
 
+    @Override
+    public MutableLongLongMap newLongLongMap(MemoryTracker memoryTracker) {
+        final LinearProbeLongLongHashMap map = new LinearProbeLongLongHashMap(allocator, memoryTracker);
+        resources.add(map);
+        return map;
+    }
+
     @Override
     public void release() {
         resources.forEach(Resource::close);
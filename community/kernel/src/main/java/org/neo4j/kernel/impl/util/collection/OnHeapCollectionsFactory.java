@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.util.collection;
 
 import static org.neo4j.kernel.impl.util.collection.HeapTrackingValuesMap.createValuesMap;
 
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.neo4j.collection.trackable.HeapTrackingCollections;
@@ -51,6 +52,11 @@ public class OnHeapCollectionsFactory implements CollectionsFactory {
         return createValuesMap(memoryTracker);
     }
 
+    @Override
+    public MutableLongLongMap newLongLongMap(MemoryTracker memoryTracker) {
+        return HeapTrackingCollections.newLongLongMap(memoryTracker);
+    }
+
     @Override
     public void release() {
         // nop
@@ -46,6 +46,7 @@ public class DefaultRecoveryService implements RecoveryService {
     private final LogicalTransactionStore logicalTransactionStore;
     private final LogVersionRepository logVersionRepository;
     private final InternalLog log;
+    private final RecoveryMonitor recoveryMonitor;
     private final boolean doParallelRecovery;
 
     DefaultRecoveryService(
@@ -57,11 +58,34 @@ public class DefaultRecoveryService implements RecoveryService {
             RecoveryStartInformationProvider.Monitor monitor,
             InternalLog log,
             boolean doParallelRecovery) {
+        this(
+                storageEngine,
+                transactionIdStore,
+                logicalTransactionStore,
+                logVersionRepository,
+                logFiles,
+                monitor,
+                new RecoveryMonitor() {},
+                log,
+                doParallelRecovery);
+    }
+
+    DefaultRecoveryService(
+            StorageEngine storageEngine,
+            TransactionIdStore transactionIdStore,
+            LogicalTransactionStore logicalTransactionStore,
+            LogVersionRepository logVersionRepository,
+            LogFiles logFiles,
+            RecoveryStartInformationProvider.Monitor monitor,
+            RecoveryMonitor recoveryMonitor,
+            InternalLog log,
+            boolean doParallelRecovery) {
         this.storageEngine = storageEngine;
         this.transactionIdStore = transactionIdStore;
         this.logicalTransactionStore = logicalTransactionStore;
         this.logVersionRepository = logVersionRepository;
         this.log = log;
+        this.recoveryMonitor = recoveryMonitor;
         this.doParallelRecovery = doParallelRecovery;
         this.recoveryStartInformationProvider = new RecoveryStartInformationProvider(logFiles, monitor);
     }
@@ -75,7 +99,7 @@ public class DefaultRecoveryService implements RecoveryService {
     public RecoveryApplier getRecoveryApplier(
             TransactionApplicationMode mode, CursorContextFactory contextFactory, String tracerTag) {
         if (doParallelRecovery) {
-            return new ParallelRecoveryVisitor(storageEngine, mode, contextFactory, tracerTag);
+            return new ParallelRecoveryVisitor(storageEngine, mode, contextFactory, tracerTag, recoveryMonitor);
         }
         return new RecoveryVisitor(storageEngine, mode, contextFactory, tracerTag);
     }
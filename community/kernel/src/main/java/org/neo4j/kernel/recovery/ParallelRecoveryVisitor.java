@@ -20,14 +20,20 @@
 package org.neo4j.kernel.recovery;
 
 import static java.lang.Integer.max;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.neo4j.kernel.impl.transaction.log.Commitment.NO_COMMITMENT;
-import static org.neo4j.util.Preconditions.checkState;
 
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.io.pagecache.context.CursorContext;
@@ -35,33 +41,54 @@ import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.lock.Lock;
 import org.neo4j.lock.LockGroup;
 import org.neo4j.lock.LockService;
-import org.neo4j.lock.ReentrantLockService;
+import org.neo4j.lock.LockType;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 
+/**
+ * Applies recovered transactions on a pool of appliers, ordering only the transactions that depend on each other.
+ * <p>
+ * The reading thread lets the storage engine take the recovery locks of each transaction on a {@link LockService}
+ * that only records the locked resources. A transaction is then applied as soon as the earlier transactions that
+ * locked any of the same resources have been applied, and in parallel with all other transactions. Since the reading
+ * thread never waits for earlier transactions, it reads ahead in the log until the window of transactions that are
+ * read but not yet applied is full.
+ */
 final class ParallelRecoveryVisitor implements RecoveryApplier {
-    private final AtomicLong prevLockedTxId = new AtomicLong(-1);
+    static final int MAX_IN_FLIGHT_TRANSACTIONS_PER_APPLIER = 256;
+    private static final RecoveryMonitor NO_MONITOR = new RecoveryMonitor() {};
+    private static final long FAILURE_CHECK_INTERVAL_MILLIS = 100;
+
     private final StorageEngine storageEngine;
-    private final LockService lockService = new ReentrantLockService();
     private final TransactionApplicationMode mode;
     private final CursorContextFactory contextFactory;
     private final String tracerTag;
+    private final RecoveryMonitor monitor;
     private final ExecutorService appliers;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final ResourceRecorder resourceRecorder = new ResourceRecorder();
+    private final Map<Resource, CompletableFuture<Void>> lastTransactionOfResource = new ConcurrentHashMap<>();
     private final AtomicReference<Throwable> failure = new AtomicReference<>();
-    private final int stride;
+    private long recoveredTransactions;
+    private long dependentTransactions;
+    private int peakInFlight;
 
     ParallelRecoveryVisitor(
             StorageEngine storageEngine,
             TransactionApplicationMode mode,
             CursorContextFactory contextFactory,
-            String tracerTag) {
+            String tracerTag,
+            RecoveryMonitor monitor) {
         this(
                 storageEngine,
                 mode,
                 contextFactory,
                 tracerTag,
+                monitor,
                 max(1, Runtime.getRuntime().availableProcessors() - 1));
     }
 
@@ -71,51 +98,76 @@ final class ParallelRecoveryVisitor implements RecoveryApplier {
             CursorContextFactory contextFactory,
             String tracerTag,
             int numAppliers) {
+        this(storageEngine, mode, contextFactory, tracerTag, NO_MONITOR, numAppliers);
+    }
+
+    ParallelRecoveryVisitor(
+            StorageEngine storageEngine,
+            TransactionApplicationMode mode,
+            CursorContextFactory contextFactory,
+            String tracerTag,
+            RecoveryMonitor monitor,
+            int numAppliers) {
         this.storageEngine = storageEngine;
         this.mode = mode;
         this.contextFactory = contextFactory;
         this.tracerTag = tracerTag;
-        this.appliers = new ThreadPoolExecutor(
-                numAppliers,
-                numAppliers,
-                1,
-                TimeUnit.HOURS,
-                new ArrayBlockingQueue<>(numAppliers),
-                new ThreadPoolExecutor.CallerRunsPolicy());
-        this.stride = mode == TransactionApplicationMode.REVERSE_RECOVERY ? -1 : 1;
+        this.monitor = monitor;
+        this.appliers = Executors.newFixedThreadPool(numAppliers);
+        this.maxInFlight = numAppliers * MAX_IN_FLIGHT_TRANSACTIONS_PER_APPLIER;
+        this.inFlight = new Semaphore(maxInFlight);
     }
 
     @Override
     public boolean visit(CommittedTransactionRepresentation transaction) throws Exception {
         checkFailure();
+        awaitInFlightSlot();
 
-        // We need to know the starting point for the "is it my turn yet?" check below that each thread needs to do
-        // before acquiring the locks
-        prevLockedTxId.compareAndSet(-1, transaction.getCommitEntry().getTxId() - stride);
-
-        // TODO Also consider the memory usage of all active transaction instances and apply back-pressure if surpassing
-        // it
-        appliers.submit(() -> {
-            long txId = transaction.getCommitEntry().getTxId();
-            while (prevLockedTxId.get() != txId - stride) {
-                Thread.onSpinWait();
-                checkFailure();
+        Set<Resource> resources = resourceRecorder.resourcesOf(transaction.getTransactionRepresentation());
+        CompletableFuture<Void> applied = new CompletableFuture<>();
+        List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (Resource resource : resources) {
+            CompletableFuture<Void> previous = lastTransactionOfResource.put(resource, applied);
+            if (previous != null && !previous.isDone()) {
+                dependencies.add(previous);
             }
-            try (LockGroup locks = new LockGroup()) {
-                storageEngine.lockRecoveryCommands(
-                        transaction.getTransactionRepresentation(), lockService, locks, mode);
-                boolean myTurn = prevLockedTxId.compareAndSet(txId - stride, txId);
-                checkState(
-                        myTurn,
-                        "Something wrong with the algorithm, I thought it was my turn, but apparently it wasn't %d",
-                        txId);
+        }
+
+        recoveredTransactions++;
+        peakInFlight = max(peakInFlight, maxInFlight - inFlight.availablePermits());
+        Runnable task = () -> applyAndRelease(transaction, resources, applied);
+        if (dependencies.isEmpty()) {
+            appliers.execute(task);
+        } else {
+            dependentTransactions++;
+            CompletableFuture.allOf(dependencies.toArray(CompletableFuture[]::new))
+                    .thenRunAsync(task, appliers);
+        }
+        return false;
+    }
+
+    private void awaitInFlightSlot() throws Exception {
+        while (!inFlight.tryAcquire(FAILURE_CHECK_INTERVAL_MILLIS, MILLISECONDS)) {
+            checkFailure();
+        }
+    }
+
+    private void applyAndRelease(
+            CommittedTransactionRepresentation transaction, Set<Resource> resources, CompletableFuture<Void> applied) {
+        try {
+            // After a failure the store is in an unknown state, the remaining transactions are only drained
+            if (failure.get() == null) {
                 apply(transaction);
-            } catch (Throwable e) {
-                failure.compareAndSet(null, e);
             }
-            return null;
-        });
-        return false;
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            for (Resource resource : resources) {
+                lastTransactionOfResource.remove(resource, applied);
+            }
+            applied.complete(null);
+            inFlight.release();
+        }
     }
 
     private void checkFailure() throws Exception {
@@ -140,8 +192,10 @@ final class ParallelRecoveryVisitor implements RecoveryApplier {
 
     @Override
     public void close() throws Exception {
-        appliers.shutdown();
         try {
+            // All transactions are applied once every slot is back, and only then no more tasks can be scheduled
+            inFlight.acquire(maxInFlight);
+            appliers.shutdown();
             if (!appliers.awaitTermination(1, TimeUnit.HOURS)) {
                 throw new IllegalStateException("Recovery couldn't gracefully await remaining appliers");
             }
@@ -149,5 +203,51 @@ final class ParallelRecoveryVisitor implements RecoveryApplier {
             Thread.currentThread().interrupt();
         }
         checkFailure();
+        monitor.parallelRecoveryCompleted(recoveredTransactions, dependentTransactions, peakInFlight);
+    }
+
+    /**
+     * A resource locked by the storage engine during recovery. Recovery only takes exclusive locks, so all recorded
+     * resources are treated as exclusive.
+     */
+    private record Resource(int type, long id) {
+        static final int NODE = Integer.MIN_VALUE;
+        static final int RELATIONSHIP = Integer.MIN_VALUE + 1;
+    }
+
+    /**
+     * Records the resources that the storage engine locks while recovering a transaction, instead of locking them.
+     * Only used by the reading thread.
+     */
+    private class ResourceRecorder implements LockService {
+        private Set<Resource> resources;
+
+        Set<Resource> resourcesOf(TransactionRepresentation transaction) {
+            resources = new HashSet<>();
+            try (LockGroup locks = new LockGroup()) {
+                storageEngine.lockRecoveryCommands(transaction, this, locks, mode);
+            }
+            return resources;
+        }
+
+        @Override
+        public Lock acquireNodeLock(long nodeId, LockType type) {
+            return record(Resource.NODE, nodeId);
+        }
+
+        @Override
+        public Lock acquireRelationshipLock(long relationshipId, LockType type) {
+            return record(Resource.RELATIONSHIP, relationshipId);
+        }
+
+        @Override
+        public Lock acquireCustomLock(int resourceType, long id, LockType type) {
+            return record(resourceType, id);
+        }
+
+        private Lock record(int type, long id) {
+            resources.add(new Resource(type, id));
+            return NO_LOCK;
+        }
     }
 }
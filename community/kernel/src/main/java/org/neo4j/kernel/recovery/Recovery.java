@@ -572,7 +572,8 @@ public final class Recovery {
                 storageEngineFactory.commandReaderFactory(),
                 monitors,
                 failOnCorruptedLogFiles,
-                config);
+                config,
+                scheduler);
 
         var transactionAppender = createTransactionAppender(
                 logFiles, metadataProvider, metadataCache, config, databaseHealth, scheduler, logProvider);
@@ -601,8 +602,11 @@ public final class Recovery {
                 recoveryPredicate,
                 cursorContextFactory);
 
-        CheckPointerImpl.ForceOperation forceOperation =
-                new DefaultForceOperation(indexingService, storageEngine, databasePageCache);
+        CheckPointerImpl.ForceOperation forceOperation = new DefaultForceOperation(
+                indexingService,
+                storageEngine,
+                databasePageCache,
+                config.get(GraphDatabaseInternalSettings.checkpoint_parallel_flush));
         var checkpointAppender = logFiles.getCheckpointFile().getCheckpointAppender();
         LogPruning logPruning = new LogPruningImpl(
                 fs, logFiles, logProvider, new LogPruneStrategyFactory(), clock, config, new ReentrantLock());
@@ -719,6 +723,7 @@ public final class Recovery {
                 logVersionRepository,
                 logFiles,
                 positionMonitor,
+                recoveryMonitor,
                 log,
                 doParallelRecovery);
         CorruptedLogsTruncator logsTruncator = new CorruptedLogsTruncator(
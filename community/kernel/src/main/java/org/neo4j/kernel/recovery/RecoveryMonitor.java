@@ -36,6 +36,17 @@ public interface RecoveryMonitor {
         // noop
     }
 
+    /**
+     * @param recoveredTransactions number of transactions applied by the parallel appliers.
+     * @param dependentTransactions number of those transactions that had to wait for an earlier transaction touching
+     * the same entities.
+     * @param peakInFlightTransactions highest number of transactions that were read but not yet applied.
+     */
+    default void parallelRecoveryCompleted(
+            long recoveredTransactions, long dependentTransactions, int peakInFlightTransactions) {
+        // noop
+    }
+
     default void reverseStoreRecoveryCompleted(long lowestRecoveredTxId) {
         // noop
     }
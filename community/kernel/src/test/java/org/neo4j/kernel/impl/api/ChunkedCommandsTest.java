@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionLogError;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.ChunkedTransactionAppend;
+import org.neo4j.storageengine.api.StorageCommand;
+
+class ChunkedCommandsTest {
+    private final TransactionCommitProcess commitProcess = mock(TransactionCommitProcess.class);
+    private final RecordingChunkedAppend chunkedAppend = new RecordingChunkedAppend();
+
+    @Test
+    void shouldAppendChunksOfCommandsWhileTheyAreAdded() throws Exception {
+        // given
+        when(commitProcess.beginChunkedCommit(KernelVersion.LATEST, 10, 5)).thenReturn(chunkedAppend);
+        List<StorageCommand> commands = commands(5);
+
+        try (ChunkedCommands chunkedCommands = new ChunkedCommands(commitProcess, 2, 10, 5, INSTANCE)) {
+            // when
+            chunkedCommands.addAll(commands);
+
+            // then
+            assertThat(chunkedAppend.chunks).containsExactly(commands.subList(0, 2), commands.subList(2, 4));
+
+            // when
+            assertSame(chunkedAppend, chunkedCommands.appendLastChunk());
+
+            // then
+            assertThat(chunkedAppend.chunks)
+                    .containsExactly(commands.subList(0, 2), commands.subList(2, 4), commands.subList(4, 5));
+            assertThat(chunkedCommands.commands()).containsExactlyElementsOf(commands);
+            assertThat(chunkedCommands).containsExactlyElementsOf(commands);
+        }
+        assertThat(chunkedAppend.closed).isTrue();
+    }
+
+    @Test
+    void shouldNotAppendCommandsOfTransactionsSmallerThanOneChunk() throws Exception {
+        // given
+        List<StorageCommand> commands = commands(2);
+
+        try (ChunkedCommands chunkedCommands = new ChunkedCommands(commitProcess, 3, 10, 5, INSTANCE)) {
+            // when
+            chunkedCommands.addAll(commands);
+
+            // then
+            assertNull(chunkedCommands.appendLastChunk());
+            assertThat(chunkedCommands.commands()).containsExactlyElementsOf(commands);
+        }
+        verify(commitProcess, never()).beginChunkedCommit(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldNotAppendChunksWhenDisabled() throws Exception {
+        // given
+        List<StorageCommand> commands = commands(5);
+
+        try (ChunkedCommands chunkedCommands = new ChunkedCommands(commitProcess, 0, 10, 5, INSTANCE)) {
+            // when
+            chunkedCommands.addAll(commands);
+
+            // then
+            assertNull(chunkedCommands.appendLastChunk());
+            assertThat(chunkedCommands.commands()).containsExactlyElementsOf(commands);
+        }
+        verify(commitProcess, never()).beginChunkedCommit(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldCommitAsUsualWhenCommitProcessDoesNotCommitInChunks() throws Exception {
+        // given
+        List<StorageCommand> commands = commands(5);
+
+        try (ChunkedCommands chunkedCommands = new ChunkedCommands(commitProcess, 2, 10, 5, INSTANCE)) {
+            // when
+            chunkedCommands.addAll(commands);
+
+            // then
+            assertNull(chunkedCommands.appendLastChunk());
+            assertThat(chunkedCommands.commands()).containsExactlyElementsOf(commands);
+        }
+        verify(commitProcess).beginChunkedCommit(KernelVersion.LATEST, 10, 5);
+    }
+
+    @Test
+    void shouldNotAppendChunksOfKernelVersionsWithoutChunkedTransactions() throws Exception {
+        // given
+        StorageCommand command = mock(StorageCommand.class);
+        when(command.version()).thenReturn(KernelVersion.V5_0);
+
+        try (ChunkedCommands chunkedCommands = new ChunkedCommands(commitProcess, 1, 10, 5, INSTANCE)) {
+            // when
+            chunkedCommands.add(command);
+            chunkedCommands.add(command);
+
+            // then
+            assertNull(chunkedCommands.appendLastChunk());
+            assertThat(chunkedCommands.commands()).containsExactly(command, command);
+        }
+        verify(commitProcess, never()).beginChunkedCommit(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldRollBackChunkedAppendThatIsClosedBeforeCommit() throws Exception {
+        // given
+        when(commitProcess.beginChunkedCommit(KernelVersion.LATEST, 10, 5)).thenReturn(chunkedAppend);
+        ChunkedCommands chunkedCommands = new ChunkedCommands(commitProcess, 2, 10, 5, INSTANCE);
+        chunkedCommands.addAll(commands(3));
+
+        // when
+        chunkedCommands.close();
+
+        // then
+        assertThat(chunkedAppend.chunks).hasSize(1);
+        assertThat(chunkedAppend.closed).isTrue();
+    }
+
+    @Test
+    void shouldCarryFailureToBeginChunkedCommitOutOfAdd() throws Exception {
+        // given
+        TransactionFailureException failure =
+                new TransactionFailureException(TransactionLogError, "Could not append to log");
+        when(commitProcess.beginChunkedCommit(KernelVersion.LATEST, 10, 5)).thenThrow(failure);
+
+        try (ChunkedCommands chunkedCommands = new ChunkedCommands(commitProcess, 2, 10, 5, INSTANCE)) {
+            // when
+            chunkedCommands.add(new TestCommand());
+            var e = assertThrows(
+                    ChunkedCommands.ChunkAppendFailure.class, () -> chunkedCommands.add(new TestCommand()));
+
+            // then
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    private static List<StorageCommand> commands(int count) {
+        List<StorageCommand> commands = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            commands.add(new TestCommand(i + 1));
+        }
+        return commands;
+    }
+
+    private static class RecordingChunkedAppend implements ChunkedTransactionAppend {
+        private final List<List<StorageCommand>> chunks = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void appendChunk(Collection<StorageCommand> commands) {
+            chunks.add(List.copyOf(commands));
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
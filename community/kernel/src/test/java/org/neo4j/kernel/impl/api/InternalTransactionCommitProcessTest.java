@@ -26,18 +26,31 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.internal.helpers.Exceptions.contains;
 import static org.neo4j.internal.kernel.api.security.AuthSubject.ANONYMOUS;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionCommitFailed;
+import static org.neo4j.kernel.database.NamedDatabaseId.NAMED_SYSTEM_DATABASE_ID;
+import static org.neo4j.kernel.impl.scheduler.JobSchedulerFactory.createInitialisedScheduler;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.EXTERNAL;
 import static org.neo4j.storageengine.api.TransactionApplicationMode.INTERNAL;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.FakeCommitment;
@@ -46,10 +59,17 @@ import org.neo4j.kernel.impl.transaction.log.TestableTransactionAppender;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.transaction.tracing.StoreApplyEvent;
+import org.neo4j.logging.NullLog;
+import org.neo4j.monitoring.DatabaseHealth;
+import org.neo4j.monitoring.PanicEventGenerator;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 import org.neo4j.storageengine.api.TransactionIdStore;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.test.OtherThreadExecutor;
+import org.neo4j.util.concurrent.BinaryLatch;
 
 class InternalTransactionCommitProcessTest {
     private final CommitEvent commitEvent = CommitEvent.NULL;
@@ -121,6 +141,279 @@ class InternalTransactionCommitProcessTest {
         verify(transactionIdStore).transactionCommitted(txId, FakeCommitment.CHECKSUM, FakeCommitment.TIMESTAMP);
     }
 
+    @Test
+    void shouldApplyExternalTransactionsInPipelineAfterCommitReturns() throws Throwable {
+        // GIVEN
+        long txId = 11;
+        TransactionIdStore transactionIdStore = mock(TransactionIdStore.class);
+        TransactionAppender appender = new TestableTransactionAppender(transactionIdStore);
+        when(transactionIdStore.getLastCommittedTransactionId()).thenReturn(txId - 1);
+        when(transactionIdStore.nextCommittingTransactionId()).thenReturn(txId);
+        CountDownLatch applyLatch = new CountDownLatch(1);
+        StorageEngine storageEngine = mock(StorageEngine.class);
+        doAnswer(invocation -> {
+                    applyLatch.await();
+                    return null;
+                })
+                .when(storageEngine)
+                .apply(any(TransactionToApply.class), any(TransactionApplicationMode.class));
+
+        try (JobScheduler scheduler = createInitialisedScheduler()) {
+            var pipeline = newPipeline(transactionIdStore, scheduler);
+            pipeline.start();
+            TransactionCommitProcess commitProcess =
+                    new InternalTransactionCommitProcess(appender, storageEngine, pipeline);
+
+            // WHEN
+            long committedTxId = commitProcess.commit(mockedTransaction(), commitEvent, EXTERNAL);
+
+            // THEN
+            assertThat(committedTxId).isEqualTo(txId);
+            verify(transactionIdStore, never()).transactionClosed(anyLong(), anyLong(), anyLong(), anyInt(), anyLong());
+
+            applyLatch.countDown();
+            pipeline.awaitApplied(txId);
+            verify(storageEngine).apply(any(TransactionToApply.class), eq(EXTERNAL));
+            verify(transactionIdStore).transactionClosed(eq(txId), anyLong(), anyLong(), anyInt(), anyLong());
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void shouldApplyInternalTransactionsInPipelineBeforeCommitReturns() throws Throwable {
+        // GIVEN
+        long txId = 11;
+        TransactionIdStore transactionIdStore = mock(TransactionIdStore.class);
+        TransactionAppender appender = new TestableTransactionAppender(transactionIdStore);
+        when(transactionIdStore.getLastCommittedTransactionId()).thenReturn(txId - 1);
+        when(transactionIdStore.nextCommittingTransactionId()).thenReturn(txId);
+        StorageEngine storageEngine = mock(StorageEngine.class);
+
+        try (JobScheduler scheduler = createInitialisedScheduler()) {
+            var pipeline = newPipeline(transactionIdStore, scheduler);
+            pipeline.start();
+            TransactionCommitProcess commitProcess =
+                    new InternalTransactionCommitProcess(appender, storageEngine, pipeline);
+
+            // WHEN
+            commitProcess.commit(mockedTransaction(), commitEvent, INTERNAL);
+
+            // THEN
+            verify(storageEngine).apply(any(TransactionToApply.class), eq(INTERNAL));
+            verify(transactionIdStore).transactionClosed(eq(txId), anyLong(), anyLong(), anyInt(), anyLong());
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void shouldApplyBatchesInTransactionIdOrderRegardlessOfHandOverOrder() throws Throwable {
+        // GIVEN
+        TransactionIdStore transactionIdStore = mock(TransactionIdStore.class);
+        when(transactionIdStore.getLastCommittedTransactionId()).thenReturn(10L);
+        StorageEngine storageEngine = mock(StorageEngine.class);
+        TransactionToApply first = mockedTransaction();
+        TransactionToApply second = mockedTransaction();
+
+        try (JobScheduler scheduler = createInitialisedScheduler()) {
+            var pipeline = newPipeline(transactionIdStore, scheduler);
+            pipeline.start();
+
+            // WHEN
+            pipeline.commit(second, EXTERNAL, batch -> appendAs(batch, 12, transactionIdStore), applyTo(storageEngine));
+            pipeline.commit(first, EXTERNAL, batch -> appendAs(batch, 11, transactionIdStore), applyTo(storageEngine));
+            pipeline.awaitApplied(12);
+
+            // THEN
+            InOrder inOrder = inOrder(storageEngine);
+            inOrder.verify(storageEngine).apply(first, EXTERNAL);
+            inOrder.verify(storageEngine).apply(second, EXTERNAL);
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void shouldPanicAndFailCommitsAfterPipelinedApplicationFailure() throws Throwable {
+        // GIVEN
+        TransactionIdStore transactionIdStore = mock(TransactionIdStore.class);
+        TransactionAppender appender = new TestableTransactionAppender(transactionIdStore);
+        when(transactionIdStore.getLastCommittedTransactionId()).thenReturn(10L);
+        when(transactionIdStore.nextCommittingTransactionId()).thenReturn(11L, 12L);
+        IOException rootCause = new IOException("Mock exception");
+        StorageEngine storageEngine = mock(StorageEngine.class);
+        doThrow(rootCause)
+                .when(storageEngine)
+                .apply(any(TransactionToApply.class), any(TransactionApplicationMode.class));
+        DatabaseHealth databaseHealth = new DatabaseHealth(PanicEventGenerator.NO_OP, NullLog.getInstance());
+
+        try (JobScheduler scheduler = createInitialisedScheduler()) {
+            var pipeline = new TransactionApplicationPipeline(
+                    transactionIdStore, databaseHealth, scheduler, NAMED_SYSTEM_DATABASE_ID);
+            pipeline.start();
+            TransactionCommitProcess commitProcess =
+                    new InternalTransactionCommitProcess(appender, storageEngine, pipeline);
+            commitProcess.commit(mockedTransaction(), commitEvent, EXTERNAL);
+            assertThrows(TransactionFailureException.class, () -> pipeline.awaitApplied(11));
+
+            // WHEN
+            TransactionFailureException exception = assertThrows(
+                    TransactionFailureException.class,
+                    () -> commitProcess.commit(mockedTransaction(), commitEvent, INTERNAL));
+
+            // THEN
+            assertThat(databaseHealth.isHealthy()).isFalse();
+            assertThat(databaseHealth.cause()).hasRootCause(rootCause);
+            assertThat(exception.getMessage()).contains("Could not apply an earlier transaction to the store");
+            assertTrue(contains(exception, rootCause.getMessage(), rootCause.getClass()));
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void shouldApplyInternalTransactionsOnCommittingThreadWithinStoreApplyEvent() throws Throwable {
+        // GIVEN
+        TransactionIdStore transactionIdStore = mock(TransactionIdStore.class);
+        TransactionAppender appender = new TestableTransactionAppender(transactionIdStore);
+        when(transactionIdStore.getLastCommittedTransactionId()).thenReturn(10L);
+        when(transactionIdStore.nextCommittingTransactionId()).thenReturn(11L, 12L);
+        CommitEvent tracedCommitEvent = mock(CommitEvent.class);
+        when(tracedCommitEvent.beginLogAppend()).thenReturn(LogAppendEvent.NULL);
+        when(tracedCommitEvent.beginStoreApply()).thenReturn(StoreApplyEvent.NULL);
+        AtomicReference<Thread> internalApplyThread = new AtomicReference<>();
+        StorageEngine storageEngine = mock(StorageEngine.class);
+        doAnswer(invocation -> {
+                    internalApplyThread.set(Thread.currentThread());
+                    return null;
+                })
+                .when(storageEngine)
+                .apply(any(TransactionToApply.class), eq(INTERNAL));
+
+        try (JobScheduler scheduler = createInitialisedScheduler()) {
+            var pipeline = newPipeline(transactionIdStore, scheduler);
+            pipeline.start();
+            TransactionCommitProcess commitProcess =
+                    new InternalTransactionCommitProcess(appender, storageEngine, pipeline);
+
+            // WHEN
+            commitProcess.commit(mockedTransaction(), tracedCommitEvent, INTERNAL);
+            commitProcess.commit(mockedTransaction(), tracedCommitEvent, EXTERNAL);
+            pipeline.awaitApplied(12);
+
+            // THEN
+            assertThat(internalApplyThread.get()).isSameAs(Thread.currentThread());
+            verify(tracedCommitEvent, times(2)).beginStoreApply();
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void shouldCloseInternalTransactionsInTransactionIdOrder() throws Throwable {
+        // GIVEN
+        TransactionIdStore transactionIdStore = mock(TransactionIdStore.class);
+        when(transactionIdStore.getLastCommittedTransactionId()).thenReturn(10L);
+        BinaryLatch firstApplyLatch = new BinaryLatch();
+
+        try (JobScheduler scheduler = createInitialisedScheduler();
+                OtherThreadExecutor firstCommitter = new OtherThreadExecutor("first");
+                OtherThreadExecutor secondCommitter = new OtherThreadExecutor("second")) {
+            var pipeline = newPipeline(transactionIdStore, scheduler);
+            pipeline.start();
+            Future<Long> firstCommit = firstCommitter.executeDontWait(() -> pipeline.commit(
+                    mockedTransaction(),
+                    INTERNAL,
+                    batch -> appendAs(batch, 11, transactionIdStore),
+                    (batch, mode) -> firstApplyLatch.await()));
+            firstCommitter.waitUntilWaiting(details -> details.isAt(BinaryLatch.class, "await"));
+
+            // WHEN
+            Future<Long> secondCommit = secondCommitter.executeDontWait(() -> pipeline.commit(
+                    mockedTransaction(),
+                    INTERNAL,
+                    batch -> appendAs(batch, 12, transactionIdStore),
+                    (batch, mode) -> {}));
+            secondCommitter.waitUntilWaiting(
+                    details -> details.isAt(TransactionApplicationPipeline.class, "awaitApplied"));
+
+            // THEN
+            verify(transactionIdStore, never()).transactionClosed(anyLong(), anyLong(), anyLong(), anyInt(), anyLong());
+            firstApplyLatch.release();
+            assertThat(firstCommit.get()).isEqualTo(11);
+            assertThat(secondCommit.get()).isEqualTo(12);
+            InOrder inOrder = inOrder(transactionIdStore);
+            inOrder.verify(transactionIdStore).transactionClosed(eq(11L), anyLong(), anyLong(), anyInt(), anyLong());
+            inOrder.verify(transactionIdStore).transactionClosed(eq(12L), anyLong(), anyLong(), anyInt(), anyLong());
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void shouldAppendBeforeWaitingForPendingBatchesToBeApplied() throws Throwable {
+        // GIVEN
+        TransactionIdStore transactionIdStore = mock(TransactionIdStore.class);
+        when(transactionIdStore.getLastCommittedTransactionId()).thenReturn(10L);
+        BinaryLatch applyLatch = new BinaryLatch();
+        TransactionApplicationPipeline.StoreApplier blockedApplier = (batch, mode) -> applyLatch.await();
+
+        try (JobScheduler scheduler = createInitialisedScheduler();
+                OtherThreadExecutor committer = new OtherThreadExecutor("committer")) {
+            var pipeline = newPipeline(transactionIdStore, scheduler);
+            pipeline.start();
+            long txId = 11;
+            for (int i = 0; i < TransactionApplicationPipeline.MAX_PENDING_BATCHES; i++, txId++) {
+                long batchTxId = txId;
+                pipeline.commit(
+                        mockedTransaction(),
+                        EXTERNAL,
+                        batch -> appendAs(batch, batchTxId, transactionIdStore),
+                        blockedApplier);
+            }
+
+            // WHEN
+            long lastTxId = txId;
+            AtomicBoolean appended = new AtomicBoolean();
+            Future<Long> commit = committer.executeDontWait(() -> pipeline.commit(
+                    mockedTransaction(),
+                    EXTERNAL,
+                    batch -> {
+                        appended.set(true);
+                        return appendAs(batch, lastTxId, transactionIdStore);
+                    },
+                    blockedApplier));
+            committer.waitUntilWaiting(details -> details.isAt(TransactionApplicationPipeline.class, "handOver"));
+
+            // THEN
+            assertThat(appended).isTrue();
+            applyLatch.release();
+            assertThat(commit.get()).isEqualTo(lastTxId);
+            pipeline.awaitApplied(lastTxId);
+            pipeline.stop();
+        }
+    }
+
+    private static TransactionApplicationPipeline newPipeline(
+            TransactionIdStore transactionIdStore, JobScheduler scheduler) {
+        return new TransactionApplicationPipeline(
+                transactionIdStore,
+                new DatabaseHealth(PanicEventGenerator.NO_OP, NullLog.getInstance()),
+                scheduler,
+                NAMED_SYSTEM_DATABASE_ID);
+    }
+
+    private static TransactionApplicationPipeline.StoreApplier applyTo(StorageEngine storageEngine) {
+        return (batch, mode) -> {
+            try {
+                storageEngine.apply(batch, mode);
+            } catch (Exception e) {
+                throw new TransactionFailureException(TransactionCommitFailed, e, "Could not apply");
+            }
+        };
+    }
+
+    private static long appendAs(TransactionToApply batch, long txId, TransactionIdStore transactionIdStore) {
+        batch.commitment(new FakeCommitment(txId, transactionIdStore), txId);
+        batch.publishAsCommitted();
+        return txId;
+    }
+
     private static TransactionToApply mockedTransaction() {
         TransactionRepresentation transaction = mock(TransactionRepresentation.class);
         when(transaction.additionalHeader()).thenReturn(new byte[0]);
@@ -35,6 +35,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
@@ -259,6 +260,11 @@ class KernelTransactionTestBase {
             return new LongObjectHashMap<>();
         }
 
+        @Override
+        public MutableLongLongMap newLongLongMap(MemoryTracker memoryTracker) {
+            return OnHeapCollectionsFactory.INSTANCE.newLongLongMap(memoryTracker);
+        }
+
         @Override
         public void release() {
             // nop
@@ -35,6 +35,7 @@ import static org.mockito.internal.verification.VerificationModeFactory.times;
 import static org.neo4j.internal.helpers.collection.Iterators.asSet;
 import static org.neo4j.internal.helpers.collection.Pair.of;
 import static org.neo4j.internal.schema.SchemaDescriptors.forLabel;
+import static org.neo4j.values.storable.Values.NO_VALUE;
 import static org.neo4j.values.storable.Values.stringValue;
 
 import java.lang.reflect.Method;
@@ -84,6 +85,7 @@ import org.neo4j.storageengine.api.StorageProperty;
 import org.neo4j.storageengine.api.txstate.DiffSets;
 import org.neo4j.storageengine.api.txstate.LongDiffSets;
 import org.neo4j.storageengine.api.txstate.RelationshipModifications;
+import org.neo4j.storageengine.api.txstate.RelationshipState;
 import org.neo4j.storageengine.api.txstate.TransactionStateBehaviour;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
 import org.neo4j.test.RandomSupport;
@@ -1016,6 +1018,91 @@ abstract class TxStateTest {
         verifyNoMoreInteractions(collectionsFactory);
     }
 
+    @Test
+    void createdRelationship_useCollectionsFactoryForEndpoints() {
+        state.relationshipDoCreate(1, 2, 3, 4);
+
+        verify(collectionsFactory, times(1)).newLongLongMap(memoryTracker);
+        assertThat(state.modifiedRelationships()).isEmpty();
+        RelationshipState relationshipState = state.getRelationshipState(1);
+        assertThat(relationshipState.getId()).isEqualTo(1);
+        assertThat(relationshipState.hasPropertyChanges()).isFalse();
+        relationshipState.accept((relationshipId, typeId, startNodeId, endNodeId) -> {
+            assertThat(typeId).isEqualTo(2);
+            assertThat(startNodeId).isEqualTo(3);
+            assertThat(endNodeId).isEqualTo(4);
+        });
+    }
+
+    @Test
+    void createdRelationshipsWithoutPropertyChangesShouldBeReadWithoutNewStates() {
+        state.relationshipDoCreate(1, 2, 3, 4);
+        state.relationshipDoCreate(5, 6, 7, 8);
+
+        RelationshipState first = state.getRelationshipState(1);
+        RelationshipState second = state.getRelationshipState(5);
+        assertThat(second).isSameAs(first);
+        assertThat(second.getId()).isEqualTo(5);
+        assertThat(state.relationshipVisit(1, (relationshipId, typeId, startNodeId, endNodeId) -> {
+                    assertThat(relationshipId).isEqualTo(1);
+                    assertThat(typeId).isEqualTo(2);
+                    assertThat(startNodeId).isEqualTo(3);
+                    assertThat(endNodeId).isEqualTo(4);
+                }))
+                .isTrue();
+        assertThat(state.relationshipVisit(9, (relationshipId, typeId, startNodeId, endNodeId) -> {}))
+                .isFalse();
+    }
+
+    @Test
+    void createdRelationshipShouldKeepEndpointsWhenPropertiesChange() {
+        state.relationshipDoCreate(1, 2, 3, 4);
+        state.relationshipDoReplaceProperty(1, 2, 3, 4, 5, NO_VALUE, stringValue("value"));
+
+        RelationshipState relationshipState = state.getRelationshipState(1);
+        assertThat(relationshipState.propertyValue(5)).isEqualTo(stringValue("value"));
+        assertThat(state.modifiedRelationships()).containsExactly(relationshipState);
+
+        state.relationshipDoDelete(1, 2, 3, 4);
+        assertThat(state.getRelationshipState(1)).isSameAs(RelationshipStateImpl.EMPTY);
+        assertThat(state.relationshipVisit(1, (relationshipId, typeId, startNodeId, endNodeId) -> {}))
+                .isFalse();
+    }
+
+    @Test
+    void createdRelationshipsShouldReuseSlotsOfDeletedOnes() {
+        state.relationshipDoCreate(1, 2, 3, 4);
+        state.relationshipDoCreate(5, 6, 7, 8);
+        state.relationshipDoDelete(1, 2, 3, 4);
+        state.relationshipDoCreate(9, 10, 11, 12);
+
+        assertThat(state.relationshipVisit(1, (relationshipId, typeId, startNodeId, endNodeId) -> {}))
+                .isFalse();
+        assertRelationship(5, 6, 7, 8);
+        assertRelationship(9, 10, 11, 12);
+    }
+
+    @Test
+    void createdRelationshipShouldMoveToFullStateWhenPropertiesChange() {
+        state.relationshipDoCreate(1, 2, 3, 4);
+        state.relationshipDoReplaceProperty(1, 2, 3, 4, 5, NO_VALUE, stringValue("value"));
+        state.relationshipDoCreate(6, 7, 8, 9);
+
+        assertThat(state.getRelationshipState(1)).isInstanceOf(RelationshipStateImpl.class);
+        assertRelationship(1, 2, 3, 4);
+        assertRelationship(6, 7, 8, 9);
+    }
+
+    private void assertRelationship(long id, int type, long startNode, long endNode) {
+        assertThat(state.relationshipVisit(id, (relationshipId, typeId, startNodeId, endNodeId) -> {
+                    assertThat(relationshipId).isEqualTo(id);
+                    assertThat(typeId).isEqualTo(type);
+                    assertThat(startNodeId).isEqualTo(startNode);
+                    assertThat(endNodeId).isEqualTo(endNode);
+                }))
+                .isTrue();
+    }
+
     @Test
     void getOrCreateIndexUpdatesForSeek_useCollectionsFactory() {
         final MutableLongDiffSets diffSets =
@@ -22,13 +22,16 @@ package org.neo4j.kernel.impl.locking.forseti;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.kernel.impl.scheduler.JobSchedulerFactory.createInitialisedScheduler;
 import static org.neo4j.test.Race.throwing;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -50,6 +53,7 @@ import org.neo4j.lock.LockType;
 import org.neo4j.lock.ResourceTypes;
 import org.neo4j.memory.EmptyMemoryTracker;
 import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.test.OtherThreadExecutor;
 import org.neo4j.test.Race;
 import org.neo4j.test.RandomSupport;
@@ -160,6 +164,90 @@ class ForsetiLockManagerTest {
         }
     }
 
+    @Test
+    void shouldDetectDeadlockInBackground() throws Exception {
+        // Given
+        Config backgroundDetectionConfig = Config.newBuilder()
+                .set(GraphDatabaseInternalSettings.lock_manager_background_deadlock_detection, true)
+                .set(
+                        GraphDatabaseInternalSettings.lock_manager_background_deadlock_detection_interval,
+                        Duration.ofMillis(1))
+                .build();
+        JobScheduler jobScheduler = createInitialisedScheduler();
+        ForsetiLockManager backgroundDetectionManager = new ForsetiLockManager(
+                backgroundDetectionConfig, Clocks.nanoClock(), jobScheduler, ResourceTypes.values());
+        try (OtherThreadExecutor executor = new OtherThreadExecutor("test");
+                Locks.Client client1 = backgroundDetectionManager.newClient();
+                Locks.Client client2 = backgroundDetectionManager.newClient()) {
+            client1.initialize(
+                    LeaseService.NoLeaseClient.INSTANCE, 1, EmptyMemoryTracker.INSTANCE, backgroundDetectionConfig);
+            client2.initialize(
+                    LeaseService.NoLeaseClient.INSTANCE, 2, EmptyMemoryTracker.INSTANCE, backgroundDetectionConfig);
+            client1.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 0);
+            client2.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 1);
+
+            // When
+            Future<Object> client1Acquire = executor.executeDontWait(() -> {
+                client1.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 1);
+                return null;
+            });
+            executor.waitUntilWaiting(details -> details.isAt(ForsetiClient.class, "acquireExclusive"));
+
+            // Then both hold the same number of locks, so the one with the highest transaction id is aborted
+            assertThatThrownBy(() -> client2.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 0))
+                    .isInstanceOf(DeadlockDetectedException.class)
+                    .hasMessageContaining("are waiting for");
+            client2.releaseExclusive(ResourceTypes.NODE, 1);
+            client1Acquire.get(1, TimeUnit.MINUTES);
+            assertTrue(client1.holdsLock(1, ResourceTypes.NODE, LockType.EXCLUSIVE));
+        } finally {
+            backgroundDetectionManager.close();
+            jobScheduler.close();
+        }
+    }
+
+    @Test
+    void shouldNotHoldLocksAfterContendedResourceWhileWaitingInBatch() throws Exception {
+        // Given
+        int resources = LockTable.BATCH_THRESHOLD * 2;
+        long contended = LockTable.BATCH_THRESHOLD;
+        long[] batch = new long[resources + 1];
+        for (int i = 0; i < resources; i++) {
+            batch[i] = resources - 1 - i;
+        }
+        batch[resources] = 1;
+        try (OtherThreadExecutor executor = new OtherThreadExecutor("test");
+                Locks.Client client1 = manager.newClient();
+                Locks.Client client2 = manager.newClient()) {
+            client1.initialize(LeaseService.NoLeaseClient.INSTANCE, 1, EmptyMemoryTracker.INSTANCE, config);
+            client2.initialize(LeaseService.NoLeaseClient.INSTANCE, 2, EmptyMemoryTracker.INSTANCE, config);
+            client2.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, contended);
+
+            // When
+            Future<Object> batchAcquire = executor.executeDontWait(() -> {
+                client1.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, batch);
+                return null;
+            });
+            executor.waitUntilWaiting(details -> details.isAt(ForsetiClient.class, "acquireExclusive"));
+
+            // Then only the resources before the contended one, in resource order, are held while waiting
+            for (long resourceId = 0; resourceId < resources; resourceId++) {
+                assertThat(client1.holdsLock(resourceId, ResourceTypes.NODE, LockType.EXCLUSIVE))
+                        .isEqualTo(resourceId < contended);
+            }
+
+            client2.releaseExclusive(ResourceTypes.NODE, contended);
+            batchAcquire.get(1, TimeUnit.MINUTES);
+            for (long resourceId = 0; resourceId < resources; resourceId++) {
+                assertTrue(client1.holdsLock(resourceId, ResourceTypes.NODE, LockType.EXCLUSIVE));
+            }
+            assertThat(client1.activeLockCount()).isEqualTo(resources);
+            // Resource 1 was asked for twice, so it is still held after one release
+            client1.releaseExclusive(ResourceTypes.NODE, 1);
+            assertTrue(client1.holdsLock(1, ResourceTypes.NODE, LockType.EXCLUSIVE));
+        }
+    }
+
     @Test
     void lockClientsShouldNotHaveMutatingEqualsAndHashCode() {
         int uniqueClients = 10_000;
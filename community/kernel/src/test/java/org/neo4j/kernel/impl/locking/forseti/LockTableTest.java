@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LockTableTest {
+    private final ForsetiClient client = mock(ForsetiClient.class);
+
+    @Test
+    void shouldOnlyPutIfAbsent() {
+        // given
+        LockTable table = new LockTable();
+        SharedLock first = new SharedLock(client);
+        SharedLock second = new SharedLock(client);
+
+        // when
+        ForsetiLockManager.Lock firstResult = table.putIfAbsent(42, first);
+        ForsetiLockManager.Lock secondResult = table.putIfAbsent(42, second);
+
+        // then
+        assertThat(firstResult).isNull();
+        assertThat(secondResult).isSameAs(first);
+        assertThat(table.get(42)).isSameAs(first);
+        assertThat(table.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReplaceOnPut() {
+        // given
+        LockTable table = new LockTable();
+        ExclusiveLock exclusiveLock = new ExclusiveLock(client);
+        SharedLock sharedLock = new SharedLock(client);
+        table.putIfAbsent(7, exclusiveLock);
+
+        // when
+        ForsetiLockManager.Lock previous = table.put(7, sharedLock);
+
+        // then
+        assertThat(previous).isSameAs(exclusiveLock);
+        assertThat(table.get(7)).isSameAs(sharedLock);
+    }
+
+    @Test
+    void shouldPutAllThatAreAbsent() {
+        // given
+        LockTable table = new LockTable();
+        SharedLock existing = new SharedLock(client);
+        ExclusiveLock lock = new ExclusiveLock(client);
+        table.putIfAbsent(3, existing);
+        LockTable.BatchBuffers batch = new LockTable.BatchBuffers().forSize(6);
+        long[] resourceIds = {1, 2, 3, 1_000_000, 5, 0};
+        System.arraycopy(resourceIds, 0, batch.resourceIds, 0, resourceIds.length);
+
+        // when only the first five are asked for
+        table.putIfAbsentAll(batch, 5, lock);
+
+        // then
+        assertThat(Arrays.copyOf(batch.inserted, 5)).containsExactly(true, true, false, true, true);
+        assertThat(table.get(3)).isSameAs(existing);
+        assertThat(table.get(1_000_000)).isSameAs(lock);
+        assertThat(table.get(0)).isNull();
+        assertThat(table.size()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldReuseBatchBuffersUpToRetainedCapacity() {
+        // given
+        LockTable.BatchBuffers batch = new LockTable.BatchBuffers();
+
+        // when
+        LockTable.BatchBuffers small = batch.forSize(LockTable.BATCH_THRESHOLD);
+        long[] smallIds = small.resourceIds;
+        LockTable.BatchBuffers smaller = batch.forSize(LockTable.BATCH_THRESHOLD / 2);
+        LockTable.BatchBuffers huge = batch.forSize(100_000);
+
+        // then
+        assertThat(small).isSameAs(batch);
+        assertThat(smaller).isSameAs(batch);
+        assertThat(smaller.resourceIds).isSameAs(smallIds);
+        assertThat(huge).isNotSameAs(batch);
+        assertThat(huge.resourceIds).hasSize(100_000);
+        assertThat(batch.resourceIds).isSameAs(smallIds);
+    }
+
+    @Test
+    void shouldMatchHashMapUnderRandomOperations() {
+        // given
+        LockTable table = new LockTable();
+        Map<Long, ForsetiLockManager.Lock> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(1234);
+
+        // when
+        for (int i = 0; i < 200_000; i++) {
+            // Few distinct ids so that stripes grow, shrink and get removals in the middle of probe sequences
+            long resourceId = random.nextInt(5_000) - 100;
+            if (random.nextBoolean()) {
+                SharedLock lock = new SharedLock(client);
+                assertThat(table.putIfAbsent(resourceId, lock)).isSameAs(expected.putIfAbsent(resourceId, lock));
+            } else {
+                assertThat(table.remove(resourceId)).isSameAs(expected.remove(resourceId));
+            }
+            assertThat(table.get(resourceId)).isSameAs(expected.get(resourceId));
+        }
+
+        // then
+        assertThat(table.size()).isEqualTo(expected.size());
+        Map<Long, ForsetiLockManager.Lock> visited = new HashMap<>();
+        table.forEach(visited::put);
+        assertThat(visited).isEqualTo(expected);
+        for (long resourceId = -100; resourceId < 4_900; resourceId++) {
+            assertThat(table.get(resourceId)).isSameAs(expected.get(resourceId));
+        }
+    }
+
+    @Test
+    void shouldNotLoseLocksUnderConcurrentModification() throws Exception {
+        // given
+        LockTable table = new LockTable();
+        int threads = 4;
+        int idsPerThread = 10_000;
+        Map<Long, ForsetiLockManager.Lock> kept = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // when
+        try {
+            Future<?>[] futures = new Future[threads];
+            for (int t = 0; t < threads; t++) {
+                long base = (long) t * idsPerThread;
+                futures[t] = executor.submit(() -> {
+                    for (long id = base; id < base + idsPerThread; id++) {
+                        SharedLock lock = new SharedLock(client);
+                        assertThat(table.putIfAbsent(id, lock)).isNull();
+                        assertThat(table.get(id)).isSameAs(lock);
+                        if (id % 2 == 0) {
+                            assertThat(table.remove(id)).isSameAs(lock);
+                        } else {
+                            kept.put(id, lock);
+                        }
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        }
+
+        // then
+        assertThat(table.size()).isEqualTo(kept.size());
+        kept.forEach((id, lock) -> assertThat(table.get(id)).isSameAs(lock));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.pagecache.AdaptiveCheckpointIOController.ADJUSTMENT_INTERVAL_NANOS;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.kernel.impl.transaction.stats.TransactionLogCounters;
+import org.neo4j.time.FakeClock;
+
+class AdaptiveCheckpointIOControllerTest {
+    private static final int MAX_IOPS = 1000;
+    private static final int MIN_IOPS = 100;
+    private static final long TARGET_LATENCY_NANOS = MILLISECONDS.toNanos(5);
+    private static final long DEADLINE_NANOS = SECONDS.toNanos(60);
+
+    private final FakeClock clock = new FakeClock();
+    private final TransactionLogCounters logCounters = mock(TransactionLogCounters.class);
+    private final AtomicLong pausedNanos = new AtomicLong();
+    private final AdaptiveCheckpointIOController controller = new AdaptiveCheckpointIOController(
+            MAX_IOPS, MIN_IOPS, TARGET_LATENCY_NANOS, DEADLINE_NANOS, clock, logCounters, pausedNanos::addAndGet);
+
+    @Test
+    void shouldPauseWhenQuantumBudgetIsUsedUp() {
+        controller.maybeLimitIO(MAX_IOPS / 10 - 1, FileFlushEvent.NULL);
+        assertThat(pausedNanos.get()).isZero();
+
+        clock.forward(10, MILLISECONDS);
+        controller.maybeLimitIO(1, FileFlushEvent.NULL);
+        assertThat(pausedNanos.get()).isEqualTo(MILLISECONDS.toNanos(90));
+    }
+
+    @Test
+    void shouldLowerLimitWhileLogForcesAreSlow() {
+        slowLogForces(10);
+        clock.forward(ADJUSTMENT_INTERVAL_NANOS, NANOSECONDS);
+        controller.maybeLimitIO(1, FileFlushEvent.NULL);
+        assertThat(controller.configuredLimit()).isEqualTo(MAX_IOPS / 2);
+
+        for (int i = 0; i < 10; i++) {
+            slowLogForces(10 * (i + 2));
+            clock.forward(ADJUSTMENT_INTERVAL_NANOS, NANOSECONDS);
+            controller.maybeLimitIO(1, FileFlushEvent.NULL);
+        }
+        assertThat(controller.configuredLimit()).isEqualTo(MIN_IOPS);
+    }
+
+    @Test
+    void shouldRaiseLimitAgainWhenLogForcesAreFast() {
+        slowLogForces(10);
+        clock.forward(ADJUSTMENT_INTERVAL_NANOS, NANOSECONDS);
+        controller.maybeLimitIO(1, FileFlushEvent.NULL);
+        long lowered = controller.configuredLimit();
+
+        // no log forces at all in the next interval
+        clock.forward(ADJUSTMENT_INTERVAL_NANOS, NANOSECONDS);
+        controller.maybeLimitIO(1, FileFlushEvent.NULL);
+
+        assertThat(controller.configuredLimit()).isGreaterThan(lowered).isLessThanOrEqualTo(MAX_IOPS);
+    }
+
+    @Test
+    void shouldLiftLimitWhenCheckpointDeadlineHasPassed() {
+        controller.checkpointStarted();
+        slowLogForces(10);
+        clock.forward(ADJUSTMENT_INTERVAL_NANOS, NANOSECONDS);
+        controller.maybeLimitIO(1, FileFlushEvent.NULL);
+        assertThat(controller.configuredLimit()).isEqualTo(MAX_IOPS / 2);
+
+        slowLogForces(20);
+        clock.forward(DEADLINE_NANOS, NANOSECONDS);
+        pausedNanos.set(0);
+        controller.maybeLimitIO(MAX_IOPS * 10, FileFlushEvent.NULL);
+        assertThat(pausedNanos.get()).isZero();
+
+        var flushEvent = new DatabaseFlushEvent(FileFlushEvent.NULL);
+        controller.checkpointCompleted(flushEvent);
+        assertThat(flushEvent.getIoLimitDecreases()).isEqualTo(2);
+        assertThat(flushEvent.getIoLimitIncreases()).isZero();
+    }
+
+    private void slowLogForces(long forces) {
+        when(logCounters.numberOfLogForces()).thenReturn(forces);
+        when(logCounters.logForceAccumulatedTotalTimeNanos()).thenReturn(forces * TARGET_LATENCY_NANOS * 2);
+    }
+}
@@ -23,13 +23,17 @@ import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.RETURNS_MOCKS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.KernelVersion.LATEST;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
 
 import java.io.IOException;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.neo4j.kernel.impl.api.TestCommand;
@@ -42,6 +46,8 @@ import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommand;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.LogEntryChunkEndV5_1;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.LogEntryRollbackV5_1;
 
 class PhysicalTransactionCursorTest {
     private final ReadableLogChannel channel = mock(ReadableLogChannel.class, RETURNS_MOCKS);
@@ -107,4 +113,68 @@ class PhysicalTransactionCursorTest {
         assertEquals(
                 new CommittedTransactionRepresentation(A_START_ENTRY, txRepresentation, A_COMMIT_ENTRY), cursor.get());
     }
+
+    @Test
+    void shouldReadTransactionWrittenInChunks() throws IOException {
+        // given
+        LogEntryCommand secondCommand = new LogEntryCommand(new TestCommand(new byte[] {1}));
+        when(entryReader.readLogEntry(channel))
+                .thenReturn(
+                        A_START_ENTRY,
+                        A_COMMAND_ENTRY,
+                        new LogEntryChunkEndV5_1(LATEST, 0),
+                        secondCommand,
+                        new LogEntryChunkEndV5_1(LATEST, 1),
+                        A_COMMIT_ENTRY);
+
+        // when
+        assertTrue(cursor.next());
+
+        // then
+        PhysicalTransactionRepresentation txRepresentation = new PhysicalTransactionRepresentation(
+                List.of(A_COMMAND_ENTRY.getCommand(), secondCommand.getCommand()));
+        assertEquals(
+                new CommittedTransactionRepresentation(A_START_ENTRY, txRepresentation, A_COMMIT_ENTRY), cursor.get());
+    }
+
+    @Test
+    void shouldSkipRolledBackTransactionWrittenInChunks() throws IOException {
+        // given
+        when(entryReader.readLogEntry(channel))
+                .thenReturn(
+                        A_START_ENTRY,
+                        A_COMMAND_ENTRY,
+                        new LogEntryChunkEndV5_1(LATEST, 0),
+                        new LogEntryRollbackV5_1(LATEST, 0, 1),
+                        A_START_ENTRY,
+                        A_COMMAND_ENTRY,
+                        A_COMMIT_ENTRY,
+                        NULL_ENTRY);
+
+        // when
+        assertTrue(cursor.next());
+
+        // then
+        PhysicalTransactionRepresentation txRepresentation =
+                new PhysicalTransactionRepresentation(singletonList(A_COMMAND_ENTRY.getCommand()));
+        assertEquals(
+                new CommittedTransactionRepresentation(A_START_ENTRY, txRepresentation, A_COMMIT_ENTRY), cursor.get());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void shouldFailOnMissingChunk() throws IOException {
+        // given
+        when(entryReader.readLogEntry(channel))
+                .thenReturn(
+                        A_START_ENTRY,
+                        A_COMMAND_ENTRY,
+                        new LogEntryChunkEndV5_1(LATEST, 0),
+                        A_COMMAND_ENTRY,
+                        new LogEntryChunkEndV5_1(LATEST, 2),
+                        A_COMMIT_ENTRY);
+
+        // when/then
+        assertThrows(IOException.class, cursor::next);
+    }
 }
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.transaction;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
@@ -81,4 +82,53 @@ class TransactionMetadataCacheTest {
         // then
         assertNull(metadata);
     }
+
+    @Test
+    void shouldForgetTransactionsThatFallOutOfTheRing() {
+        // given
+        final TransactionMetadataCache cache = new TransactionMetadataCache();
+
+        // when
+        for (long txId = 1; txId <= 100_000; txId++) {
+            cache.cacheTransactionMetadata(txId, new LogPosition(txId / 10_000, txId * 100));
+        }
+
+        // then
+        assertNull(cache.getTransactionMetadata(1));
+        assertEquals(
+                new TransactionMetadataCache.TransactionMetadata(new LogPosition(10, 100_000 * 100)),
+                cache.getTransactionMetadata(100_000));
+    }
+
+    @Test
+    void shouldFindClosestPrecedingIndexedPosition() {
+        // given
+        final TransactionMetadataCache cache = new TransactionMetadataCache();
+        for (long txId = 10; txId <= 100_000; txId++) {
+            cache.cacheTransactionMetadata(txId, new LogPosition(txId / 10_000, txId * 100));
+        }
+
+        // then
+        assertNull(cache.getClosestPrecedingPosition(9));
+        assertEquals(new LogPosition(0, 10 * 100), cache.getClosestPrecedingPosition(10));
+        for (long txId = 10; txId <= 100_000; txId += 7) {
+            LogPosition position = cache.getClosestPrecedingPosition(txId);
+            long precedingTxId = position.getByteOffset() / 100;
+            assertTrue(precedingTxId <= txId && txId - precedingTxId < 32, "Closest to " + txId + " was " + position);
+            assertEquals(txId / 10_000, position.getLogVersion(), "Closest to " + txId + " was " + position);
+        }
+    }
+
+    @Test
+    void shouldClearTheIndex() {
+        // given
+        final TransactionMetadataCache cache = new TransactionMetadataCache();
+        cache.cacheTransactionMetadata(42, new LogPosition(3, 4));
+
+        // when
+        cache.clear();
+
+        // then
+        assertNull(cache.getClosestPrecedingPosition(42));
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveGroupCommitTest {
+    private static final long TARGET_LATENCY = MICROSECONDS.toNanos(1000);
+
+    @Test
+    void disabledWithoutTargetLatency() {
+        assertFalse(new AdaptiveGroupCommit(Duration.ZERO).isEnabled());
+        assertTrue(new AdaptiveGroupCommit(Duration.ofNanos(TARGET_LATENCY)).isEnabled());
+    }
+
+    @Test
+    void noWindowBeforeArrivalsHaveBeenMeasured() {
+        AdaptiveGroupCommit groupCommit = new AdaptiveGroupCommit(Duration.ofNanos(TARGET_LATENCY));
+        assertThat(groupCommit.windowNanos()).isZero();
+
+        groupCommit.transactionArrived(1);
+        groupCommit.forceCompleted(MICROSECONDS.toNanos(100));
+        assertThat(groupCommit.windowNanos()).isZero();
+    }
+
+    @Test
+    void windowIsTargetLatencyMinusForceTimeWhenTransactionsArriveOften() {
+        AdaptiveGroupCommit groupCommit = new AdaptiveGroupCommit(Duration.ofNanos(TARGET_LATENCY));
+        long now = 1;
+        for (int i = 0; i < 100; i++) {
+            now = arrive(groupCommit, now, 10, MICROSECONDS.toNanos(20));
+            groupCommit.forceCompleted(MICROSECONDS.toNanos(200));
+        }
+
+        assertThat(groupCommit.windowNanos()).isEqualTo(TARGET_LATENCY - MICROSECONDS.toNanos(200));
+        assertThat(groupCommit.idleNanos()).isEqualTo(2 * MICROSECONDS.toNanos(20));
+    }
+
+    @Test
+    void arrivalIntervalsMustNotIncludeTheTimeSpentForcing() {
+        AdaptiveGroupCommit groupCommit = new AdaptiveGroupCommit(Duration.ofNanos(TARGET_LATENCY));
+        long now = 1;
+        for (int i = 0; i < 100; i++) {
+            now = arrive(groupCommit, now, 10, MICROSECONDS.toNanos(20));
+            // The next transactions arrive while the log is forced, and are measured from when they were submitted.
+            groupCommit.forceCompleted(MICROSECONDS.toNanos(500));
+        }
+
+        assertThat(groupCommit.idleNanos()).isEqualTo(2 * MICROSECONDS.toNanos(20));
+        assertThat(groupCommit.windowNanos()).isEqualTo(TARGET_LATENCY - MICROSECONDS.toNanos(500));
+    }
+
+    @Test
+    void arrivalsSubmittedOutOfOrderMustNotMakeTheIntervalNegative() {
+        AdaptiveGroupCommit groupCommit = new AdaptiveGroupCommit(Duration.ofNanos(TARGET_LATENCY));
+        groupCommit.transactionArrived(1000);
+        groupCommit.transactionArrived(900);
+        groupCommit.forceCompleted(MICROSECONDS.toNanos(100));
+
+        assertThat(groupCommit.idleNanos()).isPositive();
+        assertThat(groupCommit.windowNanos()).isEqualTo(TARGET_LATENCY - MICROSECONDS.toNanos(100));
+    }
+
+    @Test
+    void noWindowWhenTransactionsArriveLessOftenThanTheLatencyBudget() {
+        AdaptiveGroupCommit groupCommit = new AdaptiveGroupCommit(Duration.ofNanos(TARGET_LATENCY));
+        long now = 1;
+        for (int i = 0; i < 100; i++) {
+            now = arrive(groupCommit, now, 1, MICROSECONDS.toNanos(5000));
+            groupCommit.forceCompleted(MICROSECONDS.toNanos(200));
+        }
+
+        assertThat(groupCommit.windowNanos()).isZero();
+    }
+
+    @Test
+    void noWindowWhenForcesTakeLongerThanTheTargetLatency() {
+        AdaptiveGroupCommit groupCommit = new AdaptiveGroupCommit(Duration.ofNanos(TARGET_LATENCY));
+        long now = 1;
+        for (int i = 0; i < 100; i++) {
+            now = arrive(groupCommit, now, 100, MICROSECONDS.toNanos(20));
+            groupCommit.forceCompleted(MICROSECONDS.toNanos(2000));
+        }
+
+        assertThat(groupCommit.windowNanos()).isZero();
+    }
+
+    @Test
+    void windowAdaptsToChangingForceTimes() {
+        AdaptiveGroupCommit groupCommit = new AdaptiveGroupCommit(Duration.ofNanos(TARGET_LATENCY));
+        long now = 1;
+        for (int i = 0; i < 100; i++) {
+            now = arrive(groupCommit, now, 100, MICROSECONDS.toNanos(20));
+            groupCommit.forceCompleted(MICROSECONDS.toNanos(2000));
+        }
+        assertThat(groupCommit.windowNanos()).isZero();
+
+        for (int i = 0; i < 100; i++) {
+            now = arrive(groupCommit, now, 10, MICROSECONDS.toNanos(10));
+            groupCommit.forceCompleted(MICROSECONDS.toNanos(100));
+        }
+        assertThat(groupCommit.windowNanos()).isPositive().isLessThan(TARGET_LATENCY);
+    }
+
+    private static long arrive(AdaptiveGroupCommit groupCommit, long now, int transactions, long intervalNanos) {
+        for (int i = 0; i < transactions; i++) {
+            now += intervalNanos;
+            groupCommit.transactionArrived(now);
+        }
+        return now;
+    }
+}
@@ -22,14 +22,17 @@ package org.neo4j.kernel.impl.transaction.log;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -49,10 +52,12 @@ import java.io.IOException;
 import java.nio.ByteOrder;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
+import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.io.memory.HeapScopedBuffer;
 import org.neo4j.kernel.database.DbmsLogEntryWriterFactory;
 import org.neo4j.kernel.impl.api.TestCommand;
@@ -65,6 +70,7 @@ import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
+import org.neo4j.kernel.impl.transaction.log.rotation.LogRotation;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.monitoring.DatabaseHealth;
@@ -73,6 +79,7 @@ import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.TransactionId;
 import org.neo4j.storageengine.api.TransactionIdStore;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
+import org.neo4j.test.OtherThreadExecutor;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.LifeExtension;
 
@@ -323,6 +330,151 @@ class BatchingTransactionAppenderTest {
         verify(databaseHealth).panic(e);
     }
 
+    @Test
+    void shouldAppendTransactionInChunks() throws Exception {
+        // given
+        when(logFile.getTransactionLogWriter())
+                .thenReturn(new TransactionLogWriter(channel, new DbmsLogEntryWriterFactory(() -> LATEST)));
+        when(transactionIdStore.nextCommittingTransactionId()).thenReturn(15L);
+        TransactionAppender appender = life.add(createTransactionAppender());
+        List<StorageCommand> commands = List.of(new TestCommand(10), new TestCommand(20), new TestCommand(30));
+
+        // when
+        LogPosition startPosition = channel.getCurrentPosition();
+        ChunkedTransactionAppend chunkedAppend = appender.beginChunkedAppend(LATEST, 12345, 4545);
+        chunkedAppend.appendChunk(commands.subList(0, 2));
+        chunkedAppend.appendChunk(commands.subList(2, 3));
+        TransactionToApply tx = new TransactionToApply(
+                transaction(commands, new byte[0], 12345, 4545, 12345 + 10), NULL_CONTEXT, StoreCursors.NULL);
+        tx.chunkedAppend(chunkedAppend);
+        long txId = appender.append(tx, logAppendEvent);
+        chunkedAppend.close();
+
+        // then
+        assertEquals(15L, txId);
+        assertEquals(15L, tx.transactionId());
+        assertEquals(startPosition, positionCache.getTransactionMetadata(15L).getStartPosition());
+        try (PhysicalTransactionCursor reader = new PhysicalTransactionCursor(channel, logEntryReader())) {
+            assertTrue(reader.next());
+            CommittedTransactionRepresentation committed = reader.get();
+            assertEquals(15L, committed.getCommitEntry().getTxId());
+            assertEquals(12345, committed.getStartEntry().getTimeWritten());
+            assertEquals(4545, committed.getStartEntry().getLastCommittedTxWhenTransactionStarted());
+            assertEquals(12345 + 10, committed.getCommitEntry().getTimeWritten());
+            assertEquals(commands, Iterables.asList(committed.getTransactionRepresentation()));
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void shouldNotAppendOtherTransactionsBetweenChunksOfTransaction() throws Exception {
+        // given
+        when(logFile.getTransactionLogWriter())
+                .thenReturn(new TransactionLogWriter(channel, new DbmsLogEntryWriterFactory(() -> LATEST)));
+        when(transactionIdStore.nextCommittingTransactionId()).thenReturn(15L, 16L);
+        TransactionAppender appender = life.add(createTransactionAppender());
+        ChunkedTransactionAppend chunkedAppend = appender.beginChunkedAppend(LATEST, 0, 1);
+        chunkedAppend.appendChunk(singleTestCommand());
+
+        try (OtherThreadExecutor otherThread = new OtherThreadExecutor("appender")) {
+            // when
+            Future<Long> otherAppend = otherThread.executeDontWait(() -> appender.append(
+                    new TransactionToApply(
+                            transaction(singleTestCommand(), new byte[0], 0, 1, 0), NULL_CONTEXT, StoreCursors.NULL),
+                    logAppendEvent));
+            otherThread.waitUntilWaiting(details -> details.isAt(BatchingTransactionAppender.class, "append"));
+            chunkedAppend.appendChunk(singleTestCommand());
+            TransactionToApply tx = new TransactionToApply(
+                    transaction(List.of(new TestCommand(), new TestCommand()), new byte[0], 0, 1, 0),
+                    NULL_CONTEXT,
+                    StoreCursors.NULL);
+            tx.chunkedAppend(chunkedAppend);
+            appender.append(tx, logAppendEvent);
+
+            // then
+            assertEquals(16L, otherAppend.get());
+        }
+        try (PhysicalTransactionCursor reader = new PhysicalTransactionCursor(channel, logEntryReader())) {
+            assertTrue(reader.next());
+            assertEquals(15L, reader.get().getCommitEntry().getTxId());
+            assertEquals(2, Iterables.count(reader.get().getTransactionRepresentation()));
+            assertTrue(reader.next());
+            assertEquals(16L, reader.get().getCommitEntry().getTxId());
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void shouldRollBackTransactionAppendedInChunksThatIsClosedBeforeCommit() throws Exception {
+        // given
+        when(logFile.getTransactionLogWriter())
+                .thenReturn(new TransactionLogWriter(channel, new DbmsLogEntryWriterFactory(() -> LATEST)));
+        when(transactionIdStore.nextCommittingTransactionId()).thenReturn(15L);
+        when(databaseHealth.isHealthy()).thenReturn(true);
+        TransactionAppender appender = life.add(createTransactionAppender());
+
+        // when
+        try (ChunkedTransactionAppend chunkedAppend = appender.beginChunkedAppend(LATEST, 0, 1)) {
+            chunkedAppend.appendChunk(singleTestCommand());
+        }
+        appender.append(
+                new TransactionToApply(
+                        transaction(singleTestCommand(), new byte[0], 0, 1, 0), NULL_CONTEXT, StoreCursors.NULL),
+                logAppendEvent);
+
+        // then the rolled back transaction is skipped, and left out of the checksum chain
+        try (PhysicalTransactionCursor reader = new PhysicalTransactionCursor(channel, logEntryReader())) {
+            assertTrue(reader.next());
+            assertEquals(15L, reader.get().getCommitEntry().getTxId());
+            assertEquals(BASE_TX_CHECKSUM, reader.get().getStartEntry().getPreviousChecksum());
+            assertFalse(reader.next());
+        }
+        verify(transactionIdStore).nextCommittingTransactionId();
+    }
+
+    @Test
+    void shouldNotRotateLogWhileTransactionIsAppendedInChunks() throws Exception {
+        // given
+        LogRotation logRotation = mock(LogRotation.class);
+        when(logFile.getLogRotation()).thenReturn(logRotation);
+        when(logFile.getTransactionLogWriter())
+                .thenReturn(new TransactionLogWriter(channel, new DbmsLogEntryWriterFactory(() -> LATEST)));
+        when(transactionIdStore.nextCommittingTransactionId()).thenReturn(15L, 16L);
+        TransactionAppender appender = life.add(createTransactionAppender());
+
+        try (OtherThreadExecutor otherThread = new OtherThreadExecutor("chunked appender")) {
+            // another transaction starts to be appended in chunks right before the force of this one
+            ChunkedTransactionAppend[] chunkedAppend = new ChunkedTransactionAppend[1];
+            when(logFile.forceAfterAppend(any())).thenAnswer(invocation -> {
+                chunkedAppend[0] = otherThread.execute(() -> appender.beginChunkedAppend(LATEST, 0, 1));
+                return true;
+            });
+
+            // when
+            appender.append(
+                    new TransactionToApply(
+                            transaction(singleTestCommand(), new byte[0], 0, 1, 0), NULL_CONTEXT, StoreCursors.NULL),
+                    logAppendEvent);
+
+            // then
+            verify(logRotation, never()).rotateLogIfNeeded(any());
+
+            // when
+            doReturn(true).when(logFile).forceAfterAppend(any());
+            otherThread.execute(() -> {
+                chunkedAppend[0].close();
+                return null;
+            });
+            appender.append(
+                    new TransactionToApply(
+                            transaction(singleTestCommand(), new byte[0], 0, 1, 0), NULL_CONTEXT, StoreCursors.NULL),
+                    logAppendEvent);
+
+            // then
+            verify(logRotation).rotateLogIfNeeded(any());
+        }
+    }
+
     private BatchingTransactionAppender createTransactionAppender() {
         return new BatchingTransactionAppender(logFiles, positionCache, transactionIdStore, databaseHealth);
     }
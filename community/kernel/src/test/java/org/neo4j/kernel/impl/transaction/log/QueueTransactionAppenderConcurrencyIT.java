@@ -190,7 +190,13 @@ class QueueTransactionAppenderConcurrencyIT {
 
     private QueueTransactionAppender createAppender(LogFiles logFiles) {
         TransactionLogQueue logQueue = new TransactionLogQueue(
-                logFiles, transactionIdStore, databaseHealth, metadataCache, jobScheduler, logProvider);
+                logFiles,
+                transactionIdStore,
+                databaseHealth,
+                metadataCache,
+                Config.defaults(),
+                jobScheduler,
+                logProvider);
         return new QueueTransactionAppender(logQueue);
     }
 
@@ -233,7 +233,13 @@ class QueueTransactionAppenderTestIT {
 
     private QueueTransactionAppender createAppender(LogFiles logFiles) {
         var logQueue = new TransactionLogQueue(
-                logFiles, transactionIdStore, databaseHealth, metadataCache, jobScheduler, logProvider);
+                logFiles,
+                transactionIdStore,
+                databaseHealth,
+                metadataCache,
+                Config.defaults(),
+                jobScheduler,
+                logProvider);
         return new QueueTransactionAppender(logQueue);
     }
 
@@ -19,19 +19,31 @@
  */
 package org.neo4j.kernel.impl.transaction.log;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.dedicated_transaction_appender_target_commit_latency;
 import static org.neo4j.monitoring.PanicEventGenerator.NO_OP;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.lang3.ArrayUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.configuration.Config;
 import org.neo4j.graphdb.DatabaseShutdownException;
 import org.neo4j.internal.kernel.api.security.AuthSubject;
 import org.neo4j.io.ByteUnit;
@@ -46,6 +58,7 @@ import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvent;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.monitoring.DatabaseHealth;
@@ -144,6 +157,56 @@ class TransactionLogQueueIT {
                 () -> logQueue.submit(createTransaction(), LogAppendEvent.NULL).getCommittedTxId());
     }
 
+    @Test
+    void processConcurrentMessagesWithAdaptiveGroupCommit() throws Exception {
+        LogFiles logFiles = buildLogFiles(logVersionRepository, transactionIdStore);
+        life.add(logFiles);
+
+        Config config = Config.defaults(dedicated_transaction_appender_target_commit_latency, Duration.ofMillis(5));
+        TransactionLogQueue logQueue = createLogQueue(logFiles, config);
+        life.add(logQueue);
+
+        int threads = 8;
+        int transactionsPerThread = 100;
+        CountingLogForceEvents logAppendEvent = new CountingLogForceEvents();
+        long lastCommittedTransactionId = transactionIdStore.getLastCommittedTransactionId();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    long[] committed = new long[transactionsPerThread];
+                    for (int j = 0; j < transactionsPerThread; j++) {
+                        committed[j] = logQueue.submit(createTransaction(), logAppendEvent)
+                                .getCommittedTxId();
+                    }
+                    return committed;
+                }));
+            }
+            Set<Long> committedIds = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                for (long committed : future.get()) {
+                    assertTrue(committed > lastCommittedTransactionId);
+                    assertTrue(committedIds.add(committed));
+                }
+            }
+            assertEquals(threads * transactionsPerThread, committedIds.size());
+            assertThat(logAppendEvent.forces.get()).isPositive().isLessThan(threads * transactionsPerThread);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static class CountingLogForceEvents extends LogAppendEvent.Empty {
+        private final AtomicInteger forces = new AtomicInteger();
+
+        @Override
+        public LogForceEvent beginLogForce() {
+            forces.incrementAndGet();
+            return LogForceEvent.NULL;
+        }
+    }
+
     private static TransactionToApply createTransaction() {
         PhysicalTransactionRepresentation tx = new PhysicalTransactionRepresentation(List.of(new TestCommand()));
         tx.setHeader(ArrayUtils.EMPTY_BYTE_ARRAY, 1, 2, 3, 4, AuthSubject.ANONYMOUS);
@@ -151,8 +214,12 @@ class TransactionLogQueueIT {
     }
 
     private TransactionLogQueue createLogQueue(LogFiles logFiles) {
+        return createLogQueue(logFiles, Config.defaults());
+    }
+
+    private TransactionLogQueue createLogQueue(LogFiles logFiles, Config config) {
         return new TransactionLogQueue(
-                logFiles, transactionIdStore, databaseHealth, metadataCache, jobScheduler, logProvider);
+                logFiles, transactionIdStore, databaseHealth, metadataCache, config, jobScheduler, logProvider);
     }
 
     private LogFiles buildLogFiles(
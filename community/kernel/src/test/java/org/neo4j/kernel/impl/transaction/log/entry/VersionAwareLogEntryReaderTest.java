@@ -24,9 +24,13 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.kernel.KernelVersion.LATEST;
+import static org.neo4j.kernel.KernelVersion.V5_0;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.neo4j.kernel.KernelVersion;
@@ -34,7 +38,12 @@ import org.neo4j.kernel.impl.api.TestCommand;
 import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
 import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.CommandsBuffer;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.LogEntryChunkEndV5_1;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.LogEntryRollbackV5_1;
 import org.neo4j.storageengine.api.CommandReader;
+import org.neo4j.storageengine.api.StorageCommand;
 
 class VersionAwareLogEntryReaderTest {
     private final LogEntryReader logEntryReader = new VersionAwareLogEntryReader(new TestCommandReaderFactory());
@@ -57,7 +66,7 @@ class VersionAwareLogEntryReaderTest {
     @Test
     void shouldReadACommitLogEntry() throws IOException {
         // given
-        final LogEntryCommit commit = new LogEntryCommit(42, 21, 1987705307);
+        final LogEntryCommit commit = new LogEntryCommit(42, 21, 1740832678);
         final InMemoryClosableChannel channel = new InMemoryClosableChannel(true);
 
         writeCommitEntry(channel, commit);
@@ -116,6 +125,104 @@ class VersionAwareLogEntryReaderTest {
         assertNull(logEntry);
     }
 
+    @Test
+    void shouldReadCompressedCommandsAsSeparateCommandEntries() throws IOException {
+        // given
+        List<StorageCommand> commands = List.of(compressibleCommand(1), compressibleCommand(2));
+        InMemoryClosableChannel channel = new InMemoryClosableChannel(10_000, true);
+        LogEntryWriter<InMemoryClosableChannel> writer = new LogEntryWriter<>(channel, LATEST);
+        writer.writeStartEntry(1, 2, BASE_TX_CHECKSUM, new byte[0]);
+        writer.serialize(new PhysicalTransactionRepresentation(commands), new CommandsBuffer(INSTANCE), 1);
+        int checksum = writer.writeCommitEntry(42, 21);
+        int compressedSize = channel.writerPosition();
+
+        // when
+        LogEntry start = logEntryReader.readLogEntry(channel);
+        LogEntry first = logEntryReader.readLogEntry(channel);
+        LogEntry second = logEntryReader.readLogEntry(channel);
+        LogEntry commit = logEntryReader.readLogEntry(channel);
+
+        // then
+        assertTrue(compressedSize < serializedSize(LATEST, commands, 0));
+        assertTrue(start instanceof LogEntryStart);
+        assertEquals(new LogEntryCommand(LATEST, commands.get(0)), first);
+        assertEquals(new LogEntryCommand(LATEST, commands.get(1)), second);
+        assertEquals(new LogEntryCommit(LATEST, 42, 21, checksum), commit);
+        assertNull(logEntryReader.readLogEntry(channel));
+    }
+
+    @Test
+    void shouldRejectCompressedCommandsThatCannotDecompressToTheirUncompressedLength() {
+        // given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel(true);
+        channel.put(LATEST.version()).put(LogEntryTypeCodes.COMPRESSED_COMMANDS);
+        channel.putInt(Integer.MAX_VALUE).putInt(16).put(new byte[16], 16);
+
+        // when
+        IOException e = assertThrows(IOException.class, () -> logEntryReader.readLogEntry(channel));
+
+        // then
+        assertTrue(e.getMessage().contains("Invalid compressed commands entry"));
+    }
+
+    @Test
+    void shouldTreatCompressedCommandsLongerThanTheLogAsTheEndOfIt() throws IOException {
+        // given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel(true);
+        channel.put(LATEST.version()).put(LogEntryTypeCodes.COMPRESSED_COMMANDS);
+        channel.putInt(1_000_000_000).putInt(1_000_000_000);
+        channel.put(new byte[100], 100);
+
+        // when
+        LogEntry logEntry = logEntryReader.readLogEntry(channel);
+
+        // then
+        assertNull(logEntry);
+    }
+
+    @Test
+    void shouldNotCompressCommandsBelowThresholdOrOfVersionsWithoutCompression() throws IOException {
+        List<StorageCommand> commands = List.of(compressibleCommand(1), compressibleCommand(2));
+        int uncompressedSize = serializedSize(LATEST, commands, 0);
+
+        assertEquals(uncompressedSize, serializedSize(LATEST, commands, uncompressedSize + 1));
+        assertEquals(uncompressedSize, serializedSize(V5_0, commands, 1));
+        assertTrue(serializedSize(LATEST, commands, uncompressedSize) < uncompressedSize);
+    }
+
+    @Test
+    void shouldReadChunkEndAndRollbackEntries() throws IOException {
+        // given
+        TestCommand command = new TestCommand(new byte[] {100, 101, 102});
+        InMemoryClosableChannel channel = new InMemoryClosableChannel(true);
+        LogEntryWriter<InMemoryClosableChannel> writer = new LogEntryWriter<>(channel, LATEST);
+        writer.writeStartEntry(1, 2, BASE_TX_CHECKSUM, new byte[0]);
+        writer.serialize(command);
+        writer.writeChunkEndEntry(0);
+        int checksum = writer.writeRollbackEntry(21);
+
+        // when
+        LogEntry start = logEntryReader.readLogEntry(channel);
+        LogEntry commandEntry = logEntryReader.readLogEntry(channel);
+        LogEntry chunkEnd = logEntryReader.readLogEntry(channel);
+        LogEntry rollback = logEntryReader.readLogEntry(channel);
+
+        // then
+        assertTrue(start instanceof LogEntryStart);
+        assertEquals(new LogEntryCommand(LATEST, command), commandEntry);
+        assertEquals(new LogEntryChunkEndV5_1(LATEST, 0), chunkEnd);
+        assertEquals(new LogEntryRollbackV5_1(LATEST, 21, checksum), rollback);
+        assertNull(logEntryReader.readLogEntry(channel));
+    }
+
+    @Test
+    void shouldNotWriteChunkedTransactionEntriesOfVersionsWithoutChunkedTransactions() {
+        LogEntryWriter<InMemoryClosableChannel> writer = new LogEntryWriter<>(new InMemoryClosableChannel(), V5_0);
+
+        assertThrows(UnsupportedOperationException.class, () -> writer.writeChunkEndEntry(0));
+        assertThrows(UnsupportedOperationException.class, () -> writer.writeRollbackEntry(0));
+    }
+
     @Disabled // TODO it's not clear what the benefit verifying the chain will give us, so it's disable for now
     @Test
     void shouldValidateChecksumChain() throws IOException {
@@ -156,6 +263,25 @@ class VersionAwareLogEntryReaderTest {
         assertTrue(e.getMessage().contains("The checksum chain is broken"));
     }
 
+    private static TestCommand compressibleCommand(int value) {
+        byte[] data = new byte[1000];
+        Arrays.fill(data, (byte) value);
+        return new TestCommand(data);
+    }
+
+    private static int serializedSize(KernelVersion version, List<StorageCommand> commands, long compressionThreshold)
+            throws IOException {
+        InMemoryClosableChannel channel = new InMemoryClosableChannel(10_000);
+        LogEntryWriter<InMemoryClosableChannel> writer = new LogEntryWriter<>(channel, version);
+        var transaction = new PhysicalTransactionRepresentation(commands);
+        if (compressionThreshold > 0) {
+            writer.serialize(transaction, new CommandsBuffer(INSTANCE), compressionThreshold);
+        } else {
+            writer.serialize(transaction);
+        }
+        return channel.writerPosition();
+    }
+
     private static void writeStartEntry(InMemoryClosableChannel channel, LogEntryStart start) {
         channel.beginChecksum();
         channel.put(start.getVersion().version()); // version
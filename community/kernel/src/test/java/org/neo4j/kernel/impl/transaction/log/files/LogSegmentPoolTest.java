@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_segment_pool_size;
+import static org.neo4j.kernel.impl.scheduler.JobSchedulerFactory.createInitialisedScheduler;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
+import static org.neo4j.kernel.impl.transaction.log.files.LogSegmentPool.SEGMENT_PREFIX;
+import static org.neo4j.kernel.impl.transaction.log.files.TransactionLogFilesHelper.DEFAULT_NAME;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_COMMIT_TIMESTAMP;
+import static org.neo4j.test.assertion.Assert.assertEventually;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
+import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
+import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.storageengine.api.StoreId;
+import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.LifeExtension;
+
+@EphemeralNeo4jLayoutExtension
+@ExtendWith(LifeExtension.class)
+class LogSegmentPoolTest {
+    private static final StoreId STORE_ID = new StoreId(1, 2, "engine-1", "format-1", 3, 4);
+    private static final long ROTATION_THRESHOLD = ByteUnit.kibiBytes(512);
+
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+
+    @Inject
+    private LifeSupport life;
+
+    @Test
+    void prunedLogFileIsReusedAsZeroFilledLogFileOnRotation() throws Exception {
+        try (JobScheduler jobScheduler = createInitialisedScheduler()) {
+            LogFile logFile = startLogFiles(2, jobScheduler).getLogFile();
+            logFile.rotate();
+            logFile.rotate();
+            assertEventually(() -> pooledSegments().length, count -> count == 1, 1, MINUTES);
+            Path prunedFile = logFile.getLogFileForVersion(1);
+            writeGarbage(prunedFile);
+
+            logFile.prune(1);
+            assertThat(fileSystem.fileExists(prunedFile)).isFalse();
+            assertThat(pooledSegments()).hasSize(2);
+            LogSegmentPool segmentPool = ((TransactionLogFile) logFile).getSegmentPool();
+            assertEventually(segmentPool::size, size -> size == 2, 1, MINUTES);
+
+            // Both pooled segments, the recycled one included, are taken into use by the next two rotations.
+            // Rotation truncates the previous log file, so each one is checked while it is the current one.
+            logFile.rotate();
+            assertZeroFilledLogFile(logFile, 4);
+            logFile.rotate();
+            assertZeroFilledLogFile(logFile, 5);
+            life.shutdown();
+        }
+    }
+
+    @Test
+    void prunedLogFilesAreDeletedWhenPoolIsFull() throws Exception {
+        try (JobScheduler jobScheduler = createInitialisedScheduler()) {
+            LogFile logFile = startLogFiles(1, jobScheduler).getLogFile();
+            logFile.rotate();
+            logFile.rotate();
+            logFile.rotate();
+            assertEventually(() -> pooledSegments().length, count -> count == 1, 1, MINUTES);
+
+            logFile.prune(1);
+            logFile.prune(2);
+
+            assertThat(fileSystem.fileExists(logFile.getLogFileForVersion(1))).isFalse();
+            assertThat(fileSystem.fileExists(logFile.getLogFileForVersion(2))).isFalse();
+            assertThat(pooledSegments()).hasSize(1);
+            life.shutdown();
+        }
+    }
+
+    @Test
+    void prunedLogFilesAreDeletedWithoutJobScheduler() throws IOException {
+        LogFile logFile = startLogFiles(1, null).getLogFile();
+        logFile.rotate();
+        logFile.rotate();
+
+        logFile.prune(1);
+
+        assertThat(fileSystem.fileExists(logFile.getLogFileForVersion(1))).isFalse();
+        assertThat(pooledSegments()).isEmpty();
+    }
+
+    @Test
+    void leftoverSegmentsAreDeletedOnStart() throws IOException {
+        Path leftover = databaseLayout.getTransactionLogsDirectory().resolve(SEGMENT_PREFIX + DEFAULT_NAME + ".7");
+        fileSystem.mkdirs(leftover.getParent());
+        writeGarbage(leftover);
+
+        startLogFiles(1, null);
+
+        assertThat(fileSystem.fileExists(leftover)).isFalse();
+    }
+
+    @Test
+    void nextSegmentIsPreparedInBackground() throws Exception {
+        try (JobScheduler jobScheduler = createInitialisedScheduler()) {
+            LogFile logFile = startLogFiles(1, jobScheduler).getLogFile();
+            assertEventually(() -> pooledSegments().length, count -> count == 1, 1, MINUTES);
+
+            logFile.rotate();
+
+            assertThat(fileSystem.getFileSize(logFile.getLogFileForVersion(2))).isEqualTo(ROTATION_THRESHOLD);
+            assertEventually(() -> pooledSegments().length, count -> count == 1, 1, MINUTES);
+            life.shutdown();
+        }
+    }
+
+    private LogFiles startLogFiles(int segmentPoolSize, JobScheduler jobScheduler) throws IOException {
+        LogFiles logFiles = LogFilesBuilder.builder(databaseLayout, fileSystem)
+                .withConfig(Config.defaults(transaction_log_segment_pool_size, segmentPoolSize))
+                .withRotationThreshold(ROTATION_THRESHOLD)
+                .withTransactionIdStore(new SimpleTransactionIdStore(2L, 0, BASE_TX_COMMIT_TIMESTAMP, 0, 0))
+                .withLogVersionRepository(new SimpleLogVersionRepository(1L))
+                .withCommandReaderFactory(new TestCommandReaderFactory())
+                .withStoreId(STORE_ID)
+                .withJobScheduler(jobScheduler)
+                .build();
+        life.add(logFiles);
+        life.start();
+        return logFiles;
+    }
+
+    private Path[] pooledSegments() throws IOException {
+        return fileSystem.listFiles(
+                databaseLayout.getTransactionLogsDirectory(),
+                file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX));
+    }
+
+    private void assertZeroFilledLogFile(LogFile logFile, long version) throws IOException {
+        Path file = logFile.getLogFileForVersion(version);
+        assertThat(fileSystem.getFileSize(file)).isEqualTo(ROTATION_THRESHOLD);
+        try (StoreChannel channel = fileSystem.read(file)) {
+            LogHeader header = readLogHeader(channel, true, file, INSTANCE);
+            assertThat(header.getLogVersion()).isEqualTo(version);
+
+            long headerSize = header.getStartPosition().getByteOffset();
+            ByteBuffer content = ByteBuffer.allocate((int) (ROTATION_THRESHOLD - headerSize));
+            channel.readAll(content);
+            assertThat(content.array()).containsOnly(0);
+        }
+    }
+
+    private void writeGarbage(Path file) throws IOException {
+        byte[] garbage = new byte[(int) ByteUnit.kibiBytes(4)];
+        Arrays.fill(garbage, (byte) 7);
+        try (StoreChannel channel = fileSystem.write(file)) {
+            channel.writeAll(ByteBuffer.wrap(garbage), channel.size());
+        }
+    }
+}
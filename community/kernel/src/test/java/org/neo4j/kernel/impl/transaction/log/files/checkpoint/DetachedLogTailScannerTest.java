@@ -313,6 +313,35 @@ class DetachedLogTailScannerTest {
         assertLatestCheckPoint(true, false, NO_TRANSACTION_ID, false, logTailInformation);
     }
 
+    @ParameterizedTest
+    @MethodSource("params")
+    void latestLogFileContainingACheckPointAndARolledBackTransactionAfter(int startLogVersion, int endLogVersion)
+            throws Exception {
+        // given
+        setupLogFiles(endLogVersion, logFile(checkPoint(), start(), rollback()));
+
+        // when
+        var logTailInformation = logFiles.getTailMetadata();
+
+        // then
+        assertLatestCheckPoint(true, false, NO_TRANSACTION_ID, false, logTailInformation);
+    }
+
+    @ParameterizedTest
+    @MethodSource("params")
+    void latestLogFileContainingACheckPointAndARolledBackTransactionBeforeACommit(
+            int startLogVersion, int endLogVersion) throws Exception {
+        // given
+        long txId = 35;
+        setupLogFiles(endLogVersion, logFile(checkPoint(), start(), rollback(), start(), commit(txId)));
+
+        // when
+        var logTailInformation = logFiles.getTailMetadata();
+
+        // then
+        assertLatestCheckPoint(true, true, txId, false, logTailInformation);
+    }
+
     @ParameterizedTest
     @MethodSource("params")
     void twoLogFilesSecondIsCorruptedBeforeCommit(int startLogVersion, int endLogVersion) throws Exception {
@@ -536,6 +565,8 @@ class DetachedLogTailScannerTest {
                         } else if (entry instanceof CommitEntry commitEntry) {
                             previousChecksum = writer.writeCommitEntry(commitEntry.txId, 0);
                             lastTxId.set(commitEntry.txId);
+                        } else if (entry instanceof RollbackEntry) {
+                            writer.writeRollbackEntry(0);
                         } else if (entry instanceof CheckPointEntry checkPointEntry) {
                             Entry target = checkPointEntry.withPositionOfEntry;
                             LogPosition logPosition = target != null ? positions.get(target) : currentPosition;
@@ -573,6 +604,10 @@ class DetachedLogTailScannerTest {
         return new CommitEntry(txId);
     }
 
+    static RollbackEntry rollback() {
+        return new RollbackEntry();
+    }
+
     static CheckPointEntry checkPoint() {
         return checkPoint(null /*means self-position*/);
     }
@@ -595,6 +630,8 @@ class DetachedLogTailScannerTest {
         }
     }
 
+    private static class RollbackEntry implements Entry {}
+
     private static class CheckPointEntry implements Entry {
         final Entry withPositionOfEntry;
 
@@ -29,6 +29,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -60,12 +61,13 @@ class LogPruningTest {
     private AssertableLogProvider logProvider;
     private SystemNanoClock clock;
     private LogPruneStrategyFactory factory;
+    private LogFile logFile;
 
     @BeforeEach
     void setUp() {
         fs = mock(FileSystemAbstraction.class);
         logFiles = mock(LogFiles.class);
-        LogFile logFile = mock(LogFile.class);
+        logFile = mock(LogFile.class);
         when(logFiles.getLogFile()).thenReturn(logFile);
         when(logFiles.getCheckpointFile()).thenReturn(mock(CheckpointFile.class));
         doAnswer(inv -> Path.of(String.valueOf(inv.getArguments()[0])))
@@ -82,10 +84,11 @@ class LogPruningTest {
                 .thenReturn(upTo -> LongRange.range(3, upTo - 1));
         LogPruning pruning = new LogPruningImpl(fs, logFiles, logProvider, factory, clock, config, new ReentrantLock());
         pruning.pruneLogs(5);
-        InOrder order = inOrder(fs);
-        order.verify(fs).deleteFile(Path.of("3"));
-        order.verify(fs).deleteFile(Path.of("4"));
+        InOrder order = inOrder(logFile);
+        order.verify(logFile).prune(3);
+        order.verify(logFile).prune(4);
         // Log file 5 is not deleted; it's the lowest version expected to remain after pruning.
+        verify(logFile, never()).prune(5);
         verifyNoMoreInteractions(fs);
     }
 
@@ -21,12 +21,15 @@ package org.neo4j.kernel.impl.transaction.log.reverse;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.neo4j.internal.kernel.api.security.AuthSubject.ANONYMOUS;
 import static org.neo4j.kernel.impl.transaction.log.GivenTransactionCursor.exhaust;
-import static org.neo4j.kernel.impl.transaction.log.TestLogEntryReader.logEntryReader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_FORMAT_LOG_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.reverse.ReversedMultiFileTransactionCursor.fromLogFile;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
@@ -35,7 +38,11 @@ import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_ID;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -49,14 +56,20 @@ import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.FlushablePositionAwareChecksumChannel;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.LogVersionBridge;
 import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
+import org.neo4j.kernel.impl.transaction.log.TestLogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.TransactionLogWriter;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
 import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.LogVersionRepository;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.StoreId;
@@ -65,6 +78,7 @@ import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.LifeExtension;
 import org.neo4j.test.extension.Neo4jLayoutExtension;
 import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
 
 @Neo4jLayoutExtension
 @ExtendWith({RandomExtension.class, LifeExtension.class})
@@ -85,6 +99,7 @@ class ReversedMultiFileTransactionCursorTest {
     private ReverseTransactionCursorLoggingMonitor monitor;
     private LogFile logFile;
     private LogFiles logFiles;
+    private ThreadPoolJobScheduler jobScheduler;
 
     @BeforeEach
     void setUp() throws IOException {
@@ -100,6 +115,12 @@ class ReversedMultiFileTransactionCursorTest {
         life.add(logFiles);
         logFile = logFiles.getLogFile();
         monitor = mock(ReverseTransactionCursorLoggingMonitor.class);
+        jobScheduler = new ThreadPoolJobScheduler();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobScheduler.close();
     }
 
     @ParameterizedTest
@@ -180,6 +201,97 @@ class ReversedMultiFileTransactionCursorTest {
         assertRecovery(presketch, readTransactions, txId, BASE_TX_ID);
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 8})
+    void shouldReadMultipleVersionsSketchedInParallel(int parallelism) throws Exception {
+        // given
+        for (int i = 0; i < 6; i++) {
+            writeTransactions(random.intBetween(0, 5));
+            logFile.rotate();
+        }
+        writeTransactions(3);
+
+        // when
+        CommittedTransactionRepresentation[] readTransactions;
+        try (TransactionCursor cursor = fromLogFile(
+                logFile,
+                new LogPosition(0, CURRENT_FORMAT_LOG_HEADER_SIZE),
+                TestLogEntryReader::logEntryReader,
+                false,
+                monitor,
+                parallelism,
+                jobScheduler)) {
+            readTransactions = exhaust(cursor);
+        }
+
+        // then
+        assertRecovery(true, readTransactions, txId, BASE_TX_ID);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    void shouldCloseSketchedVersionsThatWereNeverRead(int parallelism) throws Exception {
+        // given
+        for (int i = 0; i < 4; i++) {
+            writeTransactions(2);
+            logFile.rotate();
+        }
+        writeTransactions(2);
+
+        // when
+        try (TransactionCursor cursor = fromLogFile(
+                logFile,
+                new LogPosition(0, CURRENT_FORMAT_LOG_HEADER_SIZE),
+                TestLogEntryReader::logEntryReader,
+                false,
+                monitor,
+                parallelism,
+                jobScheduler)) {
+            assertThat(cursor.next()).isTrue();
+        }
+
+        // then
+        verify(monitor).presketchingTransactionLogs();
+    }
+
+    @Test
+    void shouldNotOpenChannelsForSketchesThatStartAfterClose() throws Exception {
+        // given
+        for (int i = 0; i < 3; i++) {
+            writeTransactions(2);
+            logFile.rotate();
+        }
+        LogFile spiedLogFile = spy(logFile);
+        JobScheduler deferringScheduler = mock(JobScheduler.class);
+        when(deferringScheduler.schedule(any(Group.class), any(JobMonitoringParams.class), any(Callable.class)))
+                .thenAnswer(invocation -> {
+                    // Sketches only run when waited for, so that all of them start after close
+                    FutureTask<Object> sketch = new FutureTask<>(invocation.getArgument(2));
+                    JobHandle<Object> handle = mock(JobHandle.class);
+                    when(handle.get()).thenAnswer(get -> {
+                        sketch.run();
+                        return sketch.get();
+                    });
+                    return handle;
+                });
+
+        // when
+        new PrefetchedTransactionCursors(
+                        spiedLogFile,
+                        new LogPosition(0, CURRENT_FORMAT_LOG_HEADER_SIZE),
+                        TestLogEntryReader::logEntryReader,
+                        false,
+                        monitor,
+                        3,
+                        deferringScheduler)
+                .close();
+
+        // then
+        verify(deferringScheduler, times(3))
+                .schedule(any(Group.class), any(JobMonitoringParams.class), any(Callable.class));
+        verify(spiedLogFile, never()).getReader(any(LogPosition.class), any(LogVersionBridge.class));
+    }
+
     @ParameterizedTest
     @ValueSource(booleans = {true, false})
     void shouldHandleEmptyTransactions(boolean presketch) throws Exception {
@@ -220,7 +332,14 @@ class ReversedMultiFileTransactionCursorTest {
         ReadAheadLogChannel fileReader = (ReadAheadLogChannel)
                 logFile.getReader(logFiles.getLogFile().extractHeader(0).getStartPosition());
         try {
-            return fromLogFile(logFile, position, logEntryReader(), false, monitor, presketch);
+            return fromLogFile(
+                    logFile,
+                    position,
+                    TestLogEntryReader::logEntryReader,
+                    false,
+                    monitor,
+                    presketch ? 2 : 0,
+                    jobScheduler);
         } catch (Exception e) {
             fileReader.close();
             throw e;
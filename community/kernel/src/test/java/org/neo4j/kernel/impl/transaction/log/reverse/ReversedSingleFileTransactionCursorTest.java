@@ -35,6 +35,7 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.WritableChecksumChannel;
@@ -194,6 +195,21 @@ class ReversedSingleFileTransactionCursorTest {
         assertThrows(IOException.class, this::readAllFromReversedCursorFailOnCorrupted);
     }
 
+    @Test
+    void shouldSkipRolledBackTransactionsAppendedInChunks() throws Exception {
+        // given
+        writeTransactions(10, 1, 1);
+        appendRolledBackChunkedTransaction(10, 100);
+        writeTransactions(10, 1, 1);
+        appendRolledBackChunkedTransaction(1, 1);
+
+        // when
+        CommittedTransactionRepresentation[] readTransactions = readAllFromReversedCursor();
+
+        // then
+        assertTransactionRange(readTransactions, txId, TransactionIdStore.BASE_TX_ID);
+    }
+
     private CommittedTransactionRepresentation[] readAllFromReversedCursor() throws IOException {
         try (ReversedSingleFileTransactionCursor cursor = txCursor(false)) {
             return exhaust(cursor);
@@ -242,6 +258,17 @@ class ReversedSingleFileTransactionCursorTest {
         // Don't close the channel, LogFile owns it
     }
 
+    private void appendRolledBackChunkedTransaction(int chunks, int chunkSize) throws IOException {
+        TransactionLogWriter writer = logFile.getTransactionLogWriter();
+        TransactionLogWriter.ChunkedTransaction transaction =
+                writer.beginChunkedTransaction(KernelVersion.LATEST, 0, 0, BASE_TX_CHECKSUM, new byte[0]);
+        for (int i = 0; i < chunks; i++) {
+            transaction.appendChunk(Iterables.asList(tx(chunkSize)));
+        }
+        transaction.rollback(0);
+        writer.getChannel().prepareForFlush().flush();
+    }
+
     private void appendCorruptedTransaction() throws IOException {
         var channel = logFile.getTransactionLogWriter().getChannel();
         TransactionLogWriter writer = new TransactionLogWriter(channel, new CorruptedLogEntryWriterFactory());
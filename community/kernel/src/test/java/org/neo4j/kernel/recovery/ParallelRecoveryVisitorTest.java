@@ -30,7 +30,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.Test;
 import org.neo4j.counts.CountsAccessor;
 import org.neo4j.exceptions.KernelException;
@@ -231,6 +233,68 @@ class ParallelRecoveryVisitorTest {
         assertThatThrownBy(visitor::close).getCause().hasMessageContaining(failure);
     }
 
+    @Test
+    void shouldApplyTransactionsSharingAnyEntityInSequence() throws Exception {
+        // given
+        RecoveryControllableStorageEngine storageEngine = new RecoveryControllableStorageEngine() {
+            @Override
+            public void apply(CommandsToApply batch, TransactionApplicationMode mode) throws Exception {
+                if (idOf(batch) == 3) {
+                    // Give 4 every chance to overtake 3, which it must not since they both touch node 2
+                    Thread.sleep(50);
+                }
+                super.apply(batch, mode);
+            }
+        };
+
+        // when
+        try (ParallelRecoveryVisitor visitor =
+                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", 2)) {
+            visitor.visit(tx(2, commandsRelatedToNode(1)));
+            visitor.visit(tx(3, commandsRelatedToNodes(1, 2)));
+            visitor.visit(tx(4, commandsRelatedToNode(2)));
+        }
+
+        // then
+        assertThat(storageEngine.applyOrder()).isEqualTo(new long[] {2, 3, 4});
+    }
+
+    @Test
+    void shouldReportDependentTransactionsToMonitor() throws Exception {
+        // given
+        CountDownLatch applyLatch = new CountDownLatch(1);
+        RecoveryControllableStorageEngine storageEngine = new RecoveryControllableStorageEngine() {
+            @Override
+            public void apply(CommandsToApply batch, TransactionApplicationMode mode) throws Exception {
+                applyLatch.await();
+                super.apply(batch, mode);
+            }
+        };
+        AtomicLong recovered = new AtomicLong();
+        AtomicLong dependent = new AtomicLong();
+        RecoveryMonitor monitor = new RecoveryMonitor() {
+            @Override
+            public void parallelRecoveryCompleted(
+                    long recoveredTransactions, long dependentTransactions, int peakInFlightTransactions) {
+                recovered.set(recoveredTransactions);
+                dependent.set(dependentTransactions);
+            }
+        };
+
+        // when
+        try (ParallelRecoveryVisitor visitor =
+                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", monitor, 2)) {
+            visitor.visit(tx(2, commandsRelatedToNode(1)));
+            visitor.visit(tx(3, commandsRelatedToNode(2)));
+            visitor.visit(tx(4, commandsRelatedToNode(1)));
+            applyLatch.countDown();
+        }
+
+        // then
+        assertThat(recovered.get()).isEqualTo(3);
+        assertThat(dependent.get()).isEqualTo(1);
+    }
+
     private CommittedTransactionRepresentation tx(long txId, List<StorageCommand> commands) {
         commands.forEach(cmd -> ((RecoveryTestBaseCommand) cmd).txId = txId);
         LogEntryStart startEntry = new LogEntryStart(0, 0, 0, new byte[0], UNSPECIFIED);
@@ -245,6 +309,14 @@ class ParallelRecoveryVisitorTest {
         return commands;
     }
 
+    private List<StorageCommand> commandsRelatedToNodes(long... nodeIds) {
+        List<StorageCommand> commands = new ArrayList<>();
+        for (long nodeId : nodeIds) {
+            commands.add(new CommandRelatedToNode(nodeId));
+        }
+        return commands;
+    }
+
     private static long idOf(CommandStream commands) {
         return ((RecoveryTestBaseCommand) commands.iterator().next()).txId;
     }
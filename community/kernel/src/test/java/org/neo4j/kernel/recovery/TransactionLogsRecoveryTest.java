@@ -493,6 +493,75 @@ class TransactionLogsRecoveryTest {
         assertEquals(marker.getByteOffset(), Files.size(file));
     }
 
+    @Test
+    void shouldRecoverTransactionsAroundRolledBackTransactionAppendedInChunks() throws Exception {
+        // GIVEN
+        Path file = logFiles.getLogFile().getLogFileForVersion(logVersion);
+        final LogPositionMarker marker = new LogPositionMarker();
+
+        writeSomeData(file, pair -> {
+            LogEntryWriter<?> writer = pair.first();
+            Consumer<LogPositionMarker> consumer = pair.other();
+
+            // committed tx
+            writer.writeStartEntry(2L, 3L, BASE_TX_CHECKSUM, new byte[0]);
+            int previousChecksum = writer.writeCommitEntry(4L, 5L);
+
+            // tx appended in chunks that was rolled back
+            writer.writeStartEntry(5L, 4L, previousChecksum, new byte[0]);
+            writer.writeChunkEndEntry(0);
+            writer.writeRollbackEntry(6L);
+
+            // committed tx
+            writer.writeStartEntry(6L, 4L, previousChecksum, new byte[0]);
+            writer.writeCommitEntry(5L, 7L);
+            consumer.accept(marker);
+
+            return true;
+        });
+
+        // WHEN
+        boolean recoveryRequired = recovery(storeDir);
+
+        // THEN
+        assertTrue(recoveryRequired);
+        var lastClosedTransaction = transactionIdStore.getLastClosedTransaction();
+        assertEquals(5L, lastClosedTransaction.transactionId());
+        assertEquals(marker.getByteOffset(), lastClosedTransaction.logPosition().getByteOffset());
+    }
+
+    @Test
+    void shouldTruncateLogAfterPartialTransactionAppendedInChunks() throws Exception {
+        // GIVEN
+        Path file = logFiles.getLogFile().getLogFileForVersion(logVersion);
+        final LogPositionMarker marker = new LogPositionMarker();
+
+        writeSomeData(file, pair -> {
+            LogEntryWriter<?> writer = pair.first();
+            Consumer<LogPositionMarker> consumer = pair.other();
+
+            // last committed tx
+            writer.writeStartEntry(2L, 3L, BASE_TX_CHECKSUM, new byte[0]);
+            int previousChecksum = writer.writeCommitEntry(4L, 5L);
+
+            // tx appended in chunks that was neither committed nor rolled back
+            consumer.accept(marker); // <-- marker has the last good position
+            writer.writeStartEntry(5L, 4L, previousChecksum, new byte[0]);
+            writer.writeChunkEndEntry(0);
+            writer.writeChunkEndEntry(1);
+
+            return true;
+        });
+
+        // WHEN
+        boolean recoveryRequired = recovery(storeDir);
+
+        // THEN
+        assertTrue(recoveryRequired);
+        assertEquals(4L, transactionIdStore.getLastClosedTransaction().transactionId());
+        assertEquals(marker.getByteOffset(), Files.size(file));
+    }
+
     @Test
     void shouldTellTransactionIdStoreAfterSuccessfulRecovery() throws Exception {
         // GIVEN
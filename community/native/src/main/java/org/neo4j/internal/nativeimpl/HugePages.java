@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static java.lang.Boolean.getBoolean;
+import static org.neo4j.internal.nativeimpl.MemoryMappings.MAP_FAILED;
+import static org.neo4j.internal.nativeimpl.MemoryMappings.PROT_READ_WRITE;
+import static org.neo4j.internal.nativeimpl.MemoryMappings.madvise;
+import static org.neo4j.internal.nativeimpl.MemoryMappings.mmap;
+import static org.neo4j.internal.nativeimpl.MemoryMappings.munmap;
+
+import com.sun.jna.LastErrorException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Anonymous memory mappings backed by huge pages, to cut down on TLB misses when large amounts of memory are accessed
+ * at random.
+ * <p>
+ * Explicit huge pages come from the pool that the administrator reserved in {@code /proc/sys/vm/nr_hugepages}, and
+ * mapping them fails when the pool is too small. Transparent huge pages are ordinary mappings that the kernel is
+ * advised to back with huge pages, which it does as long as it can find free huge pages, and when transparent huge
+ * pages are not disabled. Explicit mappings are sized in multiples of {@link #hugePageSize()}, and transparent mappings
+ * are aligned to, and sized in multiples of, {@link #transparentHugePageSize()}. The two sizes differ on machines where
+ * the default size of explicit huge pages is one gigabyte.
+ */
+public final class HugePages {
+    private static final boolean DISABLE_HUGE_PAGES = getBoolean(HugePages.class.getName() + ".disable");
+
+    private static final Path MEMORY_INFO = Path.of("/proc/meminfo");
+    private static final Path TRANSPARENT_HUGE_PAGES = Path.of("/sys/kernel/mm/transparent_hugepage/enabled");
+    private static final Path TRANSPARENT_HUGE_PAGE_SIZE =
+            Path.of("/sys/kernel/mm/transparent_hugepage/hpage_pmd_size");
+    private static final long DEFAULT_HUGE_PAGE_SIZE = 2 * 1024 * 1024;
+
+    private static final int MAP_PRIVATE_ANONYMOUS = 0x02 | 0x20;
+    private static final int MAP_HUGETLB = 0x40000;
+    private static final int MADV_HUGEPAGE = 14;
+
+    private static final boolean AVAILABLE;
+    private static final long HUGE_PAGE_SIZE;
+    private static final long TRANSPARENT_HUGE_PAGE_SIZE_BYTES;
+    private static final boolean TRANSPARENT_AVAILABLE;
+
+    static {
+        boolean available = false;
+        long hugePageSize = DEFAULT_HUGE_PAGE_SIZE;
+        long transparentHugePageSize = DEFAULT_HUGE_PAGE_SIZE;
+        boolean transparent = false;
+        try {
+            if (!DISABLE_HUGE_PAGES && MemoryMappings.isAvailable()) {
+                hugePageSize = readHugePageSize();
+                transparentHugePageSize = readTransparentHugePageSize();
+                transparent = readTransparentHugePagesEnabled();
+                available = true;
+            }
+        } catch (Throwable ignore) {
+            // Without the memory mapping calls, memory is allocated with regular pages.
+        }
+        AVAILABLE = available;
+        HUGE_PAGE_SIZE = hugePageSize;
+        TRANSPARENT_HUGE_PAGE_SIZE_BYTES = transparentHugePageSize;
+        TRANSPARENT_AVAILABLE = transparent;
+    }
+
+    private HugePages() {}
+
+    /**
+     * @return {@code true} if huge page mappings can be attempted in this process.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * @return {@code true} if the kernel backs mappings with transparent huge pages when advised to.
+     */
+    public static boolean isTransparentAvailable() {
+        return AVAILABLE && TRANSPARENT_AVAILABLE;
+    }
+
+    /**
+     * @return the size of an explicit huge page in bytes.
+     */
+    public static long hugePageSize() {
+        return HUGE_PAGE_SIZE;
+    }
+
+    /**
+     * @return the size of a transparent huge page in bytes.
+     */
+    public static long transparentHugePageSize() {
+        return TRANSPARENT_HUGE_PAGE_SIZE_BYTES;
+    }
+
+    /**
+     * @return the number of free huge pages in the pool of explicit huge pages, or {@code 0} if it cannot be determined.
+     */
+    public static long explicitPagesFree() {
+        if (!AVAILABLE) {
+            return 0;
+        }
+        try {
+            String free = readMemoryInfo("HugePages_Free:");
+            return free == null ? 0 : Long.parseLong(free);
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Map memory from the pool of explicit huge pages.
+     *
+     * @param length the length of the mapping, a multiple of {@link #hugePageSize()}.
+     * @return the address of the mapping, or {@code 0} if there are not enough free huge pages in the pool.
+     */
+    public static long mapExplicit(long length) {
+        if (!AVAILABLE) {
+            return 0;
+        }
+        try {
+            long address = mmap(0, length, PROT_READ_WRITE, MAP_PRIVATE_ANONYMOUS | MAP_HUGETLB, -1, 0);
+            return address == MAP_FAILED ? 0 : address;
+        } catch (LastErrorException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Map memory aligned to the huge page size, and advise the kernel to back it with transparent huge pages.
+     *
+     * @param length the length of the mapping, a multiple of {@link #transparentHugePageSize()}.
+     * @return the address of the mapping, or {@code 0} if the memory could not be mapped, or the kernel does not
+     * accept the advice.
+     */
+    public static long mapTransparent(long length) {
+        if (!isTransparentAvailable()) {
+            return 0;
+        }
+        // Map one huge page more than we need, and trim the mapping down to an aligned range.
+        long hugePageSize = TRANSPARENT_HUGE_PAGE_SIZE_BYTES;
+        long mappedLength = length + hugePageSize;
+        long mapped;
+        try {
+            mapped = mmap(0, mappedLength, PROT_READ_WRITE, MAP_PRIVATE_ANONYMOUS, -1, 0);
+            if (mapped == MAP_FAILED) {
+                return 0;
+            }
+        } catch (LastErrorException e) {
+            return 0;
+        }
+        long address = (mapped + hugePageSize - 1) & -hugePageSize;
+        long head = address - mapped;
+        long tail = mappedLength - head - length;
+        try {
+            if (head > 0) {
+                munmap(mapped, head);
+            }
+            if (tail > 0) {
+                munmap(address + length, tail);
+            }
+            madvise(address, length, MADV_HUGEPAGE);
+            return address;
+        } catch (LastErrorException e) {
+            unmap(address, length);
+            return 0;
+        }
+    }
+
+    /**
+     * Unmap memory that was mapped by {@link #mapExplicit(long)} or {@link #mapTransparent(long)}.
+     */
+    public static void unmap(long address, long length) {
+        try {
+            munmap(address, length);
+        } catch (LastErrorException ignore) {
+            // There is nothing we can do about memory we cannot give back.
+        }
+    }
+
+    private static long readHugePageSize() throws IOException {
+        String kibiBytes = readMemoryInfo("Hugepagesize:");
+        return kibiBytes == null ? DEFAULT_HUGE_PAGE_SIZE : Long.parseLong(kibiBytes) * 1024;
+    }
+
+    private static long readTransparentHugePageSize() throws IOException {
+        return Files.exists(TRANSPARENT_HUGE_PAGE_SIZE)
+                ? Long.parseLong(Files.readString(TRANSPARENT_HUGE_PAGE_SIZE).trim())
+                : DEFAULT_HUGE_PAGE_SIZE;
+    }
+
+    private static String readMemoryInfo(String field) throws IOException {
+        if (Files.exists(MEMORY_INFO)) {
+            for (String line : Files.readAllLines(MEMORY_INFO)) {
+                if (line.startsWith(field)) {
+                    return line.substring(field.length()).trim().split("\\s+")[0];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The setting looks like {@code always [madvise] never}, with the active mode in brackets.
+     */
+    private static boolean readTransparentHugePagesEnabled() throws IOException {
+        return Files.exists(TRANSPARENT_HUGE_PAGES)
+                && !Files.readString(TRANSPARENT_HUGE_PAGES).contains("[never]");
+    }
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static java.lang.Boolean.getBoolean;
+import static org.neo4j.internal.nativeimpl.LinuxErrorTranslator.EINTR;
+import static org.neo4j.internal.nativeimpl.MemoryMappings.PROT_READ_WRITE;
+import static org.neo4j.internal.nativeimpl.MemoryMappings.mmap;
+import static org.neo4j.internal.nativeimpl.MemoryMappings.munmap;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A minimal Linux io_uring instance, for submitting batches of vectored positional reads and writes, and fsyncs, with a
+ * single system call, and then waiting for all of them to complete.
+ * <p>
+ * The ring is set up and driven through raw system calls, so it does not depend on liburing being installed.
+ * An instance is not thread safe: a single thread at a time prepares a batch, and then submits and awaits it.
+ * Pools of rings can be used to share them between threads.
+ * <p>
+ * Whether io_uring can be used at all, depends on the kernel version and on the seccomp profile of the process,
+ * so {@link #isAvailable()} must be checked before creating any rings.
+ */
+public final class IoUring implements AutoCloseable {
+    private static final boolean DISABLE_IO_URING = getBoolean(IoUring.class.getName() + ".disable");
+
+    private static final long SYS_IO_URING_SETUP = 425;
+    private static final long SYS_IO_URING_ENTER = 426;
+    private static final int IORING_ENTER_GETEVENTS = 1;
+
+    private static final byte IORING_OP_READV = 1;
+    private static final byte IORING_OP_WRITEV = 2;
+    private static final byte IORING_OP_FSYNC = 3;
+    private static final byte IOSQE_IO_DRAIN = 1 << 1;
+
+    private static final long IORING_OFF_SQ_RING = 0L;
+    private static final long IORING_OFF_CQ_RING = 0x8000000L;
+    private static final long IORING_OFF_SQES = 0x10000000L;
+
+    private static final int MAP_SHARED_POPULATE = 0x01 | 0x8000;
+
+    private static final int PARAMS_SIZE = 120;
+    private static final int SQ_OFFSETS = 40;
+    private static final int CQ_OFFSETS = 80;
+    private static final int SQE_SIZE = 64;
+    private static final int CQE_SIZE = 16;
+    private static final int IOVEC_SIZE = 16;
+    private static final long AWAIT_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final boolean AVAILABLE;
+
+    static {
+        boolean available = false;
+        try {
+            if (!DISABLE_IO_URING && MemoryMappings.isAvailable()) {
+                Native.register(Platform.C_LIBRARY_NAME);
+                try (IoUring ignore = new IoUring(1, 1)) {
+                    available = true;
+                }
+            }
+        } catch (Throwable ignore) {
+            // Either the kernel is too old, or io_uring is blocked for this process. Users must fall back to
+            // synchronous IO.
+        }
+        AVAILABLE = available;
+    }
+
+    private final int ringFd;
+    private final int entries;
+    private final int maxVectors;
+    private final long sqRing;
+    private final long sqRingSize;
+    private final long cqRing;
+    private final long cqRingSize;
+    private final long sqes;
+    private final long sqesSize;
+    private final long iovecs;
+
+    private final long sqHead;
+    private final long sqTail;
+    private final int sqMask;
+    private final long sqArray;
+    private final long cqHead;
+    private final long cqTail;
+    private final int cqMask;
+    private final long cqes;
+
+    private int prepared;
+    private boolean closed;
+
+    private static native long syscall(long number, long a1, long a2, long a3, long a4, long a5, long a6)
+            throws LastErrorException;
+
+    private static native int close(int fd) throws LastErrorException;
+
+    /**
+     * @return {@code true} if io_uring rings can be created in this process.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Create a new ring.
+     *
+     * @param entries the maximum number of operations that can be prepared for a single submission.
+     * @param maxVectors the maximum number of buffers in the IO vector of a single read or write operation.
+     * @return the new ring.
+     * @throws IOException if io_uring is not available, or the ring could not be set up.
+     */
+    public static IoUring create(int entries, int maxVectors) throws IOException {
+        if (!AVAILABLE) {
+            throw new IOException("io_uring is not available.");
+        }
+        try {
+            return new IoUring(entries, maxVectors);
+        } catch (LastErrorException e) {
+            throw new IOException("Failed to set up io_uring with " + entries + " entries.", e);
+        }
+    }
+
+    private IoUring(int entries, int maxVectors) {
+        long params = Native.malloc(PARAMS_SIZE);
+        if (params == 0) {
+            throw new OutOfMemoryError("Could not allocate io_uring parameters.");
+        }
+        int fd = -1;
+        long sq = 0;
+        long sqSize = 0;
+        long cq = 0;
+        long cqSize = 0;
+        long sqesAddress = 0;
+        long sqesLength = 0;
+        long iovecsAddress = 0;
+        try {
+            Pointer p = new Pointer(params);
+            p.setMemory(0, PARAMS_SIZE, (byte) 0);
+            fd = (int) syscall(SYS_IO_URING_SETUP, entries, params, 0, 0, 0, 0);
+
+            int sqEntries = p.getInt(0);
+            int cqEntries = p.getInt(4);
+            sqSize = p.getInt(SQ_OFFSETS + 24) + (long) sqEntries * Integer.BYTES;
+            sq = mmap(0, sqSize, PROT_READ_WRITE, MAP_SHARED_POPULATE, fd, IORING_OFF_SQ_RING);
+            cqSize = p.getInt(CQ_OFFSETS + 20) + (long) cqEntries * CQE_SIZE;
+            cq = mmap(0, cqSize, PROT_READ_WRITE, MAP_SHARED_POPULATE, fd, IORING_OFF_CQ_RING);
+            sqesLength = (long) sqEntries * SQE_SIZE;
+            sqesAddress = mmap(0, sqesLength, PROT_READ_WRITE, MAP_SHARED_POPULATE, fd, IORING_OFF_SQES);
+            iovecsAddress = Native.malloc((long) sqEntries * maxVectors * IOVEC_SIZE);
+            if (iovecsAddress == 0) {
+                throw new OutOfMemoryError("Could not allocate io_uring IO vectors.");
+            }
+
+            this.entries = Math.min(entries, sqEntries);
+            this.sqHead = sq + p.getInt(SQ_OFFSETS);
+            this.sqTail = sq + p.getInt(SQ_OFFSETS + 4);
+            this.sqMask = new Pointer(sq + p.getInt(SQ_OFFSETS + 8)).getInt(0);
+            this.sqArray = sq + p.getInt(SQ_OFFSETS + 24);
+            this.cqHead = cq + p.getInt(CQ_OFFSETS);
+            this.cqTail = cq + p.getInt(CQ_OFFSETS + 4);
+            this.cqMask = new Pointer(cq + p.getInt(CQ_OFFSETS + 8)).getInt(0);
+            this.cqes = cq + p.getInt(CQ_OFFSETS + 20);
+        } catch (RuntimeException | Error e) {
+            if (iovecsAddress != 0) {
+                Native.free(iovecsAddress);
+            }
+            unmapQuietly(sqesAddress, sqesLength);
+            unmapQuietly(cq, cqSize);
+            unmapQuietly(sq, sqSize);
+            if (fd >= 0) {
+                close(fd);
+            }
+            throw e;
+        } finally {
+            Native.free(params);
+        }
+        this.ringFd = fd;
+        this.maxVectors = maxVectors;
+        this.sqRing = sq;
+        this.sqRingSize = sqSize;
+        this.cqRing = cq;
+        this.cqRingSize = cqSize;
+        this.sqes = sqesAddress;
+        this.sqesSize = sqesLength;
+        this.iovecs = iovecsAddress;
+    }
+
+    /**
+     * @return the maximum number of operations that can be prepared for a single submission.
+     */
+    public int entries() {
+        return entries;
+    }
+
+    /**
+     * @return the maximum number of buffers in the IO vector of a single read or write operation.
+     */
+    public int maxVectors() {
+        return maxVectors;
+    }
+
+    /**
+     * @return the number of operations that can still be prepared before the ring must be submitted.
+     */
+    public int remaining() {
+        return entries - prepared;
+    }
+
+    /**
+     * Prepare a positional vectored read into the given buffers.
+     *
+     * @param fd the file descriptor to read from.
+     * @param fileOffset the position in the file to start reading from.
+     * @param bufferAddresses the addresses of the buffers to read into.
+     * @param bufferLengths the lengths of the buffers to read into.
+     * @param from the index of the first buffer in the arrays to read into.
+     * @param count the number of buffers to read into, at most {@link #maxVectors()}.
+     * @param userData the value to identify the completion of this operation by.
+     */
+    public void prepareRead(
+            int fd, long fileOffset, long[] bufferAddresses, int[] bufferLengths, int from, int count, long userData) {
+        prepareVectored(IORING_OP_READV, fd, fileOffset, bufferAddresses, bufferLengths, from, count, userData);
+    }
+
+    /**
+     * Prepare a positional vectored write from the given buffers.
+     *
+     * @param fd the file descriptor to write to.
+     * @param fileOffset the position in the file to start writing at.
+     * @param bufferAddresses the addresses of the buffers to write from.
+     * @param bufferLengths the lengths of the buffers to write from.
+     * @param from the index of the first buffer in the arrays to write from.
+     * @param count the number of buffers to write from, at most {@link #maxVectors()}.
+     * @param userData the value to identify the completion of this operation by.
+     */
+    public void prepareWrite(
+            int fd, long fileOffset, long[] bufferAddresses, int[] bufferLengths, int from, int count, long userData) {
+        prepareVectored(IORING_OP_WRITEV, fd, fileOffset, bufferAddresses, bufferLengths, from, count, userData);
+    }
+
+    /**
+     * Prepare an fsync of the given file, that will only start once all previously prepared operations have completed.
+     *
+     * @param fd the file descriptor of the file to fsync.
+     * @param userData the value to identify the completion of this operation by.
+     */
+    public void prepareFsync(int fd, long userData) {
+        long sqe = nextSqe();
+        Pointer p = new Pointer(sqe);
+        p.setByte(0, IORING_OP_FSYNC);
+        p.setByte(1, IOSQE_IO_DRAIN);
+        p.setInt(4, fd);
+        p.setLong(32, userData);
+    }
+
+    private void prepareVectored(
+            byte opcode,
+            int fd,
+            long fileOffset,
+            long[] bufferAddresses,
+            int[] bufferLengths,
+            int from,
+            int count,
+            long userData) {
+        if (count <= 0 || count > maxVectors) {
+            throw new IllegalArgumentException(
+                    "IO vector must have between 1 and " + maxVectors + " buffers, but had " + count + ".");
+        }
+        int index = (int) ((getTail() + prepared) & sqMask);
+        long iovec = iovecs + (long) index * maxVectors * IOVEC_SIZE;
+        Pointer vectors = new Pointer(iovec);
+        for (int i = 0; i < count; i++) {
+            vectors.setLong((long) i * IOVEC_SIZE, bufferAddresses[from + i]);
+            vectors.setLong((long) i * IOVEC_SIZE + Long.BYTES, bufferLengths[from + i]);
+        }
+        long sqe = nextSqe();
+        Pointer p = new Pointer(sqe);
+        p.setByte(0, opcode);
+        p.setInt(4, fd);
+        p.setLong(8, fileOffset);
+        p.setLong(16, iovec);
+        p.setInt(24, count);
+        p.setLong(32, userData);
+    }
+
+    private long nextSqe() {
+        ensureOpen();
+        if (prepared == entries) {
+            throw new IllegalStateException("All " + entries + " entries of the ring have already been prepared.");
+        }
+        int tail = getTail();
+        int index = (tail + prepared) & sqMask;
+        long sqe = sqes + (long) index * SQE_SIZE;
+        new Pointer(sqe).setMemory(0, SQE_SIZE, (byte) 0);
+        new Pointer(sqArray).setInt((long) index * Integer.BYTES, index);
+        prepared++;
+        return sqe;
+    }
+
+    /**
+     * Submit all the prepared operations, and wait for all of them to complete.
+     *
+     * @param userData receives the user data of each completed operation, in completion order.
+     * @param results receives the result of each completed operation: the number of bytes transferred, or a negated
+     * error number.
+     * @return the number of completed operations, which is the number of operations that were prepared.
+     * @throws IOException if the operations could not be submitted, or waiting for them failed. Operations that the
+     * kernel did not take are withdrawn, and the ones it did take have completed, by the time this is thrown, so none
+     * of the buffers are in use by the ring anymore.
+     */
+    public int submitAndAwait(long[] userData, int[] results) throws IOException {
+        ensureOpen();
+        int toComplete = prepared;
+        if (toComplete == 0) {
+            return 0;
+        }
+        VarHandle.releaseFence();
+        new Pointer(sqTail).setInt(0, getTail() + prepared);
+        prepared = 0;
+        VarHandle.fullFence();
+
+        int toSubmit = toComplete;
+        int completed = 0;
+        while (completed < toComplete) {
+            int inFlight = toComplete - completed;
+            try {
+                int submitted =
+                        (int) syscall(SYS_IO_URING_ENTER, ringFd, toSubmit, inFlight, IORING_ENTER_GETEVENTS, 0, 0);
+                toSubmit -= submitted;
+            } catch (LastErrorException e) {
+                if (e.getErrorCode() != EINTR) {
+                    int submitted = toComplete - withdrawUnsubmitted();
+                    awaitCompletions(submitted, completed, userData, results);
+                    throw new IOException("Failed to submit or await io_uring operations.", e);
+                }
+            }
+            completed += reapCompletions(userData, results, completed);
+        }
+        return completed;
+    }
+
+    /**
+     * Take back the operations that the kernel has not taken from the submission queue yet. The kernel only takes
+     * operations inside io_uring_enter, so this is safe to do in between calls.
+     *
+     * @return the number of withdrawn operations.
+     */
+    private int withdrawUnsubmitted() {
+        int head = new Pointer(sqHead).getInt(0);
+        VarHandle.acquireFence();
+        int tail = getTail();
+        new Pointer(sqTail).setInt(0, head);
+        VarHandle.fullFence();
+        return tail - head;
+    }
+
+    /**
+     * Wait until the given number of operations have completed, no matter what. The completions are posted to the
+     * completion queue by the kernel whether we wait for them in io_uring_enter or not, so if waiting fails, we poll.
+     */
+    private void awaitCompletions(int toComplete, int completed, long[] userData, int[] results) {
+        while (completed < toComplete) {
+            try {
+                syscall(SYS_IO_URING_ENTER, ringFd, 0, toComplete - completed, IORING_ENTER_GETEVENTS, 0, 0);
+            } catch (LastErrorException e) {
+                LockSupport.parkNanos(AWAIT_POLL_NANOS);
+            }
+            completed += reapCompletions(userData, results, completed);
+        }
+    }
+
+    private int reapCompletions(long[] userData, int[] results, int offset) {
+        Pointer headPointer = new Pointer(cqHead);
+        int head = headPointer.getInt(0);
+        int tail = new Pointer(cqTail).getInt(0);
+        VarHandle.acquireFence();
+        int reaped = 0;
+        while (head != tail) {
+            Pointer cqe = new Pointer(cqes + (long) (head & cqMask) * CQE_SIZE);
+            userData[offset + reaped] = cqe.getLong(0);
+            results[offset + reaped] = cqe.getInt(8);
+            reaped++;
+            head++;
+        }
+        VarHandle.releaseFence();
+        headPointer.setInt(0, head);
+        return reaped;
+    }
+
+    private int getTail() {
+        return new Pointer(sqTail).getInt(0);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The ring has been closed.");
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Native.free(iovecs);
+        unmapQuietly(sqes, sqesSize);
+        unmapQuietly(cqRing, cqRingSize);
+        unmapQuietly(sqRing, sqRingSize);
+        close(ringFd);
+    }
+
+    private static void unmapQuietly(long address, long size) {
+        if (address != 0 && size != 0) {
+            munmap(address, size);
+        }
+    }
+}
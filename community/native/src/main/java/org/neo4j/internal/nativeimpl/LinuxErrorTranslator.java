@@ -30,6 +30,8 @@ public class LinuxErrorTranslator implements ErrorTranslator {
     static final int EINVAL = 22;
     // Numerical result out of range
     static final int ERANGE = 34;
+    // Interrupted system call
+    static final int EINTR = 4;
 
     @Override
     public boolean isOutOfDiskSpace(NativeCallResult callResult) {
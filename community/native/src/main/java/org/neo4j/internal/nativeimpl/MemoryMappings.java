@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+
+/**
+ * The memory mapping calls of the C library, shared by the native helpers that map memory themselves.
+ */
+final class MemoryMappings {
+    static final int PROT_READ_WRITE = 0x1 | 0x2;
+    static final long MAP_FAILED = -1;
+
+    private static final boolean AVAILABLE;
+
+    static {
+        boolean available = false;
+        try {
+            if (Platform.isLinux() && Platform.is64Bit()) {
+                Native.register(Platform.C_LIBRARY_NAME);
+                available = true;
+            }
+        } catch (Throwable ignore) {
+            // Without the memory mapping calls, none of the helpers that use them are available.
+        }
+        AVAILABLE = available;
+    }
+
+    private MemoryMappings() {}
+
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    static native long mmap(long address, long length, int prot, int flags, int fd, long offset)
+            throws LastErrorException;
+
+    static native int munmap(long address, long length) throws LastErrorException;
+
+    static native int madvise(long address, long length, int advice) throws LastErrorException;
+}
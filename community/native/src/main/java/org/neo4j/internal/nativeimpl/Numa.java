@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static java.lang.Boolean.getBoolean;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Placement of native memory on the NUMA nodes of the machine, through the Linux memory policy system calls.
+ * <p>
+ * The policies only apply to memory that has not yet been touched, or is moved by the kernel when possible, so memory
+ * should be placed right after it has been allocated. All methods are best effort: on machines with a single node,
+ * on other operating systems, or when the system calls are blocked for this process, nothing is placed, and the
+ * memory ends up wherever the kernel puts it.
+ */
+public final class Numa {
+    private static final boolean DISABLE_NUMA = getBoolean(Numa.class.getName() + ".disable");
+
+    private static final Path ONLINE_NODES = Path.of("/sys/devices/system/node/online");
+
+    private static final long SYS_MBIND_X86_64 = 237;
+    private static final long SYS_GETCPU_X86_64 = 309;
+    private static final long SYS_MBIND_AARCH64 = 235;
+    private static final long SYS_GETCPU_AARCH64 = 168;
+
+    private static final int MPOL_PREFERRED = 1;
+    private static final int MPOL_INTERLEAVE = 3;
+    private static final int MPOL_MF_MOVE = 1 << 1;
+
+    // The number of calls to currentNode after which a thread asks the kernel for its node again, in case it has been
+    // moved to another node in the meantime.
+    private static final int NODE_REFRESH_INTERVAL = 1024;
+    private static final ThreadLocal<CurrentNode> CURRENT_NODE = ThreadLocal.withInitial(CurrentNode::new);
+
+    private static final boolean AVAILABLE;
+    private static final int NODE_COUNT;
+    private static final long SYS_MBIND;
+    private static final long SYS_GETCPU;
+
+    static {
+        boolean available = false;
+        int nodeCount = 1;
+        long mbind = -1;
+        long getcpu = -1;
+        try {
+            if (!DISABLE_NUMA && Platform.isLinux()) {
+                // The system call numbers differ between architectures, so on any architecture we do not know the
+                // numbers of, memory is not placed at all.
+                switch (Platform.ARCH) {
+                    case "x86-64" -> {
+                        mbind = SYS_MBIND_X86_64;
+                        getcpu = SYS_GETCPU_X86_64;
+                    }
+                    case "aarch64" -> {
+                        mbind = SYS_MBIND_AARCH64;
+                        getcpu = SYS_GETCPU_AARCH64;
+                    }
+                    default -> {}
+                }
+                if (mbind != -1) {
+                    Native.register(Platform.C_LIBRARY_NAME);
+                    // Make sure the system calls are not blocked, before we rely on them.
+                    syscall(getcpu, null, new int[1], 0);
+                    nodeCount = readNodeCount();
+                    available = true;
+                }
+            }
+        } catch (Throwable ignore) {
+            // Without the memory policy system calls, memory is placed by the default policy of the kernel.
+        }
+        AVAILABLE = available;
+        NODE_COUNT = nodeCount;
+        SYS_MBIND = mbind;
+        SYS_GETCPU = getcpu;
+    }
+
+    private Numa() {}
+
+    private static native long syscall(long number, int[] cpu, int[] node, long unused) throws LastErrorException;
+
+    private static native long syscall(
+            long number, long address, long length, long mode, long[] nodeMask, long maxNode, long flags)
+            throws LastErrorException;
+
+    /**
+     * @return {@code true} if memory can be placed on specific nodes in this process.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * @return the number of NUMA nodes of this machine, or {@code 1} if memory cannot be placed on specific nodes.
+     */
+    public static int nodeCount() {
+        return NODE_COUNT;
+    }
+
+    /**
+     * @return the NUMA node of the CPU that the calling thread is currently running on, or {@code 0} if that cannot be
+     * determined. The thread can be moved to another node at any time, so this is only a hint. The node is cached per
+     * thread, and only looked up again every {@value #NODE_REFRESH_INTERVAL} calls.
+     */
+    public static int currentNode() {
+        if (!AVAILABLE || NODE_COUNT == 1) {
+            return 0;
+        }
+        return CURRENT_NODE.get().get();
+    }
+
+    /**
+     * Place the given memory on the given node. The kernel falls back to other nodes when the node runs out of
+     * memory, rather than failing allocations.
+     *
+     * @param address the start of the memory, which must be aligned to the operating system page size.
+     * @param length the length of the memory, in bytes.
+     * @param node the node to place the memory on.
+     * @return {@code true} if the memory policy was applied.
+     */
+    public static boolean bindToNode(long address, long length, int node) {
+        if (!AVAILABLE || node < 0 || node >= NODE_COUNT) {
+            return false;
+        }
+        long[] nodeMask = new long[(NODE_COUNT + Long.SIZE - 1) / Long.SIZE];
+        nodeMask[node / Long.SIZE] = 1L << (node % Long.SIZE);
+        return mbind(address, length, MPOL_PREFERRED, nodeMask);
+    }
+
+    /**
+     * Spread the pages of the given memory evenly over all nodes.
+     *
+     * @param address the start of the memory, which must be aligned to the operating system page size.
+     * @param length the length of the memory, in bytes.
+     * @return {@code true} if the memory policy was applied.
+     */
+    public static boolean interleave(long address, long length) {
+        if (!AVAILABLE) {
+            return false;
+        }
+        long[] nodeMask = new long[(NODE_COUNT + Long.SIZE - 1) / Long.SIZE];
+        for (int node = 0; node < NODE_COUNT; node++) {
+            nodeMask[node / Long.SIZE] |= 1L << (node % Long.SIZE);
+        }
+        return mbind(address, length, MPOL_INTERLEAVE, nodeMask);
+    }
+
+    private static boolean mbind(long address, long length, int mode, long[] nodeMask) {
+        if (length <= 0) {
+            return false;
+        }
+        try {
+            // The kernel ignores the last bit of the mask, so we tell it about one more bit than we have.
+            syscall(SYS_MBIND, address, length, mode, nodeMask, (long) nodeMask.length * Long.SIZE + 1, MPOL_MF_MOVE);
+            return true;
+        } catch (LastErrorException e) {
+            return false;
+        }
+    }
+
+    private static final class CurrentNode {
+        private final int[] node = new int[1];
+        private int callsUntilRefresh;
+
+        int get() {
+            if (--callsUntilRefresh < 0) {
+                callsUntilRefresh = NODE_REFRESH_INTERVAL;
+                try {
+                    syscall(SYS_GETCPU, null, node, 0);
+                } catch (LastErrorException e) {
+                    node[0] = 0;
+                }
+            }
+            return node[0];
+        }
+    }
+
+    /**
+     * The online nodes are listed as ranges, like {@code 0-1,3}, and the node ids can have gaps, so we count up to
+     * the highest node id.
+     */
+    private static int readNodeCount() throws IOException {
+        if (!Files.exists(ONLINE_NODES)) {
+            return 1;
+        }
+        int highestNode = 0;
+        for (String range : Files.readString(ONLINE_NODES).trim().split(",")) {
+            int dash = range.indexOf('-');
+            String last = dash == -1 ? range : range.substring(dash + 1);
+            highestNode = Math.max(highestNode, Integer.parseInt(last.trim()));
+        }
+        return highestNode + 1;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+@EnabledOnOs(OS.LINUX)
+class HugePagesTest {
+    @Test
+    void hugePageSizeMustBeAPowerOfTwo() {
+        assertThat(Long.bitCount(HugePages.hugePageSize())).isOne();
+        assertThat(Long.bitCount(HugePages.transparentHugePageSize())).isOne();
+    }
+
+    @Test
+    void transparentMappingsMustBeAlignedToTheHugePageSize() {
+        assumeTrue(HugePages.isTransparentAvailable(), "Transparent huge pages are not available in this environment");
+        long length = 2 * HugePages.transparentHugePageSize();
+        long address = HugePages.mapTransparent(length);
+        assertThat(address).isNotZero();
+        try {
+            assertThat(address % HugePages.transparentHugePageSize()).isZero();
+            new Pointer(address).setMemory(0, length, (byte) 1);
+            assertThat(new Pointer(address).getByte(length - 1)).isEqualTo((byte) 1);
+        } finally {
+            HugePages.unmap(address, length);
+        }
+    }
+
+    @Test
+    void explicitMappingsMustFailWhenThePoolIsTooSmall() {
+        assumeTrue(HugePages.isAvailable(), "Huge pages are not available in this environment");
+        long free = HugePages.explicitPagesFree();
+        long length = (free + 1) * HugePages.hugePageSize();
+        assertThat(HugePages.mapExplicit(length)).isZero();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apache.commons.lang3.reflect.FieldUtils.getDeclaredField;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import java.io.FileDescriptor;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+@EnabledOnOs(OS.LINUX)
+class IoUringTest {
+    private static final int BUFFER_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private long buffers;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(IoUring.isAvailable(), "io_uring is not available in this environment");
+        buffers = Native.malloc(4 * BUFFER_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (buffers != 0) {
+            Native.free(buffers);
+        }
+    }
+
+    @Test
+    void mustWriteAndReadBatchesOfVectors() throws Exception {
+        Path file = directory.resolve("file");
+        long[] addresses = {buffers, buffers + BUFFER_SIZE, buffers + 2 * BUFFER_SIZE, buffers + 3 * BUFFER_SIZE};
+        int[] lengths = {BUFFER_SIZE, BUFFER_SIZE, BUFFER_SIZE, BUFFER_SIZE};
+        for (int i = 0; i < addresses.length; i++) {
+            new Pointer(addresses[i]).setMemory(0, BUFFER_SIZE, (byte) (i + 1));
+        }
+        long[] userData = new long[8];
+        int[] results = new int[8];
+
+        try (IoUring ring = IoUring.create(8, 2);
+                FileChannel channel = FileChannel.open(file, READ, WRITE, CREATE)) {
+            int fd = getDescriptor(channel);
+            ring.prepareWrite(fd, 0, addresses, lengths, 0, 2, 1);
+            ring.prepareWrite(fd, 4 * BUFFER_SIZE, addresses, lengths, 2, 2, 2);
+            ring.prepareFsync(fd, 3);
+            assertThat(ring.remaining()).isEqualTo(5);
+
+            assertThat(ring.submitAndAwait(userData, results)).isEqualTo(3);
+            assertThat(ring.remaining()).isEqualTo(8);
+            for (int i = 0; i < 3; i++) {
+                assertThat(results[i]).isEqualTo(userData[i] == 3 ? 0 : 2 * BUFFER_SIZE);
+            }
+            assertThat(Files.size(file)).isEqualTo(6L * BUFFER_SIZE);
+
+            new Pointer(buffers).setMemory(0, 4L * BUFFER_SIZE, (byte) 0);
+            ring.prepareRead(fd, 4 * BUFFER_SIZE, addresses, lengths, 0, 2, 4);
+            ring.prepareRead(fd, 0, addresses, lengths, 2, 2, 5);
+            assertThat(ring.submitAndAwait(userData, results)).isEqualTo(2);
+            assertThat(results[0]).isEqualTo(2 * BUFFER_SIZE);
+            assertThat(results[1]).isEqualTo(2 * BUFFER_SIZE);
+
+            assertThat(new Pointer(addresses[0]).getByte(0)).isEqualTo((byte) 3);
+            assertThat(new Pointer(addresses[1]).getByte(BUFFER_SIZE - 1)).isEqualTo((byte) 4);
+            assertThat(new Pointer(addresses[2]).getByte(0)).isEqualTo((byte) 1);
+            assertThat(new Pointer(addresses[3]).getByte(BUFFER_SIZE - 1)).isEqualTo((byte) 2);
+        }
+    }
+
+    @Test
+    void mustReportErrorsAsNegativeResults() throws Exception {
+        long[] userData = new long[1];
+        int[] results = new int[1];
+        try (IoUring ring = IoUring.create(1, 1)) {
+            ring.prepareRead(-1, 0, new long[] {buffers}, new int[] {BUFFER_SIZE}, 0, 1, 42);
+            assertThat(ring.submitAndAwait(userData, results)).isEqualTo(1);
+            assertThat(userData[0]).isEqualTo(42);
+            assertThat(results[0]).isNegative();
+        }
+    }
+
+    @Test
+    void mustNotPrepareMoreThanRingEntriesOrMaxVectors() throws Exception {
+        try (IoUring ring = IoUring.create(1, 1)) {
+            long[] addresses = {buffers, buffers + BUFFER_SIZE};
+            int[] lengths = {BUFFER_SIZE, BUFFER_SIZE};
+            assertThatThrownBy(() -> ring.prepareRead(0, 0, addresses, lengths, 0, 2, 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+            ring.prepareFsync(0, 1);
+            assertThatThrownBy(() -> ring.prepareFsync(0, 2)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private static int getDescriptor(FileChannel channel) throws ClassNotFoundException, IllegalAccessException {
+        Class<?> fileChannelImpl = Class.forName("sun.nio.ch.FileChannelImpl");
+        FileDescriptor fd =
+                (FileDescriptor) getDeclaredField(fileChannelImpl, "fd", true).get(channel);
+        return getDeclaredField(FileDescriptor.class, "fd", true).getInt(fd);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+@EnabledOnOs(OS.LINUX)
+class NumaTest {
+    private static final int OS_PAGE_SIZE = 4096;
+
+    @Test
+    void currentNodeMustBeOneOfTheNodes() {
+        assertThat(Numa.nodeCount()).isPositive();
+        assertThat(Numa.currentNode()).isBetween(0, Numa.nodeCount() - 1);
+    }
+
+    @Test
+    void currentNodeMustStayOneOfTheNodesWhenItIsLookedUpAgain() {
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(Numa.currentNode()).isBetween(0, Numa.nodeCount() - 1);
+        }
+    }
+
+    @Test
+    void mustPlaceMemoryOnNodes() {
+        assumeTrue(Numa.isAvailable(), "NUMA memory policies are not available in this environment");
+        long length = 16L * OS_PAGE_SIZE;
+        long allocation = Native.malloc(length + OS_PAGE_SIZE);
+        try {
+            long address = allocation + OS_PAGE_SIZE - (allocation % OS_PAGE_SIZE);
+            assertThat(Numa.bindToNode(address, length / 2, Numa.nodeCount() - 1))
+                    .isTrue();
+            assertThat(Numa.interleave(address + length / 2, length / 2)).isTrue();
+            new Pointer(address).setMemory(0, length, (byte) 1);
+            assertThat(new Pointer(address).getByte(length - 1)).isEqualTo((byte) 1);
+        } finally {
+            Native.free(allocation);
+        }
+    }
+
+    @Test
+    void mustNotPlaceMemoryOnNodesThatDoNotExist() {
+        assertThat(Numa.bindToNode(0, OS_PAGE_SIZE, Numa.nodeCount())).isFalse();
+        assertThat(Numa.bindToNode(0, OS_PAGE_SIZE, -1)).isFalse();
+    }
+}
@@ -56,7 +56,11 @@ public abstract class AbstractDatabaseContextFactory<DB> implements DatabaseCont
     }
 
     public static Supplier<Locks> createLockSupplier(GlobalModule globalModule, LocksFactory lockFactory) {
-        return () -> createLockManager(lockFactory, globalModule.getGlobalConfig(), globalModule.getGlobalClock());
+        return () -> createLockManager(
+                lockFactory,
+                globalModule.getGlobalConfig(),
+                globalModule.getGlobalClock(),
+                globalModule.getJobScheduler());
     }
 
     public static TokenHolders createTokenHolderProvider(Supplier<Kernel> kernelSupplier) {
@@ -27,6 +27,7 @@ import org.neo4j.kernel.impl.locking.LocksFactory;
 import org.neo4j.kernel.impl.locking.forseti.ForsetiLocksFactory;
 import org.neo4j.logging.InternalLog;
 import org.neo4j.logging.internal.LogService;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.service.Services;
 import org.neo4j.time.SystemNanoClock;
 
@@ -35,8 +36,9 @@ public final class EditionLocksFactories {
 
     private EditionLocksFactories() {}
 
-    public static Locks createLockManager(LocksFactory locksFactory, Config config, SystemNanoClock clock) {
-        return locksFactory.newInstance(config, clock);
+    public static Locks createLockManager(
+            LocksFactory locksFactory, Config config, SystemNanoClock clock, JobScheduler jobScheduler) {
+        return locksFactory.newInstance(config, clock, jobScheduler);
     }
 
     public static LocksFactory createLockFactory(Config config, LogService logService) {
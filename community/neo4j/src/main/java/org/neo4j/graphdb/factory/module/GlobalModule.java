@@ -24,6 +24,7 @@ import static org.neo4j.configuration.GraphDatabaseSettings.TransactionStateMemo
 import static org.neo4j.configuration.GraphDatabaseSettings.filewatcher_enabled;
 import static org.neo4j.configuration.GraphDatabaseSettings.memory_tracking;
 import static org.neo4j.configuration.GraphDatabaseSettings.memory_transaction_global_max_size;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_enabled;
 import static org.neo4j.configuration.GraphDatabaseSettings.tx_state_max_off_heap_memory;
 import static org.neo4j.configuration.GraphDatabaseSettings.tx_state_memory_allocation;
 import static org.neo4j.configuration.GraphDatabaseSettings.tx_state_off_heap_block_cache_size;
@@ -62,6 +63,7 @@ import org.neo4j.io.fs.watcher.FileWatcher;
 import org.neo4j.io.layout.Neo4jLayout;
 import org.neo4j.io.locker.Locker;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
 import org.neo4j.kernel.availability.CompositeDatabaseAvailabilityGuard;
 import org.neo4j.kernel.diagnostics.providers.DbmsDiagnosticsManager;
 import org.neo4j.kernel.extension.ExtensionFactory;
@@ -73,6 +75,7 @@ import org.neo4j.kernel.impl.factory.DbmsInfo;
 import org.neo4j.kernel.impl.pagecache.ConfiguringPageCacheFactory;
 import org.neo4j.kernel.impl.pagecache.IOControllerService;
 import org.neo4j.kernel.impl.pagecache.PageCacheLifecycle;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmerLifecycle;
 import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
 import org.neo4j.kernel.impl.security.URLAccessRules;
 import org.neo4j.kernel.impl.util.collection.CachingOffHeapBlockAllocator;
@@ -237,6 +240,19 @@ public class GlobalModule {
                         fileSystem, globalConfig, logService, tracers, jobScheduler, globalClock, memoryPools));
 
         globalLife.add(new PageCacheLifecycle(pageCache));
+        // The setting is enabled by default for the benefit of Enterprise Edition, so here the warmer is opt-in.
+        if (pageCache instanceof MuninnPageCache muninnPageCache
+                && globalConfig.isExplicitlySet(pagecache_warmup_enabled)
+                && globalConfig.get(pagecache_warmup_enabled)) {
+            globalLife.add(new PageCacheWarmerLifecycle(
+                    muninnPageCache,
+                    fileSystem,
+                    jobScheduler,
+                    globalClock,
+                    neo4jLayout.dataDirectory(),
+                    globalConfig,
+                    globalMonitors));
+        }
 
         dbmsDiagnosticsManager = new DbmsDiagnosticsManager(globalDependencies, logService);
         globalDependencies.satisfyDependency(dbmsDiagnosticsManager);
@@ -34,6 +34,7 @@ import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.kernel.impl.locking.LocksFactory;
 import org.neo4j.kernel.impl.locking.forseti.ForsetiLocksFactory;
 import org.neo4j.logging.internal.NullLogService;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.time.Clocks;
 import org.neo4j.time.SystemNanoClock;
 
@@ -44,10 +45,11 @@ class EditionLocksFactoriesTest {
         LocksFactory lockFactory = mock(LocksFactory.class);
         Config config = Config.defaults();
         SystemNanoClock clock = Clocks.nanoClock();
+        JobScheduler jobScheduler = mock(JobScheduler.class);
 
-        createLockManager(lockFactory, config, clock);
+        createLockManager(lockFactory, config, clock, jobScheduler);
 
-        verify(lockFactory).newInstance(eq(config), eq(clock));
+        verify(lockFactory).newInstance(eq(config), eq(clock), eq(jobScheduler));
     }
 
     @Test
@@ -144,9 +144,10 @@ public class PropertyCreator {
         // along the way. If we didn't then just create a new record, it's fine
         PropertyRecord freeHost;
         if (freeHostProxy == null) {
-            // We couldn't find free space along the way, so create a new host record
+            // We couldn't find free space along the way, so create a new host record, preferably close to the
+            // current first record of the chain since the new one will be linked in front of it
             freeHost = propertyRecords
-                    .create(propertyStore.nextId(cursorContext), primitive, cursorContext)
+                    .create(propertyStore.nextId(primitive.getNextProp(), cursorContext), primitive, cursorContext)
                     .forChangingData();
             freeHost.setInUse(true);
             if (primitive.getNextProp() != Record.NO_NEXT_PROPERTY.intValue()) {
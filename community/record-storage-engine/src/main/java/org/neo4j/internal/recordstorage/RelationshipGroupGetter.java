@@ -110,7 +110,10 @@ public class RelationshipGroupGetter {
         if (change == null) {
             NodeRecord node = nodeChange.forReadingLinkage();
             assert node.isDense() : "Node " + node + " should have been dense at this point";
-            long id = idGenerator.nextId(cursorContext);
+            // Prefer an id close to the group this one will be linked in after, or to the first group of the node
+            RecordProxy<RelationshipGroupRecord, Integer> closestPreviousChange = existingGroup.closestPrevious();
+            long nearId = closestPreviousChange != null ? closestPreviousChange.getKey() : node.getNextRel();
+            long id = idGenerator.nextId(nearId, cursorContext);
             change = relGroupRecords.create(id, type, cursorContext);
             RelationshipGroupRecord record = change.forChangingData();
             record.setInUse(true);
@@ -118,7 +121,6 @@ public class RelationshipGroupGetter {
             record.setOwningNode(node.getId());
 
             // Attach it...
-            RecordProxy<RelationshipGroupRecord, Integer> closestPreviousChange = existingGroup.closestPrevious();
             if (closestPreviousChange != null) { // ...after the closest previous one
                 RelationshipGroupRecord closestPrevious = closestPreviousChange.forChangingLinkage();
 
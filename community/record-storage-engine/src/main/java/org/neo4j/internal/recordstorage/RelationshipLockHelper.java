@@ -298,23 +298,29 @@ final class RelationshipLockHelper {
     }
 
     private static void lockRelationshipsExclusively(ResourceLocker locker, long[] ids) {
-        long lastId = NULL_REFERENCE.longValue();
-        for (long id : ids) {
-            if (id != lastId) {
-                locker.acquireExclusive(NONE, RELATIONSHIP, id);
-            }
-            lastId = id;
-        }
+        // All in one call, so that the locker can acquire the uncontended ones in one go
+        locker.acquireExclusive(NONE, RELATIONSHIP, uniqueIds(ids));
     }
 
     private static void unlockRelationshipsExclusively(ResourceLocker locker, long[] ids) {
+        locker.releaseExclusive(RELATIONSHIP, uniqueIds(ids));
+    }
+
+    /**
+     * @param sortedIds sorted ids, possibly with repeats and {@code NULL} references.
+     * @return the distinct ids, without {@code NULL} references, in order.
+     */
+    private static long[] uniqueIds(long[] sortedIds) {
+        long[] uniqueIds = new long[sortedIds.length];
+        int count = 0;
         long lastId = NULL_REFERENCE.longValue();
-        for (long id : ids) {
+        for (long id : sortedIds) {
             if (id != lastId) {
-                locker.releaseExclusive(RELATIONSHIP, id);
+                uniqueIds[count++] = id;
             }
             lastId = id;
         }
+        return count == uniqueIds.length ? uniqueIds : Arrays.copyOf(uniqueIds, count);
     }
 
     /**
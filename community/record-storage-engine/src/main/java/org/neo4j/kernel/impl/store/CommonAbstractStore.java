@@ -494,6 +494,12 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord, HEA
         return idGenerator.nextId(cursorContext);
     }
 
+    @Override
+    public long nextId(long nearId, CursorContext cursorContext) {
+        assertIdGeneratorInitialized();
+        return idGenerator.nextId(nearId, cursorContext);
+    }
+
     private void assertIdGeneratorInitialized() {
         if (idGenerator == null) {
             throw new IllegalStateException("IdGenerator is not initialized");
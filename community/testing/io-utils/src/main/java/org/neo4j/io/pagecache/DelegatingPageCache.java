@@ -87,4 +87,10 @@ public class DelegatingPageCache implements PageCache {
     public void flushAndForce(DatabaseFlushEvent flushEvent) throws IOException {
         delegate.flushAndForce(flushEvent);
     }
+
+    @Override
+    public void flushDirtyPages(List<PagedFile> files, IOController ioController, DatabaseFlushEvent flushEvent)
+            throws IOException {
+        delegate.flushDirtyPages(files, ioController, flushEvent);
+    }
 }
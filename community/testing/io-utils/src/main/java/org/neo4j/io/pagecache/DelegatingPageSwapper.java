@@ -45,6 +45,12 @@ public class DelegatingPageSwapper implements PageSwapper {
         return delegate.read(filePageId, bufferAddress, bufferLength);
     }
 
+    @Override
+    public long read(long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length)
+            throws IOException {
+        return delegate.read(startFilePageId, bufferAddresses, bufferLengths, length);
+    }
+
     @Override
     public void close() throws IOException {
         delegate.close();
@@ -121,4 +127,22 @@ public class DelegatingPageSwapper implements PageSwapper {
             throws IOException {
         return delegate.write(startFilePageId, bufferAddresses, bufferLengths, length, totalAffectedPages);
     }
+
+    @Override
+    public long write(
+            long[] startFilePageIds,
+            int[] vectorLengths,
+            int vectors,
+            long[] bufferAddresses,
+            int[] bufferLengths,
+            int totalAffectedPages)
+            throws IOException {
+        return delegate.write(
+                startFilePageIds, vectorLengths, vectors, bufferAddresses, bufferLengths, totalAffectedPages);
+    }
+
+    @Override
+    public boolean canBatchWrites() {
+        return delegate.canBatchWrites();
+    }
 }
@@ -254,6 +254,23 @@ public final class UnsafeUtil {
         memoryTracker.releaseNative(bytes);
     }
 
+    /**
+     * Account for memory that was not allocated with {@link #allocateMemory}, like memory mapped directly from the
+     * operating system, so it is tracked and covered by the native access checks like any other allocation.
+     */
+    public static void registerAllocation(long pointer, long bytes, MemoryTracker memoryTracker) {
+        memoryTracker.allocateNative(bytes);
+        addAllocatedPointer(pointer, bytes);
+    }
+
+    /**
+     * Stop accounting for memory that was registered with {@link #registerAllocation}, right before it is released.
+     */
+    public static void unregisterAllocation(long pointer, long bytes, MemoryTracker memoryTracker) {
+        checkFree(pointer);
+        memoryTracker.releaseNative(bytes);
+    }
+
     private static void addAllocatedPointer(long pointer, long sizeInBytes) {
         if (CHECK_NATIVE_ACCESS) {
             allocations.put(pointer, new Allocation(pointer, sizeInBytes, freeCounter.get()));
@@ -25,7 +25,11 @@ import org.neo4j.kernel.impl.transaction.log.entry.v50.DetachedCheckpointLogEntr
 
 public class LogEntryParserSetV5_0 extends LogEntryParserSetV4_4 {
     LogEntryParserSetV5_0() {
-        super(KernelVersion.V5_0);
+        this(KernelVersion.V5_0);
+    }
+
+    LogEntryParserSetV5_0(KernelVersion version) {
+        super(version);
         register(new DetachedCheckpointLogEntryParserV5_0());
     }
 
@@ -34,4 +34,13 @@ public class LogEntryTypeCodes {
 
     // Checkpoint that contains transaction info (tx id, checksum, commit timestamp)
     public static final byte DETACHED_CHECK_POINT_V5_0 = (byte) 9;
+
+    // The command entries of a transaction, compressed into one entry
+    public static final byte COMPRESSED_COMMANDS = (byte) 10;
+
+    // Marks the end of a chunk of command entries of a transaction that is written to the log in chunks
+    public static final byte CHUNK_END = (byte) 11;
+
+    // Ends a transaction that was written to the log in chunks, but was rolled back before it was committed
+    public static final byte TX_ROLLBACK = (byte) 12;
 }
@@ -24,15 +24,22 @@ import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
 import java.io.IOException;
 import org.neo4j.io.fs.PositionableChannel;
 import org.neo4j.io.fs.ReadPastEndException;
+import org.neo4j.io.fs.ReadableChecksumChannel;
 import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
 import org.neo4j.kernel.impl.transaction.log.ReadableClosablePositionAwareChecksumChannel;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.CommandsChannel;
+import org.neo4j.kernel.impl.transaction.log.entry.v51.LogEntryCompressedCommandsV5_1;
 import org.neo4j.storageengine.api.CommandReaderFactory;
+import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.util.FeatureToggles;
 
 /**
  * Reads {@link LogEntry log entries} off of a channel. Supported versions can be read intermixed.
+ * <p>
+ * Compressed command entries are decompressed transparently, i.e. the command entries contained in them are returned
+ * one by one, as if they had been written uncompressed.
  */
 public class VersionAwareLogEntryReader implements LogEntryReader {
     private static final boolean VERIFY_CHECKSUM_CHAIN =
@@ -42,6 +49,8 @@ public class VersionAwareLogEntryReader implements LogEntryReader {
     private final boolean verifyChecksumChain;
     private LogEntryParserSet parserSet;
     private int lastTxChecksum = BASE_TX_CHECKSUM;
+    private CommandsChannel compressedCommands;
+    private LogPosition compressedCommandsEnd;
 
     public VersionAwareLogEntryReader(CommandReaderFactory commandReaderFactory) {
         this(commandReaderFactory, true);
@@ -57,6 +66,13 @@ public class VersionAwareLogEntryReader implements LogEntryReader {
     public LogEntry readLogEntry(ReadableClosablePositionAwareChecksumChannel channel) throws IOException {
         try {
             channel.getCurrentPosition(positionMarker);
+            if (compressedCommands != null) {
+                if (compressedCommands.hasRemaining() && compressedCommandsEnd.equals(positionMarker.newPosition())) {
+                    return readCompressedCommand();
+                }
+                compressedCommands = null;
+                compressedCommandsEnd = null;
+            }
 
             byte versionCode = channel.get();
             if (versionCode == 0) {
@@ -104,23 +120,11 @@ public class VersionAwareLogEntryReader implements LogEntryReader {
 
             byte typeCode = channel.get();
 
-            LogEntry entry;
-            try {
-                var entryReader = parserSet.select(typeCode);
-                entry = entryReader.parse(
-                        parserSet.getIntroductionVersion(),
-                        parserSet.wrap(channel),
-                        positionMarker,
-                        commandReaderFactory);
-            } catch (ReadPastEndException e) { // Make these exceptions slip by straight out to the outer handler
-                throw e;
-            } catch (Exception e) { // Tag all other exceptions with log position and other useful information
-                LogPosition position = positionMarker.newPosition();
-                var message = e.getMessage() + ". At position " + position + " and entry version " + versionCode;
-                if (e instanceof UnsupportedLogVersionException) {
-                    throw new UnsupportedLogVersionException(message, e);
-                }
-                throw new IOException(message, e);
+            LogEntry entry = parseEntry(versionCode, typeCode, channel);
+            if (entry instanceof LogEntryCompressedCommandsV5_1 compressedEntry) {
+                compressedCommands = compressedEntry.commandsChannel();
+                compressedCommandsEnd = channel.getCurrentPosition();
+                return readCompressedCommand();
             }
 
             verifyChecksumChain(entry);
@@ -130,6 +134,47 @@ public class VersionAwareLogEntryReader implements LogEntryReader {
         }
     }
 
+    private LogEntry readCompressedCommand() throws IOException {
+        // A compressed commands entry only holds command entries, of the same version as the compressed entry itself
+        byte versionCode = compressedCommands.get();
+        byte typeCode = compressedCommands.get();
+        KernelVersion version = parserSet.getIntroductionVersion();
+        try {
+            if (versionCode != version.version() || typeCode != LogEntryTypeCodes.COMMAND) {
+                throw new IOException("Compressed commands entry contains an entry of type " + typeCode
+                        + " and version " + versionCode);
+            }
+            StorageCommand command = commandReaderFactory.get(version).read(compressedCommands);
+            return command == null ? null : new LogEntryCommand(version, command);
+        } catch (Exception e) {
+            throw tagWithPosition(e, versionCode);
+        }
+    }
+
+    private LogEntry parseEntry(byte versionCode, byte typeCode, ReadableChecksumChannel channel) throws IOException {
+        try {
+            var entryReader = parserSet.select(typeCode);
+            return entryReader.parse(
+                    parserSet.getIntroductionVersion(), parserSet.wrap(channel), positionMarker, commandReaderFactory);
+        } catch (ReadPastEndException e) { // Make these exceptions slip by straight out to the outer handler
+            throw e;
+        } catch (Exception e) {
+            throw tagWithPosition(e, versionCode);
+        }
+    }
+
+    /**
+     * Tag an exception from parsing an entry with log position and other useful information.
+     */
+    private IOException tagWithPosition(Exception e, byte versionCode) {
+        LogPosition position = positionMarker.newPosition();
+        var message = e.getMessage() + ". At position " + position + " and entry version " + versionCode;
+        if (e instanceof UnsupportedLogVersionException) {
+            throw new UnsupportedLogVersionException(message, e);
+        }
+        return new IOException(message, e);
+    }
+
     private void verifyChecksumChain(LogEntry e) {
         if (VERIFY_CHECKSUM_CHAIN && verifyChecksumChain) {
             if (e instanceof LogEntryStart) {
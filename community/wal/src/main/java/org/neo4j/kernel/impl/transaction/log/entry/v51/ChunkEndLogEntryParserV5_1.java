@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry.v51;
+
+import java.io.IOException;
+import org.neo4j.io.fs.ReadableChecksumChannel;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryParser;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes;
+import org.neo4j.storageengine.api.CommandReaderFactory;
+
+public class ChunkEndLogEntryParserV5_1 extends LogEntryParser {
+    public ChunkEndLogEntryParserV5_1() {
+        super(LogEntryTypeCodes.CHUNK_END);
+    }
+
+    @Override
+    public LogEntry parse(
+            KernelVersion version,
+            ReadableChecksumChannel channel,
+            LogPositionMarker marker,
+            CommandReaderFactory commandReaderFactory)
+            throws IOException {
+        int chunkId = channel.getInt();
+        if (chunkId < 0) {
+            throw new IOException("Invalid chunk end entry with chunk id " + chunkId);
+        }
+        return new LogEntryChunkEndV5_1(version, chunkId);
+    }
+}
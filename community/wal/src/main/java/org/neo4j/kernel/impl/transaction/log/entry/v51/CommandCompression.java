@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry.v51;
+
+import java.io.IOException;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Compression of the serialized command entries of a transaction, for the
+ * {@link org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes#COMPRESSED_COMMANDS compressed commands} entry.
+ */
+public final class CommandCompression {
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR =
+            LZ4Factory.fastestInstance().fastDecompressor();
+
+    /**
+     * A compressed byte expands to at most this many bytes, since every byte of a match length extends it by 255.
+     */
+    private static final int MAX_COMPRESSION_RATIO = 255;
+
+    private CommandCompression() {}
+
+    /**
+     * @param length number of bytes to compress.
+     * @return the size of a buffer that is large enough to compress {@code length} bytes into.
+     */
+    public static int maxCompressedLength(int length) {
+        return COMPRESSOR.maxCompressedLength(length);
+    }
+
+    /**
+     * @param compressedLength number of compressed bytes.
+     * @return the largest number of bytes that {@code compressedLength} compressed bytes can decompress to.
+     */
+    static long maxUncompressedLength(int compressedLength) {
+        return (long) compressedLength * MAX_COMPRESSION_RATIO;
+    }
+
+    /**
+     * Compress {@code length} bytes of {@code source} into {@code target}, which must be at least
+     * {@link #maxCompressedLength(int)} bytes large.
+     *
+     * @return the number of compressed bytes written to {@code target}.
+     */
+    public static int compress(byte[] source, int length, byte[] target) {
+        return COMPRESSOR.compress(source, 0, length, target, 0, target.length);
+    }
+
+    static byte[] decompress(byte[] source, int uncompressedLength) throws IOException {
+        byte[] target = new byte[uncompressedLength];
+        try {
+            int read = DECOMPRESSOR.decompress(source, 0, target, 0, uncompressedLength);
+            if (read != source.length) {
+                throw new IOException("Compressed commands were " + source.length + " bytes, but only " + read
+                        + " bytes were decompressed");
+            }
+        } catch (LZ4Exception e) {
+            throw new IOException("Unable to decompress commands", e);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry.v51;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.neo4j.io.fs.WritableChannel;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * Growable heap buffer that the command entries of a transaction are serialized into, to decide whether to write
+ * them {@link CommandCompression compressed} or not. Meant to be reused between transactions by a single writer.
+ * Buffers that grew past {@link #MAX_RETAINED_CAPACITY} for a large transaction are dropped again on {@link #clear()}.
+ */
+public class CommandsBuffer implements WritableChannel {
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private final MemoryTracker memoryTracker;
+    private ByteBuffer buffer;
+    private byte[] compressed = NO_BYTES;
+    private int compressedLength;
+
+    public CommandsBuffer(MemoryTracker memoryTracker) {
+        this.memoryTracker = memoryTracker;
+        this.buffer = allocate(INITIAL_CAPACITY);
+    }
+
+    public void clear() {
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            memoryTracker.releaseHeap(buffer.capacity());
+            buffer = allocate(INITIAL_CAPACITY);
+        } else {
+            buffer.clear();
+        }
+        if (compressed.length > MAX_RETAINED_CAPACITY) {
+            memoryTracker.releaseHeap(compressed.length);
+            compressed = NO_BYTES;
+        }
+        compressedLength = 0;
+    }
+
+    public int length() {
+        return buffer.position();
+    }
+
+    public byte[] array() {
+        return buffer.array();
+    }
+
+    /**
+     * Compress the content of this buffer, available through {@link #compressedArray()} afterwards.
+     *
+     * @return the number of compressed bytes.
+     */
+    public int compress() {
+        int maxLength = CommandCompression.maxCompressedLength(length());
+        if (compressed.length < maxLength) {
+            memoryTracker.allocateHeap(maxLength);
+            memoryTracker.releaseHeap(compressed.length);
+            compressed = new byte[maxLength];
+        }
+        compressedLength = CommandCompression.compress(buffer.array(), length(), compressed);
+        return compressedLength;
+    }
+
+    public byte[] compressedArray() {
+        return compressed;
+    }
+
+    @Override
+    public CommandsBuffer put(byte value) {
+        ensureCapacity(Byte.BYTES).put(value);
+        return this;
+    }
+
+    @Override
+    public CommandsBuffer putShort(short value) {
+        ensureCapacity(Short.BYTES).putShort(value);
+        return this;
+    }
+
+    @Override
+    public CommandsBuffer putInt(int value) {
+        ensureCapacity(Integer.BYTES).putInt(value);
+        return this;
+    }
+
+    @Override
+    public CommandsBuffer putLong(long value) {
+        ensureCapacity(Long.BYTES).putLong(value);
+        return this;
+    }
+
+    @Override
+    public CommandsBuffer putFloat(float value) {
+        ensureCapacity(Float.BYTES).putFloat(value);
+        return this;
+    }
+
+    @Override
+    public CommandsBuffer putDouble(double value) {
+        ensureCapacity(Double.BYTES).putDouble(value);
+        return this;
+    }
+
+    @Override
+    public CommandsBuffer put(byte[] value, int offset, int length) {
+        ensureCapacity(length).put(value, offset, length);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        memoryTracker.releaseHeap(buffer.capacity() + (long) compressed.length);
+        buffer = ByteBuffer.allocate(0);
+        compressed = NO_BYTES;
+    }
+
+    private ByteBuffer ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            long required = (long) buffer.position() + bytes;
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, 2L * buffer.capacity()));
+            ByteBuffer grown = allocate(capacity);
+            memoryTracker.releaseHeap(buffer.capacity());
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+        return buffer;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        memoryTracker.allocateHeap(capacity);
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry.v51;
+
+import java.io.IOException;
+import java.util.Arrays;
+import org.neo4j.io.fs.ReadableChecksumChannel;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryParser;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes;
+import org.neo4j.storageengine.api.CommandReaderFactory;
+
+public class CompressedCommandsLogEntryParserV5_1 extends LogEntryParser {
+    private static final int READ_CHUNK_SIZE = 1 << 20;
+
+    public CompressedCommandsLogEntryParserV5_1() {
+        super(LogEntryTypeCodes.COMPRESSED_COMMANDS);
+    }
+
+    @Override
+    public LogEntry parse(
+            KernelVersion version,
+            ReadableChecksumChannel channel,
+            LogPositionMarker marker,
+            CommandReaderFactory commandReaderFactory)
+            throws IOException {
+        int uncompressedLength = channel.getInt();
+        int compressedLength = channel.getInt();
+        if (uncompressedLength <= 0
+                || compressedLength <= 0
+                || uncompressedLength > CommandCompression.maxUncompressedLength(compressedLength)
+                || compressedLength > CommandCompression.maxCompressedLength(uncompressedLength)) {
+            throw new IOException("Invalid compressed commands entry with uncompressed length " + uncompressedLength
+                    + " and compressed length " + compressedLength);
+        }
+        return new LogEntryCompressedCommandsV5_1(
+                version, CommandCompression.decompress(readCompressed(channel, compressedLength), uncompressedLength));
+    }
+
+    /**
+     * Read the compressed bytes in bounded chunks, so that a corrupt length runs into the end of the log before
+     * anything near that length is allocated.
+     */
+    private static byte[] readCompressed(ReadableChecksumChannel channel, int compressedLength) throws IOException {
+        byte[] compressed = new byte[Math.min(compressedLength, READ_CHUNK_SIZE)];
+        channel.get(compressed, compressed.length);
+        int read = compressed.length;
+        byte[] chunk = read < compressedLength ? new byte[READ_CHUNK_SIZE] : null;
+        while (read < compressedLength) {
+            int length = Math.min(compressedLength - read, READ_CHUNK_SIZE);
+            channel.get(chunk, length);
+            if (compressed.length < read + length) {
+                compressed = Arrays.copyOf(compressed, (int) Math.min(compressedLength, 2L * compressed.length));
+            }
+            System.arraycopy(chunk, 0, compressed, read, length);
+            read += length;
+        }
+        return compressed;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry.v51;
+
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.CHUNK_END;
+
+import java.util.Objects;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.entry.AbstractLogEntry;
+
+/**
+ * Marks the end of a chunk of command entries of a transaction that is written to the log in chunks. Chunks of a
+ * transaction are numbered from {@code 0} and are always written contiguously, between the start entry of the
+ * transaction and its commit or rollback entry.
+ */
+public class LogEntryChunkEndV5_1 extends AbstractLogEntry {
+    private final int chunkId;
+
+    public LogEntryChunkEndV5_1(KernelVersion version, int chunkId) {
+        super(version, CHUNK_END);
+        this.chunkId = chunkId;
+    }
+
+    public int getChunkId() {
+        return chunkId;
+    }
+
+    @Override
+    public String toString() {
+        return "ChunkEnd[chunkId=" + chunkId + "]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LogEntryChunkEndV5_1 that = (LogEntryChunkEndV5_1) o;
+        return chunkId == that.chunkId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(chunkId);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry.v51;
+
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.COMPRESSED_COMMANDS;
+
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.entry.AbstractLogEntry;
+
+/**
+ * The command entries of a transaction, decompressed. This entry is never handed out by the log entry reader,
+ * which reads the command entries contained in it instead.
+ */
+public class LogEntryCompressedCommandsV5_1 extends AbstractLogEntry {
+    private final byte[] commands;
+
+    public LogEntryCompressedCommandsV5_1(KernelVersion version, byte[] commands) {
+        super(version, COMPRESSED_COMMANDS);
+        this.commands = commands;
+    }
+
+    /**
+     * @return a channel to read the contained command entries from, including their entry headers.
+     */
+    public CommandsChannel commandsChannel() {
+        return new CommandsChannel(commands);
+    }
+
+    @Override
+    public String toString() {
+        return "LogEntryCompressedCommandsV5_1{" + "version=" + getVersion() + ", length=" + commands.length + '}';
+    }
+}
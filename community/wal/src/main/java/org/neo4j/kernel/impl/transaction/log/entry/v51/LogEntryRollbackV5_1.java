@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry.v51;
+
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_ROLLBACK;
+
+import java.util.Objects;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.entry.AbstractLogEntry;
+
+/**
+ * Ends a transaction that was written to the log in chunks, but was rolled back before it was committed. The
+ * transaction has no transaction id and its commands must not be applied. Like a commit entry it ends the checksum
+ * of the transaction, but its checksum is not part of the checksum chain of committed transactions.
+ */
+public class LogEntryRollbackV5_1 extends AbstractLogEntry {
+    private final long timeWritten;
+    private final int checksum;
+
+    public LogEntryRollbackV5_1(KernelVersion version, long timeWritten, int checksum) {
+        super(version, TX_ROLLBACK);
+        this.timeWritten = timeWritten;
+        this.checksum = checksum;
+    }
+
+    public long getTimeWritten() {
+        return timeWritten;
+    }
+
+    public int getChecksum() {
+        return checksum;
+    }
+
+    @Override
+    public String toString() {
+        return "Rollback[" + timestamp(timeWritten) + ", checksum=" + checksum + "]";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LogEntryRollbackV5_1 that = (LogEntryRollbackV5_1) o;
+        return timeWritten == that.timeWritten && checksum == that.checksum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timeWritten, checksum);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry.v51;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.io.ByteUnit.kibiBytes;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.memory.LocalMemoryTracker;
+
+class CommandsBufferTest {
+    private final LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+
+    @Test
+    void shouldTrackItsBuffersUntilClosed() {
+        // given
+        CommandsBuffer buffer = new CommandsBuffer(memoryTracker);
+        long initialHeap = memoryTracker.estimatedHeapMemory();
+
+        // when
+        write(buffer, (int) mebiBytes(2));
+        buffer.compress();
+
+        // then
+        assertThat(initialHeap).isPositive();
+        assertThat(memoryTracker.estimatedHeapMemory()).isGreaterThan(mebiBytes(2));
+
+        // when
+        buffer.close();
+
+        // then
+        assertThat(memoryTracker.estimatedHeapMemory()).isZero();
+    }
+
+    @Test
+    void shouldDropBuffersThatGrewLargeOnClear() {
+        // given
+        CommandsBuffer buffer = new CommandsBuffer(memoryTracker);
+        long initialHeap = memoryTracker.estimatedHeapMemory();
+        write(buffer, (int) mebiBytes(2));
+        buffer.compress();
+
+        // when
+        buffer.clear();
+
+        // then
+        assertThat(buffer.length()).isZero();
+        assertThat(memoryTracker.estimatedHeapMemory()).isEqualTo(initialHeap);
+    }
+
+    @Test
+    void shouldKeepSmallBuffersOnClear() {
+        // given
+        CommandsBuffer buffer = new CommandsBuffer(memoryTracker);
+        write(buffer, (int) kibiBytes(100));
+        buffer.compress();
+        byte[] array = buffer.array();
+        byte[] compressed = buffer.compressedArray();
+        long heap = memoryTracker.estimatedHeapMemory();
+
+        // when
+        buffer.clear();
+
+        // then
+        assertThat(buffer.length()).isZero();
+        assertThat(buffer.array()).isSameAs(array);
+        assertThat(buffer.compressedArray()).isSameAs(compressed);
+        assertThat(memoryTracker.estimatedHeapMemory()).isEqualTo(heap);
+    }
+
+    private static void write(CommandsBuffer buffer, int length) {
+        byte[] chunk = new byte[1024];
+        for (int written = 0; written < length; written += chunk.length) {
+            buffer.put(chunk, 0, chunk.length);
+        }
+    }
+}